@@ -0,0 +1,27 @@
+package com.dbsync.cache;
+
+import java.io.IOException;
+
+/**
+ * Encoding of cached payloads in the SQLite store
+ * 
+ * The codec name is recorded per entry in cache_data.compression_type, so entries written
+ * with different codecs (or before compression was enabled) can be read side by side.
+ */
+public interface CacheCodec {
+    
+    /**
+     * Name stored in cache_data.compression_type
+     */
+    String getName();
+    
+    /**
+     * Encode serialized (JSON) bytes for storage
+     */
+    byte[] encode(byte[] data) throws IOException;
+    
+    /**
+     * Restore the serialized bytes from stored content
+     */
+    byte[] decode(byte[] data) throws IOException;
+}
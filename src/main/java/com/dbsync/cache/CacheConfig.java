@@ -24,6 +24,10 @@ public class CacheConfig {
     private int maxCacheSize = 1000;
     private int cleanupIntervalMinutes = 30;
     private boolean enableCompression = false;
+    private int compressionMinBytes = 1024;
+    private boolean memoryCacheEnabled = true;
+    private int memoryCacheMaxSizeMb = 64;
+    private int hitCountFlushSeconds = 30;
     
     private final ApplicationContext applicationContext;
     
@@ -60,6 +64,20 @@ public class CacheConfig {
         }
     }
     
+    /**
+     * Scheduled flush of hit counts aggregated in memory
+     */
+    @Scheduled(fixedDelayString = "#{${dbsync.cache.hit-count-flush-seconds:30} * 1000}")
+    public void flushHitCounts() {
+        if (enabled) {
+            try {
+                applicationContext.getBean(CacheService.class).flushHitCounts();
+            } catch (Exception e) {
+                System.err.println("Error flushing cache hit counts: " + e.getMessage());
+            }
+        }
+    }
+    
     // Getters and Setters
     public boolean isEnabled() {
         return enabled;
@@ -108,4 +126,36 @@ public class CacheConfig {
     public void setEnableCompression(boolean enableCompression) {
         this.enableCompression = enableCompression;
     }
+    
+    public boolean isMemoryCacheEnabled() {
+        return memoryCacheEnabled;
+    }
+    
+    public void setMemoryCacheEnabled(boolean memoryCacheEnabled) {
+        this.memoryCacheEnabled = memoryCacheEnabled;
+    }
+    
+    public int getMemoryCacheMaxSizeMb() {
+        return memoryCacheMaxSizeMb;
+    }
+    
+    public void setMemoryCacheMaxSizeMb(int memoryCacheMaxSizeMb) {
+        this.memoryCacheMaxSizeMb = memoryCacheMaxSizeMb;
+    }
+    
+    public int getHitCountFlushSeconds() {
+        return hitCountFlushSeconds;
+    }
+    
+    public void setHitCountFlushSeconds(int hitCountFlushSeconds) {
+        this.hitCountFlushSeconds = hitCountFlushSeconds;
+    }
+    
+    public int getCompressionMinBytes() {
+        return compressionMinBytes;
+    }
+    
+    public void setCompressionMinBytes(int compressionMinBytes) {
+        this.compressionMinBytes = compressionMinBytes;
+    }
 }
\ No newline at end of file
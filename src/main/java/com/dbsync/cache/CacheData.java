@@ -8,15 +8,18 @@ import java.time.LocalDateTime;
 public class CacheData {
     private Long id;
     private String cacheKey;
-    private String dataContent;
+    private byte[] dataContent;
     private String compressionType;
+    private String checksum;
+    private String cacheType;
+    private String dataSource;
     private LocalDateTime createdAt;
     private LocalDateTime expiresAt;
     
     // Constructors
     public CacheData() {}
     
-    public CacheData(String cacheKey, String dataContent) {
+    public CacheData(String cacheKey, byte[] dataContent) {
         this.cacheKey = cacheKey;
         this.dataContent = dataContent;
         this.compressionType = "none";
@@ -40,11 +43,14 @@ public class CacheData {
         this.cacheKey = cacheKey;
     }
     
-    public String getDataContent() {
+    /**
+     * Stored payload, encoded by the codec named in compressionType
+     */
+    public byte[] getDataContent() {
         return dataContent;
     }
     
-    public void setDataContent(String dataContent) {
+    public void setDataContent(byte[] dataContent) {
         this.dataContent = dataContent;
     }
     
@@ -71,4 +77,28 @@ public class CacheData {
     public void setExpiresAt(LocalDateTime expiresAt) {
         this.expiresAt = expiresAt;
     }
-}
\ No newline at end of file
+    
+    public String getCacheType() {
+        return cacheType;
+    }
+    
+    public void setCacheType(String cacheType) {
+        this.cacheType = cacheType;
+    }
+    
+    public String getDataSource() {
+        return dataSource;
+    }
+    
+    public void setDataSource(String dataSource) {
+        this.dataSource = dataSource;
+    }
+    
+    public String getChecksum() {
+        return checksum;
+    }
+    
+    public void setChecksum(String checksum) {
+        this.checksum = checksum;
+    }
+}
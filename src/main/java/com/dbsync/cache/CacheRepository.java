@@ -5,6 +5,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -14,12 +15,16 @@ import java.util.Optional;
 @Mapper
 public interface CacheRepository {
     
-    @Select("SELECT * FROM cache_data WHERE cache_key = #{cacheKey}")
+    @Select("SELECT d.*, m.cache_type, m.data_source, m.checksum FROM cache_data d " +
+            "LEFT JOIN cache_metadata m ON m.cache_key = d.cache_key WHERE d.cache_key = #{cacheKey}")
     @Results({
         @Result(property = "cacheKey", column = "cache_key"),
         @Result(property = "dataContent", column = "data_content"),
         @Result(property = "compressionType", column = "compression_type"),
-        @Result(property = "createdAt", column = "created_at")
+        @Result(property = "createdAt", column = "created_at"),
+        @Result(property = "cacheType", column = "cache_type"),
+        @Result(property = "dataSource", column = "data_source"),
+        @Result(property = "checksum", column = "checksum")
     })
     Optional<CacheData> findByCacheKey(@Param("cacheKey") String cacheKey);
     
@@ -35,19 +40,33 @@ public interface CacheRepository {
     
     @Insert("INSERT OR REPLACE INTO cache_data " +
             "(cache_key, data_content, compression_type, created_at) " +
-            "VALUES (#{cacheKey}, #{dataContent}, 'none', datetime('now'))")
+            "VALUES (#{cacheKey}, #{dataContent}, #{compressionType}, datetime('now'))")
     void saveCacheData(@Param("cacheKey") String cacheKey,
-                      @Param("dataContent") String dataContent);
+                      @Param("dataContent") byte[] dataContent,
+                      @Param("compressionType") String compressionType);
     
-    default void saveCache(String cacheKey, String cacheType, String dataSource, 
-                          String dataContent, int dataSize, String checksum, LocalDateTime expiresAt) {
-        saveCacheMetadata(cacheKey, cacheType, dataSource, expiresAt, dataSize, checksum);
-        saveCacheData(cacheKey, dataContent);
+    default void saveCache(String cacheKey, String cacheType, String dataSource, byte[] dataContent,
+                          String compressionType, String checksum, LocalDateTime expiresAt) {
+        saveCacheMetadata(cacheKey, cacheType, dataSource, expiresAt, dataContent.length, checksum);
+        // cache_data has no unique key on cache_key, so INSERT OR REPLACE alone would add a second row
+        deleteCacheDataByKey(cacheKey);
+        saveCacheData(cacheKey, dataContent, compressionType);
     }
     
     @Update("UPDATE cache_metadata SET hit_count = hit_count + 1 WHERE cache_key = #{cacheKey}")
     void incrementHitCount(@Param("cacheKey") String cacheKey);
     
+    /**
+     * Add aggregated hit counts (cache key -> hits) to several entries in one statement
+     */
+    @Update({"<script>",
+            "UPDATE cache_metadata SET hit_count = hit_count + CASE cache_key",
+            "<foreach collection='hits' index='cacheKey' item='count'> WHEN #{cacheKey} THEN #{count}</foreach>",
+            " ELSE 0 END WHERE cache_key IN",
+            "<foreach collection='hits' index='cacheKey' open='(' separator=',' close=')'>#{cacheKey}</foreach>",
+            "</script>"})
+    int addHitCounts(@Param("hits") Map<String, Long> hits);
+    
     @Delete("DELETE FROM cache_metadata WHERE cache_key = #{cacheKey}")
     void deleteMetadataByKey(@Param("cacheKey") String cacheKey);
     
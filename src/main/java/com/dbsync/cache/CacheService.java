@@ -1,6 +1,8 @@
 package com.dbsync.cache;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
@@ -8,58 +10,139 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
 
 /**
  * Cache service for managing database query results and metadata
+ * 
+ * Entries are kept deserialized in a bounded in-memory cache (L1, weighted by serialized size,
+ * expiring after the TTL of their {@link CacheType}) in front of the SQLite store (L2), which
+ * keeps them across restarts. Objects returned from the cache are shared between callers and
+ * must be treated as read-only. Hit counts are aggregated in memory and written to
+ * cache_metadata in batches. Payloads larger than the configured threshold are stored
+ * compressed; the codec is recorded per entry and the checksum covers the stored bytes.
  */
 @Service
 public class CacheService {
     
     private static final Logger logger = LoggerFactory.getLogger(CacheService.class);
     
+    /**
+     * Maximum number of keys per hit count UPDATE (keeps bound parameters well below SQLite's limit)
+     */
+    private static final int HIT_COUNT_BATCH_SIZE = 300;
+    
     @Autowired
     private CacheRepository cacheRepository;
     
     @Autowired
     private ObjectMapper objectMapper;
     
+    @Autowired
+    private CacheConfig cacheConfig;
+    
+    @Autowired
+    private List<CacheCodec> codecs;
+    
+    private final Map<String, CacheCodec> codecsByName = new HashMap<>();
+    
+    private Cache<String, MemoryEntry> memoryCache;
+    
+    private final Map<String, LongAdder> pendingHits = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    public void init() {
+        for (CacheCodec codec : codecs) {
+            codecsByName.put(codec.getName(), codec);
+        }
+        if (!cacheConfig.isMemoryCacheEnabled()) {
+            return;
+        }
+        memoryCache = Caffeine.newBuilder()
+                .maximumWeight(cacheConfig.getMemoryCacheMaxSizeMb() * 1024L * 1024L)
+                .weigher((String key, MemoryEntry entry) -> entry.weight)
+                .expireAfter(new Expiry<String, MemoryEntry>() {
+                    @Override
+                    public long expireAfterCreate(String key, MemoryEntry entry, long currentTime) {
+                        return entry.ttlNanos;
+                    }
+                    
+                    @Override
+                    public long expireAfterUpdate(String key, MemoryEntry entry, long currentTime, long currentDuration) {
+                        return entry.ttlNanos;
+                    }
+                    
+                    @Override
+                    public long expireAfterRead(String key, MemoryEntry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+    
     /**
-     * Get cached data by key
+     * Write pending hit counts before shutdown
      */
-    public <T> Optional<T> get(String cacheKey, Class<T> clazz) {
+    @PreDestroy
+    public void destroy() {
         try {
-            Optional<CacheData> cacheData = cacheRepository.findByCacheKey(cacheKey);
-            if (cacheData.isPresent() && !isExpired(cacheData.get())) {
-                // Update hit count
-                cacheRepository.incrementHitCount(cacheKey);
-                
-                String jsonData = cacheData.get().getDataContent();
-                T result = objectMapper.readValue(jsonData, clazz);
-                return Optional.of(result);
-            }
+            flushHitCounts();
         } catch (Exception e) {
-            logger.error("Error retrieving cache for key: {}", cacheKey, e);
+            logger.warn("Error flushing cache hit counts on shutdown", e);
         }
-        return Optional.empty();
+    }
+    
+    /**
+     * Get cached data by key
+     */
+    public <T> Optional<T> get(String cacheKey, Class<T> clazz) {
+        return get(cacheKey, clazz, json -> objectMapper.readValue(json, clazz));
     }
     
     /**
      * Get cached data by key with TypeReference support for generic types
      */
     public <T> Optional<T> get(String cacheKey, TypeReference<T> typeReference) {
+        Class<?> rawClass = objectMapper.getTypeFactory().constructType(typeReference).getRawClass();
+        return get(cacheKey, rawClass, json -> objectMapper.readValue(json, typeReference));
+    }
+    
+    @SuppressWarnings("unchecked")
+    private <T> Optional<T> get(String cacheKey, Class<?> rawClass, JsonReader<T> reader) {
         try {
+            MemoryEntry entry = memoryCache != null ? memoryCache.getIfPresent(cacheKey) : null;
+            if (entry != null && rawClass.isInstance(entry.value)) {
+                recordHit(cacheKey);
+                return Optional.of((T) entry.value);
+            }
+            
             Optional<CacheData> cacheData = cacheRepository.findByCacheKey(cacheKey);
             if (cacheData.isPresent() && !isExpired(cacheData.get())) {
-                // Update hit count
-                cacheRepository.incrementHitCount(cacheKey);
+                recordHit(cacheKey);
                 
-                String jsonData = cacheData.get().getDataContent();
-                T result = objectMapper.readValue(jsonData, typeReference);
+                byte[] jsonData = decode(cacheData.get());
+                if (jsonData == null) {
+                    cacheRepository.deleteByKey(cacheKey);
+                    return Optional.empty();
+                }
+                T result = reader.read(jsonData);
+                putInMemory(cacheKey, result, parseType(cacheData.get().getCacheType()),
+                        cacheData.get().getDataSource(), jsonData.length, 0);
                 return Optional.of(result);
             }
         } catch (Exception e) {
@@ -73,17 +156,29 @@ public class CacheService {
      */
     public <T> void put(String cacheKey, T data, CacheType cacheType, String dataSource, int ttlMinutes) {
         try {
-            String jsonData = objectMapper.writeValueAsString(data);
-            String checksum = calculateChecksum(jsonData);
+            byte[] jsonData = objectMapper.writeValueAsBytes(data);
+            CacheCodec codec = codecsByName.get(PlainCacheCodec.NAME);
+            byte[] content = jsonData;
+            if (cacheConfig.isEnableCompression() && jsonData.length >= cacheConfig.getCompressionMinBytes()) {
+                CacheCodec deflate = codecsByName.get(DeflateCacheCodec.NAME);
+                byte[] compressed = deflate.encode(jsonData);
+                if (compressed.length < jsonData.length) {
+                    codec = deflate;
+                    content = compressed;
+                }
+            }
+            String checksum = calculateChecksum(content);
             
             LocalDateTime expiresAt = ttlMinutes > 0 ? 
                 LocalDateTime.now().plusMinutes(ttlMinutes) : null;
             
             cacheRepository.saveCache(cacheKey, cacheType.name(), dataSource, 
-                jsonData, jsonData.length(), checksum, expiresAt);
+                content, codec.getName(), checksum, expiresAt);
+            putInMemory(cacheKey, data, cacheType, dataSource, jsonData.length, ttlMinutes);
                 
-            logger.debug("Cached data for key: {} (size: {} bytes)", cacheKey, jsonData.length());
-        } catch (JsonProcessingException e) {
+            logger.debug("Cached data for key: {} (size: {} bytes, stored: {} bytes, {})",
+                    cacheKey, jsonData.length, content.length, codec.getName());
+        } catch (IOException e) {
             logger.error("Error serializing data for cache key: {}", cacheKey, e);
         }
     }
@@ -92,6 +187,10 @@ public class CacheService {
      * Remove cache entry
      */
     public void evict(String cacheKey) {
+        if (memoryCache != null) {
+            memoryCache.invalidate(cacheKey);
+        }
+        pendingHits.remove(cacheKey);
         cacheRepository.deleteByKey(cacheKey);
         logger.debug("Evicted cache for key: {}", cacheKey);
     }
@@ -100,6 +199,7 @@ public class CacheService {
      * Clear all cache entries of specific type
      */
     public void evictByType(CacheType cacheType) {
+        evictFromMemory(entry -> entry.cacheType == cacheType);
         cacheRepository.deleteByType(cacheType.name());
         logger.info("Evicted all cache entries of type: {}", cacheType);
     }
@@ -108,6 +208,7 @@ public class CacheService {
      * Clear all cache entries for a data source
      */
     public void evictByDataSource(String dataSource) {
+        evictFromMemory(entry -> dataSource != null && dataSource.equals(entry.dataSource));
         cacheRepository.deleteByDataSource(dataSource);
         logger.info("Evicted all cache entries for data source: {}", dataSource);
     }
@@ -116,6 +217,7 @@ public class CacheService {
      * Get cache statistics
      */
     public CacheStats getStats() {
+        flushHitCounts();
         return cacheRepository.getCacheStats();
     }
     
@@ -132,9 +234,69 @@ public class CacheService {
      * Get cache metadata for monitoring
      */
     public List<CacheMetadata> getCacheMetadata() {
+        flushHitCounts();
         return cacheRepository.getAllCacheMetadata();
     }
     
+    /**
+     * Write hit counts aggregated since the last flush to cache_metadata in batched updates
+     */
+    public void flushHitCounts() {
+        if (pendingHits.isEmpty()) {
+            return;
+        }
+        Map<String, Long> batch = new LinkedHashMap<>();
+        for (String cacheKey : pendingHits.keySet()) {
+            LongAdder adder = pendingHits.remove(cacheKey);
+            long hits = adder != null ? adder.sum() : 0;
+            if (hits > 0) {
+                batch.put(cacheKey, hits);
+            }
+            if (batch.size() >= HIT_COUNT_BATCH_SIZE) {
+                cacheRepository.addHitCounts(batch);
+                batch = new LinkedHashMap<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            cacheRepository.addHitCounts(batch);
+        }
+    }
+    
+    private void recordHit(String cacheKey) {
+        pendingHits.computeIfAbsent(cacheKey, k -> new LongAdder()).increment();
+    }
+    
+    /**
+     * Keep a deserialized value in memory; the TTL is capped by the entry's cache type
+     */
+    private void putInMemory(String cacheKey, Object value, CacheType cacheType, String dataSource,
+                             int weight, int ttlMinutes) {
+        if (memoryCache == null || value == null) {
+            return;
+        }
+        int typeTtl = cacheType != null ? cacheType.getTtlMinutes() : cacheConfig.getDefaultTtlMinutes();
+        int ttl = ttlMinutes > 0 ? Math.min(ttlMinutes, typeTtl) : typeTtl;
+        memoryCache.put(cacheKey, new MemoryEntry(value, cacheType, dataSource, weight,
+                TimeUnit.MINUTES.toNanos(ttl)));
+    }
+    
+    private void evictFromMemory(Predicate<MemoryEntry> filter) {
+        if (memoryCache != null) {
+            memoryCache.asMap().values().removeIf(filter);
+        }
+    }
+    
+    private CacheType parseType(String name) {
+        if (name == null) {
+            return null;
+        }
+        try {
+            return CacheType.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
     /**
      * Check if cache entry is expired
      */
@@ -145,13 +307,39 @@ public class CacheService {
         return LocalDateTime.now().isAfter(cacheData.getExpiresAt());
     }
     
+    /**
+     * Verify the checksum of the stored bytes and decode them with the entry's codec;
+     * returns null when the entry is corrupt or uses an unknown codec
+     */
+    private byte[] decode(CacheData cacheData) throws IOException {
+        byte[] content = cacheData.getDataContent();
+        if (content == null) {
+            return null;
+        }
+        if (cacheData.getChecksum() != null && !cacheData.getChecksum().equals(calculateChecksum(content))) {
+            logger.warn("Checksum mismatch for cache key: {}, discarding entry", cacheData.getCacheKey());
+            return null;
+        }
+        String codecName = cacheData.getCompressionType() != null ? cacheData.getCompressionType() : PlainCacheCodec.NAME;
+        CacheCodec codec = codecsByName.get(codecName);
+        if (codec == null) {
+            logger.warn("Unknown cache codec '{}' for cache key: {}, discarding entry", codecName, cacheData.getCacheKey());
+            return null;
+        }
+        return codec.decode(content);
+    }
+    
     /**
      * Calculate checksum for data integrity
      */
     private String calculateChecksum(String data) {
+        return calculateChecksum(data.getBytes());
+    }
+    
+    private String calculateChecksum(byte[] data) {
         try {
             MessageDigest md = MessageDigest.getInstance("MD5");
-            byte[] hash = md.digest(data.getBytes());
+            byte[] hash = md.digest(data);
             StringBuilder sb = new StringBuilder();
             for (byte b : hash) {
                 sb.append(String.format("%02x", b));
@@ -159,7 +347,7 @@ public class CacheService {
             return sb.toString();
         } catch (NoSuchAlgorithmException e) {
             logger.warn("MD5 algorithm not available, using simple hash", e);
-            return String.valueOf(data.hashCode());
+            return String.valueOf(Arrays.hashCode(data));
         }
     }
     
@@ -185,4 +373,28 @@ public class CacheService {
     public String generateTableSchemaCacheKey(String connectionId, String tableName, String schema) {
         return "schema:" + connectionId + ":" + (schema != null ? schema : "default") + ":" + tableName;
     }
-}
\ No newline at end of file
+    
+    @FunctionalInterface
+    private interface JsonReader<T> {
+        T read(byte[] json) throws Exception;
+    }
+    
+    /**
+     * Deserialized value held in the in-memory cache
+     */
+    private static final class MemoryEntry {
+        private final Object value;
+        private final CacheType cacheType;
+        private final String dataSource;
+        private final int weight;
+        private final long ttlNanos;
+        
+        MemoryEntry(Object value, CacheType cacheType, String dataSource, int weight, long ttlNanos) {
+            this.value = value;
+            this.cacheType = cacheType;
+            this.dataSource = dataSource;
+            this.weight = weight;
+            this.ttlNanos = ttlNanos;
+        }
+    }
+}
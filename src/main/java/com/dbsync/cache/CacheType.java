@@ -4,22 +4,31 @@ package com.dbsync.cache;
  * Cache type enumeration
  */
 public enum CacheType {
-    TABLE_LIST("table_list"),
-    QUERY_RESULT("query_result"),
-    TABLE_SCHEMA("table_schema"),
-    CONNECTION_METADATA("connection_metadata"),
-    DATABASE_SCHEMA("database_schema");
+    TABLE_LIST("table_list", 60),
+    QUERY_RESULT("query_result", 30),
+    TABLE_SCHEMA("table_schema", 120),
+    CONNECTION_METADATA("connection_metadata", 240),
+    DATABASE_SCHEMA("database_schema", 120);
     
     private final String value;
+    private final int ttlMinutes;
     
-    CacheType(String value) {
+    CacheType(String value, int ttlMinutes) {
         this.value = value;
+        this.ttlMinutes = ttlMinutes;
     }
     
     public String getValue() {
         return value;
     }
     
+    /**
+     * Longest time an entry of this type stays in the in-memory cache
+     */
+    public int getTtlMinutes() {
+        return ttlMinutes;
+    }
+    
     @Override
     public String toString() {
         return value;
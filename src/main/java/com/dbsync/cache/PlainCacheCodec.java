@@ -0,0 +1,27 @@
+package com.dbsync.cache;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Stores payloads unchanged (JSON text), the format of entries written without compression
+ */
+@Component
+public class PlainCacheCodec implements CacheCodec {
+    
+    public static final String NAME = "none";
+    
+    @Override
+    public String getName() {
+        return NAME;
+    }
+    
+    @Override
+    public byte[] encode(byte[] data) {
+        return data;
+    }
+    
+    @Override
+    public byte[] decode(byte[] data) {
+        return data;
+    }
+}
@@ -40,6 +40,9 @@ public class AuthDataSourceConfig {
         configuration.addMapper(com.dbsync.dbsync.mapper.auth.DbConnectionMapper.class);
         configuration.addMapper(com.dbsync.dbsync.mapper.auth.SyncTaskMapper.class);
         configuration.addMapper(com.dbsync.dbsync.mapper.auth.SyncTaskLogMapper.class);
+        configuration.addMapper(com.dbsync.dbsync.mapper.auth.SyncTableWatermarkMapper.class);
+        configuration.addMapper(com.dbsync.dbsync.mapper.auth.SyncCdcCheckpointMapper.class);
+        configuration.addMapper(com.dbsync.dbsync.mapper.auth.SyncCopyCheckpointMapper.class);
         configuration.addMapper(com.dbsync.dbsync.mapper.QueryHistoryMapper.class);
 
         bean.setConfiguration(configuration);
@@ -71,6 +74,21 @@ public class AuthDataSourceConfig {
         return authSqlSessionTemplate().getMapper(com.dbsync.dbsync.mapper.auth.SyncTaskLogMapper.class);
     }
 
+    @Bean(name = "syncTableWatermarkMapper")
+    public com.dbsync.dbsync.mapper.auth.SyncTableWatermarkMapper syncTableWatermarkMapper() throws Exception {
+        return authSqlSessionTemplate().getMapper(com.dbsync.dbsync.mapper.auth.SyncTableWatermarkMapper.class);
+    }
+
+    @Bean(name = "syncCdcCheckpointMapper")
+    public com.dbsync.dbsync.mapper.auth.SyncCdcCheckpointMapper syncCdcCheckpointMapper() throws Exception {
+        return authSqlSessionTemplate().getMapper(com.dbsync.dbsync.mapper.auth.SyncCdcCheckpointMapper.class);
+    }
+
+    @Bean(name = "syncCopyCheckpointMapper")
+    public com.dbsync.dbsync.mapper.auth.SyncCopyCheckpointMapper syncCopyCheckpointMapper() throws Exception {
+        return authSqlSessionTemplate().getMapper(com.dbsync.dbsync.mapper.auth.SyncCopyCheckpointMapper.class);
+    }
+
     @Bean(name = "queryHistoryMapper")
     public com.dbsync.dbsync.mapper.QueryHistoryMapper queryHistoryMapper() throws Exception {
         return authSqlSessionTemplate().getMapper(com.dbsync.dbsync.mapper.QueryHistoryMapper.class);
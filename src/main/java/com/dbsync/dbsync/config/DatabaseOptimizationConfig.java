@@ -41,6 +41,11 @@ public class DatabaseOptimizationConfig {
      */
     private int connectionTimeoutMs = 30000;
 
+    /**
+     * 连接池空闲回收时间（分钟），超过该时间未借用且无活动连接的连接池会被关闭
+     */
+    private int poolIdleTimeoutMinutes = 30;
+
     /**
      * 查询超时时间（秒）
      */
@@ -56,6 +61,259 @@ public class DatabaseOptimizationConfig {
      */
     private int metadataTimeoutSeconds = 120;
 
+    /**
+     * 是否启用键集分页（按主键/唯一索引/ROWID/ctid定位下一页，替代OFFSET分页）
+     */
+    private boolean enableKeysetPagination = true;
+
+    /**
+     * 无可用键的表是否使用单次游标流式读取（关闭时退回OFFSET分页）
+     */
+    private boolean enableStreamingRead = true;
+
+    /**
+     * 流式读取时每次网络往返获取的行数（Oracle使用oracle.array-size）
+     */
+    private int streamFetchSize = 1000;
+
+    /**
+     * 读写流水线配置
+     */
+    private PipelineConfig pipeline = new PipelineConfig();
+
+    /**
+     * 自适应批次大小配置
+     */
+    private AdaptiveBatchConfig adaptiveBatch = new AdaptiveBatchConfig();
+
+    /**
+     * 差异同步配置
+     * 启用后目标库已存在的表不再清空重写：按主键区间分块比较两端的行数和校验值，只同步不一致的行（包括删除目标多出的行）。
+     * 不一致的块超过chunkRows行时对半拆分后再比较；无法拆分且超过maxCompareRows行时退回清空后全量复制
+     */
+    public static class DiffConfig {
+        private boolean enabled = false;
+        private int chunkRows = 10000;
+        private long maxCompareRows = 500000;
+
+        // Getters and Setters
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getChunkRows() {
+            return chunkRows;
+        }
+
+        public void setChunkRows(int chunkRows) {
+            this.chunkRows = chunkRows;
+        }
+
+        public long getMaxCompareRows() {
+            return maxCompareRows;
+        }
+
+        public void setMaxCompareRows(long maxCompareRows) {
+            this.maxCompareRows = maxCompareRows;
+        }
+    }
+
+    /**
+     * 同步后数据校验配置
+     * 每张表复制完成后按主键区间分块比较两端的行数和校验值（同类数据库在库内计算），
+     * 每张表用parallelism对连接并行校验；不一致的块拆分到diff.chunk-rows以内后记录到任务进度和日志，
+     * repair开启时只对这些块按行重新同步
+     */
+    public static class VerifyConfig {
+        private boolean enabled = false;
+        private int chunkRows = 100000;
+        private int parallelism = 4;
+        private boolean repair = false;
+
+        // Getters and Setters
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getChunkRows() {
+            return chunkRows;
+        }
+
+        public void setChunkRows(int chunkRows) {
+            this.chunkRows = chunkRows;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public boolean isRepair() {
+            return repair;
+        }
+
+        public void setRepair(boolean repair) {
+            this.repair = repair;
+        }
+    }
+
+    /**
+     * 影子表加载配置
+     * 启用后清空重写的表不再TRUNCATE原表：数据先写入无索引的影子表（表名加__staging），
+     * 写完后按原表的主键和索引在影子表上建索引，再在一个短事务中用改名替换原表，加载期间原表始终可读
+     */
+    public static class StagingSwapConfig {
+        private boolean enabled = false;
+
+        // Getters and Setters
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    /**
+     * 延迟建索引配置
+     * 启用后全量写入已存在的目标表前，先按元数据记录并删除表上的二级索引、主键和相关外键，写完后再按原定义重建，
+     * 避免逐行维护索引；PostgreSQL/Vastbase用buildParallelism个连接同时建多个索引，每个连接调大maintenance_work_mem，
+     * Oracle按oracleParallelDegree并行建单个索引
+     */
+    public static class DeferredIndexConfig {
+        private boolean enabled = false;
+        private boolean foreignKeys = true;
+        private int buildParallelism = 4;
+        private String postgresqlMaintenanceWorkMem = "1GB";
+        private int oracleParallelDegree = 4;
+
+        // Getters and Setters
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isForeignKeys() {
+            return foreignKeys;
+        }
+
+        public void setForeignKeys(boolean foreignKeys) {
+            this.foreignKeys = foreignKeys;
+        }
+
+        public int getBuildParallelism() {
+            return buildParallelism;
+        }
+
+        public void setBuildParallelism(int buildParallelism) {
+            this.buildParallelism = buildParallelism;
+        }
+
+        public String getPostgresqlMaintenanceWorkMem() {
+            return postgresqlMaintenanceWorkMem;
+        }
+
+        public void setPostgresqlMaintenanceWorkMem(String postgresqlMaintenanceWorkMem) {
+            this.postgresqlMaintenanceWorkMem = postgresqlMaintenanceWorkMem;
+        }
+
+        public int getOracleParallelDegree() {
+            return oracleParallelDegree;
+        }
+
+        public void setOracleParallelDegree(int oracleParallelDegree) {
+            this.oracleParallelDegree = oracleParallelDegree;
+        }
+    }
+
+    /**
+     * 元数据快照配置
+     * 每个连接/schema在内存中保存表、列、主键、索引和注释的快照，按checkIntervalSeconds间隔用一条目录查询
+     * 读取各表的变更标记（PostgreSQL的relfilenode/xmin、Oracle的LAST_DDL_TIME、MySQL的CREATE_TIME/UPDATE_TIME、
+     * SQL Server的modify_date），只重新加载标记变化的表；没有变更标记的数据库按检查间隔过期重新加载
+     */
+    public static class SchemaSnapshotConfig {
+        private boolean enabled = true;
+        private int checkIntervalSeconds = 30;
+
+        // Getters and Setters
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getCheckIntervalSeconds() {
+            return checkIntervalSeconds;
+        }
+
+        public void setCheckIntervalSeconds(int checkIntervalSeconds) {
+            this.checkIntervalSeconds = checkIntervalSeconds;
+        }
+    }
+
+    /**
+     * 单表分片并行复制配置
+     */
+    private RangeSplitConfig rangeSplit = new RangeSplitConfig();
+
+    /**
+     * 任务内表级并行调度配置
+     */
+    private SchedulerConfig scheduler = new SchedulerConfig();
+
+    /**
+     * 日志增量捕获配置
+     */
+    private CdcConfig cdc = new CdcConfig();
+
+    /**
+     * 断点续传配置
+     */
+    private ResumeConfig resume = new ResumeConfig();
+
+    /**
+     * 差异同步配置
+     */
+    private DiffConfig diff = new DiffConfig();
+
+    /**
+     * 同步后数据校验配置
+     */
+    private VerifyConfig verify = new VerifyConfig();
+
+    /**
+     * 影子表加载配置
+     */
+    private StagingSwapConfig stagingSwap = new StagingSwapConfig();
+
+    /**
+     * 延迟建索引配置
+     */
+    private DeferredIndexConfig deferredIndex = new DeferredIndexConfig();
+
+    /**
+     * 元数据快照配置
+     */
+    private SchemaSnapshotConfig schemaSnapshot = new SchemaSnapshotConfig();
+
     /**
      * 重试配置
      */
@@ -121,6 +379,14 @@ public class DatabaseOptimizationConfig {
         return connectionTimeoutMs;
     }
 
+    public int getPoolIdleTimeoutMinutes() {
+        return poolIdleTimeoutMinutes;
+    }
+
+    public void setPoolIdleTimeoutMinutes(int poolIdleTimeoutMinutes) {
+        this.poolIdleTimeoutMinutes = poolIdleTimeoutMinutes;
+    }
+
     public void setConnectionTimeoutMs(int connectionTimeoutMs) {
         this.connectionTimeoutMs = connectionTimeoutMs;
     }
@@ -149,6 +415,118 @@ public class DatabaseOptimizationConfig {
         this.metadataTimeoutSeconds = metadataTimeoutSeconds;
     }
 
+    public boolean isEnableKeysetPagination() {
+        return enableKeysetPagination;
+    }
+
+    public void setEnableKeysetPagination(boolean enableKeysetPagination) {
+        this.enableKeysetPagination = enableKeysetPagination;
+    }
+
+    public boolean isEnableStreamingRead() {
+        return enableStreamingRead;
+    }
+
+    public void setEnableStreamingRead(boolean enableStreamingRead) {
+        this.enableStreamingRead = enableStreamingRead;
+    }
+
+    public int getStreamFetchSize() {
+        return streamFetchSize;
+    }
+
+    public void setStreamFetchSize(int streamFetchSize) {
+        this.streamFetchSize = streamFetchSize;
+    }
+
+    public PipelineConfig getPipeline() {
+        return pipeline;
+    }
+
+    public void setPipeline(PipelineConfig pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    public AdaptiveBatchConfig getAdaptiveBatch() {
+        return adaptiveBatch;
+    }
+
+    public void setAdaptiveBatch(AdaptiveBatchConfig adaptiveBatch) {
+        this.adaptiveBatch = adaptiveBatch;
+    }
+
+    public CdcConfig getCdc() {
+        return cdc;
+    }
+
+    public void setCdc(CdcConfig cdc) {
+        this.cdc = cdc;
+    }
+
+    public ResumeConfig getResume() {
+        return resume;
+    }
+
+    public void setResume(ResumeConfig resume) {
+        this.resume = resume;
+    }
+
+    public DiffConfig getDiff() {
+        return diff;
+    }
+
+    public void setDiff(DiffConfig diff) {
+        this.diff = diff;
+    }
+
+    public VerifyConfig getVerify() {
+        return verify;
+    }
+
+    public void setVerify(VerifyConfig verify) {
+        this.verify = verify;
+    }
+
+    public StagingSwapConfig getStagingSwap() {
+        return stagingSwap;
+    }
+
+    public void setStagingSwap(StagingSwapConfig stagingSwap) {
+        this.stagingSwap = stagingSwap;
+    }
+
+    public DeferredIndexConfig getDeferredIndex() {
+        return deferredIndex;
+    }
+
+    public void setDeferredIndex(DeferredIndexConfig deferredIndex) {
+        this.deferredIndex = deferredIndex;
+    }
+
+    public SchemaSnapshotConfig getSchemaSnapshot() {
+        return schemaSnapshot;
+    }
+
+    public void setSchemaSnapshot(SchemaSnapshotConfig schemaSnapshot) {
+        this.schemaSnapshot = schemaSnapshot;
+    }
+
+    public RangeSplitConfig getRangeSplit() {
+        return rangeSplit;
+    }
+
+    public void setRangeSplit(RangeSplitConfig rangeSplit) {
+        this.rangeSplit = rangeSplit;
+    }
+
+    public SchedulerConfig getScheduler() {
+        return scheduler;
+    }
+
+    public void setScheduler(SchedulerConfig scheduler) {
+        this.scheduler = scheduler;
+    }
+
     public RetryConfig getRetry() {
         return retry;
     }
@@ -181,6 +559,237 @@ public class DatabaseOptimizationConfig {
         this.oracle = oracle;
     }
 
+    /**
+     * 读写流水线配置
+     * 源端读取与目标端写入并行进行，读取线程在队列写满时阻塞（背压），内存占用有上限
+     */
+    public static class PipelineConfig {
+        private boolean enabled = true;
+        private int queueDepth = 4;
+        private int writerThreads = 1;
+
+        // Getters and Setters
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        public void setQueueDepth(int queueDepth) {
+            this.queueDepth = queueDepth;
+        }
+
+        public int getWriterThreads() {
+            return writerThreads;
+        }
+
+        public void setWriterThreads(int writerThreads) {
+            this.writerThreads = writerThreads;
+        }
+    }
+
+    /**
+     * 自适应批次大小配置
+     * 以batchSize为初始值，按每批写入耗时、载荷字节数和重试情况在[minBatchSize, maxBatchSize]内调整：
+     * 耗时不超过targetLatencyMs时加increaseStep，超过两倍目标、超过maxBatchBytes或发生重试时减半
+     */
+    public static class AdaptiveBatchConfig {
+        private boolean enabled = true;
+        private int minBatchSize = 100;
+        private int maxBatchSize = 10000;
+        private int increaseStep = 100;
+        private long targetLatencyMs = 1000;
+        private long maxBatchBytes = 8 * 1024 * 1024;
+
+        // Getters and Setters
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMinBatchSize() {
+            return minBatchSize;
+        }
+
+        public void setMinBatchSize(int minBatchSize) {
+            this.minBatchSize = minBatchSize;
+        }
+
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+
+        public void setMaxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+
+        public int getIncreaseStep() {
+            return increaseStep;
+        }
+
+        public void setIncreaseStep(int increaseStep) {
+            this.increaseStep = increaseStep;
+        }
+
+        public long getTargetLatencyMs() {
+            return targetLatencyMs;
+        }
+
+        public void setTargetLatencyMs(long targetLatencyMs) {
+            this.targetLatencyMs = targetLatencyMs;
+        }
+
+        public long getMaxBatchBytes() {
+            return maxBatchBytes;
+        }
+
+        public void setMaxBatchBytes(long maxBatchBytes) {
+            this.maxBatchBytes = maxBatchBytes;
+        }
+    }
+
+    /**
+     * 日志增量捕获配置
+     * 每个任务使用名为slotPrefix+任务ID的逻辑复制槽；每次最多等待pollIntervalMs，
+     * 攒够maxBatchEvents条变更（或没有更多已提交事务）时作为一个事务写入目标库
+     */
+    public static class CdcConfig {
+        private String slotPrefix = "dbsync_";
+        private int maxBatchEvents = 1000;
+        private long pollIntervalMs = 1000;
+        private int statusIntervalSeconds = 10;
+
+        // Getters and Setters
+        public String getSlotPrefix() {
+            return slotPrefix;
+        }
+
+        public void setSlotPrefix(String slotPrefix) {
+            this.slotPrefix = slotPrefix;
+        }
+
+        public int getMaxBatchEvents() {
+            return maxBatchEvents;
+        }
+
+        public void setMaxBatchEvents(int maxBatchEvents) {
+            this.maxBatchEvents = maxBatchEvents;
+        }
+
+        public long getPollIntervalMs() {
+            return pollIntervalMs;
+        }
+
+        public void setPollIntervalMs(long pollIntervalMs) {
+            this.pollIntervalMs = pollIntervalMs;
+        }
+
+        public int getStatusIntervalSeconds() {
+            return statusIntervalSeconds;
+        }
+
+        public void setStatusIntervalSeconds(int statusIntervalSeconds) {
+            this.statusIntervalSeconds = statusIntervalSeconds;
+        }
+    }
+
+    /**
+     * 断点续传配置
+     * 按主键/唯一索引分页复制的表在复制过程中保存检查点（最多每checkpointIntervalMs一次），
+     * 复制失败或任务停止后再次执行时从检查点继续，不再清空目标表重新复制
+     */
+    public static class ResumeConfig {
+        private boolean enabled = true;
+        private long checkpointIntervalMs = 1000;
+
+        // Getters and Setters
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getCheckpointIntervalMs() {
+            return checkpointIntervalMs;
+        }
+
+        public void setCheckpointIntervalMs(long checkpointIntervalMs) {
+            this.checkpointIntervalMs = checkpointIntervalMs;
+        }
+    }
+
+    /**
+     * 单表分片并行复制配置
+     * 行数达到minRows的表按主键区间/ROWID区/ctid块划分为rangeCount个分片，每个分片使用独立的源连接并行复制
+     */
+    public static class RangeSplitConfig {
+        private boolean enabled = true;
+        private int rangeCount = 4;
+        private long minRows = 1000000;
+
+        // Getters and Setters
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getRangeCount() {
+            return rangeCount;
+        }
+
+        public void setRangeCount(int rangeCount) {
+            this.rangeCount = rangeCount;
+        }
+
+        public long getMinRows() {
+            return minRows;
+        }
+
+        public void setMinRows(long minRows) {
+            this.minRows = minRows;
+        }
+    }
+
+    /**
+     * 任务内表级并行调度配置
+     * tableParallelism限制单个任务同时同步的表数，maxTablesPerConnection限制同一数据库连接上（跨任务）同时同步的表数
+     */
+    public static class SchedulerConfig {
+        private int tableParallelism = 4;
+        private int maxTablesPerConnection = 4;
+
+        // Getters and Setters
+        public int getTableParallelism() {
+            return tableParallelism;
+        }
+
+        public void setTableParallelism(int tableParallelism) {
+            this.tableParallelism = tableParallelism;
+        }
+
+        public int getMaxTablesPerConnection() {
+            return maxTablesPerConnection;
+        }
+
+        public void setMaxTablesPerConnection(int maxTablesPerConnection) {
+            this.maxTablesPerConnection = maxTablesPerConnection;
+        }
+    }
+
     /**
      * 重试配置
      */
@@ -241,6 +850,10 @@ public class DatabaseOptimizationConfig {
         private int lockTimeoutMs = 60000; // 1分钟
         private boolean enableWalLevel = true;
         private int maxConnections = 100;
+        private boolean useCopy = true; // 目标为PostgreSQL/Vastbase时使用COPY FROM STDIN代替批量INSERT
+        private int replicationWaitInitialMs = 50; // 建表后确认集群可见的首次重试间隔，之后按指数退避
+        private int replicationWaitMaxMs = 2000; // 重试间隔上限
+        private int replicationWaitTimeoutMs = 10000; // 总等待时间上限
 
         // Getters and Setters
         public int getStatementTimeoutMs() {
@@ -274,6 +887,38 @@ public class DatabaseOptimizationConfig {
         public void setMaxConnections(int maxConnections) {
             this.maxConnections = maxConnections;
         }
+
+        public boolean isUseCopy() {
+            return useCopy;
+        }
+
+        public void setUseCopy(boolean useCopy) {
+            this.useCopy = useCopy;
+        }
+
+        public int getReplicationWaitInitialMs() {
+            return replicationWaitInitialMs;
+        }
+
+        public void setReplicationWaitInitialMs(int replicationWaitInitialMs) {
+            this.replicationWaitInitialMs = replicationWaitInitialMs;
+        }
+
+        public int getReplicationWaitMaxMs() {
+            return replicationWaitMaxMs;
+        }
+
+        public void setReplicationWaitMaxMs(int replicationWaitMaxMs) {
+            this.replicationWaitMaxMs = replicationWaitMaxMs;
+        }
+
+        public int getReplicationWaitTimeoutMs() {
+            return replicationWaitTimeoutMs;
+        }
+
+        public void setReplicationWaitTimeoutMs(int replicationWaitTimeoutMs) {
+            this.replicationWaitTimeoutMs = replicationWaitTimeoutMs;
+        }
     }
 
     /**
@@ -284,6 +929,7 @@ public class DatabaseOptimizationConfig {
         private int queryTimeoutSeconds = 300; // 5分钟
         private boolean enableSnapshotIsolation = false;
         private int maxDegreeOfParallelism = 0; // 0表示使用默认值
+        private boolean useBulkCopy = true; // 目标为SQL Server时使用SQLServerBulkCopy代替批量INSERT
 
         // Getters and Setters
         public int getLockTimeoutMs() {
@@ -317,6 +963,14 @@ public class DatabaseOptimizationConfig {
         public void setMaxDegreeOfParallelism(int maxDegreeOfParallelism) {
             this.maxDegreeOfParallelism = maxDegreeOfParallelism;
         }
+
+        public boolean isUseBulkCopy() {
+            return useBulkCopy;
+        }
+
+        public void setUseBulkCopy(boolean useBulkCopy) {
+            this.useBulkCopy = useBulkCopy;
+        }
     }
 
     /**
@@ -327,6 +981,7 @@ public class DatabaseOptimizationConfig {
         private int queryTimeoutSeconds = 300;
         private boolean enableParallelDml = false;
         private int arraySize = 1000;
+        private boolean directPathInsert = true; // 目标为Oracle时INSERT使用APPEND_VALUES直接路径插入（会对目标表加排他锁）
 
         // Getters and Setters
         public int getLockTimeoutSeconds() {
@@ -360,5 +1015,13 @@ public class DatabaseOptimizationConfig {
         public void setArraySize(int arraySize) {
             this.arraySize = arraySize;
         }
+
+        public boolean isDirectPathInsert() {
+            return directPathInsert;
+        }
+
+        public void setDirectPathInsert(boolean directPathInsert) {
+            this.directPathInsert = directPathInsert;
+        }
     }
 }
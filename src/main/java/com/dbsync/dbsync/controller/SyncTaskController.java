@@ -156,6 +156,63 @@ public class SyncTaskController {
         }
     }
 
+    /**
+     * 启动日志增量捕获
+     */
+    @PostMapping("/tasks/{id}/cdc/start")
+    public ResponseEntity<?> startChangeCapture(@PathVariable Long id) {
+        try {
+            syncTaskService.startChangeCapture(id);
+            Map<String, String> result = new HashMap<>();
+            result.put("message", "日志增量捕获已启动");
+            return ResponseEntity.ok(result);
+        } catch (RuntimeException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * 停止日志增量捕获
+     */
+    @PostMapping("/tasks/{id}/cdc/stop")
+    public ResponseEntity<?> stopChangeCapture(@PathVariable Long id) {
+        try {
+            syncTaskService.stopChangeCapture(id);
+            Map<String, String> result = new HashMap<>();
+            result.put("message", "日志增量捕获停止中");
+            return ResponseEntity.ok(result);
+        } catch (RuntimeException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * 删除日志增量捕获的复制槽和检查点
+     */
+    @DeleteMapping("/tasks/{id}/cdc")
+    public ResponseEntity<?> dropChangeCapture(@PathVariable Long id) {
+        try {
+            syncTaskService.dropChangeCapture(id);
+            Map<String, String> result = new HashMap<>();
+            result.put("message", "复制槽已删除");
+            return ResponseEntity.ok(result);
+        } catch (RuntimeException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     /**
      * 获取任务进度
      */
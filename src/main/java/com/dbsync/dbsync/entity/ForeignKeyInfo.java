@@ -0,0 +1,128 @@
+package com.dbsync.dbsync.entity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 数据库表外键信息实体类
+ */
+public class ForeignKeyInfo {
+
+    /**
+     * 外键约束名
+     */
+    private String constraintName;
+
+    /**
+     * 外键所在的表
+     */
+    private String tableName;
+
+    /**
+     * 外键列（按KEY_SEQ顺序）
+     */
+    private List<String> columnNames = new ArrayList<>();
+
+    /**
+     * 被引用的表
+     */
+    private String referencedTableName;
+
+    /**
+     * 被引用的列，与columnNames一一对应
+     */
+    private List<String> referencedColumnNames = new ArrayList<>();
+
+    /**
+     * 删除规则（DatabaseMetaData.importedKeyCascade等）
+     */
+    private Integer deleteRule;
+
+    /**
+     * 更新规则（DatabaseMetaData.importedKeyCascade等）
+     */
+    private Integer updateRule;
+
+    public ForeignKeyInfo() {
+    }
+
+    public ForeignKeyInfo(String constraintName, String tableName, String referencedTableName) {
+        this.constraintName = constraintName;
+        this.tableName = tableName;
+        this.referencedTableName = referencedTableName;
+    }
+
+    // 辅助方法：追加一对外键列和被引用列
+    public void addColumn(String columnName, String referencedColumnName) {
+        columnNames.add(columnName);
+        referencedColumnNames.add(referencedColumnName);
+    }
+
+    // Getters and Setters
+    public String getConstraintName() {
+        return constraintName;
+    }
+
+    public void setConstraintName(String constraintName) {
+        this.constraintName = constraintName;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public void setTableName(String tableName) {
+        this.tableName = tableName;
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    public void setColumnNames(List<String> columnNames) {
+        this.columnNames = columnNames;
+    }
+
+    public String getReferencedTableName() {
+        return referencedTableName;
+    }
+
+    public void setReferencedTableName(String referencedTableName) {
+        this.referencedTableName = referencedTableName;
+    }
+
+    public List<String> getReferencedColumnNames() {
+        return referencedColumnNames;
+    }
+
+    public void setReferencedColumnNames(List<String> referencedColumnNames) {
+        this.referencedColumnNames = referencedColumnNames;
+    }
+
+    public Integer getDeleteRule() {
+        return deleteRule;
+    }
+
+    public void setDeleteRule(Integer deleteRule) {
+        this.deleteRule = deleteRule;
+    }
+
+    public Integer getUpdateRule() {
+        return updateRule;
+    }
+
+    public void setUpdateRule(Integer updateRule) {
+        this.updateRule = updateRule;
+    }
+
+    @Override
+    public String toString() {
+        return "ForeignKeyInfo{" +
+                "constraintName='" + constraintName + '\'' +
+                ", tableName='" + tableName + '\'' +
+                ", columnNames=" + columnNames +
+                ", referencedTableName='" + referencedTableName + '\'' +
+                ", referencedColumnNames=" + referencedColumnNames +
+                '}';
+    }
+}
@@ -0,0 +1,101 @@
+package com.dbsync.dbsync.entity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 数据库表索引信息实体类（主键或普通/唯一索引）
+ */
+public class IndexInfo {
+
+    /**
+     * 索引名（主键为约束名）
+     */
+    private String indexName;
+
+    /**
+     * 是否为主键
+     */
+    private Boolean primaryKey;
+
+    /**
+     * 是否唯一
+     */
+    private Boolean unique;
+
+    /**
+     * 索引列（按列顺序）
+     */
+    private List<String> columnNames = new ArrayList<>();
+
+    /**
+     * 各索引列是否降序，与columnNames一一对应
+     */
+    private List<Boolean> descending = new ArrayList<>();
+
+    public IndexInfo() {
+    }
+
+    public IndexInfo(String indexName, Boolean primaryKey, Boolean unique) {
+        this.indexName = indexName;
+        this.primaryKey = primaryKey;
+        this.unique = unique;
+    }
+
+    // 辅助方法：追加一个索引列
+    public void addColumn(String columnName, boolean desc) {
+        columnNames.add(columnName);
+        descending.add(desc);
+    }
+
+    // Getters and Setters
+    public String getIndexName() {
+        return indexName;
+    }
+
+    public void setIndexName(String indexName) {
+        this.indexName = indexName;
+    }
+
+    public Boolean getPrimaryKey() {
+        return primaryKey;
+    }
+
+    public void setPrimaryKey(Boolean primaryKey) {
+        this.primaryKey = primaryKey;
+    }
+
+    public Boolean getUnique() {
+        return unique;
+    }
+
+    public void setUnique(Boolean unique) {
+        this.unique = unique;
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    public void setColumnNames(List<String> columnNames) {
+        this.columnNames = columnNames;
+    }
+
+    public List<Boolean> getDescending() {
+        return descending;
+    }
+
+    public void setDescending(List<Boolean> descending) {
+        this.descending = descending;
+    }
+
+    @Override
+    public String toString() {
+        return "IndexInfo{" +
+                "indexName='" + indexName + '\'' +
+                ", primaryKey=" + primaryKey +
+                ", unique=" + unique +
+                ", columnNames=" + columnNames +
+                '}';
+    }
+}
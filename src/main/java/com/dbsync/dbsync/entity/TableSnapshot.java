@@ -0,0 +1,112 @@
+package com.dbsync.dbsync.entity;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 元数据快照中的单表结构（列、主键、索引和注释），加载后不再修改
+ * 列名、类型名等重复出现的字符串做了intern，集合按实际大小保存为只读列表
+ */
+public class TableSnapshot {
+
+    /**
+     * 表名
+     */
+    private final String tableName;
+
+    /**
+     * 表类型（TABLE/VIEW）
+     */
+    private final String tableType;
+
+    /**
+     * 表注释
+     */
+    private final String remarks;
+
+    /**
+     * 加载时的变更标记，为null表示数据库没有可用的变更标记
+     */
+    private final String changeMarker;
+
+    /**
+     * 加载时间（毫秒）
+     */
+    private final long loadedAt;
+
+    private final List<ColumnInfo> columns;
+    private final List<String> primaryKeyColumns;
+    private final List<IndexInfo> indexes;
+
+    public TableSnapshot(String tableName, String tableType, String remarks, String changeMarker, long loadedAt,
+                         List<ColumnInfo> columns, List<String> primaryKeyColumns, List<IndexInfo> indexes) {
+        this.tableName = intern(tableName);
+        this.tableType = intern(tableType);
+        this.remarks = remarks;
+        this.changeMarker = changeMarker;
+        this.loadedAt = loadedAt;
+        List<ColumnInfo> compactColumns = new ArrayList<>(columns.size());
+        for (ColumnInfo column : columns) {
+            column.setColumnName(intern(column.getColumnName()));
+            column.setDataType(intern(column.getDataType()));
+            column.setTypeName(intern(column.getTypeName()));
+            compactColumns.add(column);
+        }
+        this.columns = Collections.unmodifiableList(compactColumns);
+        List<String> compactKey = new ArrayList<>(primaryKeyColumns.size());
+        for (String column : primaryKeyColumns) {
+            compactKey.add(intern(column));
+        }
+        this.primaryKeyColumns = Collections.unmodifiableList(compactKey);
+        this.indexes = Collections.unmodifiableList(new ArrayList<>(indexes));
+    }
+
+    private static String intern(String value) {
+        return value == null ? null : value.intern();
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String getTableType() {
+        return tableType;
+    }
+
+    public String getRemarks() {
+        return remarks;
+    }
+
+    public String getChangeMarker() {
+        return changeMarker;
+    }
+
+    public long getLoadedAt() {
+        return loadedAt;
+    }
+
+    public List<ColumnInfo> getColumns() {
+        return columns;
+    }
+
+    public List<String> getPrimaryKeyColumns() {
+        return primaryKeyColumns;
+    }
+
+    public List<IndexInfo> getIndexes() {
+        return indexes;
+    }
+
+    @Override
+    public String toString() {
+        return "TableSnapshot{" +
+                "tableName='" + tableName + '\'' +
+                ", tableType='" + tableType + '\'' +
+                ", columns=" + columns.size() +
+                ", primaryKeyColumns=" + primaryKeyColumns +
+                ", indexes=" + indexes.size() +
+                ", changeMarker='" + changeMarker + '\'' +
+                '}';
+    }
+}
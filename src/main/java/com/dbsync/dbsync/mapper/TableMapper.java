@@ -33,6 +33,14 @@ public interface TableMapper {
     @SelectProvider(type = TableMetadataSqlProvider.class, method = "getTableDataWithPagination")
     List<Map<String, Object>> getTableDataWithPagination(Map<String, Object> params);
 
+    /**
+     * Keyset (seek) pagination over a primary key, unique index, Oracle ROWID or PostgreSQL ctid.
+     * Parameters 'dbType', 'tableName', 'strategy', 'keyColumns', 'size' and 'lastKeyValues'
+     * are built by {@link com.dbsync.dbsync.sync.SourceReadPlan#buildQueryParams}.
+     */
+    @SelectProvider(type = TableMetadataSqlProvider.class, method = "getTableDataWithKeyset")
+    List<Map<String, Object>> getTableDataWithKeyset(Map<String, Object> params);
+
     /**
      * 添加执行 DDL 的方法
      * @param sql
@@ -116,4 +124,13 @@ public interface TableMapper {
      */
     @SelectProvider(type = TableMetadataSqlProvider.class, method = "checkPgTableExistsClusterAware")
     Map<String, Object> checkPgTableExistsClusterAware(@Param("tableName") String tableName, @Param("schemaName") String schemaName);
+
+    /**
+     * 批量检查 PostgreSQL 表是否已在集群中可见（一次查询确认多张表）
+     * @param tableNames 要检查的表名
+     * @param schemaName 模式名称
+     * @return 已可见的表名（小写）
+     */
+    @SelectProvider(type = TableMetadataSqlProvider.class, method = "findPgReplicatedTables")
+    List<String> findPgReplicatedTables(@Param("tableNames") List<String> tableNames, @Param("schemaName") String schemaName);
 }
\ No newline at end of file
@@ -1,7 +1,10 @@
 package com.dbsync.dbsync.mapper;
 
+import com.dbsync.dbsync.sync.SourceReadPlan;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.jdbc.SQL;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -191,6 +194,171 @@ public class TableMetadataSqlProvider {
         }
     }
     
+    /**
+     * Keyset (seek) pagination: every page seeks directly past the last key of the previous page,
+     * so the cost of a page does not grow with its depth in the table.
+     * Parameters: 'dbType', 'tableName', 'strategy' (KEYSET/ROWID/CTID), 'keyColumns', 'size',
+     * 'lastKeyValues' (null for the first page), plus the optional bounds written by TableRange and WatermarkWindow.
+     */
+    @SuppressWarnings("unchecked")
+    public String getTableDataWithKeyset(Map<String, Object> params) {
+        String dbType = ((String) params.get("dbType")).toLowerCase();
+        String tableName = (String) params.get("tableName");
+        String strategy = (String) params.get("strategy");
+        List<String> keyColumns = (List<String>) params.get("keyColumns");
+        Long size = (Long) params.get("size");
+        boolean hasLastKey = params.get("lastKeyValues") != null;
+        String rangePredicate = buildRangePredicate(dbType, params);
+        String watermarkPredicate = buildWatermarkPredicate(dbType, params);
+
+        switch (strategy) {
+            case "ROWID":
+                if (!"oracle".equals(dbType)) {
+                    throw new IllegalArgumentException("ROWID pagination is only supported for Oracle, got: " + dbType);
+                }
+                return "SELECT * FROM (" +
+                       "SELECT a.*, ROWIDTOCHAR(a.ROWID) AS \"" + SourceReadPlan.ROW_LOCATOR_COLUMN + "\" FROM " + tableName + " a" +
+                       where(hasLastKey ? "a.ROWID > CHARTOROWID(#{lastKeyValues[0]})" : null, rangePredicate, watermarkPredicate) +
+                       " ORDER BY a.ROWID) WHERE ROWNUM <= " + size;
+            case "CTID":
+                // Used within range-split pieces only; each page is its own snapshot and PostgreSQL before 14 has no TID range scan
+                if (!"postgresql".equals(dbType) && !"vastbase".equals(dbType)) {
+                    throw new IllegalArgumentException("ctid pagination is only supported for PostgreSQL, got: " + dbType);
+                }
+                return "SELECT a.*, a.ctid::text AS \"" + SourceReadPlan.ROW_LOCATOR_COLUMN + "\" FROM " + tableName + " a" +
+                       where(hasLastKey ? "a.ctid > CAST(#{lastKeyValues[0]} AS tid)" : null, rangePredicate, watermarkPredicate) +
+                       " ORDER BY a.ctid LIMIT " + size;
+            case "KEYSET":
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported keyset strategy: " + strategy);
+        }
+
+        if (keyColumns == null || keyColumns.isEmpty()) {
+            throw new IllegalArgumentException("Keyset pagination requires key columns for table " + tableName);
+        }
+
+        List<String> quotedKeys = new ArrayList<>();
+        for (String keyColumn : keyColumns) {
+            quotedKeys.add(quoteIdentifier(dbType, keyColumn));
+        }
+        String orderBy = String.join(", ", quotedKeys);
+        String where = where(hasLastKey ? buildKeysetPredicate(quotedKeys) : null, rangePredicate, watermarkPredicate);
+
+        switch (dbType) {
+            case "oracle":
+            case "dameng":
+                return "SELECT * FROM (SELECT a.* FROM " + tableName + " a" + where +
+                       " ORDER BY " + orderBy + ") WHERE ROWNUM <= " + size;
+            case "postgresql":
+            case "vastbase":
+            case "mysql":
+                return "SELECT * FROM " + tableName + where + " ORDER BY " + orderBy + " LIMIT " + size;
+            case "sqlserver":
+                return "SELECT TOP (" + size + ") * FROM " + tableName + where + " ORDER BY " + orderBy;
+            default:
+                throw new IllegalArgumentException("Unsupported database type for getTableDataWithKeyset: " + dbType);
+        }
+    }
+
+    /**
+     * Restricts a keyset read to one range of an intra-table parallel copy (see TableRange), or null when unsplit.
+     */
+    private String buildRangePredicate(String dbType, Map<String, Object> params) {
+        String rangeKind = (String) params.get("rangeKind");
+        if (rangeKind == null) {
+            return null;
+        }
+        if ("ROWID_HASH".equals(rangeKind)) {
+            return "ORA_HASH(ROWID, #{rangeBucketCount} - 1) = #{rangeBucket}";
+        }
+
+        String column;
+        String lowerBound;
+        String upperBound;
+        switch (rangeKind) {
+            case "KEY":
+                column = quoteIdentifier(dbType, (String) params.get("rangeColumn"));
+                lowerBound = "#{rangeLower}";
+                upperBound = "#{rangeUpper}";
+                break;
+            case "ROWID":
+                column = "ROWID";
+                lowerBound = "CHARTOROWID(#{rangeLower})";
+                upperBound = "CHARTOROWID(#{rangeUpper})";
+                break;
+            case "CTID":
+                column = "ctid";
+                lowerBound = "CAST(#{rangeLower} AS tid)";
+                upperBound = "CAST(#{rangeUpper} AS tid)";
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported range kind: " + rangeKind);
+        }
+
+        List<String> bounds = new ArrayList<>();
+        if (params.get("rangeLower") != null) {
+            bounds.add(column + " >= " + lowerBound);
+        }
+        if (params.get("rangeUpper") != null) {
+            bounds.add(column + " < " + upperBound);
+        }
+        return bounds.isEmpty() ? null : String.join(" AND ", bounds);
+    }
+
+    /**
+     * Restricts a keyset read to the rows of an incremental sync (see WatermarkWindow), or null for a full read.
+     */
+    private String buildWatermarkPredicate(String dbType, Map<String, Object> params) {
+        String watermarkColumn = (String) params.get("watermarkColumn");
+        if (watermarkColumn == null) {
+            return null;
+        }
+        String column = quoteIdentifier(dbType, watermarkColumn);
+        String upperBound = column + " <= #{watermarkUpper}";
+        return params.get("watermarkLower") == null ? upperBound : column + " > #{watermarkLower} AND " + upperBound;
+    }
+
+    private String where(String... conditions) {
+        List<String> present = new ArrayList<>();
+        for (String condition : conditions) {
+            if (condition != null) {
+                present.add(condition);
+            }
+        }
+        return present.isEmpty() ? "" : " WHERE " + String.join(" AND ", present);
+    }
+
+    /**
+     * Expanded row-value comparison (k1 > ?) OR (k1 = ? AND k2 > ?) ...,
+     * used instead of (k1, k2) > (?, ?) because Oracle and SQL Server do not support the tuple form.
+     */
+    private String buildKeysetPredicate(List<String> quotedKeys) {
+        StringBuilder predicate = new StringBuilder("(");
+        for (int i = 0; i < quotedKeys.size(); i++) {
+            if (i > 0) {
+                predicate.append(" OR ");
+            }
+            predicate.append("(");
+            for (int j = 0; j < i; j++) {
+                predicate.append(quotedKeys.get(j)).append(" = #{lastKeyValues[").append(j).append("]} AND ");
+            }
+            predicate.append(quotedKeys.get(i)).append(" > #{lastKeyValues[").append(i).append("]})");
+        }
+        return predicate.append(")").toString();
+    }
+
+    public static String quoteIdentifier(String dbType, String identifier) {
+        switch (dbType) {
+            case "mysql":
+                return "`" + identifier.replace("`", "``") + "`";
+            case "sqlserver":
+                return "[" + identifier.replace("]", "]]") + "]";
+            default:
+                return "\"" + identifier.replace("\"", "\"\"") + "\"";
+        }
+    }
+
     public String checkPgTableExists(@Param("tableName") String tableName) {
         return new SQL() {{
             SELECT("COUNT(*)");
@@ -220,6 +388,27 @@ public class TableMetadataSqlProvider {
         }}.toString();
     }
     
+    /**
+     * Batched form of checkPgTableExistsClusterAware: returns the names (lower case) of the given tables that are
+     * visible both in information_schema.tables and in pg_stat_user_tables, so that one catalog query confirms many tables.
+     */
+    public String findPgReplicatedTables(@Param("tableNames") List<String> tableNames, @Param("schemaName") String schemaName) {
+        List<String> placeholders = new ArrayList<>(tableNames.size());
+        for (int i = 0; i < tableNames.size(); i++) {
+            placeholders.add("LOWER(#{tableNames[" + i + "]})");
+        }
+        return new SQL() {{
+            SELECT("t.table_name");
+            FROM("information_schema.tables t");
+            INNER_JOIN("pg_stat_user_tables s ON s.relname = t.table_name AND s.schemaname = t.table_schema");
+            WHERE("t.table_name IN (" + String.join(", ", placeholders) + ")");
+            AND();
+            WHERE("t.table_schema = COALESCE(#{schemaName}, current_schema())");
+            AND();
+            WHERE("t.table_type = 'BASE TABLE'");
+        }}.toString();
+    }
+
     // Helper for SQL Server pagination to get a sort key if not provided
     // This is complex and context-dependent, so not fully implemented here.
     // private String getSqlServerOrderByClause(Map<String, Object> params) { ... }
@@ -0,0 +1,41 @@
+package com.dbsync.dbsync.mapper.auth;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.dbsync.dbsync.model.SyncCdcCheckpoint;
+import org.apache.ibatis.annotations.*;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 日志增量捕获检查点数据访问接口
+ */
+@Repository
+public interface SyncCdcCheckpointMapper extends BaseMapper<SyncCdcCheckpoint> {
+
+    /**
+     * 根据任务ID查找检查点
+     */
+    @Select("SELECT * FROM sync_cdc_checkpoints WHERE task_id = #{taskId}")
+    SyncCdcCheckpoint findByTaskId(@Param("taskId") Long taskId);
+
+    /**
+     * 初始全量复制完成后登记复制槽
+     */
+    @Insert("INSERT INTO sync_cdc_checkpoints (task_id, source_type, slot_name, created_at, updated_at) " +
+            "VALUES (#{taskId}, #{sourceType}, #{slotName}, #{updatedAt}, #{updatedAt}) " +
+            "ON CONFLICT (task_id) DO UPDATE SET source_type = excluded.source_type, slot_name = excluded.slot_name, " +
+            "position = NULL, updated_at = excluded.updated_at")
+    int register(@Param("taskId") Long taskId, @Param("sourceType") String sourceType,
+                 @Param("slotName") String slotName, @Param("updatedAt") String updatedAt);
+
+    /**
+     * 一批变更提交到目标库后保存日志位置
+     */
+    @Update("UPDATE sync_cdc_checkpoints SET position = #{position}, updated_at = #{updatedAt} WHERE task_id = #{taskId}")
+    int updatePosition(@Param("taskId") Long taskId, @Param("position") String position, @Param("updatedAt") String updatedAt);
+
+    /**
+     * 根据任务ID删除检查点
+     */
+    @Delete("DELETE FROM sync_cdc_checkpoints WHERE task_id = #{taskId}")
+    int deleteByTaskId(@Param("taskId") Long taskId);
+}
@@ -0,0 +1,51 @@
+package com.dbsync.dbsync.mapper.auth;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.dbsync.dbsync.model.SyncCopyCheckpoint;
+import org.apache.ibatis.annotations.*;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 表复制检查点数据访问接口
+ */
+@Repository
+public interface SyncCopyCheckpointMapper extends BaseMapper<SyncCopyCheckpoint> {
+
+    /**
+     * 查找表的全部分片检查点
+     */
+    @Select("SELECT * FROM sync_copy_checkpoints WHERE task_id = #{taskId} AND table_name = #{tableName} ORDER BY range_index")
+    List<SyncCopyCheckpoint> findByTaskIdAndTableName(@Param("taskId") Long taskId, @Param("tableName") String tableName);
+
+    /**
+     * 查找任务中有未完成复制的表
+     */
+    @Select("SELECT DISTINCT table_name FROM sync_copy_checkpoints WHERE task_id = #{taskId} ORDER BY table_name")
+    List<String> findTableNamesByTaskId(@Param("taskId") Long taskId);
+
+    /**
+     * 保存（覆盖）一个分片的检查点
+     */
+    @Insert("INSERT INTO sync_copy_checkpoints (task_id, table_name, range_index, key_columns, range_column, range_lower, " +
+            "range_upper, last_key, rows_copied, completed, updated_at) VALUES (#{taskId}, #{tableName}, #{rangeIndex}, " +
+            "#{keyColumns}, #{rangeColumn}, #{rangeLower}, #{rangeUpper}, #{lastKey}, #{rowsCopied}, #{completed}, #{updatedAt}) " +
+            "ON CONFLICT (task_id, table_name, range_index) DO UPDATE SET key_columns = excluded.key_columns, " +
+            "range_column = excluded.range_column, range_lower = excluded.range_lower, range_upper = excluded.range_upper, " +
+            "last_key = excluded.last_key, rows_copied = excluded.rows_copied, completed = excluded.completed, " +
+            "updated_at = excluded.updated_at")
+    int upsert(SyncCopyCheckpoint checkpoint);
+
+    /**
+     * 删除表的检查点（复制完成或需要从头复制）
+     */
+    @Delete("DELETE FROM sync_copy_checkpoints WHERE task_id = #{taskId} AND table_name = #{tableName}")
+    int deleteByTaskIdAndTableName(@Param("taskId") Long taskId, @Param("tableName") String tableName);
+
+    /**
+     * 根据任务ID删除检查点
+     */
+    @Delete("DELETE FROM sync_copy_checkpoints WHERE task_id = #{taskId}")
+    int deleteByTaskId(@Param("taskId") Long taskId);
+}
@@ -0,0 +1,55 @@
+package com.dbsync.dbsync.mapper.auth;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.dbsync.dbsync.model.SyncTableWatermark;
+import org.apache.ibatis.annotations.*;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 增量同步水位线数据访问接口
+ */
+@Repository
+public interface SyncTableWatermarkMapper extends BaseMapper<SyncTableWatermark> {
+
+    /**
+     * 根据任务ID查找所有表的水位线
+     */
+    @Select("SELECT * FROM sync_table_watermarks WHERE task_id = #{taskId} ORDER BY table_name")
+    List<SyncTableWatermark> findByTaskId(@Param("taskId") Long taskId);
+
+    /**
+     * 声明表的水位列；水位列变化时清空已保存的水位值，下次执行全量复制
+     */
+    @Insert("INSERT INTO sync_table_watermarks (task_id, table_name, watermark_column, updated_at) " +
+            "VALUES (#{taskId}, #{tableName}, #{watermarkColumn}, #{updatedAt}) " +
+            "ON CONFLICT (task_id, table_name) DO UPDATE SET " +
+            "watermark_kind = CASE WHEN watermark_column = excluded.watermark_column THEN watermark_kind ELSE NULL END, " +
+            "watermark_value = CASE WHEN watermark_column = excluded.watermark_column THEN watermark_value ELSE NULL END, " +
+            "watermark_column = excluded.watermark_column, updated_at = excluded.updated_at")
+    int upsertDeclaration(@Param("taskId") Long taskId, @Param("tableName") String tableName,
+                          @Param("watermarkColumn") String watermarkColumn, @Param("updatedAt") String updatedAt);
+
+    /**
+     * 同步成功后保存新的水位值
+     */
+    @Update("UPDATE sync_table_watermarks SET watermark_kind = #{watermarkKind}, watermark_value = #{watermarkValue}, " +
+            "last_synced_at = #{lastSyncedAt}, updated_at = #{lastSyncedAt} " +
+            "WHERE task_id = #{taskId} AND table_name = #{tableName}")
+    int updateWatermark(@Param("taskId") Long taskId, @Param("tableName") String tableName,
+                        @Param("watermarkKind") String watermarkKind, @Param("watermarkValue") String watermarkValue,
+                        @Param("lastSyncedAt") String lastSyncedAt);
+
+    /**
+     * 删除表的水位线声明（恢复全量同步）
+     */
+    @Delete("DELETE FROM sync_table_watermarks WHERE task_id = #{taskId} AND table_name = #{tableName}")
+    int deleteByTaskIdAndTableName(@Param("taskId") Long taskId, @Param("tableName") String tableName);
+
+    /**
+     * 根据任务ID删除水位线
+     */
+    @Delete("DELETE FROM sync_table_watermarks WHERE task_id = #{taskId}")
+    int deleteByTaskId(@Param("taskId") Long taskId);
+}
@@ -0,0 +1,162 @@
+package com.dbsync.dbsync.model;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.dbsync.dbsync.sync.CopyCheckpoint;
+
+import java.util.Arrays;
+
+/**
+ * 表复制检查点实体类（断点续传）
+ * 键值和分片边界按CopyCheckpoint的编码保存为文本
+ */
+@TableName("sync_copy_checkpoints")
+public class SyncCopyCheckpoint {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    private Long taskId;
+
+    private String tableName;
+
+    private Integer rangeIndex;
+
+    private String keyColumns;
+
+    private String rangeColumn;
+
+    private String rangeLower;
+
+    private String rangeUpper;
+
+    private String lastKey;
+
+    private Long rowsCopied;
+
+    private Boolean completed;
+
+    private String updatedAt;
+
+    // 辅助方法：由检查点构建实体
+    public static SyncCopyCheckpoint of(Long taskId, CopyCheckpoint checkpoint, String updatedAt) {
+        SyncCopyCheckpoint entity = new SyncCopyCheckpoint();
+        entity.setTaskId(taskId);
+        entity.setTableName(checkpoint.getTableName());
+        entity.setRangeIndex(checkpoint.getRangeIndex());
+        entity.setKeyColumns(String.join(",", checkpoint.getKeyColumns()));
+        entity.setRangeColumn(checkpoint.getRangeColumn());
+        entity.setRangeLower(CopyCheckpoint.encodeValue(checkpoint.getRangeLower()));
+        entity.setRangeUpper(CopyCheckpoint.encodeValue(checkpoint.getRangeUpper()));
+        entity.setLastKey(CopyCheckpoint.encodeValues(checkpoint.getLastKey()));
+        entity.setRowsCopied(checkpoint.getRowsCopied());
+        entity.setCompleted(checkpoint.isCompleted());
+        entity.setUpdatedAt(updatedAt);
+        return entity;
+    }
+
+    // 辅助方法：转换为检查点
+    public CopyCheckpoint toCheckpoint() {
+        return new CopyCheckpoint(tableName, rangeIndex, Arrays.asList(keyColumns.split(",")), rangeColumn,
+                CopyCheckpoint.decodeValue(rangeLower), CopyCheckpoint.decodeValue(rangeUpper),
+                CopyCheckpoint.decodeValues(lastKey), rowsCopied == null ? 0 : rowsCopied, Boolean.TRUE.equals(completed));
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(Long taskId) {
+        this.taskId = taskId;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public void setTableName(String tableName) {
+        this.tableName = tableName;
+    }
+
+    public Integer getRangeIndex() {
+        return rangeIndex;
+    }
+
+    public void setRangeIndex(Integer rangeIndex) {
+        this.rangeIndex = rangeIndex;
+    }
+
+    public String getKeyColumns() {
+        return keyColumns;
+    }
+
+    public void setKeyColumns(String keyColumns) {
+        this.keyColumns = keyColumns;
+    }
+
+    public String getRangeColumn() {
+        return rangeColumn;
+    }
+
+    public void setRangeColumn(String rangeColumn) {
+        this.rangeColumn = rangeColumn;
+    }
+
+    public String getRangeLower() {
+        return rangeLower;
+    }
+
+    public void setRangeLower(String rangeLower) {
+        this.rangeLower = rangeLower;
+    }
+
+    public String getRangeUpper() {
+        return rangeUpper;
+    }
+
+    public void setRangeUpper(String rangeUpper) {
+        this.rangeUpper = rangeUpper;
+    }
+
+    public String getLastKey() {
+        return lastKey;
+    }
+
+    public void setLastKey(String lastKey) {
+        this.lastKey = lastKey;
+    }
+
+    public Long getRowsCopied() {
+        return rowsCopied;
+    }
+
+    public void setRowsCopied(Long rowsCopied) {
+        this.rowsCopied = rowsCopied;
+    }
+
+    public Boolean getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(Boolean completed) {
+        this.completed = completed;
+    }
+
+    public String getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(String updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,116 @@
+package com.dbsync.dbsync.model;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.dbsync.dbsync.sync.Watermark;
+
+/**
+ * 增量同步水位线实体类
+ * 声明了水位列的表按水位列增量同步，watermarkValue为空时下次执行全量复制
+ */
+@TableName("sync_table_watermarks")
+public class SyncTableWatermark {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    private Long taskId;
+
+    private String tableName;
+
+    private String watermarkColumn;
+
+    private String watermarkKind;
+
+    private String watermarkValue;
+
+    private String lastSyncedAt;
+
+    private String updatedAt;
+
+    // 辅助方法：转换为水位线，尚未同步过时返回null
+    public Watermark toWatermark() {
+        if (watermarkValue == null || watermarkKind == null) {
+            return null;
+        }
+        return Watermark.of(watermarkColumn, Watermark.Kind.valueOf(watermarkKind), watermarkValue);
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(Long taskId) {
+        this.taskId = taskId;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public void setTableName(String tableName) {
+        this.tableName = tableName;
+    }
+
+    public String getWatermarkColumn() {
+        return watermarkColumn;
+    }
+
+    public void setWatermarkColumn(String watermarkColumn) {
+        this.watermarkColumn = watermarkColumn;
+    }
+
+    public String getWatermarkKind() {
+        return watermarkKind;
+    }
+
+    public void setWatermarkKind(String watermarkKind) {
+        this.watermarkKind = watermarkKind;
+    }
+
+    public String getWatermarkValue() {
+        return watermarkValue;
+    }
+
+    public void setWatermarkValue(String watermarkValue) {
+        this.watermarkValue = watermarkValue;
+    }
+
+    public String getLastSyncedAt() {
+        return lastSyncedAt;
+    }
+
+    public void setLastSyncedAt(String lastSyncedAt) {
+        this.lastSyncedAt = lastSyncedAt;
+    }
+
+    public String getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(String updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "SyncTableWatermark{" +
+                "taskId=" + taskId +
+                ", tableName='" + tableName + '\'' +
+                ", watermarkColumn='" + watermarkColumn + '\'' +
+                ", watermarkKind='" + watermarkKind + '\'' +
+                ", watermarkValue='" + watermarkValue + '\'' +
+                ", lastSyncedAt='" + lastSyncedAt + '\'' +
+                '}';
+    }
+}
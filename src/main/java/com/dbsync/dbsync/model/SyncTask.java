@@ -1,6 +1,7 @@
 package com.dbsync.dbsync.model;
 
 import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableId;
 import com.baomidou.mybatisplus.annotation.TableName;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
@@ -10,6 +11,7 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 同步任务实体类
@@ -51,6 +53,9 @@ public class SyncTask {
     
     private String lastRunAt;
     
+    @TableField(exist = false)
+    private Map<String, String> watermarkColumns; // 表名 -> 水位列，声明了水位列的表增量同步，保存在sync_table_watermarks中
+    
     // 构造函数
     public SyncTask() {
         this.truncateBeforeSync = false;
@@ -245,6 +250,14 @@ public class SyncTask {
         this.lastRunAt = lastRunAt;
     }
     
+    public Map<String, String> getWatermarkColumns() {
+        return watermarkColumns;
+    }
+    
+    public void setWatermarkColumns(Map<String, String> watermarkColumns) {
+        this.watermarkColumns = watermarkColumns;
+    }
+    
     @Override
     public String toString() {
         return "SyncTask{" +
@@ -2,6 +2,8 @@ package com.dbsync.dbsync.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
+import java.util.Map;
+
 /**
  * 同步任务请求数据传输对象
  * 用于处理前端发送的API请求，其中tables字段是数组格式
@@ -33,6 +35,8 @@ public class SyncTaskRequest {
     
     private String errorMessage;
     
+    private Map<String, String> watermarkColumns; // 表名 -> 增量同步水位列，未传时保持原有声明
+    
     // 构造函数
     public SyncTaskRequest() {
         this.truncateBeforeSync = false;
@@ -72,6 +76,7 @@ public class SyncTaskRequest {
         task.setTotalTables(this.tables != null ? this.tables.length : 0);
         task.setCompletedTables(this.completedTables);
         task.setErrorMessage(this.errorMessage);
+        task.setWatermarkColumns(this.watermarkColumns);
         
         return task;
     }
@@ -172,4 +177,12 @@ public class SyncTaskRequest {
     public void setErrorMessage(String errorMessage) {
         this.errorMessage = errorMessage;
     }
-}
\ No newline at end of file
+    
+    public Map<String, String> getWatermarkColumns() {
+        return watermarkColumns;
+    }
+    
+    public void setWatermarkColumns(Map<String, String> watermarkColumns) {
+        this.watermarkColumns = watermarkColumns;
+    }
+}
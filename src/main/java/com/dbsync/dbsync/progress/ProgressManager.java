@@ -5,7 +5,9 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -57,6 +59,38 @@ public class ProgressManager {
                 taskId, tableName, tableProgress.getRecordsProcessed(), tableProgress.getSourceRecordCount());
     }
 
+    public void startTableRanges(String taskId, String tableName, int totalRanges) {
+        TaskProgress taskProgress = tasks.get(taskId);
+        if (taskProgress == null) {
+            logger.warn("Cannot start table ranges. Task [{}] not found.", taskId);
+            return;
+        }
+        taskProgress.getTableProgress(tableName).setTotalRanges(totalRanges);
+        logger.info("Task [{}], Table [{}]: Copying in {} parallel ranges.", taskId, tableName, totalRanges);
+    }
+
+    public void completeTableRange(String taskId, String tableName, String rangeDescription, long rangeRecords) {
+        TaskProgress taskProgress = tasks.get(taskId);
+        if (taskProgress == null) {
+            logger.warn("Cannot complete table range. Task [{}] not found.", taskId);
+            return;
+        }
+        TableSyncProgress tableProgress = taskProgress.getTableProgress(tableName);
+        tableProgress.incrementCompletedRanges();
+        logger.info("Task [{}], Table [{}]: {} completed with {} records ({}/{} ranges).",
+                taskId, tableName, rangeDescription, rangeRecords, tableProgress.getCompletedRanges(), tableProgress.getTotalRanges());
+    }
+
+    public void updateBatchSize(String taskId, String tableName, int batchSize) {
+        TaskProgress taskProgress = tasks.get(taskId);
+        if (taskProgress == null) {
+            logger.warn("Cannot update batch size. Task [{}] not found.", taskId);
+            return;
+        }
+        taskProgress.getTableProgress(tableName).setCurrentBatchSize(batchSize);
+        logger.debug("Task [{}], Table [{}]: Batch size adjusted to {}.", taskId, tableName, batchSize);
+    }
+
     public void completeTableSync(String taskId, String tableName, boolean success, String errorMessage) {
         TaskProgress taskProgress = tasks.get(taskId);
         if (taskProgress == null) {
@@ -78,6 +112,26 @@ public class ProgressManager {
         }
     }
 
+    public void completeTableVerification(String taskId, String tableName, TableVerificationStatus status,
+                                          long sourceRecordCount, long targetRecordCount, List<String> mismatchedRanges) {
+        TaskProgress taskProgress = tasks.get(taskId);
+        if (taskProgress == null) {
+            logger.warn("Cannot complete table verification. Task [{}] not found.", taskId);
+            return;
+        }
+        TableSyncProgress tableProgress = taskProgress.getTableProgress(tableName);
+        tableProgress.setVerificationStatus(status);
+        tableProgress.setTargetRecordCount(targetRecordCount);
+        tableProgress.setMismatchedRanges(new ArrayList<>(mismatchedRanges));
+        if (status == TableVerificationStatus.MISMATCHED || status == TableVerificationStatus.FAILED) {
+            logger.warn("Task [{}], Table [{}]: Verification {}. Source {} rows, target {} rows, mismatching ranges: {}",
+                    taskId, tableName, status, sourceRecordCount, targetRecordCount, mismatchedRanges);
+        } else {
+            logger.info("Task [{}], Table [{}]: Verification {}. Source {} rows, target {} rows.",
+                    taskId, tableName, status, sourceRecordCount, targetRecordCount);
+        }
+    }
+
     public void completeTask(String taskId) {
         TaskProgress taskProgress = tasks.get(taskId);
         if (taskProgress == null) {
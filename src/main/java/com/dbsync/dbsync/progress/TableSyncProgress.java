@@ -9,9 +9,15 @@ public class TableSyncProgress {
     private TableSyncStatus status;
     private long sourceRecordCount;
     private long recordsProcessed;
+    private int totalRanges = 1;
+    private int completedRanges;
+    private int currentBatchSize;
     private LocalDateTime startTime;
     private LocalDateTime endTime;
     private List<String> errorMessages;
+    private TableVerificationStatus verificationStatus = TableVerificationStatus.NOT_VERIFIED;
+    private long targetRecordCount;
+    private List<String> mismatchedRanges = new ArrayList<>();
 
     public TableSyncProgress(String tableName) {
         this.tableName = tableName;
@@ -52,6 +58,30 @@ public class TableSyncProgress {
         this.recordsProcessed += count;
     }
 
+    public synchronized int getTotalRanges() {
+        return totalRanges;
+    }
+
+    public synchronized void setTotalRanges(int totalRanges) {
+        this.totalRanges = totalRanges;
+    }
+
+    public synchronized int getCompletedRanges() {
+        return completedRanges;
+    }
+
+    public synchronized void incrementCompletedRanges() {
+        this.completedRanges++;
+    }
+
+    public synchronized int getCurrentBatchSize() {
+        return currentBatchSize;
+    }
+
+    public synchronized void setCurrentBatchSize(int currentBatchSize) {
+        this.currentBatchSize = currentBatchSize;
+    }
+
     public synchronized LocalDateTime getStartTime() {
         return startTime;
     }
@@ -75,4 +105,28 @@ public class TableSyncProgress {
     public synchronized void addErrorMessage(String errorMessage) {
         this.errorMessages.add(errorMessage);
     }
+
+    public synchronized TableVerificationStatus getVerificationStatus() {
+        return verificationStatus;
+    }
+
+    public synchronized void setVerificationStatus(TableVerificationStatus verificationStatus) {
+        this.verificationStatus = verificationStatus;
+    }
+
+    public synchronized long getTargetRecordCount() {
+        return targetRecordCount;
+    }
+
+    public synchronized void setTargetRecordCount(long targetRecordCount) {
+        this.targetRecordCount = targetRecordCount;
+    }
+
+    public synchronized List<String> getMismatchedRanges() {
+        return mismatchedRanges;
+    }
+
+    public synchronized void setMismatchedRanges(List<String> mismatchedRanges) {
+        this.mismatchedRanges = mismatchedRanges;
+    }
 }
@@ -0,0 +1,9 @@
+package com.dbsync.dbsync.progress;
+
+public enum TableVerificationStatus {
+    NOT_VERIFIED,
+    MATCHED, // Row counts and chunk checksums are equal
+    MISMATCHED, // Some ranges differ (still, after a repair), see mismatchedRanges
+    REPAIRED, // Differing ranges were re-copied and verified again to match
+    FAILED   // Verification itself failed
+}
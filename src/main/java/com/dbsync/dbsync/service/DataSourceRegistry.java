@@ -0,0 +1,301 @@
+package com.dbsync.dbsync.service;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import com.dbsync.dbsync.config.DatabaseOptimizationConfig;
+import com.dbsync.dbsync.mapper.auth.DbConnectionMapper;
+import com.dbsync.dbsync.model.DbConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按DbConnection id管理的连接池注册表
+ *
+ * 同步、查询、脚本和元数据读取都从这里借用连接，不再每次新建物理连接。
+ * 返回的DataSource只是一个句柄，每次getConnection时才解析到当前的Druid连接池，
+ * 因此连接池被空闲回收或因连接配置修改而失效后，持有句柄的任务会自动使用新建的连接池。
+ * 连接池始终使用DbConnection中保存的账号；getConnection(username, password)交给Druid处理，
+ * 账号与连接配置一致时照常借出连接，不一致时由Druid拒绝（一个连接池只对应一组账号）。
+ * 连接池由同步、即席查询、脚本执行和元数据读取共用，URL上只加不改变查询结果行为的参数，
+ * 只影响某一种用法的设置（如MySQL的流式读取）在对应的语句上设置。
+ */
+@Component
+public class DataSourceRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataSourceRegistry.class);
+
+    private static final long EVICTION_INTERVAL_SECONDS = 60;
+
+    @Autowired
+    private DbConnectionMapper dbConnectionMapper;
+
+    @Autowired
+    private DatabaseOptimizationConfig optimizationConfig;
+
+    private final Map<String, PoolEntry> pools = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService evictor;
+
+    @PostConstruct
+    public void startEvictor() {
+        evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dbsync-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleWithFixedDelay(this::evictIdlePools, EVICTION_INTERVAL_SECONDS, EVICTION_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (evictor != null) {
+            evictor.shutdownNow();
+        }
+        for (String key : new ArrayList<>(pools.keySet())) {
+            closePool(pools.remove(key));
+        }
+    }
+
+    /**
+     * 获取连接对应的DataSource（使用连接配置中的默认schema）
+     */
+    public DataSource getDataSource(Long connectionId) {
+        return getDataSource(connectionId, null);
+    }
+
+    /**
+     * 获取连接对应的DataSource
+     *
+     * @param schema PostgreSQL/Vastbase通过currentSchema指定schema，每个schema使用单独的连接池；其他数据库忽略
+     */
+    public DataSource getDataSource(Long connectionId, String schema) {
+        if (connectionId == null) {
+            throw new IllegalArgumentException("数据库连接ID不能为空");
+        }
+        return new RegisteredDataSource(connectionId, schema == null ? "" : schema.trim());
+    }
+
+    /**
+     * 获取连接对应的DataSource，schema只对PostgreSQL/Vastbase生效，其他数据库共用默认连接池
+     */
+    public DataSource getDataSource(DbConnection connection, String schema) {
+        String dbType = connection.getDbType().toLowerCase();
+        boolean schemaInUrl = "postgresql".equals(dbType) || "vastbase".equals(dbType);
+        return getDataSource(connection.getId(), schemaInUrl ? schema : null);
+    }
+
+    /**
+     * 使某个连接的所有连接池失效（连接配置修改、删除或禁用时调用）
+     * 正在使用的连接归还时由Druid关闭，之后的借用会按新配置重建连接池
+     */
+    public void invalidate(Long connectionId) {
+        String prefix = connectionId + "|";
+        for (String key : new ArrayList<>(pools.keySet())) {
+            if (key.startsWith(prefix)) {
+                PoolEntry removed = pools.remove(key);
+                if (removed != null) {
+                    logger.info("连接池已失效，连接ID: {}, 连接池: {}", connectionId, removed.dataSource.getName());
+                    closePool(removed);
+                }
+            }
+        }
+    }
+
+    /**
+     * 构建连接池使用的JDBC URL
+     */
+    public static String buildJdbcUrl(DbConnection connection, String schema) {
+        String host = connection.getHost();
+        Integer port = connection.getPort();
+        String database = connection.getDatabase();
+
+        switch (connection.getDbType().toLowerCase()) {
+            case "mysql":
+                // rewriteBatchedStatements把批量INSERT改写为多行INSERT，一个批次一次往返（只影响executeBatch）
+                // 不加useCursorFetch：它会改变共用连接池上所有查询的结果集行为，流式读取改在语句上开启
+                return String.format("jdbc:mysql://%s:%d/%s?serverTimezone=UTC&useSSL=false&rewriteBatchedStatements=true", host, port, database);
+            case "postgresql":
+            case "vastbase":
+                String url = String.format("jdbc:postgresql://%s:%d/%s", host, port, database);
+                return schema == null || schema.isEmpty() ? url : url + "?currentSchema=" + schema;
+            case "oracle":
+                return String.format("jdbc:oracle:thin:@//%s:%d/%s", host, port, database);
+            case "sqlserver":
+                return String.format("jdbc:sqlserver://%s:%d;databaseName=%s", host, port, database);
+            case "dameng":
+                return String.format("jdbc:dm://%s:%d/%s", host, port, database);
+            default:
+                throw new RuntimeException("不支持的数据库类型: " + connection.getDbType());
+        }
+    }
+
+    /**
+     * 获取驱动类名
+     */
+    public static String getDriverClassName(String dbType) {
+        switch (dbType.toLowerCase()) {
+            case "mysql":
+                return "com.mysql.cj.jdbc.Driver";
+            case "postgresql":
+            case "vastbase":
+                return "org.postgresql.Driver";
+            case "oracle":
+                return "oracle.jdbc.driver.OracleDriver";
+            case "sqlserver":
+                return "com.microsoft.sqlserver.jdbc.SQLServerDriver";
+            case "dameng":
+                return "dm.jdbc.driver.DmDriver";
+            default:
+                throw new RuntimeException("不支持的数据库类型: " + dbType);
+        }
+    }
+
+    /**
+     * 从连接池借出连接的方式
+     */
+    @FunctionalInterface
+    private interface PoolBorrower {
+        Connection borrow(DruidDataSource pool) throws SQLException;
+    }
+
+    private Connection borrow(Long connectionId, String schema, PoolBorrower borrower) throws SQLException {
+        String key = connectionId + "|" + schema;
+        // One retry covers the window where the pool is invalidated between lookup and getConnection
+        for (int attempt = 0; ; attempt++) {
+            PoolEntry entry = pools.compute(key, (k, existing) -> {
+                if (existing != null) {
+                    existing.lastUsed = System.currentTimeMillis();
+                    return existing;
+                }
+                return createPool(connectionId, schema);
+            });
+            try {
+                return borrower.borrow(entry.dataSource);
+            } catch (SQLException e) {
+                if (attempt == 0 && entry.dataSource.isClosed()) {
+                    continue;
+                }
+                throw e;
+            }
+        }
+    }
+
+    private PoolEntry createPool(Long connectionId, String schema) {
+        DbConnection connection = dbConnectionMapper.findById(connectionId);
+        if (connection == null) {
+            throw new RuntimeException("数据库连接不存在: " + connectionId);
+        }
+        String dbType = connection.getDbType().toLowerCase();
+
+        DruidDataSource dataSource = new DruidDataSource();
+        dataSource.setName("dbsync-" + connectionId + (schema.isEmpty() ? "" : "-" + schema));
+        dataSource.setDriverClassName(getDriverClassName(dbType));
+        dataSource.setUrl(buildJdbcUrl(connection, "postgresql".equals(dbType) || "vastbase".equals(dbType) ? schema : null));
+        dataSource.setUsername(connection.getUsername());
+        dataSource.setPassword(connection.getPassword());
+        dataSource.setInitialSize(0);
+        dataSource.setMinIdle(optimizationConfig.getMinPoolSize());
+        dataSource.setMaxActive(optimizationConfig.getMaxPoolSize());
+        dataSource.setMaxWait(optimizationConfig.getConnectionTimeoutMs());
+        dataSource.setValidationQuery("oracle".equals(dbType) ? "SELECT 1 FROM DUAL" : "SELECT 1");
+        dataSource.setTestWhileIdle(true);
+        dataSource.setTestOnBorrow(false);
+        dataSource.setTimeBetweenEvictionRunsMillis(TimeUnit.SECONDS.toMillis(EVICTION_INTERVAL_SECONDS));
+        dataSource.setMinEvictableIdleTimeMillis(TimeUnit.MINUTES.toMillis(5));
+        // Fail fast on bad credentials instead of retrying in the background forever
+        dataSource.setConnectionErrorRetryAttempts(1);
+        dataSource.setBreakAfterAcquireFailure(true);
+        dataSource.setFailFast(true);
+
+        logger.info("创建连接池，连接ID: {}, 名称: {}, 最小空闲: {}, 最大连接: {}",
+                connectionId, dataSource.getName(), dataSource.getMinIdle(), dataSource.getMaxActive());
+        return new PoolEntry(dataSource);
+    }
+
+    /**
+     * 回收长时间未使用且没有活动连接的连接池
+     */
+    void evictIdlePools() {
+        long idleTimeoutMs = TimeUnit.MINUTES.toMillis(optimizationConfig.getPoolIdleTimeoutMinutes());
+        long now = System.currentTimeMillis();
+        List<PoolEntry> evicted = new ArrayList<>();
+        for (String key : new ArrayList<>(pools.keySet())) {
+            pools.computeIfPresent(key, (k, entry) -> {
+                if (optimizationConfig.isEnablePoolMonitoring()) {
+                    logger.debug("连接池状态 {}: 活动 {}, 空闲 {}, 等待 {}", entry.dataSource.getName(),
+                            entry.dataSource.getActiveCount(), entry.dataSource.getPoolingCount(), entry.dataSource.getWaitThreadCount());
+                }
+                if (entry.dataSource.getActiveCount() == 0 && now - entry.lastUsed > idleTimeoutMs) {
+                    evicted.add(entry);
+                    return null;
+                }
+                return entry;
+            });
+        }
+        for (PoolEntry entry : evicted) {
+            logger.info("回收空闲连接池: {}", entry.dataSource.getName());
+            closePool(entry);
+        }
+    }
+
+    int getPoolCount() {
+        return pools.size();
+    }
+
+    private void closePool(PoolEntry entry) {
+        if (entry != null) {
+            try {
+                entry.dataSource.close();
+            } catch (Exception e) {
+                logger.warn("关闭连接池失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static class PoolEntry {
+        private final DruidDataSource dataSource;
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        PoolEntry(DruidDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+
+    /**
+     * 连接池句柄，每次借用连接时解析到当前连接池
+     */
+    private class RegisteredDataSource extends AbstractDataSource {
+        private final Long connectionId;
+        private final String schema;
+
+        RegisteredDataSource(Long connectionId, String schema) {
+            this.connectionId = connectionId;
+            this.schema = schema;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return borrow(connectionId, schema, DruidDataSource::getConnection);
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return borrow(connectionId, schema, pool -> pool.getConnection(username, password));
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.dbsync.dbsync.config.CacheConfig;
 import com.dbsync.dbsync.entity.ColumnInfo;
 import com.dbsync.dbsync.entity.TableInfo;
 import com.dbsync.dbsync.entity.BasicTableInfo;
+import com.dbsync.dbsync.entity.TableSnapshot;
 import com.dbsync.dbsync.dto.TablePageRequest;
 import com.dbsync.dbsync.dto.TablePageResponse;
 import org.slf4j.Logger;
@@ -32,6 +33,9 @@ public class DatabaseMetadataCacheService {
     @Autowired
     private DbConnectionService dbConnectionService;
 
+    @Autowired
+    private SchemaSnapshotService schemaSnapshotService;
+
     /**
      * 获取数据库表列表（带缓存）
      */
@@ -52,13 +56,25 @@ public class DatabaseMetadataCacheService {
     }
 
     /**
-     * 获取表的列信息（带缓存）
+     * 获取表的列信息
+     * 启用元数据快照时从快照读取（表结构变化后自动重新加载），否则使用带过期时间的缓存
      */
-    @Cacheable(value = CacheConfig.TABLE_COLUMNS_CACHE, 
-               key = "#connectionId + '_' + #tableName + '_' + (#schemaName != null ? #schemaName : 'default')")
     public List<ColumnInfo> getTableColumns(Long connectionId, String tableName, String schemaName) {
-        logger.info("从数据库获取表列信息，连接ID: {}, 表名: {}, Schema: {}", connectionId, tableName, schemaName);
-        return dbConnectionService.getTableColumns(connectionId, tableName, schemaName);
+        if (schemaSnapshotService.isEnabled()) {
+            TableSnapshot snapshot = schemaSnapshotService.getTable(connectionId, tableName, schemaName);
+            if (snapshot != null) {
+                return snapshot.getColumns();
+            }
+        }
+        String cacheKey = connectionId + "_" + tableName + "_" + (schemaName != null ? schemaName : "default");
+        Cache cache = cacheManager.getCache(CacheConfig.TABLE_COLUMNS_CACHE);
+        if (cache == null) {
+            return dbConnectionService.getTableColumns(connectionId, tableName, schemaName);
+        }
+        return cache.get(cacheKey, () -> {
+            logger.info("从数据库获取表列信息，连接ID: {}, 表名: {}, Schema: {}", connectionId, tableName, schemaName);
+            return dbConnectionService.getTableColumns(connectionId, tableName, schemaName);
+        });
     }
 
     /**
@@ -100,6 +116,7 @@ public class DatabaseMetadataCacheService {
                 key = "#connectionId + '*'", allEntries = false)
     public void evictConnectionCache(Long connectionId) {
         logger.info("清除连接缓存，连接ID: {}", connectionId);
+        schemaSnapshotService.evict(connectionId);
         
         // 手动清除所有相关的缓存条目
         evictCacheByPattern(CacheConfig.DB_TABLES_CACHE, connectionId.toString());
@@ -115,6 +132,7 @@ public class DatabaseMetadataCacheService {
      */
     public void evictTableCache(Long connectionId, String tableName, String schemaName) {
         logger.info("清除表缓存，连接ID: {}, 表名: {}, Schema: {}", connectionId, tableName, schemaName);
+        schemaSnapshotService.evictTable(connectionId, tableName, schemaName);
         
         String cacheKey = connectionId + "_" + tableName + "_" + (schemaName != null ? schemaName : "default");
         Cache cache = cacheManager.getCache(CacheConfig.TABLE_COLUMNS_CACHE);
@@ -132,6 +150,7 @@ public class DatabaseMetadataCacheService {
                 allEntries = true)
     public void evictAllCache() {
         logger.info("清除所有数据库元数据缓存");
+        schemaSnapshotService.evictAll();
     }
 
     /**
@@ -1,9 +1,43 @@
 package com.dbsync.dbsync.service;
 
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.dbsync.dbsync.entity.ForeignKeyInfo;
+import com.dbsync.dbsync.entity.IndexInfo;
 import com.dbsync.dbsync.mapper.TableMapper;
+import com.dbsync.dbsync.mapper.TableMetadataSqlProvider;
 import com.dbsync.dbsync.progress.ProgressManager;
+import com.dbsync.dbsync.progress.TableVerificationStatus;
+import com.dbsync.dbsync.sync.AdaptiveBatchSizer;
+import com.dbsync.dbsync.sync.ChangeApplier;
+import com.dbsync.dbsync.sync.ChangeBatch;
+import com.dbsync.dbsync.sync.ChangeEvent;
+import com.dbsync.dbsync.sync.ChangeSource;
+import com.dbsync.dbsync.sync.ColumnLayout;
+import com.dbsync.dbsync.sync.CopyCheckpoint;
+import com.dbsync.dbsync.sync.CopyCheckpointStore;
+import com.dbsync.dbsync.sync.CopyCheckpointTracker;
+import com.dbsync.dbsync.sync.FallbackTableWriter;
+import com.dbsync.dbsync.sync.IndexDdl;
+import com.dbsync.dbsync.sync.InsertPlan;
+import com.dbsync.dbsync.sync.PagedTableReader;
+import com.dbsync.dbsync.sync.PgCopyWriter;
+import com.dbsync.dbsync.sync.PipelinedTableCopier;
+import com.dbsync.dbsync.sync.PreparedInsertWriter;
+import com.dbsync.dbsync.sync.ReadStrategy;
+import com.dbsync.dbsync.sync.RowBatch;
+import com.dbsync.dbsync.sync.SourceReadPlan;
+import com.dbsync.dbsync.sync.SourceTableReader;
+import com.dbsync.dbsync.sync.SqlServerBulkCopyWriter;
+import com.dbsync.dbsync.sync.StagingSwap;
+import com.dbsync.dbsync.sync.StreamingTableReader;
+import com.dbsync.dbsync.sync.TableRange;
+import com.dbsync.dbsync.sync.TableDiffResult;
+import com.dbsync.dbsync.sync.TableDiffer;
+import com.dbsync.dbsync.sync.TableRangeSplitter;
+import com.dbsync.dbsync.sync.TableWriter;
+import com.dbsync.dbsync.sync.Watermark;
+import com.dbsync.dbsync.sync.WatermarkWindow;
 import com.dbsync.dbsync.typemapping.TypeMappingRegistry;
+import com.dbsync.dbsync.util.DatabaseMetadataUtil;
 import com.dbsync.dbsync.util.DatabaseRetryUtil;
 import com.dbsync.dbsync.config.DatabaseOptimizationConfig;
 import org.apache.ibatis.session.SqlSession;
@@ -11,16 +45,40 @@ import org.apache.ibatis.session.SqlSessionFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+import org.springframework.jdbc.support.SQLStateSQLExceptionTranslator;
 
 import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
 
 import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.zip.CRC32;
 import java.util.stream.Collectors;
 import org.apache.ibatis.mapping.Environment;
 import org.apache.ibatis.session.Configuration;
@@ -38,15 +96,21 @@ import java.util.stream.Collectors;
 @Service
 public class DatabaseSyncService {
     private static final Logger logger = LoggerFactory.getLogger(DatabaseSyncService.class);
+    private static final SQLExceptionTranslator SQL_EXCEPTION_TRANSLATOR = new SQLStateSQLExceptionTranslator();
     private final SqlSessionFactory sourceFactory;
     private final SqlSessionFactory targetFactory;
     private final boolean truncateBeforeSync;
+    // Target tables (lower case) created by createMissingTables and not yet loaded; syncTable treats them as new tables
+    private final Set<String> preCreatedTables = ConcurrentHashMap.newKeySet();
     private final TypeMappingRegistry typeMappingRegistry;
     private final String sourceDbType;
     private final String targetDbType;
     private final String targetSchemaName;
     private final ProgressManager progressManager; // Added ProgressManager
     private final DatabaseOptimizationConfig optimizationConfig;
+    // Source column structures are kept in the source connection's schema snapshot; null reads the catalog every time
+    private final SchemaSnapshotService schemaSnapshotService;
+    private final Long sourceConnectionId;
 
 
     public DatabaseSyncService(SqlSessionFactory sourceFactory, SqlSessionFactory targetFactory,
@@ -62,6 +126,29 @@ public class DatabaseSyncService {
         this.targetSchemaName = targetSchemaName;
         this.progressManager = progressManager; // Store ProgressManager
         this.optimizationConfig = optimizationConfig;
+        this.schemaSnapshotService = null;
+        this.sourceConnectionId = null;
+    }
+
+    /**
+     * Same as the other constructor, with source column structures served from the schema snapshot of the source
+     * connection: they are read again only when the table's change marker moves.
+     */
+    public DatabaseSyncService(SqlSessionFactory sourceFactory, SqlSessionFactory targetFactory, boolean truncateBeforeSync,
+                               TypeMappingRegistry typeMappingRegistry, String sourceDbType, String targetDbType, String targetSchemaName,
+                               ProgressManager progressManager, DatabaseOptimizationConfig optimizationConfig,
+                               SchemaSnapshotService schemaSnapshotService, Long sourceConnectionId) {
+        this.sourceFactory = sourceFactory;
+        this.targetFactory = targetFactory;
+        this.truncateBeforeSync = truncateBeforeSync;
+        this.typeMappingRegistry = typeMappingRegistry;
+        this.sourceDbType = sourceDbType;
+        this.targetDbType = targetDbType;
+        this.targetSchemaName = targetSchemaName;
+        this.progressManager = progressManager;
+        this.optimizationConfig = optimizationConfig;
+        this.schemaSnapshotService = schemaSnapshotService;
+        this.sourceConnectionId = sourceConnectionId;
     }
 
     /**
@@ -72,6 +159,28 @@ public class DatabaseSyncService {
      * @param sourceSchemaName The schema name for the source database.
      */
     public void syncDatabase(String taskId, List<String> tablesToSync, String sourceSchemaName) {
+        syncDatabase(taskId, tablesToSync, sourceSchemaName, Collections.<String, Long>emptyMap());
+    }
+
+    /**
+     * Same as {@link #syncDatabase(String, List, String)}, reusing source row counts the caller already fetched
+     * (e.g. for scheduling) instead of counting each table again.
+     *
+     * @param knownRowCounts Source row counts by table name; tables missing from the map are counted.
+     */
+    public void syncDatabase(String taskId, List<String> tablesToSync, String sourceSchemaName, Map<String, Long> knownRowCounts) {
+        syncDatabase(taskId, tablesToSync, sourceSchemaName, knownRowCounts, CopyCheckpointStore.NONE, () -> false);
+    }
+
+    /**
+     * Same as {@link #syncDatabase(String, List, String, Map)}, with resumable table copies: progress of keyset copies is
+     * saved to checkpointStore as it is committed, and a table that has checkpoints continues after the last committed
+     * key instead of being truncated and copied again. When stopRequested turns true the copy stops before the next
+     * batch, leaving its checkpoint for the next run.
+     */
+    public void syncDatabase(String taskId, List<String> tablesToSync, String sourceSchemaName, Map<String, Long> knownRowCounts,
+                             CopyCheckpointStore checkpointStore, BooleanSupplier stopRequested) {
+        CopyCheckpointStore checkpoints = optimizationConfig.getResume().isEnabled() ? checkpointStore : CopyCheckpointStore.NONE;
         if (tablesToSync == null || tablesToSync.isEmpty()) {
             logger.info("Task [{}]: No tables specified for synchronization. Skipping.", taskId);
             this.progressManager.startTask(taskId, 0); // Start task even if no tables, to mark it
@@ -86,8 +195,16 @@ public class DatabaseSyncService {
              SqlSession targetSession = targetFactory.openSession()) {
 
             logger.info("Task [{}]: Starting synchronization for {} tables from source schema '{}'", taskId, tablesToSync.size(), sourceSchemaName);
+            if (tablesToSync.size() > 1) {
+                createMissingTables(taskId, tablesToSync, sourceSchemaName);
+            }
 
             for (String tableName : tablesToSync) {
+                if (stopRequested.getAsBoolean()) {
+                    logger.info("Task [{}]: Stop requested, skipping the remaining tables.", taskId);
+                    allTablesSuccess = false;
+                    break;
+                }
                 String tableComment = null; // Placeholder
                 // Potentially fetch table comment here if needed for DDL
                 // ...
@@ -96,7 +213,8 @@ public class DatabaseSyncService {
                 logger.info("Task [{}]: Starting synchronization of table [{}]", taskId, tableName);
 
                 try {
-                    syncTable(taskId, sourceSession, targetSession, tableName, sourceSchemaName, tableComment);
+                    syncTable(taskId, sourceSession, targetSession, tableName, sourceSchemaName, tableComment, knownRowCounts.get(tableName),
+                            checkpoints, stopRequested);
                     targetSession.commit(); // Commit after each table successfully synced
 
                     long tableEndTime = System.currentTimeMillis();
@@ -132,35 +250,77 @@ public class DatabaseSyncService {
         }
     }
 
+    /**
+     * Synchronizes one table of a task whose progress the caller manages: the caller runs
+     * {@link ProgressManager#startTask} once before scheduling the task's tables (possibly in parallel) and
+     * {@link ProgressManager#completeTask} once after the last one, so no single table completes the whole task.
+     * Resume and stop behave as in {@link #syncDatabase(String, List, String, Map, CopyCheckpointStore, BooleanSupplier)}.
+     *
+     * @param knownRowCount Source row count the caller already fetched, or null to count the table.
+     * @throws Exception When the table fails; the failure is already recorded in the table's progress.
+     */
+    public void syncTableOfTask(String taskId, String tableName, String sourceSchemaName, Long knownRowCount,
+                                CopyCheckpointStore checkpointStore, BooleanSupplier stopRequested) throws Exception {
+        CopyCheckpointStore checkpoints = optimizationConfig.getResume().isEnabled() ? checkpointStore : CopyCheckpointStore.NONE;
+        try (SqlSession sourceSession = sourceFactory.openSession();
+             SqlSession targetSession = targetFactory.openSession()) {
+            try {
+                syncTable(taskId, sourceSession, targetSession, tableName, sourceSchemaName, null, knownRowCount,
+                        checkpoints, stopRequested);
+                targetSession.commit();
+            } catch (Exception e) {
+                targetSession.rollback();
+                throw e;
+            }
+        }
+    }
+
     private void syncTable(String taskId, SqlSession sourceSession, SqlSession targetSession,
-                           String tableName, String sourceSchemaName, String tableComment) throws Exception {
+                           String tableName, String sourceSchemaName, String tableComment, Long knownRowCount,
+                           CopyCheckpointStore checkpointStore, BooleanSupplier stopRequested) throws Exception {
         TableMapper sourceMapper = sourceSession.getMapper(TableMapper.class);
         TableMapper targetMapper = targetSession.getMapper(TableMapper.class);
 
         long sourceRecordCount = 0;
         boolean tableStructureCreatedOrExisted = false;
+        boolean diffed = false;
+        String stagingTableName = null;
+        DeferredIndexes deferredIndexes = null;
+        boolean truncated = false;
         String failureReason = null;
 
         try {
-            sourceRecordCount = sourceMapper.getTableCount(this.sourceDbType, tableName, sourceSchemaName);
+            sourceRecordCount = knownRowCount != null
+                    ? knownRowCount
+                    : sourceMapper.getTableCount(this.sourceDbType, tableName, sourceSchemaName);
             this.progressManager.startTableSync(taskId, tableName, sourceRecordCount);
+            List<CopyCheckpoint> checkpoints = checkpointStore.load(tableName);
 
             String targetTableNameForCheck = tableName.toLowerCase();
-            boolean tableExistsInTarget;
-            try {
-                List<Map<String, Object>> targetStructure = targetMapper.getTableStructure(this.targetDbType, tableName, this.targetSchemaName);
-                tableExistsInTarget = (targetStructure != null && !targetStructure.isEmpty());
-                if (!tableExistsInTarget && this.targetDbType.equals("postgresql")) {
-                    tableExistsInTarget = targetMapper.checkPgTableExists(targetTableNameForCheck) > 0;
+            boolean createdUpFront = preCreatedTables.remove(targetTableNameForCheck);
+            boolean tableExistsInTarget = createdUpFront;
+            if (!createdUpFront) {
+                try {
+                    List<Map<String, Object>> targetStructure = targetMapper.getTableStructure(this.targetDbType, tableName, this.targetSchemaName);
+                    tableExistsInTarget = (targetStructure != null && !targetStructure.isEmpty());
+                    if (!tableExistsInTarget && this.targetDbType.equals("postgresql")) {
+                        tableExistsInTarget = targetMapper.checkPgTableExists(targetTableNameForCheck) > 0;
+                    }
+                } catch (Exception e) {
+                    logger.warn("Task [{}], Table [{}]: Could not reliably check if target table exists, assuming it does not. Error: {}", taskId, tableName, e.getMessage());
+                    tableExistsInTarget = false;
                 }
-            } catch (Exception e) {
-                logger.warn("Task [{}], Table [{}]: Could not reliably check if target table exists, assuming it does not. Error: {}", taskId, tableName, e.getMessage());
-                tableExistsInTarget = false;
+            }
+
+            if ((!tableExistsInTarget || createdUpFront) && !checkpoints.isEmpty()) {
+                logger.warn("Task [{}], Table [{}]: Has copy checkpoints but no target table, copying from scratch.", taskId, tableName);
+                checkpointStore.clear(tableName);
+                checkpoints = Collections.emptyList();
             }
 
             if (!tableExistsInTarget) {
                 logger.info("Task [{}], Table [{}]: Does not exist in target, creating structure (source schema: {}).", taskId, tableName, sourceSchemaName);
-                List<Map<String, Object>> sourceStructure = sourceMapper.getTableStructure(this.sourceDbType, tableName, sourceSchemaName);
+                List<Map<String, Object>> sourceStructure = getSourceStructure(sourceMapper, tableName, sourceSchemaName);
                 if (sourceStructure == null || sourceStructure.isEmpty()) {
                     throw new Exception("No structure found for source table " + sourceSchemaName + "." + tableName + ". Cannot create target table.");
                 }
@@ -172,23 +332,76 @@ public class DatabaseSyncService {
                 // Execute DDL operations with proper transaction management for clusters
                 executeDDLWithClusterSupport(taskId, targetSession, tableName, sourceStructure, tableComment, sourceColumnComments, targetTableNameForCheck);
                 logger.info("Task [{}], Table [{}]: Structure created.", taskId, tableName);
+            } else if (createdUpFront) {
+                logger.info("Task [{}], Table [{}]: Structure was created before the copy started.", taskId, tableName);
+            } else if (!checkpoints.isEmpty()) {
+                logger.info("Task [{}], Table [{}]: Resuming an interrupted copy from {} checkpoint(s), keeping the rows already copied.",
+                        taskId, tableName, checkpoints.size());
+            } else if (optimizationConfig.getDiff().isEnabled()
+                    && syncTableDiff(taskId, sourceSession, targetSession, tableName, sourceSchemaName, sourceRecordCount, stopRequested)) {
+                diffed = true;
+            } else if (truncateBeforeSync && optimizationConfig.getStagingSwap().isEnabled() && StagingSwap.supports(this.targetDbType)
+                    && !isReferencedByOtherTables(taskId, tableName)) {
+                // The live table keeps serving reads while the staging table is loaded, instead of being truncated now
+                stagingTableName = createStagingTable(taskId, sourceSession, targetSession, tableName, sourceSchemaName, tableComment);
             } else if (truncateBeforeSync) {
                 logger.info("Task [{}], Table [{}]: Exists in target, truncating data before sync.", taskId, tableName);
                 // Execute TRUNCATE in a separate transaction to minimize lock time
                 executeTruncateInSeparateTransaction(taskId, targetSession, targetMapper, targetTableNameForCheck);
+                truncated = true;
             }
             tableStructureCreatedOrExisted = true;
 
             // Sync data
-            if (sourceRecordCount > 0) {
-                syncTableData(taskId, sourceSession, targetSession, tableName, sourceSchemaName);
+            if (diffed) {
+                logger.info("Task [{}], Table [{}]: Target brought in line with the source by diff.", taskId, tableName);
+            } else if (sourceRecordCount > 0) {
+                // Keys may only be dropped while the table holds nothing but this load: appended or resumed rows would
+                // go in unchecked against the existing data, and a duplicate would make the key impossible to rebuild
+                if (tableExistsInTarget && !createdUpFront && stagingTableName == null && checkpoints.isEmpty()
+                        && optimizationConfig.getDeferredIndex().isEnabled()
+                        && (truncated || targetMapper.getTableCount(this.targetDbType, targetTableNameForCheck, this.targetSchemaName) == 0)) {
+                    deferredIndexes = dropTargetIndexes(taskId, tableName);
+                }
+                try {
+                    // A staging load is not checkpointed: an interrupted one leaves the live table untouched and starts over
+                    syncTableData(taskId, sourceSession, targetSession, tableName,
+                            stagingTableName != null ? stagingTableName : targetTableNameForCheck, sourceSchemaName, sourceRecordCount,
+                            checkpoints, stagingTableName != null ? CopyCheckpointStore.NONE : checkpointStore, stopRequested);
+                } catch (Exception e) {
+                    // The indexes come back even when the load fails, a half-loaded table must not stay without its keys
+                    if (deferredIndexes != null) {
+                        List<String> notRebuilt = rebuildTargetIndexes(taskId, tableName, deferredIndexes);
+                        if (!notRebuilt.isEmpty()) {
+                            throw new SQLException(e.getMessage() + "; " + describeNotRebuilt(tableName, notRebuilt), e);
+                        }
+                    }
+                    throw e;
+                }
+                if (deferredIndexes != null) {
+                    List<String> notRebuilt = rebuildTargetIndexes(taskId, tableName, deferredIndexes);
+                    if (!notRebuilt.isEmpty()) {
+                        throw new SQLException(describeNotRebuilt(tableName, notRebuilt));
+                    }
+                }
             } else {
                 logger.info("Task [{}], Table [{}]: No records to sync from source.", taskId, tableName);
             }
+            if (stagingTableName != null) {
+                List<String> notRebuilt = swapInStagingTable(taskId, tableName, stagingTableName);
+                stagingTableName = null;
+                if (!notRebuilt.isEmpty()) {
+                    throw new SQLException(describeNotRebuilt(tableName, notRebuilt));
+                }
+            }
+            checkpointStore.clear(tableName); // The table is complete, the next run starts over
 
         } catch (Exception e) {
             failureReason = e.getMessage();
             logger.error("Task [{}], Table [{}]: Error during table synchronization process: {}", taskId, tableName, failureReason, e);
+            if (stagingTableName != null) {
+                dropStagingTable(taskId, tableName, stagingTableName);
+            }
             throw e; // Rethrow to be caught by syncDatabase loop
         } finally {
             // If startTableSync was called (i.e., sourceRecordCount was fetched), then complete it.
@@ -210,6 +423,797 @@ public class DatabaseSyncService {
         }
     }
 
+    /**
+     * Staging-swap load, step 1: create the table again as {@code <table>__staging} from the source structure. It has no
+     * indexes or constraints yet, so the bulk load does not maintain them row by row. A staging table left behind by an
+     * interrupted run is dropped first.
+     */
+    private String createStagingTable(String taskId, SqlSession sourceSession, SqlSession targetSession, String tableName,
+                                      String sourceSchemaName, String tableComment) throws Exception {
+        String stagingTableName = StagingSwap.stagingTableName(this.targetDbType, tableName);
+        if (targetTableExists(targetSession, stagingTableName)) {
+            logger.warn("Task [{}], Table [{}]: Dropping staging table {} left by an earlier run.", taskId, tableName, stagingTableName);
+            executeTargetStatements(Collections.singletonList(StagingSwap.dropTableSql(this.targetDbType, stagingTableName)), false);
+        }
+        TableMapper sourceMapper = sourceSession.getMapper(TableMapper.class);
+        List<Map<String, Object>> sourceStructure = getSourceStructure(sourceMapper, tableName, sourceSchemaName);
+        if (sourceStructure == null || sourceStructure.isEmpty()) {
+            throw new Exception("No structure found for source table " + sourceSchemaName + "." + tableName + ". Cannot create staging table.");
+        }
+        List<Map<String, String>> sourceColumnComments = sourceMapper.getColumnComments(this.sourceDbType, tableName, sourceSchemaName);
+        executeDDLWithClusterSupport(taskId, targetSession, stagingTableName, sourceStructure, tableComment, sourceColumnComments, stagingTableName);
+        logger.info("Task [{}], Table [{}]: Loading into staging table {}, the live table stays readable until the swap.",
+                taskId, tableName, stagingTableName);
+        return stagingTableName;
+    }
+
+    /**
+     * A staging swap renames the live table away, and foreign keys of other tables would follow it to {@code <table>__old}
+     * (making the drop fail on PostgreSQL, or leaving it behind with the children pointing at it where DDL commits itself).
+     * Such tables are truncated and loaded in place instead.
+     */
+    private boolean isReferencedByOtherTables(String taskId, String tableName) throws SQLException {
+        Set<String> referencing = StagingSwap.referencingTables(
+                normalizeMetadataName(this.targetDbType.toLowerCase(), tableName.toLowerCase()), targetForeignKeys(tableName));
+        if (referencing.isEmpty()) {
+            return false;
+        }
+        logger.info("Task [{}], Table [{}]: Referenced by foreign keys of {}, truncating it instead of loading a staging table.",
+                taskId, tableName, referencing);
+        return true;
+    }
+
+    /**
+     * Foreign keys the live target table declares and the ones referencing it.
+     */
+    private List<ForeignKeyInfo> targetForeignKeys(String tableName) throws SQLException {
+        DataSource targetDataSource = this.targetFactory.getConfiguration().getEnvironment().getDataSource();
+        String schema = (this.targetSchemaName == null || this.targetSchemaName.trim().isEmpty()) ? null : this.targetSchemaName;
+        try (Connection connection = targetDataSource.getConnection()) {
+            return DatabaseMetadataUtil.getForeignKeys(connection, schema,
+                    normalizeMetadataName(this.targetDbType.toLowerCase(), tableName.toLowerCase()));
+        }
+    }
+
+    /**
+     * Staging-swap load, step 2: build the primary key and indexes of the live table on the loaded staging table, then
+     * replace the live table by renames. PostgreSQL/Vastbase and SQL Server run the renames, the drop of the old table
+     * and the index renames in one short transaction; MySQL swaps both tables in one RENAME TABLE; Oracle/Dameng DDL
+     * commits itself, leaving a window of two back-to-back renames. Views depending on the live table make the drop
+     * fail; transactional targets then roll back to the live table. The live table's own foreign keys are recreated
+     * after the swap; its check constraints, triggers and grants are not carried over.
+     *
+     * @return The foreign keys that could not be recreated after the swap, each already logged with its error
+     */
+    private List<String> swapInStagingTable(String taskId, String tableName, String stagingTableName) throws Exception {
+        DataSource targetDataSource = this.targetFactory.getConfiguration().getEnvironment().getDataSource();
+        String schema = (this.targetSchemaName == null || this.targetSchemaName.trim().isEmpty()) ? null : this.targetSchemaName;
+        String metadataTableName = normalizeMetadataName(this.targetDbType.toLowerCase(), tableName.toLowerCase());
+        List<IndexInfo> indexes;
+        List<ForeignKeyInfo> foreignKeys;
+        try (Connection connection = targetDataSource.getConnection()) {
+            indexes = DatabaseMetadataUtil.getIndexDefinitions(connection, schema, metadataTableName);
+            foreignKeys = DatabaseMetadataUtil.getForeignKeys(connection, schema, metadataTableName);
+        }
+        // Checked again right before the swap: a child table may have been added while the staging table loaded
+        Set<String> referencing = StagingSwap.referencingTables(metadataTableName, foreignKeys);
+        if (!referencing.isEmpty()) {
+            throw new SQLException("Table " + tableName + " is now referenced by foreign keys of " + referencing
+                    + ", not swapping in " + stagingTableName);
+        }
+        List<ForeignKeyInfo> ownForeignKeys = StagingSwap.ownForeignKeys(metadataTableName, foreignKeys);
+        for (ForeignKeyInfo foreignKey : ownForeignKeys) {
+            logger.info("Task [{}], Table [{}]: Recreating after the swap: {}", taskId, tableName,
+                    IndexDdl.createForeignKeySql(this.targetDbType, foreignKey));
+        }
+        logger.info("Task [{}], Table [{}]: The swap keeps the primary key, indexes and {} foreign key(s); check constraints, "
+                + "triggers and grants of the live table are not carried over.", taskId, tableName, ownForeignKeys.size());
+
+        List<String> notBuilt = buildTargetIndexes(taskId, tableName, stagingTableName, indexes,
+                index -> StagingSwap.stagingIndexName(this.targetDbType, index));
+        if (!notBuilt.isEmpty()) {
+            throw new SQLException("Could not build " + notBuilt.size() + " index(es) on staging table " + stagingTableName
+                    + ", keeping the live table: " + String.join("; ", notBuilt));
+        }
+
+        long start = System.currentTimeMillis();
+        executeTargetStatements(StagingSwap.swapSql(this.targetDbType, tableName, stagingTableName, indexes),
+                StagingSwap.isTransactional(this.targetDbType));
+        logger.info("Task [{}], Table [{}]: Swapped {} in as the live table in {} ms.", taskId, tableName, stagingTableName,
+                System.currentTimeMillis() - start);
+
+        // The old table took its foreign keys along when it was dropped
+        DeferredIndexes foreignKeysOnly = new DeferredIndexes();
+        foreignKeysOnly.foreignKeys.addAll(ownForeignKeys);
+        return rebuildTargetIndexes(taskId, tableName, foreignKeysOnly);
+    }
+
+    /**
+     * Deferred index build, step 1: record the primary key, secondary indexes and foreign keys of the live table (both
+     * the ones it declares and the ones referencing it) and drop them, so that the bulk load does no per-row index or
+     * constraint maintenance. The recreate statements are logged first, so that they can be run by hand if the process
+     * dies before step 2. An object that cannot be dropped (e.g. an index backing a PostgreSQL UNIQUE constraint) stays.
+     * Only used on a table that was just truncated or is empty, never when appending to or resuming into existing rows.
+     */
+    private DeferredIndexes dropTargetIndexes(String taskId, String tableName) throws SQLException {
+        DataSource targetDataSource = this.targetFactory.getConfiguration().getEnvironment().getDataSource();
+        String schema = (this.targetSchemaName == null || this.targetSchemaName.trim().isEmpty()) ? null : this.targetSchemaName;
+        String targetTableName = tableName.toLowerCase();
+        String metadataTableName = normalizeMetadataName(this.targetDbType.toLowerCase(), targetTableName);
+        List<IndexInfo> indexes;
+        List<ForeignKeyInfo> foreignKeys;
+        try (Connection connection = targetDataSource.getConnection()) {
+            indexes = DatabaseMetadataUtil.getIndexDefinitions(connection, schema, metadataTableName);
+            foreignKeys = optimizationConfig.getDeferredIndex().isForeignKeys()
+                    ? DatabaseMetadataUtil.getForeignKeys(connection, schema, metadataTableName)
+                    : Collections.<ForeignKeyInfo>emptyList();
+        }
+        if (indexes.isEmpty() && foreignKeys.isEmpty()) {
+            return null;
+        }
+        for (IndexInfo index : indexes) {
+            logger.info("Task [{}], Table [{}]: Deferring {}", taskId, tableName, IndexDdl.createSql(this.targetDbType, targetTableName, index, index.getIndexName()));
+        }
+        for (ForeignKeyInfo foreignKey : foreignKeys) {
+            logger.info("Task [{}], Table [{}]: Deferring {}", taskId, tableName, IndexDdl.createForeignKeySql(this.targetDbType, foreignKey));
+        }
+
+        // Foreign keys first (they depend on the primary key), the primary key last
+        DeferredIndexes dropped = new DeferredIndexes();
+        for (ForeignKeyInfo foreignKey : foreignKeys) {
+            if (dropTargetObject(taskId, tableName, IndexDdl.dropForeignKeySql(this.targetDbType, foreignKey))) {
+                dropped.foreignKeys.add(foreignKey);
+            }
+        }
+        List<IndexInfo> dropOrder = new ArrayList<>(indexes);
+        dropOrder.sort(Comparator.comparing(index -> Boolean.TRUE.equals(index.getPrimaryKey())));
+        for (IndexInfo index : dropOrder) {
+            if (dropTargetObject(taskId, tableName, IndexDdl.dropSql(this.targetDbType, targetTableName, index))) {
+                dropped.indexes.add(index);
+            }
+        }
+        logger.info("Task [{}], Table [{}]: Dropped {} index(es) and {} foreign key(s) for the load.",
+                taskId, tableName, dropped.indexes.size(), dropped.foreignKeys.size());
+        return dropped;
+    }
+
+    private boolean dropTargetObject(String taskId, String tableName, String sql) {
+        try {
+            executeTargetStatements(Collections.singletonList(sql), false);
+            return true;
+        } catch (SQLException e) {
+            logger.warn("Task [{}], Table [{}]: Keeping it during the load, could not run {}: {}", taskId, tableName, sql, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Deferred index build, step 2: recreate what step 1 dropped, indexes before the foreign keys that need them. Every
+     * object is attempted even when an earlier one fails, so one bad index does not leave the others missing too.
+     *
+     * @return The statements that failed, each already logged with its error; empty when everything was rebuilt
+     */
+    private List<String> rebuildTargetIndexes(String taskId, String tableName, DeferredIndexes deferredIndexes) throws InterruptedException {
+        List<String> failed = new ArrayList<>(
+                buildTargetIndexes(taskId, tableName, tableName.toLowerCase(), deferredIndexes.indexes, IndexInfo::getIndexName));
+        for (ForeignKeyInfo foreignKey : deferredIndexes.foreignKeys) {
+            String sql = IndexDdl.createForeignKeySql(this.targetDbType, foreignKey);
+            try {
+                executeTargetStatements(Collections.singletonList(sql), false);
+            } catch (SQLException e) {
+                logger.error("Task [{}], Table [{}]: Could not recreate foreign key, run it by hand once the data is fixed: {} ({})",
+                        taskId, tableName, sql, e.getMessage());
+                failed.add(sql + " (" + e.getMessage() + ")");
+            }
+        }
+        return failed;
+    }
+
+    private static String describeNotRebuilt(String tableName, List<String> notRebuilt) {
+        return "could not rebuild " + notRebuilt.size() + " deferred index(es)/foreign key(s) of table " + tableName + ": "
+                + String.join("; ", notRebuilt);
+    }
+
+    /**
+     * Builds indexes on a freshly loaded table: the primary key first, then the other indexes. PostgreSQL/Vastbase build
+     * several indexes of one table at once (CREATE INDEX only takes a SHARE lock), each on its own connection with a
+     * larger maintenance_work_mem; Oracle builds one index at a time with the PARALLEL clause; the other databases
+     * serialize index builds on a table anyway and build them one by one. A failed build is logged with its DDL and
+     * the remaining ones still run.
+     *
+     * @return The statements of the builds that failed, with their errors
+     */
+    private List<String> buildTargetIndexes(String taskId, String tableName, String targetTableName, List<IndexInfo> indexes,
+                                            Function<IndexInfo, String> indexName) throws InterruptedException {
+        List<String> failed = Collections.synchronizedList(new ArrayList<>());
+        if (indexes.isEmpty()) {
+            return failed;
+        }
+        DatabaseOptimizationConfig.DeferredIndexConfig config = optimizationConfig.getDeferredIndex();
+        String dbType = this.targetDbType.toLowerCase();
+        boolean postgres = "postgresql".equals(dbType) || "vastbase".equals(dbType);
+        long start = System.currentTimeMillis();
+
+        List<List<String>> builds = new ArrayList<>();
+        for (IndexInfo index : indexes) {
+            List<String> statements = IndexDdl.createSql(dbType, targetTableName, index, indexName.apply(index),
+                    "oracle".equals(dbType) ? config.getOracleParallelDegree() : 0);
+            if (Boolean.TRUE.equals(index.getPrimaryKey())) {
+                tryIndexBuild(taskId, tableName, statements, postgres ? config.getPostgresqlMaintenanceWorkMem() : null, failed);
+            } else {
+                builds.add(statements);
+            }
+        }
+
+        int threads = postgres ? Math.max(1, Math.min(config.getBuildParallelism(), builds.size())) : 1;
+        if (threads == 1) {
+            for (List<String> statements : builds) {
+                tryIndexBuild(taskId, tableName, statements, postgres ? config.getPostgresqlMaintenanceWorkMem() : null, failed);
+            }
+        } else {
+            AtomicInteger threadSequence = new AtomicInteger();
+            ExecutorService indexExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "dbsync-index-" + tableName + "-" + threadSequence.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (List<String> statements : builds) {
+                    futures.add(indexExecutor.submit(() ->
+                            tryIndexBuild(taskId, tableName, statements, config.getPostgresqlMaintenanceWorkMem(), failed)));
+                }
+                for (Future<?> future : futures) {
+                    try {
+                        future.get();
+                    } catch (ExecutionException e) {
+                        // tryIndexBuild records SQL errors itself, anything else is recorded here
+                        failed.add(String.join("; ", builds.get(futures.indexOf(future))) + " (" + e.getCause() + ")");
+                    }
+                }
+            } finally {
+                indexExecutor.shutdownNow();
+            }
+        }
+        logger.info("Task [{}], Table [{}]: Built {} of {} index(es) on {} in {} ms ({} at a time).", taskId, tableName,
+                indexes.size() - failed.size(), indexes.size(), targetTableName, System.currentTimeMillis() - start, threads);
+        return failed;
+    }
+
+    private void tryIndexBuild(String taskId, String tableName, List<String> statements, String maintenanceWorkMem, List<String> failed) {
+        try {
+            runIndexBuild(statements, maintenanceWorkMem);
+        } catch (SQLException e) {
+            String sql = String.join("; ", statements);
+            logger.error("Task [{}], Table [{}]: Could not build index, run it by hand once the data is fixed: {} ({})",
+                    taskId, tableName, sql, e.getMessage());
+            failed.add(sql + " (" + e.getMessage() + ")");
+        }
+    }
+
+    private void runIndexBuild(List<String> statements, String maintenanceWorkMem) throws SQLException {
+        DataSource targetDataSource = this.targetFactory.getConfiguration().getEnvironment().getDataSource();
+        try (Connection connection = targetDataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(true);
+            if (maintenanceWorkMem != null && !maintenanceWorkMem.isEmpty()) {
+                statement.execute("SET maintenance_work_mem = '" + maintenanceWorkMem.replace("'", "") + "'");
+            }
+            try {
+                for (String sql : statements) {
+                    logger.debug("Executing on target: {}", sql);
+                    statement.execute(sql);
+                }
+            } finally {
+                if (maintenanceWorkMem != null && !maintenanceWorkMem.isEmpty()) {
+                    statement.execute("RESET maintenance_work_mem"); // The connection goes back to the pool
+                }
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private void dropStagingTable(String taskId, String tableName, String stagingTableName) {
+        try {
+            executeTargetStatements(Collections.singletonList(StagingSwap.dropTableSql(this.targetDbType, stagingTableName)), false);
+            logger.info("Task [{}], Table [{}]: Dropped staging table {}, the live table was left unchanged.", taskId, tableName, stagingTableName);
+        } catch (SQLException e) {
+            logger.warn("Task [{}], Table [{}]: Could not drop staging table {}, the next run drops it. Error: {}",
+                    taskId, tableName, stagingTableName, e.getMessage());
+        }
+    }
+
+    /**
+     * Runs DDL on a target connection of its own, either all in one transaction or each statement committed on its own.
+     */
+    private void executeTargetStatements(List<String> statements, boolean inOneTransaction) throws SQLException {
+        DataSource targetDataSource = this.targetFactory.getConfiguration().getEnvironment().getDataSource();
+        try (Connection connection = targetDataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(!inOneTransaction);
+            try {
+                for (String sql : statements) {
+                    logger.debug("Executing on target: {}", sql);
+                    statement.execute(sql);
+                }
+                if (inOneTransaction) {
+                    connection.commit();
+                }
+            } catch (SQLException e) {
+                if (inOneTransaction) {
+                    connection.rollback();
+                }
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * Incrementally synchronizes one table by its watermark column: only rows with lastWatermark < column <= current
+     * maximum are read (keyset pages over the table key) and written with a dialect UPSERT, so changed rows are updated
+     * in place. Without a previous watermark, or when the target table is missing, the table is copied in full first.
+     * Like {@link #syncTableOfTask}, the caller starts and completes the task's progress.
+     *
+     * @param watermarkColumn Monotonic source column, e.g. updated_at or an increasing id. Matched against the source
+     *                        columns ignoring case, so a name declared in lower case still works on Oracle and Dameng.
+     * @param lastWatermark   High-water mark of the previous successful run, or null for the first run.
+     * @return The watermark to store for the next run (null when the table is still empty).
+     */
+    public Watermark syncTableIncremental(String taskId, String tableName, String sourceSchemaName,
+                                          String watermarkColumn, Watermark lastWatermark) throws Exception {
+        try (SqlSession sourceSession = sourceFactory.openSession();
+             SqlSession targetSession = targetFactory.openSession()) {
+            // The column is quoted in the window queries, so it must be spelled as the source catalog stores it
+            String column = resolveSourceColumn(sourceSession, tableName, sourceSchemaName, watermarkColumn);
+            if (lastWatermark == null || !targetTableExists(targetSession, tableName)) {
+                // Take the mark before copying: rows changed while the copy runs are above it and will be picked up next time
+                WatermarkWindow initialWindow = WatermarkWindow.probe(sourceSession.getConnection(), this.sourceDbType,
+                        tableName, column, null);
+                logger.info("Task [{}], Table [{}]: No usable watermark on {}, copying the whole table first.", taskId, tableName, watermarkColumn);
+                syncTable(taskId, sourceSession, targetSession, tableName, sourceSchemaName, null, null,
+                        CopyCheckpointStore.NONE, () -> false);
+                targetSession.commit();
+                return initialWindow == null ? null : initialWindow.getUpper();
+            }
+            return syncTableDelta(taskId, sourceSession, tableName, sourceSchemaName,
+                    Watermark.of(column, lastWatermark.getKind(), lastWatermark.getValue()));
+        }
+    }
+
+    /**
+     * The source column named like the given one: an exact match first, otherwise the single match ignoring case.
+     * When the source structure cannot be read the name is used as given.
+     */
+    private String resolveSourceColumn(SqlSession sourceSession, String tableName, String sourceSchemaName, String column) {
+        List<Map<String, Object>> structure = getSourceStructure(sourceSession.getMapper(TableMapper.class), tableName, sourceSchemaName);
+        if (structure == null || structure.isEmpty()) {
+            return column;
+        }
+        List<String> matches = new ArrayList<>();
+        for (Map<String, Object> sourceColumn : structure) {
+            String name = (String) sourceColumn.get("COLUMN_NAME");
+            if (column.equals(name)) {
+                return name;
+            }
+            if (column.equalsIgnoreCase(name)) {
+                matches.add(name);
+            }
+        }
+        if (matches.size() == 1) {
+            return matches.get(0);
+        }
+        throw new IllegalStateException(matches.isEmpty()
+                ? "Watermark column " + column + " not found in source table " + tableName
+                : "Watermark column " + column + " is ambiguous in source table " + tableName + ": " + matches);
+    }
+
+    private Watermark syncTableDelta(String taskId, SqlSession sourceSession, String tableName, String sourceSchemaName,
+                                     Watermark lastWatermark) throws Exception {
+        String failureReason = null;
+        try {
+            WatermarkWindow window = WatermarkWindow.probe(sourceSession.getConnection(), this.sourceDbType,
+                    tableName, lastWatermark.getColumn(), lastWatermark);
+            long deltaCount = window == null ? 0 : window.countRows(sourceSession.getConnection(), this.sourceDbType, tableName);
+            this.progressManager.startTableSync(taskId, tableName, deltaCount);
+            if (window == null) {
+                logger.info("Task [{}], Table [{}]: No rows above watermark {}.", taskId, tableName, lastWatermark);
+                return lastWatermark;
+            }
+
+            // UPSERT matches rows by the table key, so the delta must be read in key order over a key
+            SourceReadPlan readPlan = resolveReadPlan(taskId, sourceSession, tableName, sourceSchemaName);
+            if (readPlan.getStrategy() != ReadStrategy.KEYSET) {
+                throw new IllegalStateException("Incremental sync of table " + tableName + " requires a primary key or NOT NULL unique index");
+            }
+            List<String> keyColumns = readPlan.getKeyColumns();
+            logger.info("Task [{}], Table [{}]: {} rows in {}, upserting by {}.", taskId, tableName, deltaCount, window, keyColumns);
+
+            DataSource targetDataSource = this.targetFactory.getConfiguration().getEnvironment().getDataSource();
+            String targetTableName = tableName.toLowerCase();
+            ensureUpsertKey(taskId, targetDataSource, targetTableName, keyColumns);
+
+            AdaptiveBatchSizer batchSizer = createBatchSizer();
+            DatabaseOptimizationConfig.PipelineConfig pipelineConfig = optimizationConfig.getPipeline();
+            PipelinedTableCopier copier = new PipelinedTableCopier(pipelineConfig.getQueueDepth(),
+                    pipelineConfig.isEnabled() ? pipelineConfig.getWriterThreads() : 0);
+            try (TableWriter upsertWriter = new PreparedInsertWriter(targetDataSource, targetTableName,
+                         layout -> InsertPlan.upsert(targetTableName, layout, this.targetDbType, keyColumns));
+                 SourceTableReader reader = new PagedTableReader(sourceSession, readPlan, this.sourceDbType,
+                         tableName, sourceSchemaName, batchSizer, null, window)) {
+                long processedCount = copier.copy(taskId, tableName, reader,
+                        createBatchWriter(taskId, tableName, targetTableName, deltaCount, upsertWriter, batchSizer));
+                logger.info("Task [{}], Table [{}]: Upserted {} rows, watermark advanced to {}.", taskId, tableName, processedCount, window.getUpper());
+            }
+            return window.getUpper();
+        } catch (Exception e) {
+            failureReason = e.getMessage();
+            logger.error("Task [{}], Table [{}]: Incremental synchronization failed: {}", taskId, tableName, failureReason, e);
+            throw e;
+        } finally {
+            this.progressManager.completeTableSync(taskId, tableName, failureReason == null, failureReason);
+        }
+    }
+
+    /**
+     * Diff mode for a table that already exists in the target: compares row counts and checksums of key-range chunks on
+     * both sides, drills into the chunks that differ and writes only the rows that were inserted, updated or deleted in
+     * the source. Checksums are computed inside the databases when source and target are the same kind of database.
+     *
+     * @return false when the table has no usable key, or differs in a chunk too large to compare (then it has been
+     *         truncated); the caller then copies it. In append mode a chunk too large to compare fails the table instead,
+     *         leaving its rows in place. Other errors, such as a key column missing in the target, are rethrown as they are.
+     */
+    private boolean syncTableDiff(String taskId, SqlSession sourceSession, SqlSession targetSession, String tableName,
+                                  String sourceSchemaName, long sourceRecordCount, BooleanSupplier stopRequested) throws Exception {
+        SourceReadPlan readPlan = resolveReadPlan(taskId, sourceSession, tableName, sourceSchemaName);
+        if (readPlan.getStrategy() != ReadStrategy.KEYSET) {
+            logger.info("Task [{}], Table [{}]: No primary key or NOT NULL unique index to diff by, copying the table.", taskId, tableName);
+            return false;
+        }
+        DatabaseOptimizationConfig.DiffConfig diffConfig = optimizationConfig.getDiff();
+        List<String> keyColumns = readPlan.getKeyColumns();
+        DataSource sourceDataSource = this.sourceFactory.getConfiguration().getEnvironment().getDataSource();
+        DataSource targetDataSource = this.targetFactory.getConfiguration().getEnvironment().getDataSource();
+        String targetTableName = tableName.toLowerCase();
+        ensureUpsertKey(taskId, targetDataSource, targetTableName, keyColumns);
+
+        // Chunks on the first key column; a single open range still lets integral keys be bisected on demand
+        int chunkCount = (int) Math.min(Integer.MAX_VALUE, (sourceRecordCount + diffConfig.getChunkRows() - 1) / diffConfig.getChunkRows());
+        List<TableRange> chunks = new TableRangeSplitter().split(sourceSession.getConnection(), this.sourceDbType, readPlan,
+                tableName, sourceSchemaName, chunkCount).stream()
+                .filter(range -> range.getKind() == TableRange.Kind.KEY)
+                .collect(Collectors.toList());
+        if (chunks.isEmpty()) {
+            chunks = Collections.singletonList(TableRange.keyRange(0, keyColumns.get(0), null, null));
+        }
+        logger.info("Task [{}], Table [{}]: Diffing {} chunk(s) by {}.", taskId, tableName, chunks.size(), keyColumns);
+
+        try (Connection sourceConnection = sourceDataSource.getConnection();
+             Connection targetConnection = targetDataSource.getConnection();
+             ChangeApplier applier = new ChangeApplier(targetDataSource, this.targetDbType, table -> keyColumns)) {
+            TableDiffer differ = new TableDiffer(sourceConnection, this.sourceDbType, tableName, targetConnection, this.targetDbType,
+                    targetTableName, keyColumns, applier, diffConfig.getChunkRows(), diffConfig.getMaxCompareRows(),
+                    optimizationConfig.getBatchSize());
+            TableDiffResult result = differ.diff(chunks, rows -> progressManager.updateTableProgress(taskId, tableName, rows), stopRequested);
+            logger.info("Task [{}], Table [{}]: Diff wrote {} rows: {}", taskId, tableName, result.getRowsWritten(), result);
+            return true;
+        } catch (TableDiffer.ChunkTooLargeException e) {
+            // Part of the diff may already be applied, so the full copy must start from an empty table
+            if (!truncateBeforeSync) {
+                throw new IllegalStateException(e.getMessage() + "; the table is not truncated in append mode, "
+                        + "raise diff max-compare-rows or copy it with truncate enabled", e);
+            }
+            logger.warn("Task [{}], Table [{}]: {}; truncating and copying the table instead.", taskId, tableName, e.getMessage());
+            executeTruncateInSeparateTransaction(taskId, targetSession, targetSession.getMapper(TableMapper.class), targetTableName);
+            return false;
+        }
+    }
+
+    /**
+     * Verifies a copied table: row counts and checksums of key-range chunks are compared on source and target, with the
+     * chunks spread over several connection pairs in parallel. Differing chunks are narrowed down to the diff chunk size
+     * and reported to the progress manager. With repair, only those ranges are re-synchronized row by row and then
+     * verified again: the table is reported REPAIRED when they now match, otherwise MISMATCHED with the ranges that still differ.
+     * Tables without a usable key are verified by row count alone.
+     *
+     * @return The verification result; after a repair it still lists the ranges that differed before the repair
+     */
+    public TableDiffResult verifyTable(String taskId, String tableName, String sourceSchemaName, boolean repair,
+                                       BooleanSupplier stopRequested) throws Exception {
+        DatabaseOptimizationConfig.VerifyConfig verifyConfig = optimizationConfig.getVerify();
+        DataSource sourceDataSource = this.sourceFactory.getConfiguration().getEnvironment().getDataSource();
+        DataSource targetDataSource = this.targetFactory.getConfiguration().getEnvironment().getDataSource();
+        String targetTableName = tableName.toLowerCase();
+        SourceReadPlan readPlan;
+        List<TableRange> chunks;
+        try (SqlSession sourceSession = sourceFactory.openSession();
+             SqlSession targetSession = targetFactory.openSession()) {
+            readPlan = resolveReadPlan(taskId, sourceSession, tableName, sourceSchemaName);
+            if (readPlan.getStrategy() != ReadStrategy.KEYSET) {
+                long sourceCount = sourceSession.getMapper(TableMapper.class).getTableCount(this.sourceDbType, tableName, sourceSchemaName);
+                long targetCount = targetSession.getMapper(TableMapper.class).getTableCount(this.targetDbType, targetTableName, this.targetSchemaName);
+                boolean matched = sourceCount == targetCount;
+                progressManager.completeTableVerification(taskId, tableName,
+                        matched ? TableVerificationStatus.MATCHED : TableVerificationStatus.MISMATCHED, sourceCount, targetCount,
+                        matched ? Collections.<String>emptyList() : Collections.singletonList("(whole table, row count only)"));
+                logger.info("Task [{}], Table [{}]: No key to checksum chunks by, verified row counts only ({} vs {}).",
+                        taskId, tableName, sourceCount, targetCount);
+                return null;
+            }
+            long sourceCount = sourceSession.getMapper(TableMapper.class).getTableCount(this.sourceDbType, tableName, sourceSchemaName);
+            int chunkCount = (int) Math.min(Integer.MAX_VALUE, (sourceCount + verifyConfig.getChunkRows() - 1) / verifyConfig.getChunkRows());
+            chunks = new TableRangeSplitter().split(sourceSession.getConnection(), this.sourceDbType, readPlan,
+                    tableName, sourceSchemaName, chunkCount).stream()
+                    .filter(range -> range.getKind() == TableRange.Kind.KEY)
+                    .collect(Collectors.toList());
+        }
+        List<String> keyColumns = readPlan.getKeyColumns();
+        if (chunks.isEmpty()) {
+            chunks = Collections.singletonList(TableRange.keyRange(0, keyColumns.get(0), null, null));
+        }
+
+        // Each worker checks every n-th chunk on its own source and target connection
+        int workers = Math.max(1, Math.min(verifyConfig.getParallelism(), chunks.size()));
+        List<List<TableRange>> assignments = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            assignments.add(new ArrayList<>());
+        }
+        for (int i = 0; i < chunks.size(); i++) {
+            assignments.get(i % workers).add(chunks.get(i));
+        }
+        logger.info("Task [{}], Table [{}]: Verifying {} chunk(s) on {} connection pair(s).", taskId, tableName, chunks.size(), workers);
+
+        TableDiffResult result = new TableDiffResult();
+        AtomicInteger threadSequence = new AtomicInteger();
+        ExecutorService verifyExecutor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "dbsync-verify-" + tableName + "-" + threadSequence.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<TableDiffResult>> futures = new ArrayList<>();
+            for (List<TableRange> assigned : assignments) {
+                futures.add(verifyExecutor.submit(() -> {
+                    try (Connection sourceConnection = sourceDataSource.getConnection();
+                         Connection targetConnection = targetDataSource.getConnection()) {
+                        return new TableDiffer(sourceConnection, this.sourceDbType, tableName, targetConnection, this.targetDbType,
+                                targetTableName, keyColumns, null, optimizationConfig.getDiff().getChunkRows(), 0, 0)
+                                .verify(assigned, stopRequested);
+                    }
+                }));
+            }
+            for (Future<TableDiffResult> future : futures) {
+                try {
+                    result.merge(future.get());
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    throw cause instanceof Exception ? (Exception) cause : e;
+                }
+            }
+        } catch (Exception e) {
+            progressManager.completeTableVerification(taskId, tableName, TableVerificationStatus.FAILED, 0, 0,
+                    Collections.singletonList("Verification failed: " + e.getMessage()));
+            throw e;
+        } finally {
+            verifyExecutor.shutdownNow();
+        }
+
+        List<String> mismatches = describeRanges(result.getMismatchedRanges());
+        TableVerificationStatus status = result.isMatched() ? TableVerificationStatus.MATCHED : TableVerificationStatus.MISMATCHED;
+        if (!result.isMatched() && repair) {
+            logger.info("Task [{}], Table [{}]: Re-synchronizing {} mismatching range(s).", taskId, tableName, mismatches.size());
+            ensureUpsertKey(taskId, targetDataSource, targetTableName, keyColumns);
+            try (Connection sourceConnection = sourceDataSource.getConnection();
+                 Connection targetConnection = targetDataSource.getConnection();
+                 ChangeApplier applier = new ChangeApplier(targetDataSource, this.targetDbType, table -> keyColumns)) {
+                TableDiffResult repaired = new TableDiffer(sourceConnection, this.sourceDbType, tableName, targetConnection,
+                        this.targetDbType, targetTableName, keyColumns, applier, optimizationConfig.getDiff().getChunkRows(),
+                        optimizationConfig.getDiff().getMaxCompareRows(), optimizationConfig.getBatchSize())
+                        .diff(result.getMismatchedRanges(), rows -> { }, stopRequested);
+                logger.info("Task [{}], Table [{}]: Repair wrote {} rows: {}", taskId, tableName, repaired.getRowsWritten(), repaired);
+            }
+            // The repair only reports what it wrote; whether the ranges now match is checked again on fresh connections
+            TableDiffResult recheck;
+            try (Connection sourceConnection = sourceDataSource.getConnection();
+                 Connection targetConnection = targetDataSource.getConnection()) {
+                recheck = new TableDiffer(sourceConnection, this.sourceDbType, tableName, targetConnection, this.targetDbType,
+                        targetTableName, keyColumns, null, optimizationConfig.getDiff().getChunkRows(), 0, 0)
+                        .verify(result.getMismatchedRanges(), stopRequested);
+            }
+            if (recheck.isMatched()) {
+                status = TableVerificationStatus.REPAIRED;
+            } else {
+                mismatches = describeRanges(recheck.getMismatchedRanges());
+                logger.warn("Task [{}], Table [{}]: {} range(s) still differ after the repair: {}", taskId, tableName,
+                        mismatches.size(), mismatches);
+            }
+        }
+        progressManager.completeTableVerification(taskId, tableName, status, result.getSourceRows(), result.getTargetRows(), mismatches);
+        return result;
+    }
+
+    private static List<String> describeRanges(List<TableRange> ranges) {
+        return ranges.stream().map(TableRange::toString).collect(Collectors.toList());
+    }
+
+    private boolean targetTableExists(SqlSession targetSession, String tableName) {
+        try {
+            List<Map<String, Object>> targetStructure = targetSession.getMapper(TableMapper.class)
+                    .getTableStructure(this.targetDbType, tableName, this.targetSchemaName);
+            return targetStructure != null && !targetStructure.isEmpty();
+        } catch (Exception e) {
+            logger.warn("Table [{}]: Could not check if target table exists, assuming it does not. Error: {}", tableName, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * ON CONFLICT / ON DUPLICATE KEY need a unique key on the target, which tables created by this service do not have.
+     * MERGE (Oracle, Dameng, SQL Server) matches on the key columns directly and needs nothing.
+     */
+    private void ensureUpsertKey(String taskId, DataSource targetDataSource, String targetTableName, List<String> keyColumns) throws SQLException {
+        String dbType = this.targetDbType.toLowerCase();
+        if (!"postgresql".equals(dbType) && !"vastbase".equals(dbType) && !"mysql".equals(dbType)) {
+            return;
+        }
+        String schema = (this.targetSchemaName == null || this.targetSchemaName.trim().isEmpty()) ? null : this.targetSchemaName;
+        try (Connection connection = targetDataSource.getConnection()) {
+            List<String> wanted = keyColumns.stream().map(String::toLowerCase).collect(Collectors.toList());
+            List<List<String>> existingKeys = new ArrayList<>(DatabaseMetadataUtil.getUniqueIndexColumns(connection, schema, targetTableName));
+            existingKeys.add(DatabaseMetadataUtil.getOrderedPrimaryKeyColumns(connection, schema, targetTableName));
+            for (List<String> existing : existingKeys) {
+                if (existing.stream().map(String::toLowerCase).collect(Collectors.toSet()).equals(new HashSet<>(wanted))) {
+                    return;
+                }
+            }
+
+            // Same lower-cased names as the UPSERT statement, quoted so that reserved words and odd characters survive
+            String ddl = "CREATE UNIQUE INDEX " + TableMetadataSqlProvider.quoteIdentifier(dbType, upsertKeyName(targetTableName, wanted)) +
+                    " ON " + TableMetadataSqlProvider.quoteIdentifier(dbType, targetTableName) + " (" +
+                    wanted.stream().map(column -> TableMetadataSqlProvider.quoteIdentifier(dbType, column)).collect(Collectors.joining(", ")) + ")";
+            logger.info("Task [{}], Table [{}]: Creating unique key for UPSERT: {}", taskId, targetTableName, ddl);
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute(ddl);
+                if (!connection.getAutoCommit()) {
+                    connection.commit();
+                }
+            }
+        }
+    }
+
+    /**
+     * Index name within PostgreSQL's 63 and MySQL's 64 character limits: a readable prefix of the table name plus a hash
+     * of the full table name and key, so that long names sharing a prefix do not collide.
+     */
+    private static String upsertKeyName(String targetTableName, List<String> keyColumns) {
+        CRC32 crc = new CRC32();
+        crc.update((targetTableName + "(" + String.join(",", keyColumns) + ")").getBytes(StandardCharsets.UTF_8));
+        String prefix = targetTableName.replaceAll("[^A-Za-z0-9_]", "_");
+        if (prefix.length() > 50) {
+            prefix = prefix.substring(0, 50);
+        }
+        return String.format("uk_%s_%08x", prefix, crc.getValue());
+    }
+
+    /**
+     * Applies log-based changes from the source until stopRequested returns true. Each polled batch of committed source
+     * transactions is written to the target in one transaction (UPSERT for inserts/updates, keyed DELETE), then the
+     * source is acknowledged and the position handed to checkpointSink. Changes of tables outside tablesToSync are skipped.
+     * Replaying from an older checkpoint after a crash is harmless because applying a change twice has the same result.
+     *
+     * @param checkpointSink Receives the source position after each applied batch, e.g. to persist it.
+     * @return Number of changes applied.
+     */
+    public long streamChanges(String taskId, ChangeSource source, List<String> tablesToSync, String sourceSchemaName,
+                              Consumer<String> checkpointSink, BooleanSupplier stopRequested) throws Exception {
+        DatabaseOptimizationConfig.CdcConfig cdcConfig = optimizationConfig.getCdc();
+        Set<String> tables = tablesToSync.stream().map(String::toLowerCase).collect(Collectors.toSet());
+        String schema = (sourceSchemaName == null || sourceSchemaName.trim().isEmpty()) ? null : sourceSchemaName;
+        DataSource targetDataSource = this.targetFactory.getConfiguration().getEnvironment().getDataSource();
+        Map<String, List<String>> keyColumns = new HashMap<>();
+        long applied = 0;
+
+        logger.info("Task [{}]: Streaming changes of {} table(s) from {}.", taskId, tables.size(), source.describe());
+        try (SqlSession sourceSession = sourceFactory.openSession();
+             ChangeApplier applier = new ChangeApplier(targetDataSource, this.targetDbType, tableName ->
+                     keyColumns.computeIfAbsent(tableName.toLowerCase(),
+                             t -> resolveChangeKey(taskId, sourceSession, tableName, sourceSchemaName, targetDataSource)))) {
+            while (!stopRequested.getAsBoolean()) {
+                ChangeBatch batch = source.poll(cdcConfig.getMaxBatchEvents(), cdcConfig.getPollIntervalMs());
+                if (batch == null) {
+                    continue;
+                }
+                List<ChangeEvent> events = batch.getEvents().stream()
+                        .filter(e -> tables.contains(e.getTableName().toLowerCase()))
+                        .filter(e -> schema == null || e.getSchemaName() == null || schema.equalsIgnoreCase(e.getSchemaName()))
+                        .collect(Collectors.toList());
+                int count = applier.apply(events);
+                source.acknowledge(batch.getPosition());
+                checkpointSink.accept(batch.getPosition());
+                applied += count;
+                if (count > 0) {
+                    logger.info("Task [{}]: Applied {} change(s) up to {} ({} in total).", taskId, count, batch.getPosition(), applied);
+                }
+            }
+        }
+        logger.info("Task [{}]: Change streaming stopped after {} change(s).", taskId, applied);
+        return applied;
+    }
+
+    /**
+     * UPSERT key for a captured table: the source key used for keyset paging, backed by a unique key on the target.
+     */
+    private List<String> resolveChangeKey(String taskId, SqlSession sourceSession, String tableName, String sourceSchemaName,
+                                          DataSource targetDataSource) {
+        SourceReadPlan readPlan = resolveReadPlan(taskId, sourceSession, tableName, sourceSchemaName);
+        if (readPlan.getStrategy() != ReadStrategy.KEYSET) {
+            throw new IllegalStateException("Change capture of table " + tableName + " requires a primary key or NOT NULL unique index");
+        }
+        try {
+            ensureUpsertKey(taskId, targetDataSource, tableName.toLowerCase(), readPlan.getKeyColumns());
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not prepare UPSERT key on target table " + tableName + ": " + e.getMessage(), e);
+        }
+        return readPlan.getKeyColumns();
+    }
+
+    /**
+     * Map one source column (from getTableStructure) to its target column type through the TypeMappingRegistry.
+     */
+    private String mapTargetDataType(Map<String, Object> column) {
+        String sourceDataType = (String) column.get("DATA_TYPE");
+
+        Number length = (Number) column.get("DATA_LENGTH");
+        Number precision = (Number) column.get("DATA_PRECISION");
+        Number scale = (Number) column.get("DATA_SCALE");
+
+        // TODO:增加了两倍字段的长度
+        Integer dataLengthInt = (length != null) ? length.intValue()*2 : null;
+        Integer dataPrecisionInt = (precision != null) ? precision.intValue() : null;
+        Integer dataScaleInt = (scale != null) ? scale.intValue() : null;
+
+        Integer columnSizeForMapper = dataLengthInt;
+        Integer decimalDigitsForMapper = dataScaleInt;
+
+        // Heuristic: For numeric types, "size" is often precision, not length.
+        // Individual mappers might have more specific logic for their source DB.
+        if (sourceDataType != null) {
+            String upperSourceDataType = sourceDataType.toUpperCase();
+            if (upperSourceDataType.contains("NUMBER") ||
+                    upperSourceDataType.contains("DECIMAL") ||
+                    upperSourceDataType.contains("NUMERIC") ||
+                    upperSourceDataType.contains("FLOAT") || // Oracle FLOAT(binary_precision) uses precision for size
+                    upperSourceDataType.contains("DOUBLE") ||
+                    upperSourceDataType.contains("MONEY")) { // SQL Server money types
+                columnSizeForMapper = dataPrecisionInt;
+            }
+            // For types like VARCHAR(n), CHAR(n), DATA_LENGTH is usually the correct size.
+            // For types like TIME(p), TIMESTAMP(p), DATA_SCALE or a specific attribute might hold 'p'.
+            // The current structure map (DATA_LENGTH, DATA_PRECISION, DATA_SCALE) is generic.
+            // Mappers should be robust enough or this part might need DB-specific pre-processing.
+            // For example, SQL Server's TIME(p) might put 'p' in DATA_SCALE.
+            if (upperSourceDataType.startsWith("TIME") && dataScaleInt != null) { // e.g. SQL Server TIME(p)
+                // Here, decimalDigitsForMapper is already dataScaleInt.
+                // columnSizeForMapper for TIME(p) is not typically its length, but its precision.
+                // The TypeMapper interface uses columnSize and decimalDigits.
+                // For TIME(p), we might pass 'p' as decimalDigits or columnSize depending on mapper convention.
+                // Let's assume for now that mappers expecting precision for TIME/TIMESTAMP will check decimalDigits.
+            }
+        }
+
+        return this.typeMappingRegistry.mapType(
+                sourceDataType,
+                columnSizeForMapper,
+                decimalDigitsForMapper,
+                this.sourceDbType,
+                this.targetDbType
+        );
+    }
+
     private String generateCreateTableSql(String tableName, List<Map<String, Object>> structure,
                                           String tableComment, List<Map<String, String>> columnComments) {
         StringBuilder sql = new StringBuilder();
@@ -219,54 +1223,7 @@ public class DatabaseSyncService {
             for (int i = 0; i < structure.size(); i++) {
                 Map<String, Object> column = structure.get(i);
                 String columnName = ((String) column.get("COLUMN_NAME")).toLowerCase();
-                String sourceDataType = (String) column.get("DATA_TYPE");
-
-                Number length = (Number) column.get("DATA_LENGTH");
-                Number precision = (Number) column.get("DATA_PRECISION");
-                Number scale = (Number) column.get("DATA_SCALE");
-
-                // TODO:增加了两倍字段的长度
-                Integer dataLengthInt = (length != null) ? length.intValue()*2 : null;
-                Integer dataPrecisionInt = (precision != null) ? precision.intValue() : null;
-                Integer dataScaleInt = (scale != null) ? scale.intValue() : null;
-
-                Integer columnSizeForMapper = dataLengthInt;
-                Integer decimalDigitsForMapper = dataScaleInt;
-
-                // Heuristic: For numeric types, "size" is often precision, not length.
-                // Individual mappers might have more specific logic for their source DB.
-                if (sourceDataType != null) {
-                    String upperSourceDataType = sourceDataType.toUpperCase();
-                    if (upperSourceDataType.contains("NUMBER") ||
-                            upperSourceDataType.contains("DECIMAL") ||
-                            upperSourceDataType.contains("NUMERIC") ||
-                            upperSourceDataType.contains("FLOAT") || // Oracle FLOAT(binary_precision) uses precision for size
-                            upperSourceDataType.contains("DOUBLE") ||
-                            upperSourceDataType.contains("MONEY")) { // SQL Server money types
-                        columnSizeForMapper = dataPrecisionInt;
-                    }
-                    // For types like VARCHAR(n), CHAR(n), DATA_LENGTH is usually the correct size.
-                    // For types like TIME(p), TIMESTAMP(p), DATA_SCALE or a specific attribute might hold 'p'.
-                    // The current structure map (DATA_LENGTH, DATA_PRECISION, DATA_SCALE) is generic.
-                    // Mappers should be robust enough or this part might need DB-specific pre-processing.
-                    // For example, SQL Server's TIME(p) might put 'p' in DATA_SCALE.
-                    if (upperSourceDataType.startsWith("TIME") && dataScaleInt != null) { // e.g. SQL Server TIME(p)
-                        // Here, decimalDigitsForMapper is already dataScaleInt.
-                        // columnSizeForMapper for TIME(p) is not typically its length, but its precision.
-                        // The TypeMapper interface uses columnSize and decimalDigits.
-                        // For TIME(p), we might pass 'p' as decimalDigits or columnSize depending on mapper convention.
-                        // Let's assume for now that mappers expecting precision for TIME/TIMESTAMP will check decimalDigits.
-                    }
-                }
-
-
-                String targetDataType = this.typeMappingRegistry.mapType(
-                        sourceDataType,
-                        columnSizeForMapper,
-                        decimalDigitsForMapper,
-                        this.sourceDbType,
-                        this.targetDbType
-                );
+                String targetDataType = mapTargetDataType(column);
 
                 sql.append("    ").append(columnName).append(" ").append(targetDataType);
 
@@ -293,107 +1250,453 @@ public class DatabaseSyncService {
         }
     }
 
-    private void syncTableData(String taskId, SqlSession sourceSession, SqlSession targetSession, String tableName, String sourceSchemaName) {
+    private void syncTableData(String taskId, SqlSession sourceSession, SqlSession targetSession, String tableName,
+                               String targetTableName, String sourceSchemaName, long totalCount, List<CopyCheckpoint> checkpoints,
+                               CopyCheckpointStore checkpointStore, BooleanSupplier stopRequested) {
         try {
-            TableMapper sourceMapper = sourceSession.getMapper(TableMapper.class);
-            // TableMapper targetMapper = targetSession.getMapper(TableMapper.class); // Not directly used for inserts via JdbcTemplate
+            // TableMapper targetMapper = targetSession.getMapper(TableMapper.class); // Not directly used for inserts via PreparedInsertWriter
 
-            long totalCount = sourceMapper.getTableCount(this.sourceDbType, tableName, sourceSchemaName);
+            // totalCount was fetched by syncTable (or supplied by the scheduler), no need to count the table twice
             logger.info("Task [{}], Table [{}]: Total records to sync from source: {}", taskId, tableName, totalCount);
 
             // Inform ProgressManager about the total records for this table
             // This was moved to syncTable's startTableSync call.
             // this.progressManager.startTableSync(taskId, tableName, totalCount); // Already called in syncTable
 
-            long batchSize = optimizationConfig.getBatchSize(); // Use configured batch size
-            long commitFrequency = optimizationConfig.getCommitFrequency(); // Use configured commit frequency
-            long processedCount = 0;
-            long batchCount = 0;
-            boolean tableSyncSuccess = true;
+            // Starts at the configured batch size and follows the measured write latency, payload size and retries
+            AdaptiveBatchSizer batchSizer = createBatchSizer();
+            progressManager.updateBatchSize(taskId, tableName, batchSizer.getAsInt());
+
+            // Resolve the read plan once per table: keyset pages cost the same at any depth, OFFSET pages do not
+            SourceReadPlan readPlan = resolveReadPlan(taskId, sourceSession, tableName, sourceSchemaName);
+            if (!checkpoints.isEmpty() && !checkpoints.stream().allMatch(checkpoint -> checkpoint.matches(readPlan))) {
+                logger.warn("Task [{}], Table [{}]: Checkpoints were taken with another key than {}, copying the table again from scratch.",
+                        taskId, tableName, readPlan);
+                executeTruncateInSeparateTransaction(taskId, targetSession, targetSession.getMapper(TableMapper.class), targetTableName);
+                checkpointStore.clear(tableName);
+                checkpoints = Collections.emptyList();
+            }
 
-            Page<Map<String, Object>> page = new Page<>(1, batchSize);
+            // Reads stay on the reading thread (a SqlSession is never shared); writes drain a bounded queue
+            DatabaseOptimizationConfig.PipelineConfig pipelineConfig = optimizationConfig.getPipeline();
+            PipelinedTableCopier copier = new PipelinedTableCopier(pipelineConfig.getQueueDepth(),
+                    pipelineConfig.isEnabled() ? pipelineConfig.getWriterThreads() : 0);
+            long processedCount;
+            // Fresh copies start a checkpoint per piece when the plan allows it; resumed copies continue the unfinished pieces
+            Map<TableRange, CopyCheckpoint> pieces = new LinkedHashMap<>();
+            long resumedRows = 0;
+            SourceReadPlan copyPlan = readPlan;
+            if (checkpoints.isEmpty()) {
+                List<TableRange> ranges = planTableRanges(sourceSession, readPlan, tableName, sourceSchemaName, totalCount);
+                // Each ctid page is its own statement and snapshot, and older servers scan from the first block for every
+                // page; an unsplit table is read in one pass through a single cursor instead. Split pieces keep ctid bounds.
+                if (ranges.size() <= 1 && readPlan.getStrategy() == ReadStrategy.CTID && optimizationConfig.isEnableStreamingRead()) {
+                    logger.info("Task [{}], Table [{}]: No primary key or NOT NULL unique index found, streaming with a cursor.",
+                            taskId, tableName);
+                    copyPlan = SourceReadPlan.cursor();
+                }
+                boolean checkpointed = checkpointStore != CopyCheckpointStore.NONE &&
+                        (ranges.size() > 1 ? ranges.stream().allMatch(range -> CopyCheckpoint.supports(readPlan, range))
+                                : CopyCheckpoint.supports(readPlan, null));
+                for (TableRange range : ranges.size() > 1 ? ranges : Collections.<TableRange>singletonList(null)) {
+                    pieces.put(range, checkpointed ? CopyCheckpoint.start(tableName, readPlan, range) : null);
+                }
+            } else {
+                DataSource targetDataSource = this.targetFactory.getConfiguration().getEnvironment().getDataSource();
+                for (CopyCheckpoint checkpoint : checkpoints) {
+                    resumedRows += checkpoint.getRowsCopied();
+                    if (!checkpoint.isCompleted()) {
+                        discardRowsBeyond(taskId, targetDataSource, targetTableName, checkpoint);
+                        pieces.put(checkpoint.toRange(), checkpoint);
+                    }
+                }
+                progressManager.updateTableProgress(taskId, tableName, resumedRows);
+                logger.info("Task [{}], Table [{}]: Resuming after {} rows already copied, {} piece(s) left.",
+                        taskId, tableName, resumedRows, pieces.size());
+            }
 
-            while (processedCount < totalCount) {
-                Map<String, Object> paginationParams = new HashMap<>();
-                paginationParams.put("dbType", this.sourceDbType);
-                paginationParams.put("tableName", tableName);
-                paginationParams.put("schemaName", sourceSchemaName);
-                paginationParams.put("current", page.getCurrent());
-                paginationParams.put("size", batchSize);
-                // TODO: Handle orderByColumn for SQL Server if necessary for stable pagination
-                // String orderByColumn = determineOrderByColumnForTable(tableName); // pseudo-code
-                // paginationParams.put("orderByColumn", orderByColumn);
+            // Every piece writes from its own reader thread, each through up to writer-threads pipeline writers
+            int concurrentWriters = Math.max(1, pieces.size()) * Math.max(1, pipelineConfig.isEnabled() ? pipelineConfig.getWriterThreads() : 1);
+            try (TableWriter insertWriter = openTableWriter(taskId, sourceSession, tableName, targetTableName, sourceSchemaName, concurrentWriters)) {
+                PipelinedTableCopier.BatchWriter batchWriter = createBatchWriter(taskId, tableName, targetTableName, totalCount, insertWriter, batchSizer);
 
+                if (pieces.size() == 1 && pieces.containsKey(null)) {
+                    processedCount = resumedRows + copyPiece(taskId, sourceSession, copyPlan, null, pieces.get(null), tableName,
+                            sourceSchemaName, batchSizer, copier, batchWriter, checkpointStore, stopRequested);
+                } else {
+                    processedCount = resumedRows + copyRangesInParallel(taskId, copyPlan, pieces, tableName, sourceSchemaName,
+                            batchSizer, copier, batchWriter, checkpointStore, stopRequested);
+                }
+                logger.info("Task [{}], Table [{}]: {} for {} rows, {}", taskId, tableName, insertWriter.summary(), processedCount, batchSizer);
+            }
 
-                List<Map<String, Object>> batchData = sourceMapper.getTableDataWithPagination(paginationParams);
+            if (processedCount < totalCount) {
+                logger.warn("Task [{}], Table [{}]: Processed count {} is less than total count {}. Data might have changed during sync.",
+                        taskId, tableName, processedCount, totalCount);
+            }
 
-                if (batchData.isEmpty()) {
-                    if (processedCount < totalCount) {
-                        logger.warn("Task [{}], Table [{}]: Expected more data (processed {} of {}), but batch was empty. Pagination might be inconsistent or source data changed.",
-                                taskId, tableName, processedCount, totalCount);
-                    }
-                    break; // No more data
+        } catch (Exception e) {
+            logger.error("Task [{}], Table [{}]: Error during data synchronization. Error: {}", taskId, tableName, e.getMessage(), e);
+            // Ensure progressManager is updated about failure if not already handled by executeAndReportBatchInsert
+            // This is now handled by syncTable's finally block.
+            throw new RuntimeException("Data synchronization failed for table " + tableName, e);
+        }
+    }
+
+    /**
+     * One sizer per table, shared by all of its ranges so that they back off together when the target slows down.
+     */
+    private AdaptiveBatchSizer createBatchSizer() {
+        int initialBatchSize = (int) Math.min(optimizationConfig.getBatchSize(), Integer.MAX_VALUE);
+        DatabaseOptimizationConfig.AdaptiveBatchConfig adaptiveConfig = optimizationConfig.getAdaptiveBatch();
+        if (!adaptiveConfig.isEnabled()) {
+            return AdaptiveBatchSizer.fixed(initialBatchSize);
+        }
+        return new AdaptiveBatchSizer(initialBatchSize, adaptiveConfig.getMinBatchSize(), adaptiveConfig.getMaxBatchSize(),
+                adaptiveConfig.getIncreaseStep(), adaptiveConfig.getTargetLatencyMs(), adaptiveConfig.getMaxBatchBytes());
+    }
+
+    /**
+     * Batch writer shared by every reader of a table; counters are atomic because ranges and writer threads report concurrently.
+     */
+    private PipelinedTableCopier.BatchWriter createBatchWriter(String taskId, String tableName, String targetTableName, long totalCount,
+                                                               TableWriter insertWriter, AdaptiveBatchSizer batchSizer) {
+        long commitFrequency = optimizationConfig.getCommitFrequency(); // Use configured commit frequency
+        AtomicLong batchCount = new AtomicLong();
+        AtomicLong rowsReported = new AtomicLong();
+        return batchData -> {
+            try {
+                // executeAndReportBatchInsert already calls progressManager.updateTableProgress
+                int rowsAffectedInBatch = executeAndReportBatchInsert(taskId, tableName, targetTableName, batchData, insertWriter, batchSizer);
+                long completedBatches = batchCount.incrementAndGet();
+                long completedRows = rowsReported.addAndGet(rowsAffectedInBatch);
+
+                // Enhanced monitoring for batch processing
+                if (completedBatches % commitFrequency == 0) {
+                    double progressPercentage = (double) completedRows / totalCount * 100;
+                    logger.info("Task [{}], Table [{}]: Processed {} batches, {}/{} rows ({:.1f}%)",
+                               taskId, tableName, completedBatches, completedRows, totalCount, progressPercentage);
                 }
 
-                try {
-                    // Pass the class field targetFactory to the refactored method
-                    int rowsAffectedInBatch = executeAndReportBatchInsert(taskId, tableName, tableName.toLowerCase(), batchData, this.targetFactory);
-                    // executeAndReportBatchInsert already calls progressManager.updateTableProgress
-                    // processedCount is now tracked by progressManager via updateTableProgress calls
-                    processedCount += rowsAffectedInBatch; // Keep a local count for loop termination, or rely on progressManager's value
-                    batchCount++;
-
-                    // Enhanced monitoring for batch processing
-                    if (batchCount % commitFrequency == 0) {
-                        double progressPercentage = (double) processedCount / totalCount * 100;
-                        logger.info("Task [{}], Table [{}]: Processed {} batches, {}/{} rows ({:.1f}%)",
-                                   taskId, tableName, batchCount, processedCount, totalCount, progressPercentage);
-                    }
+                // Log performance metrics for large batches
+                if (completedBatches == 1 || completedBatches % 10 == 0) {
+                    logger.debug("Task [{}], Table [{}]: Batch {} completed, batch size: {}, rows affected: {}",
+                               taskId, tableName, completedBatches, batchData.size(), rowsAffectedInBatch);
+                }
+                return rowsAffectedInBatch;
+            } catch (Exception e) {
+                // completeTableSync with failure is called in syncTable's finally
+                logger.error("Task [{}], Table [{}]: Data batch processing failed. Error: {}", taskId, tableName, e.getMessage());
+                throw e; // Stops the pipeline and is rethrown to syncTable's catch block
+            }
+        };
+    }
 
-                    // Log performance metrics for large batches
-                    if (batchCount == 1 || batchCount % 10 == 0) {
-                        long currentTime = System.currentTimeMillis();
-                        // Note: We would need to track start time to calculate actual throughput
-                        logger.debug("Task [{}], Table [{}]: Batch {} completed, batch size: {}, rows affected: {}",
-                                   taskId, tableName, batchCount, batchData.size(), rowsAffectedInBatch);
+    /**
+     * Pick the bulk-load writer for the target database. Native bulk paths are wrapped so that the first failure
+     * falls back to the prepared batch INSERT for the rest of the table:
+     * - PostgreSQL/Vastbase: COPY FROM STDIN, encoded by the target column types from the TypeMappingRegistry
+     * - SQL Server: SQLServerBulkCopy
+     * - Oracle: array-bound INSERT with the APPEND_VALUES direct-path hint, only when a single writer loads the table
+     *   (direct path takes an exclusive table lock, so concurrent range/pipeline writers would just wait on each other)
+     * - MySQL: prepared batch INSERT, rewritten into multi-row INSERTs by rewriteBatchedStatements on the pooled URL.
+     *   LOAD DATA LOCAL INFILE is not used: it needs allowLoadLocalInfile on the shared pool, which lets the server read client files
+     * - Dameng: prepared batch INSERT (array binding); the DM JDBC driver has no separate bulk-load API (dmfldr is an external tool)
+     * Fallback only re-sends a batch when the failed writer guarantees it left nothing behind (TableWriter.isAtomicPerBatch).
+     */
+    private TableWriter openTableWriter(String taskId, SqlSession sourceSession, String tableName, String targetTableName,
+                                       String sourceSchemaName, int concurrentWriters) {
+        DataSource targetDataSource = this.targetFactory.getConfiguration().getEnvironment().getDataSource();
+        TableWriter bulkWriter = null;
+        switch (this.targetDbType.toLowerCase()) {
+            case "postgresql":
+            case "vastbase":
+                if (optimizationConfig.getPostgresql().isUseCopy()) {
+                    Map<String, String> targetColumnTypes = new HashMap<>();
+                    try {
+                        List<Map<String, Object>> sourceStructure = getSourceStructure(
+                                sourceSession.getMapper(TableMapper.class), tableName, sourceSchemaName);
+                        for (Map<String, Object> column : sourceStructure) {
+                            targetColumnTypes.put((String) column.get("COLUMN_NAME"), mapTargetDataType(column));
+                        }
+                    } catch (Exception e) {
+                        logger.warn("Task [{}], Table [{}]: Could not resolve target column types for COPY, encoding by value type. Error: {}",
+                                taskId, tableName, e.getMessage());
                     }
-                } catch (Exception e) {
-                    // executeAndReportBatchInsert already logs and calls completeTableSync with failure
-                    // So, we just rethrow or mark this table sync as failed and break.
-                    tableSyncSuccess = false; // Mark as failed, completeTableSync will be called in syncTable's finally
-                    logger.error("Task [{}], Table [{}]: Data batch processing failed. Error: {}", taskId, tableName, e.getMessage());
-                    throw e; // Rethrow to be caught by syncTable's catch block
-                }
-
-                if (batchData.size() < batchSize) {
-                    // Last page was smaller than batchSize, means we are done.
-                    if (processedCount < totalCount && page.getCurrent() * batchSize > totalCount) {
-                        //This is expected if the last page is not full
-                    } else if (processedCount < totalCount) {
-                        logger.warn("Task [{}], Table [{}]: Processed count {} is less than total count {} after processing a partial batch. Data might have changed during sync.",
-                                taskId, tableName, processedCount, totalCount);
+                    bulkWriter = new PgCopyWriter(targetDataSource, targetTableName, targetColumnTypes);
+                }
+                break;
+            case "sqlserver":
+                if (optimizationConfig.getSqlserver().isUseBulkCopy()) {
+                    bulkWriter = new SqlServerBulkCopyWriter(targetDataSource, targetTableName,
+                            optimizationConfig.getSqlserver().getQueryTimeoutSeconds());
+                }
+                break;
+            case "oracle":
+                if (optimizationConfig.getOracle().isDirectPathInsert()) {
+                    if (concurrentWriters == 1) {
+                        bulkWriter = new PreparedInsertWriter(targetDataSource, targetTableName, "APPEND_VALUES");
+                    } else {
+                        logger.info("Task [{}], Table [{}]: Direct-path insert disabled, {} concurrent writers would queue on its exclusive table lock",
+                                taskId, tableName, concurrentWriters);
                     }
-                    break;
                 }
-                page.setCurrent(page.getCurrent() + 1);
+                break;
+            default:
+                break;
+        }
+
+        if (bulkWriter == null) {
+            return new PreparedInsertWriter(targetDataSource, targetTableName);
+        }
+        logger.info("Task [{}], Table [{}]: Loading target with {}", taskId, tableName, bulkWriter.getClass().getSimpleName());
+        return new FallbackTableWriter(bulkWriter, () -> new PreparedInsertWriter(targetDataSource, targetTableName), targetTableName);
+    }
+
+    /**
+     * Split large tables into disjoint ranges for intra-table parallel copy; an empty list means copy the table as one piece.
+     */
+    private List<TableRange> planTableRanges(SqlSession sourceSession, SourceReadPlan readPlan, String tableName,
+                                             String sourceSchemaName, long totalCount) {
+        DatabaseOptimizationConfig.RangeSplitConfig rangeSplitConfig = optimizationConfig.getRangeSplit();
+        if (!rangeSplitConfig.isEnabled() || totalCount < rangeSplitConfig.getMinRows()) {
+            return Collections.emptyList();
+        }
+        return new TableRangeSplitter().split(sourceSession.getConnection(), this.sourceDbType, readPlan,
+                tableName, sourceSchemaName, rangeSplitConfig.getRangeCount());
+    }
+
+    /**
+     * Copy each range on its own thread and source connection. The first failure cancels the remaining ranges.
+     *
+     * @param ranges Ranges to copy, each with the checkpoint to continue from (null when the range is not checkpointed).
+     */
+    private long copyRangesInParallel(String taskId, SourceReadPlan readPlan, Map<TableRange, CopyCheckpoint> ranges, String tableName,
+                                      String sourceSchemaName, IntSupplier batchSize, PipelinedTableCopier copier,
+                                      PipelinedTableCopier.BatchWriter batchWriter, CopyCheckpointStore checkpointStore,
+                                      BooleanSupplier stopRequested) throws Exception {
+        if (ranges.isEmpty()) {
+            return 0;
+        }
+        progressManager.startTableRanges(taskId, tableName, ranges.size());
+        AtomicInteger threadSequence = new AtomicInteger();
+        ExecutorService rangeExecutor = Executors.newFixedThreadPool(ranges.size(), runnable -> {
+            Thread thread = new Thread(runnable, "dbsync-range-" + tableName + "-" + threadSequence.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Long>> rangeFutures = new ArrayList<>();
+            for (Map.Entry<TableRange, CopyCheckpoint> entry : ranges.entrySet()) {
+                TableRange range = entry.getKey();
+                rangeFutures.add(rangeExecutor.submit(() -> {
+                    try (SqlSession rangeSession = sourceFactory.openSession()) {
+                        long rangeRows = copyPiece(taskId, rangeSession, readPlan, range, entry.getValue(), tableName,
+                                sourceSchemaName, batchSize, copier, batchWriter, checkpointStore, stopRequested);
+                        progressManager.completeTableRange(taskId, tableName, range.toString(), rangeRows);
+                        return rangeRows;
+                    }
+                }));
             }
 
-            // Final check on processed count if relying on local processedCount
-            // TableSyncProgress currentTableProgress = this.progressManager.getTaskProgress(taskId).getTableProgress(tableName);
-            // if (currentTableProgress.getRecordsProcessed() < totalCount && tableSyncSuccess) {
-            //     logger.warn("Task [{}], Table [{}]: Final processed count {} is less than total source count {}. Potential data inconsistency or issue with pagination/source data.",
-            //             taskId, tableName, currentTableProgress.getRecordsProcessed(), totalCount);
-            // }
+            long processedCount = 0;
+            for (Future<Long> rangeFuture : rangeFutures) {
+                try {
+                    processedCount += rangeFuture.get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    throw cause instanceof Exception ? (Exception) cause : e;
+                }
+            }
+            return processedCount;
+        } finally {
+            rangeExecutor.shutdownNow();
+        }
+    }
 
+    /**
+     * Copy the whole table (range == null) or one range. With a checkpoint, reading starts after its last key and the
+     * committed position is saved as batches land; on failure or stop the last committed position is saved before rethrowing.
+     */
+    private long copyPiece(String taskId, SqlSession sourceSession, SourceReadPlan readPlan, TableRange range, CopyCheckpoint checkpoint,
+                           String tableName, String sourceSchemaName, IntSupplier batchSize, PipelinedTableCopier copier,
+                           PipelinedTableCopier.BatchWriter batchWriter, CopyCheckpointStore checkpointStore,
+                           BooleanSupplier stopRequested) throws Exception {
+        if (checkpoint == null) {
+            PipelinedTableCopier.BatchWriter stoppableWriter = batch -> {
+                if (stopRequested.getAsBoolean()) {
+                    throw new CancellationException("Copy of table " + tableName + " stopped");
+                }
+                return batchWriter.write(batch);
+            };
+            try (SourceTableReader reader = range == null
+                    ? openSourceReader(sourceSession, readPlan, tableName, sourceSchemaName, batchSize)
+                    : new PagedTableReader(sourceSession, readPlan, this.sourceDbType, tableName, sourceSchemaName, batchSize, range)) {
+                logger.info("Task [{}], Table [{}]: Reading source with {}", taskId, tableName, reader.describe());
+                return copier.copy(taskId, tableName, reader, stoppableWriter);
+            }
+        }
 
+        CopyCheckpointTracker tracker = new CopyCheckpointTracker(checkpoint, readPlan, checkpointStore,
+                optimizationConfig.getResume().getCheckpointIntervalMs(), stopRequested);
+        try (SourceTableReader reader = tracker.track(new PagedTableReader(sourceSession, readPlan, this.sourceDbType,
+                tableName, sourceSchemaName, batchSize, range).startAfter(checkpoint.getLastKey()))) {
+            logger.info("Task [{}], Table [{}]: Reading source with {}, checkpointed{}", taskId, tableName, reader.describe(),
+                    checkpoint.getLastKey() == null ? "" : ", resuming after key " + checkpoint.getLastKey());
+            long rows = copier.copy(taskId, tableName, reader, tracker.track(batchWriter));
+            tracker.complete();
+            return rows;
         } catch (Exception e) {
-            logger.error("Task [{}], Table [{}]: Error during data synchronization. Error: {}", taskId, tableName, e.getMessage(), e);
-            // Ensure progressManager is updated about failure if not already handled by executeAndReportBatchInsert
-            // This is now handled by syncTable's finally block.
-            throw new RuntimeException("Data synchronization failed for table " + tableName, e);
+            tracker.flush();
+            logger.warn("Task [{}], Table [{}]: Copy interrupted, checkpoint saved at {}", taskId, tableName, tracker.current());
+            throw e;
         }
     }
 
+    /**
+     * Rows after a checkpoint may have been written out of order or by a partly applied batch before the copy was
+     * interrupted; delete them so that continuing after the checkpoint does not duplicate rows.
+     */
+    private void discardRowsBeyond(String taskId, DataSource targetDataSource, String targetTableName, CopyCheckpoint checkpoint) throws SQLException {
+        String sql = checkpoint.buildDiscardSql(targetTableName);
+        try (Connection connection = targetDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            List<Object> parameters = checkpoint.getDiscardParameters();
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            int deleted = statement.executeUpdate();
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+            logger.info("Task [{}], Table [{}]: Removed {} uncommitted row(s) beyond checkpoint {}", taskId, targetTableName, deleted, checkpoint);
+        }
+    }
+
+    /**
+     * Cursor plans stream the whole table through one forward-only ResultSet; every other plan pages through TableMapper.
+     */
+    private SourceTableReader openSourceReader(SqlSession sourceSession, SourceReadPlan readPlan, String tableName,
+                                               String sourceSchemaName, IntSupplier batchSize) {
+        if (readPlan.getStrategy() == ReadStrategy.CURSOR) {
+            int fetchSize = "oracle".equalsIgnoreCase(this.sourceDbType)
+                    ? optimizationConfig.getOracle().getArraySize()
+                    : optimizationConfig.getStreamFetchSize();
+            return new StreamingTableReader(sourceSession.getConnection(), this.sourceDbType, tableName, batchSize, fetchSize);
+        }
+        return new PagedTableReader(sourceSession, readPlan, this.sourceDbType,
+                tableName, sourceSchemaName, batchSize, null);
+    }
+
+    /**
+     * Resolve how the source table is paged: primary key, then a unique index over NOT NULL columns,
+     * then Oracle ROWID / PostgreSQL ctid, and finally a single streaming cursor (or OFFSET paging when streaming is off).
+     * The ctid plan bounds range-split pieces; syncTableData streams an unsplit keyless PostgreSQL table with a cursor.
+     */
+    private SourceReadPlan resolveReadPlan(String taskId, SqlSession sourceSession, String tableName, String sourceSchemaName) {
+        if (!optimizationConfig.isEnableKeysetPagination()) {
+            return SourceReadPlan.offset();
+        }
+
+        String dbType = this.sourceDbType.toLowerCase();
+        String schema = (sourceSchemaName == null || sourceSchemaName.trim().isEmpty()) ? null : sourceSchemaName;
+        try {
+            Connection connection = sourceSession.getConnection();
+            for (String candidate : metadataNameCandidates(dbType, tableName)) {
+                String candidateSchema = schema == null ? null : normalizeMetadataName(dbType, schema);
+                List<String> primaryKey = DatabaseMetadataUtil.getOrderedPrimaryKeyColumns(connection, candidateSchema, candidate);
+                if (primaryKey.isEmpty() && candidateSchema != null && !candidateSchema.equals(schema)) {
+                    primaryKey = DatabaseMetadataUtil.getOrderedPrimaryKeyColumns(connection, schema, candidate);
+                }
+                if (!primaryKey.isEmpty()) {
+                    return SourceReadPlan.keyset(primaryKey);
+                }
+
+                List<List<String>> uniqueIndexes = DatabaseMetadataUtil.getUniqueIndexColumns(connection, candidateSchema, candidate);
+                if (!uniqueIndexes.isEmpty()) {
+                    Set<String> notNullColumns = getNotNullColumns(sourceSession, tableName, sourceSchemaName);
+                    for (List<String> indexColumns : uniqueIndexes) {
+                        boolean allNotNull = indexColumns.stream()
+                                .allMatch(column -> notNullColumns.contains(column.toUpperCase()));
+                        if (allNotNull) {
+                            return SourceReadPlan.keyset(indexColumns);
+                        }
+                    }
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Task [{}], Table [{}]: Could not resolve key columns for keyset pagination, falling back. Error: {}",
+                    taskId, tableName, e.getMessage());
+        }
+
+        switch (dbType) {
+            case "oracle":
+                return SourceReadPlan.rowLocator(ReadStrategy.ROWID);
+            case "postgresql":
+            case "vastbase":
+                return SourceReadPlan.rowLocator(ReadStrategy.CTID);
+            default:
+                if (optimizationConfig.isEnableStreamingRead()) {
+                    logger.info("Task [{}], Table [{}]: No primary key or NOT NULL unique index found, streaming with a cursor.",
+                            taskId, tableName);
+                    return SourceReadPlan.cursor();
+                }
+                logger.warn("Task [{}], Table [{}]: No primary key or NOT NULL unique index found, using OFFSET pagination.",
+                        taskId, tableName);
+                return SourceReadPlan.offset();
+        }
+    }
+
+    private Set<String> metadataNameCandidates(String dbType, String name) {
+        Set<String> candidates = new LinkedHashSet<>();
+        candidates.add(name);
+        candidates.add(normalizeMetadataName(dbType, name));
+        return candidates;
+    }
+
+    /**
+     * Catalog case folding: Oracle/Dameng store unquoted identifiers upper case, PostgreSQL lower case
+     */
+    private String normalizeMetadataName(String dbType, String name) {
+        switch (dbType) {
+            case "oracle":
+            case "dameng":
+                return name.toUpperCase();
+            case "postgresql":
+            case "vastbase":
+                return name.toLowerCase();
+            default:
+                return name;
+        }
+    }
+
+    /**
+     * Source column structure as returned by getTableStructure. With a schema snapshot service the structure is kept in
+     * the source connection's snapshot until the table's change marker moves, so creating the target table, the staging
+     * table, the NOT NULL check and COPY type mapping do not each repeat the same catalog query.
+     */
+    private List<Map<String, Object>> getSourceStructure(TableMapper sourceMapper, String tableName, String sourceSchemaName) {
+        if (schemaSnapshotService == null) {
+            return sourceMapper.getTableStructure(this.sourceDbType, tableName, sourceSchemaName);
+        }
+        return schemaSnapshotService.getTableStructure(sourceConnectionId, tableName, sourceSchemaName,
+                () -> sourceMapper.getTableStructure(this.sourceDbType, tableName, sourceSchemaName));
+    }
+
+    private Set<String> getNotNullColumns(SqlSession sourceSession, String tableName, String sourceSchemaName) {
+        TableMapper sourceMapper = sourceSession.getMapper(TableMapper.class);
+        Set<String> notNullColumns = new HashSet<>();
+        List<Map<String, Object>> structure = getSourceStructure(sourceMapper, tableName, sourceSchemaName);
+        if (structure != null) {
+            for (Map<String, Object> column : structure) {
+                if ("N".equals(column.get("NULLABLE")) && column.get("COLUMN_NAME") != null) {
+                    notNullColumns.add(((String) column.get("COLUMN_NAME")).toUpperCase());
+                }
+            }
+        }
+        return notNullColumns;
+    }
+
     /**
      * Execute TRUNCATE operation in a separate transaction to minimize lock time
      * This prevents long-running INSERT operations from holding table locks
@@ -434,67 +1737,62 @@ public class DatabaseSyncService {
      * This method ensures that DDL operations are properly synchronized before DML operations
      */
     private void waitForTableReplication(String taskId, SqlSession targetSession, String tableName) throws Exception {
+        waitForTablesReplication(taskId, targetSession, Collections.singletonList(tableName));
+    }
+
+    /**
+     * Wait until all given tables are visible on the cluster. Every round confirms all pending tables with one catalog
+     * query (findPgReplicatedTables); the first retry follows after replication-wait-initial-ms and the interval doubles
+     * up to replication-wait-max-ms, until replication-wait-timeout-ms in total.
+     */
+    private void waitForTablesReplication(String taskId, SqlSession targetSession, List<String> tableNames) throws Exception {
         TableMapper targetMapper = targetSession.getMapper(TableMapper.class);
-        int maxRetries = 10;
-        int retryDelayMs = 1000; // 1 second
+        DatabaseOptimizationConfig.PostgreSQLConfig pgConfig = optimizationConfig.getPostgresql();
+        String schema = (this.targetSchemaName == null || this.targetSchemaName.trim().isEmpty()) ? null : this.targetSchemaName;
+        Set<String> pending = new LinkedHashSet<>();
+        for (String tableName : tableNames) {
+            pending.add(tableName.toLowerCase());
+        }
 
-        for (int attempt = 1; attempt <= maxRetries; attempt++) {
+        long startTime = System.currentTimeMillis();
+        long deadline = startTime + pgConfig.getReplicationWaitTimeoutMs();
+        long delayMs = Math.max(1, pgConfig.getReplicationWaitInitialMs());
+        int attempt = 0;
+        while (true) {
+            attempt++;
             try {
-                // Use cluster-aware table existence check
-                Map<String, Object> tableInfo = targetMapper.checkPgTableExistsClusterAware(tableName, this.targetSchemaName);
-
-                if (tableInfo != null) {
-                    Number tableCount = (Number) tableInfo.get("table_count");
-                    Number statsCount = (Number) tableInfo.get("stats_count");
-
-                    if (tableCount != null && tableCount.longValue() > 0 &&
-                        statsCount != null && statsCount.longValue() > 0) {
-                        logger.debug("Task [{}], Table [{}]: Table replication confirmed on attempt {} (table_count: {}, stats_count: {})",
-                            taskId, tableName, attempt, tableCount, statsCount);
-                        return;
+                List<String> unconfirmed = new ArrayList<>(pending);
+                for (int from = 0; from < unconfirmed.size(); from += 500) {
+                    List<String> batch = unconfirmed.subList(from, Math.min(from + 500, unconfirmed.size()));
+                    for (String confirmed : targetMapper.findPgReplicatedTables(batch, schema)) {
+                        pending.remove(confirmed.toLowerCase());
                     }
-
-                    logger.debug("Task [{}], Table [{}]: Table partially replicated on attempt {} (table_count: {}, stats_count: {})",
-                        taskId, tableName, attempt, tableCount, statsCount);
                 }
             } catch (Exception e) {
-                logger.warn("Task [{}], Table [{}]: Table existence check failed on attempt {}: {}",
-                    taskId, tableName, attempt, e.getMessage());
+                logger.warn("Task [{}]: Table existence check failed on attempt {}: {}", taskId, attempt, e.getMessage());
             }
-
-            if (attempt < maxRetries) {
-                logger.info("Task [{}], Table [{}]: Waiting for table replication, attempt {} of {}",
-                    taskId, tableName, attempt, maxRetries);
-                try {
-                    Thread.sleep(retryDelayMs);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    throw new Exception("Table replication wait interrupted", ie);
-                }
+            if (pending.isEmpty()) {
+                logger.debug("Task [{}]: Replication of {} table(s) confirmed on attempt {} after {} ms",
+                        taskId, tableNames.size(), attempt, System.currentTimeMillis() - startTime);
+                return;
             }
-        }
 
-        throw new Exception(String.format("Table %s replication not confirmed after %d attempts", tableName, maxRetries));
-    }
-
-    /**
-     * Check if a column is a pagination/row number column that should be excluded from INSERT
-     */
-    private boolean isPaginationColumn(String columnName) {
-        if (columnName == null) {
-            return true;
+            long remainingMs = deadline - System.currentTimeMillis();
+            if (remainingMs <= 0) {
+                break;
+            }
+            logger.info("Task [{}]: Waiting {} ms for replication of {} table(s), attempt {}", taskId, Math.min(delayMs, remainingMs),
+                    pending.size(), attempt);
+            try {
+                Thread.sleep(Math.min(delayMs, remainingMs));
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new Exception("Table replication wait interrupted", ie);
+            }
+            delayMs = Math.min(delayMs * 2, Math.max(delayMs, pgConfig.getReplicationWaitMaxMs()));
         }
 
-        String lowerColumnName = columnName.toLowerCase();
-
-        // Known pagination columns from different databases
-        return lowerColumnName.equals("rnum") ||
-               lowerColumnName.equals("rownum") ||
-               lowerColumnName.equals("rnum_") ||
-               lowerColumnName.equals("rn") ||
-               lowerColumnName.equals("row_number") ||
-               lowerColumnName.startsWith("__") || // System columns
-               lowerColumnName.endsWith("_rownum"); // Custom row number columns
+        throw new Exception(String.format("Table %s replication not confirmed after %d attempts", String.join(", ", pending), attempt));
     }
 
     /**
@@ -531,12 +1829,85 @@ public class DatabaseSyncService {
         return false;
     }
 
+    /**
+     * Creates every table of tablesToSync that is missing in the target before any data is copied, then waits once for
+     * all of them to replicate (one catalog query per round on PostgreSQL/Vastbase) instead of once per table. A table
+     * whose DDL fails is left to syncTable, which tries again and reports the failure for that table.
+     *
+     * @return The tables that were created.
+     */
+    public List<String> createMissingTables(String taskId, List<String> tablesToSync, String sourceSchemaName) {
+        List<String> created = new ArrayList<>();
+        boolean postgres = "postgresql".equalsIgnoreCase(this.targetDbType) || "vastbase".equalsIgnoreCase(this.targetDbType);
+        try (SqlSession sourceSession = sourceFactory.openSession();
+             SqlSession targetSession = targetFactory.openSession()) {
+            TableMapper sourceMapper = sourceSession.getMapper(TableMapper.class);
+            Set<String> existing = new HashSet<>();
+            if (postgres) {
+                List<String> names = new ArrayList<>();
+                for (String tableName : tablesToSync) {
+                    names.add(tableName.toLowerCase());
+                }
+                String schema = (this.targetSchemaName == null || this.targetSchemaName.trim().isEmpty()) ? null : this.targetSchemaName;
+                for (int from = 0; from < names.size(); from += 500) {
+                    existing.addAll(targetSession.getMapper(TableMapper.class)
+                            .findPgReplicatedTables(names.subList(from, Math.min(from + 500, names.size())), schema));
+                }
+            }
+
+            for (String tableName : tablesToSync) {
+                String targetTableName = tableName.toLowerCase();
+                if (existing.contains(targetTableName) || (!postgres && targetTableExists(targetSession, tableName))) {
+                    continue;
+                }
+                try {
+                    List<Map<String, Object>> sourceStructure = getSourceStructure(sourceMapper, tableName, sourceSchemaName);
+                    if (sourceStructure == null || sourceStructure.isEmpty()) {
+                        continue;
+                    }
+                    List<Map<String, String>> sourceColumnComments = sourceMapper.getColumnComments(this.sourceDbType, tableName, sourceSchemaName);
+                    executeCreateTableDDL(taskId, targetSession, tableName, sourceStructure, null, sourceColumnComments, targetTableName);
+                    created.add(targetTableName);
+                } catch (Exception e) {
+                    logger.warn("Task [{}], Table [{}]: Could not create the table up front, it is created when it is copied. Error: {}",
+                            taskId, tableName, e.getMessage());
+                }
+            }
+
+            if (postgres && !created.isEmpty()) {
+                waitForTablesReplication(taskId, targetSession, created);
+            }
+        } catch (Exception e) {
+            logger.warn("Task [{}]: Creating missing tables up front stopped, the rest are created when they are copied. Error: {}",
+                    taskId, e.getMessage());
+        }
+        preCreatedTables.addAll(created);
+        if (!created.isEmpty()) {
+            logger.info("Task [{}]: Created {} missing table(s) before copying: {}", taskId, created.size(), created);
+        }
+        return created;
+    }
+
     /**
      * Execute DDL operations with proper transaction management for PostgreSQL clusters
      */
     private void executeDDLWithClusterSupport(String taskId, SqlSession targetSession, String tableName,
                                             List<Map<String, Object>> sourceStructure, String tableComment,
                                             List<Map<String, String>> sourceColumnComments, String targetTableNameForCheck) throws Exception {
+        executeCreateTableDDL(taskId, targetSession, tableName, sourceStructure, tableComment, sourceColumnComments, targetTableNameForCheck);
+
+        // For PostgreSQL clusters, ensure table creation is synchronized across all nodes
+        if ("postgresql".equalsIgnoreCase(this.targetDbType) || "vastbase".equalsIgnoreCase(this.targetDbType)) {
+            waitForTableReplication(taskId, targetSession, tableName);
+        }
+    }
+
+    /**
+     * CREATE TABLE plus PostgreSQL comments in one committed transaction, without waiting for replication.
+     */
+    private void executeCreateTableDDL(String taskId, SqlSession targetSession, String tableName,
+                                       List<Map<String, Object>> sourceStructure, String tableComment,
+                                       List<Map<String, String>> sourceColumnComments, String targetTableNameForCheck) throws Exception {
         TableMapper targetMapper = targetSession.getMapper(TableMapper.class);
 
         try {
@@ -574,11 +1945,6 @@ public class DatabaseSyncService {
             targetSession.commit();
             logger.debug("Task [{}], Table [{}]: DDL transaction committed", taskId, tableName);
 
-            // For PostgreSQL clusters, ensure table creation is synchronized across all nodes
-            if ("postgresql".equalsIgnoreCase(this.targetDbType) || "vastbase".equalsIgnoreCase(this.targetDbType)) {
-                waitForTableReplication(taskId, targetSession, tableName);
-            }
-
         } catch (Exception e) {
             logger.error("Task [{}], Table [{}]: DDL operation failed, rolling back transaction: {}",
                 taskId, tableName, e.getMessage());
@@ -593,75 +1959,63 @@ public class DatabaseSyncService {
     }
 
     private int executeAndReportBatchInsert(String taskId, String progressIdentifier,
-                                            String targetTableName, List<Map<String, Object>> batchData,
-                                            SqlSessionFactory currentTargetFactory) throws Exception {
+                                            String targetTableName, RowBatch batchData,
+                                            TableWriter insertWriter) throws Exception {
+        return executeAndReportBatchInsert(taskId, progressIdentifier, targetTableName, batchData, insertWriter, null);
+    }
+
+    /**
+     * @param batchSizer receives the write latency, payload size and retry outcome of the batch; null to skip feedback
+     */
+    private int executeAndReportBatchInsert(String taskId, String progressIdentifier,
+                                            String targetTableName, RowBatch batchData,
+                                            TableWriter insertWriter, AdaptiveBatchSizer batchSizer) throws Exception {
         if (batchData == null || batchData.isEmpty()) {
             return 0;
         }
-        DataSource targetDataSource = currentTargetFactory.getConfiguration().getEnvironment().getDataSource();
-        JdbcTemplate jdbcTemplate = new JdbcTemplate(targetDataSource);
-
-        Map<String, Object> firstRow = batchData.get(0);
+        DataSource targetDataSource = insertWriter.getDataSource();
 
-        // More precise column filtering - only exclude known pagination/row number columns
-        List<String> finalColumns = firstRow.keySet().stream()
-                .filter(column -> !isPaginationColumn(column))
-                .sorted() // Sort columns for consistent INSERT order
-                .collect(Collectors.toList());
+        // Column order and statement text are planned once per table by the writer
+        List<String> finalColumns = batchData.getLayout().getInsertColumnNames();
 
         if (finalColumns.isEmpty()) {
             logger.warn("Task [{}], ProgressID [{}]: No columns found for batch insert after filtering. Available columns: {}. Skipping batch.",
-                    taskId, progressIdentifier, firstRow.keySet());
+                    taskId, progressIdentifier, batchData.getLayout());
             return 0;
         }
 
-        logger.debug("Task [{}], ProgressID [{}]: Using columns for batch insert: {}",
-                taskId, progressIdentifier, finalColumns);
-//        List<String> filteredColumns = columns.stream()
-//                .filter(column -> !column.equalsIgnoreCase("rnum_")) // 过滤掉 rnum_
-//                .filter(column -> !column.equalsIgnoreCase("rn")) // 过滤掉 rn
-//                .collect(Collectors.toList());
-//        columns = filteredColumns;
-        StringBuilder sqlBuilder = new StringBuilder();
-        sqlBuilder.append("INSERT INTO ").append(targetTableName).append(" (");
-        sqlBuilder.append(String.join(", ", finalColumns.stream().map(String::toLowerCase).collect(Collectors.toList())));
-        sqlBuilder.append(") VALUES (");
-        sqlBuilder.append(finalColumns.stream().map(c -> "?").collect(Collectors.joining(",")));
-        sqlBuilder.append(")");
-
-        String sql = sqlBuilder.toString();
+        String sql = insertWriter.describe(batchData.getLayout());
 
         try {
             // Use retry mechanism for batch INSERT operations
             DatabaseRetryUtil.RetryConfig retryConfig = DatabaseRetryUtil.createLockConflictRetryConfig();
 
-            int[][] rowsAffectedArray = DatabaseRetryUtil.executeWithRetry(taskId,
+            // Only the successful attempt is timed; earlier attempts are reported as a retry instead
+            AtomicInteger attempts = new AtomicInteger();
+            AtomicLong writeNanos = new AtomicLong();
+            int totalRowsAffected = DatabaseRetryUtil.executeWithRetry(taskId,
                 "BATCH INSERT " + targetTableName, () -> {
-                    return jdbcTemplate.batchUpdate(sql, batchData, batchData.size(),
-                            (ps, argument) -> {
-                                for (int i = 0; i < finalColumns.size(); i++) {
-                                    ps.setObject(i + 1, argument.get(finalColumns.get(i)));
-                                }
-                            });
-                }, retryConfig);
-
-                int totalRowsAffected = 0;
-                for (int[] batchResults : rowsAffectedArray) {
-                    for (int rows : batchResults) {
-                        if (rows > 0) {
-                            totalRowsAffected += rows;
-                        } else if (rows == Statement.SUCCESS_NO_INFO) {
-                            totalRowsAffected += 1; // Count SUCCESS_NO_INFO as one row affected for progress tracking
-                        }
+                    attempts.incrementAndGet();
+                    long writeStart = System.nanoTime();
+                    try {
+                        int written = insertWriter.write(batchData);
+                        writeNanos.set(System.nanoTime() - writeStart);
+                        return written;
+                    } catch (SQLException e) {
+                        DataAccessException translated = SQL_EXCEPTION_TRANSLATOR.translate("BATCH INSERT " + targetTableName, sql, e);
+                        throw translated != null ? translated : new UncategorizedSQLException("BATCH INSERT " + targetTableName, sql, e);
                     }
-                }
+                }, retryConfig);
 
                 if (totalRowsAffected > 0) {
                     this.progressManager.updateTableProgress(taskId, progressIdentifier, totalRowsAffected);
-                } else if (batchData.size() > 0 && totalRowsAffected == 0 &&
-                        rowsAffectedArray.length > 0 && rowsAffectedArray[0][0] == Statement.SUCCESS_NO_INFO) {
-                    this.progressManager.updateTableProgress(taskId, progressIdentifier, batchData.size());
-                    totalRowsAffected = batchData.size();
+                }
+                if (batchSizer != null) {
+                    int previousSize = batchSizer.getAsInt();
+                    int nextSize = batchSizer.onBatchWritten(batchData.size(), batchData.estimateBytes(), writeNanos.get(), attempts.get() > 1);
+                    if (nextSize != previousSize) {
+                        this.progressManager.updateBatchSize(taskId, progressIdentifier, nextSize);
+                    }
                 }
 
                 logger.debug("Task [{}], ProgressID [{}], Table [{}]: Batch insert executed. SQL: [{}], Batch size: {}, Rows affected: {}",
@@ -669,6 +2023,9 @@ public class DatabaseSyncService {
                 return totalRowsAffected;
 
         } catch (Exception e) {
+            if (batchSizer != null) {
+                batchSizer.onBatchFailed();
+            }
             // Enhanced error handling for PostgreSQL cluster issues
             String errorMessage = e.getMessage();
             boolean isClusterIssue = isPostgreSQLClusterError(errorMessage);
@@ -821,7 +2178,7 @@ public class DatabaseSyncService {
 
         this.progressManager.startTask(taskId, 1); // One overall operation: custom query execution and save
 
-        List<Map<String, Object>> results = new ArrayList<>();
+        RowBatch results = null;
         List<Map<String, Object>> columnDetailsList = new ArrayList<>();
         List<String> resultColumnNames = new ArrayList<>();
         SqlSessionFactory customSourceFactory = null;
@@ -840,9 +2197,11 @@ public class DatabaseSyncService {
                 int columnCount = metaData.getColumnCount();
                 logger.info("Task [{}]: Custom query returned {} columns.", taskId, columnCount);
 
+                int[] columnTypes = new int[columnCount];
                 for (int i = 1; i <= columnCount; i++) {
                     String colName = metaData.getColumnName(i);
                     resultColumnNames.add(colName);
+                    columnTypes[i - 1] = metaData.getColumnType(i);
 
                     Map<String, Object> colDetail = new HashMap<>();
                     colDetail.put("COLUMN_NAME", colName);
@@ -853,16 +2212,15 @@ public class DatabaseSyncService {
                     columnDetailsList.add(colDetail);
                 }
 
+                // The created table uses column names, so the insert layout does too (not labels)
+                ColumnLayout layout = ColumnLayout.of(resultColumnNames.toArray(new String[0]), columnTypes);
+                results = new RowBatch(layout, 256);
                 while (resultSet.next()) {
-                    Map<String, Object> row = new HashMap<>();
-                    for (String columnName : resultColumnNames) {
-                        row.put(columnName, resultSet.getObject(columnName));
-                    }
-                    results.add(row);
+                    results.add(layout.readRow(resultSet));
                 }
                 logger.info("Task [{}]: Fetched {} rows from custom query.", taskId, results.size());
                 if (!results.isEmpty()) {
-                    logger.debug("Task [{}]: First row of custom query result: {}", taskId, results.get(0));
+                    logger.debug("Task [{}]: First row of custom query result: {} = {}", taskId, layout, Arrays.toString(results.getRows().get(0)));
                 }
             } catch (SQLException e) {
                 logger.error("Task [{}]: SQL error during custom query execution or data fetching: {}", taskId, e.getMessage(), e);
@@ -929,7 +2287,10 @@ public class DatabaseSyncService {
                 try {
                     if (results != null && !results.isEmpty()) {
                         logger.info("Task [{}]: Attempting to insert {} rows into target table '{}'.", taskId, results.size(), targetTableName);
-                        executeAndReportBatchInsert(taskId, progressIdentifierForTableSync, targetTableName.toLowerCase(), results, customTargetFactory);
+                        try (TableWriter insertWriter = new PreparedInsertWriter(
+                                customTargetFactory.getConfiguration().getEnvironment().getDataSource(), targetTableName.toLowerCase())) {
+                            executeAndReportBatchInsert(taskId, progressIdentifierForTableSync, targetTableName.toLowerCase(), results, insertWriter);
+                        }
                         targetSqlSession.commit(); // Commit data insertion
                         dataSyncSuccessful = true;
                         logger.info("Task [{}]: Data successfully inserted into table '{}' and transaction committed.", taskId, targetTableName);
@@ -1005,4 +2366,12 @@ public class DatabaseSyncService {
         logger.info("Task [{}]: Generated CREATE TABLE SQL for {}: {}", taskId, qualifiedTableName, sql.toString());
         return sql.toString();
     }
-}
\ No newline at end of file
+
+    /**
+     * Primary key, indexes and foreign keys dropped before a load, to be recreated after it.
+     */
+    private static final class DeferredIndexes {
+        private final List<IndexInfo> indexes = new ArrayList<>();
+        private final List<ForeignKeyInfo> foreignKeys = new ArrayList<>();
+    }
+}
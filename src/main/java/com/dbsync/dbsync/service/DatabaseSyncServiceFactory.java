@@ -26,6 +26,9 @@ public class DatabaseSyncServiceFactory {
     @Autowired
     private DatabaseOptimizationConfig optimizationConfig;
 
+    @Autowired
+    private SchemaSnapshotService schemaSnapshotService;
+
     /**
      * 创建DatabaseSyncService实例
      */
@@ -50,7 +53,9 @@ public class DatabaseSyncServiceFactory {
             targetDbType,
             targetSchemaName,
             progressManager,
-            optimizationConfig
+            optimizationConfig,
+            schemaSnapshotService,
+            sourceConnection.getId()
         );
     }
 
@@ -33,6 +33,15 @@ public class DbConnectionService {
     @Autowired
     private DbConnectionMapper dbConnectionMapper;
 
+    @Autowired
+    private DataSourceRegistry dataSourceRegistry;
+
+    @Autowired
+    private SqlSessionFactoryCache sqlSessionFactoryCache;
+
+    @Autowired
+    private SchemaSnapshotService schemaSnapshotService;
+
     /**
      * 获取所有数据库连接
      */
@@ -108,6 +117,8 @@ public class DbConnectionService {
         // 更新数据库
         int result = dbConnectionMapper.updateConnection(connection);
         if (result > 0) {
+            // 连接配置（地址、账号、密码等）可能已变化，旧的连接池不能再用
+            invalidateConnection(id);
             return connection;
         } else {
             throw new RuntimeException("更新数据库连接失败");
@@ -126,6 +137,7 @@ public class DbConnectionService {
         }
         
         int result = dbConnectionMapper.deleteById(id);
+        invalidateConnection(id);
         return result > 0;
     }
 
@@ -141,6 +153,9 @@ public class DbConnectionService {
         }
         
         int result = dbConnectionMapper.updateConnectionStatus(id, enabled);
+        if (!Boolean.TRUE.equals(enabled)) {
+            invalidateConnection(id);
+        }
         return result > 0;
     }
 
@@ -176,9 +191,7 @@ public class DbConnectionService {
             return false;
         }
 
-        String url = buildJdbcUrl(connection);
-
-        try (Connection conn = createConnectionWithTimeout(url, connection.getUsername(), connection.getPassword())) {
+        try (Connection conn = borrowConnection(connection)) {
             // 使用isValid方法检查连接是否有效，超时时间5秒
             boolean isValid = conn.isValid(5);
             logger.info("数据库连接健康检查，连接ID: {}, 状态: {}", connectionId, isValid ? "健康" : "异常");
@@ -204,9 +217,7 @@ public class DbConnectionService {
             throw new RuntimeException("数据库连接异常，请检查连接配置和网络状态");
         }
 
-        String url = buildJdbcUrl(connection);
-
-        try (Connection conn = createConnectionWithTimeout(url, connection.getUsername(), connection.getPassword())) {
+        try (Connection conn = borrowConnection(connection)) {
             logger.info("开始获取表列表，连接ID: {}, Schema: {}", connectionId, schemaName);
             List<String> tables = DatabaseMetadataUtil.getTables(conn, connection.getDbType(), schemaName, connection.getDatabase());
             logger.info("成功获取表列表，连接ID: {}, 表数量: {}", connectionId, tables.size());
@@ -239,9 +250,7 @@ public class DbConnectionService {
             throw new RuntimeException("数据库连接不存在: " + connectionId);
         }
 
-        String url = buildJdbcUrl(connection);
-
-        try (Connection conn = createConnectionWithTimeout(url, connection.getUsername(), connection.getPassword())) {
+        try (Connection conn = borrowConnection(connection)) {
             return DatabaseMetadataUtil.getTablesWithPagination(conn, connection.getDbType(),
                                                                request.getSchema(), connection.getDatabase(), request);
         } catch (SQLException e) {
@@ -259,9 +268,7 @@ public class DbConnectionService {
             throw new RuntimeException("数据库连接不存在: " + connectionId);
         }
 
-        String url = buildJdbcUrl(connection);
-
-        try (Connection conn = createConnectionWithTimeout(url, connection.getUsername(), connection.getPassword())) {
+        try (Connection conn = borrowConnection(connection)) {
             return DatabaseMetadataUtil.getTableColumns(conn, connection.getDbType(), tableName, schemaName, connection.getDatabase());
         } catch (SQLException e) {
             throw new RuntimeException("获取表列信息失败: " + e.getMessage(), e);
@@ -278,9 +285,7 @@ public class DbConnectionService {
             throw new RuntimeException("数据库连接不存在: " + connectionId);
         }
 
-        String url = buildJdbcUrl(connection);
-
-        try (Connection conn = createConnectionWithTimeout(url, connection.getUsername(), connection.getPassword())) {
+        try (Connection conn = borrowConnection(connection)) {
             return DatabaseMetadataUtil.getSchemas(conn, connection.getDbType());
         } catch (SQLException e) {
             throw new RuntimeException("获取Schema列表失败: " + e.getMessage(), e);
@@ -318,25 +323,19 @@ public class DbConnectionService {
     }
 
     /**
-     * 创建带超时设置的数据库连接
+     * 使该连接的连接池、SqlSessionFactory缓存和元数据快照失效
      */
-    private Connection createConnectionWithTimeout(String url, String username, String password) throws SQLException {
-        // 设置连接超时时间（30秒）
-        DriverManager.setLoginTimeout(30);
-
-        Connection conn = DriverManager.getConnection(url, username, password);
-
-        // 设置网络超时时间（45秒）
-        if (conn.isValid(5)) {
-            try {
-                conn.setNetworkTimeout(null, 45000);
-            } catch (SQLException e) {
-                // 某些数据库驱动可能不支持setNetworkTimeout，忽略此异常
-                logger.warn("无法设置网络超时: " + e.getMessage());
-            }
-        }
+    private void invalidateConnection(Long id) {
+        dataSourceRegistry.invalidate(id);
+        sqlSessionFactoryCache.invalidate(id);
+        schemaSnapshotService.evict(id);
+    }
 
-        return conn;
+    /**
+     * 从连接池借用该数据库连接的连接
+     */
+    private Connection borrowConnection(DbConnection connection) throws SQLException {
+        return dataSourceRegistry.getDataSource(connection.getId()).getConnection();
     }
 
     /**
@@ -389,9 +388,7 @@ public class DbConnectionService {
             throw new RuntimeException("数据库连接不存在");
         }
         
-        String url = buildJdbcUrl(dbConnection);
-        
-        try (Connection connection = createConnectionWithTimeout(url, dbConnection.getUsername(), dbConnection.getPassword())) {
+        try (Connection connection = borrowConnection(dbConnection)) {
             return com.dbsync.dbsync.util.DatabaseMetadataUtil.getBasicTablesInfo(
                 connection, dbConnection.getDbType(), schema, dbConnection.getDatabase());
         } catch (SQLException e) {
@@ -409,9 +406,7 @@ public class DbConnectionService {
             throw new RuntimeException("数据库连接不存在");
         }
         
-        String url = buildJdbcUrl(dbConnection);
-        
-        try (Connection connection = createConnectionWithTimeout(url, dbConnection.getUsername(), dbConnection.getPassword())) {
+        try (Connection connection = borrowConnection(dbConnection)) {
             return com.dbsync.dbsync.util.DatabaseMetadataUtil.getBasicTablesWithPagination(
                 connection, dbConnection.getDbType(), request.getSchema(), dbConnection.getDatabase(), request);
         } catch (SQLException e) {
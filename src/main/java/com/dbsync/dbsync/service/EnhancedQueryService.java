@@ -25,6 +25,9 @@ public class EnhancedQueryService {
     
     @Autowired
     private DbConnectionService dbConnectionService;
+
+    @Autowired
+    private DataSourceRegistry dataSourceRegistry;
     
     @Autowired
     private CacheService cacheService;
@@ -82,9 +85,7 @@ public class EnhancedQueryService {
                 throw new RuntimeException("数据库连接已禁用: " + connection.getName());
             }
             
-            String jdbcUrl = buildJdbcUrl(connection, schema);
-            
-            try (Connection conn = DriverManager.getConnection(jdbcUrl, connection.getUsername(), connection.getPassword())) {
+            try (Connection conn = dataSourceRegistry.getDataSource(connection, schema).getConnection()) {
                 
                 QueryResult result;
                 boolean hasResultSet = false;
@@ -193,9 +194,7 @@ public class EnhancedQueryService {
                 throw new RuntimeException("数据库连接不存在: " + connectionId);
             }
             
-            String jdbcUrl = buildJdbcUrl(connection, schema);
-            
-            try (Connection conn = DriverManager.getConnection(jdbcUrl, connection.getUsername(), connection.getPassword())) {
+            try (Connection conn = dataSourceRegistry.getDataSource(connection, schema).getConnection()) {
                 DatabaseMetaData metaData = conn.getMetaData();
                 
                 List<ColumnInfo> columns = new ArrayList<>();
@@ -380,26 +379,6 @@ public class EnhancedQueryService {
         return new QueryResult(columns, rows, 1, executionTime, message);
     }
     
-    private String buildJdbcUrl(DbConnection connection, String schema) {
-        String baseUrl = dbConnectionService.buildJdbcUrl(connection);
-        
-        if (schema != null && !schema.trim().isEmpty()) {
-            String dbType = connection.getDbType().toLowerCase();
-            switch (dbType) {
-                case "postgresql":
-                case "vastbase":
-                    baseUrl += "?currentSchema=" + schema;
-                    break;
-                case "mysql":
-                case "oracle":
-                case "sqlserver":
-                default:
-                    break;
-            }
-        }
-        
-        return baseUrl;
-    }
     
     private boolean isSelectQuery(String sql) {
         return sql.trim().toLowerCase().startsWith("select");
@@ -1,5 +1,7 @@
 package com.dbsync.dbsync.service;
 
+import com.dbsync.dbsync.entity.ColumnInfo;
+import com.dbsync.dbsync.entity.TableSnapshot;
 import com.dbsync.dbsync.service.QueryService;
 import com.dbsync.dbsync.util.SqlQueryAnalyzer;
 import org.slf4j.Logger;
@@ -33,6 +35,9 @@ public class FieldMappingService {
     
     @Autowired
     private SqlQueryAnalyzer sqlQueryAnalyzer;
+
+    @Autowired
+    private SchemaSnapshotService schemaSnapshotService;
     
     private static final String CACHE_PREFIX = "field_mapping:";
     private static final int CACHE_EXPIRE_HOURS = 24;
@@ -119,6 +124,25 @@ public class FieldMappingService {
      * 获取单个表的字段映射
      */
     private Map<String, String> getTableFieldMappings(Long connectionId, String tableName, String schema) {
+        // 启用元数据快照时直接取快照中的列注释，快照会随表结构变化重新加载，不再另做过期缓存
+        if (schemaSnapshotService.isEnabled()) {
+            try {
+                TableSnapshot snapshot = schemaSnapshotService.getTable(connectionId, tableName, schema);
+                if (snapshot != null) {
+                    Map<String, String> mappings = new HashMap<>();
+                    for (ColumnInfo column : snapshot.getColumns()) {
+                        String remarks = column.getRemarks();
+                        if (remarks != null && !remarks.trim().isEmpty()) {
+                            mappings.put(column.getColumnName().toLowerCase(), remarks.trim());
+                        }
+                    }
+                    return mappings;
+                }
+            } catch (Exception e) {
+                logger.warn("从元数据快照获取表 {} 的字段映射失败: {}", tableName, e.getMessage());
+            }
+        }
+
         String cacheKey = CACHE_PREFIX + connectionId + ":" + (schema != null ? schema : "default") + ":" + tableName.toLowerCase();
         
         // 先从缓存获取
@@ -25,6 +25,9 @@ public class QueryService {
     @Autowired
     private DbConnectionService dbConnectionService;
 
+    @Autowired
+    private DataSourceRegistry dataSourceRegistry;
+
     @Autowired
     private DatabaseMetadataCacheService cacheService;
     
@@ -57,9 +60,7 @@ public class QueryService {
             
             // 单语句执行原有逻辑
             
-            String jdbcUrl = buildJdbcUrl(connection, schema);
-            
-            try (Connection conn = DriverManager.getConnection(jdbcUrl, connection.getUsername(), connection.getPassword());
+            try (Connection conn = dataSourceRegistry.getDataSource(connection, schema).getConnection();
                  Statement stmt = conn.createStatement()) {
                 
                 // 设置查询超时时间（30秒）
@@ -149,36 +150,6 @@ public class QueryService {
         return new QueryResult(columns, rows, 1, executionTime, message);
     }
     
-    /**
-     * 构建JDBC URL
-     */
-    private String buildJdbcUrl(DbConnection connection, String schema) {
-        String baseUrl = dbConnectionService.buildJdbcUrl(connection);
-        
-        // 如果指定了schema，添加到URL中
-        if (schema != null && !schema.trim().isEmpty()) {
-            String dbType = connection.getDbType().toLowerCase();
-            switch (dbType) {
-                case "postgresql":
-                case "vastbase":
-                    baseUrl += "?currentSchema=" + schema;
-                    break;
-                case "mysql":
-                    // MySQL使用database概念，schema通常等同于database
-                    break;
-                case "oracle":
-                    // Oracle中schema通常通过用户名指定
-                    break;
-                case "sqlserver":
-                    // SQL Server可以在查询中指定schema
-                    break;
-                default:
-                    break;
-            }
-        }
-        
-        return baseUrl;
-    }
     
     /**
      * 验证SQL语句安全性（基础检查）
@@ -231,9 +202,7 @@ public class QueryService {
                 throw new RuntimeException("数据库连接不存在: " + connectionId);
             }
             
-            String jdbcUrl = buildJdbcUrl(connection, schema);
-            
-            try (Connection conn = DriverManager.getConnection(jdbcUrl, connection.getUsername(), connection.getPassword())) {
+            try (Connection conn = dataSourceRegistry.getDataSource(connection, schema).getConnection()) {
                 DatabaseMetaData metaData = conn.getMetaData();
                 
                 List<ColumnInfo> columns = new ArrayList<>();
@@ -0,0 +1,111 @@
+package com.dbsync.dbsync.service;
+
+import com.dbsync.dbsync.config.DatabaseOptimizationConfig;
+import com.dbsync.dbsync.entity.TableSnapshot;
+import com.dbsync.dbsync.mapper.auth.DbConnectionMapper;
+import com.dbsync.dbsync.model.DbConnection;
+import com.dbsync.dbsync.util.SchemaSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 元数据快照服务
+ * 按连接和schema保存内存中的表结构快照，定期检查变更标记，只重新加载有变化的表
+ */
+@Service
+public class SchemaSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaSnapshotService.class);
+
+    @Autowired
+    private DbConnectionMapper dbConnectionMapper;
+
+    @Autowired
+    private DataSourceRegistry dataSourceRegistry;
+
+    @Autowired
+    private DatabaseOptimizationConfig optimizationConfig;
+
+    private final Map<String, SchemaSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * 是否启用元数据快照
+     */
+    public boolean isEnabled() {
+        return optimizationConfig.getSchemaSnapshot().isEnabled();
+    }
+
+    /**
+     * 从快照获取表结构，连接或表不存在时返回null
+     */
+    public TableSnapshot getTable(Long connectionId, String tableName, String schemaName) {
+        DbConnection connection = dbConnectionMapper.findById(connectionId);
+        if (connection == null) {
+            return null;
+        }
+        try {
+            return snapshotFor(connection, schemaName)
+                    .getTable(() -> dataSourceRegistry.getDataSource(connection, schemaName).getConnection(), tableName);
+        } catch (SQLException e) {
+            throw new RuntimeException("获取表结构快照失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 获取由loader查询的表结构（同步时按TableMapper方言查询的列结构），表的变更标记不变时复用上次的结果；
+     * 未启用快照或连接不存在时直接调用loader
+     */
+    public List<Map<String, Object>> getTableStructure(Long connectionId, String tableName, String schemaName,
+                                                       Supplier<List<Map<String, Object>>> loader) {
+        DbConnection connection = isEnabled() && connectionId != null ? dbConnectionMapper.findById(connectionId) : null;
+        if (connection == null) {
+            return loader.get();
+        }
+        try {
+            return snapshotFor(connection, schemaName)
+                    .getStructure(() -> dataSourceRegistry.getDataSource(connection, schemaName).getConnection(), tableName, loader);
+        } catch (SQLException e) {
+            throw new RuntimeException("获取表结构快照失败: " + e.getMessage(), e);
+        }
+    }
+
+    private SchemaSnapshot snapshotFor(DbConnection connection, String schemaName) {
+        String key = connection.getId() + "_" + (schemaName != null ? schemaName : "default");
+        return snapshots.computeIfAbsent(key, k -> new SchemaSnapshot(connection.getDbType(),
+                schemaName, connection.getDatabase(), optimizationConfig.getSchemaSnapshot().getCheckIntervalSeconds() * 1000L));
+    }
+
+    /**
+     * 丢弃快照中的单表结构，下次访问时重新检查变更标记并加载
+     */
+    public void evictTable(Long connectionId, String tableName, String schemaName) {
+        SchemaSnapshot snapshot = snapshots.get(connectionId + "_" + (schemaName != null ? schemaName : "default"));
+        if (snapshot != null) {
+            snapshot.invalidateTable(tableName);
+        }
+    }
+
+    /**
+     * 丢弃指定连接的所有快照（连接配置修改、删除或手动清除缓存时调用）
+     */
+    public void evict(Long connectionId) {
+        String prefix = connectionId + "_";
+        snapshots.keySet().removeIf(key -> key.startsWith(prefix));
+        logger.info("清除元数据快照，连接ID: {}", connectionId);
+    }
+
+    /**
+     * 丢弃所有快照
+     */
+    public void evictAll() {
+        snapshots.clear();
+    }
+}
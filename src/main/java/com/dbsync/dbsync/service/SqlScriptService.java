@@ -24,6 +24,9 @@ public class SqlScriptService {
     
     @Autowired
     private DbConnectionService dbConnectionService;
+
+    @Autowired
+    private DataSourceRegistry dataSourceRegistry;
     
     /**
      * 执行SQL脚本
@@ -56,15 +59,12 @@ public class SqlScriptService {
         logger.info("开始执行SQL脚本，连接ID: {}, 语句数量: {}, 事务模式: {}", 
                    connectionId, statements.size(), executeInTransaction);
         
-        // 构建JDBC URL
-        String jdbcUrl = buildJdbcUrl(dbConnection, schema);
-        
         // 执行脚本
         ScriptExecutionResult result;
         if (executeInTransaction) {
-            result = executeInTransaction(jdbcUrl, dbConnection, statements, startTime);
+            result = executeInTransaction(dbConnection, schema, statements, startTime);
         } else {
-            result = executeWithoutTransaction(jdbcUrl, dbConnection, statements, startTime);
+            result = executeWithoutTransaction(dbConnection, schema, statements, startTime);
         }
         
         logger.info("SQL脚本执行完成，连接ID: {}, 成功: {}, 失败: {}, 耗时: {}ms", 
@@ -76,11 +76,11 @@ public class SqlScriptService {
     /**
      * 在事务中执行脚本
      */
-    private ScriptExecutionResult executeInTransaction(String jdbcUrl, DbConnection dbConnection, 
+    private ScriptExecutionResult executeInTransaction(DbConnection dbConnection, String schema,
                                                       List<SqlStatement> statements, long startTime) {
         Connection conn = null;
         try {
-            conn = createConnection(jdbcUrl, dbConnection);
+            conn = createConnection(dbConnection, schema);
             conn.setAutoCommit(false); // 开启事务
             
             ScriptExecutionResult result = executeStatements(conn, statements, startTime);
@@ -126,11 +126,11 @@ public class SqlScriptService {
     /**
      * 不在事务中执行脚本（每个语句独立提交）
      */
-    private ScriptExecutionResult executeWithoutTransaction(String jdbcUrl, DbConnection dbConnection, 
+    private ScriptExecutionResult executeWithoutTransaction(DbConnection dbConnection, String schema,
                                                            List<SqlStatement> statements, long startTime) {
         Connection conn = null;
         try {
-            conn = createConnection(jdbcUrl, dbConnection);
+            conn = createConnection(dbConnection, schema);
             conn.setAutoCommit(true); // 自动提交
             
             return executeStatements(conn, statements, startTime);
@@ -242,46 +242,10 @@ public class SqlScriptService {
     }
     
     /**
-     * 创建数据库连接
+     * 从连接池借用数据库连接
      */
-    private Connection createConnection(String jdbcUrl, DbConnection dbConnection) throws SQLException {
-        // 设置连接超时
-        DriverManager.setLoginTimeout(30);
-        
-        Connection conn = DriverManager.getConnection(jdbcUrl, dbConnection.getUsername(), dbConnection.getPassword());
-        
-        // 设置网络超时
-        try {
-            conn.setNetworkTimeout(null, 300000); // 5分钟网络超时
-        } catch (SQLException e) {
-            logger.warn("无法设置网络超时: {}", e.getMessage());
-        }
-        
-        return conn;
-    }
-    
-    /**
-     * 构建JDBC URL
-     */
-    private String buildJdbcUrl(DbConnection connection, String schema) {
-        String baseUrl = dbConnectionService.buildJdbcUrl(connection);
-        
-        // Oracle不需要在URL中指定schema，通过用户权限控制
-        // 其他数据库类型的schema处理保持原有逻辑
-        if (schema != null && !schema.trim().isEmpty()) {
-            String dbType = connection.getDbType().toLowerCase();
-            switch (dbType) {
-                case "postgresql":
-                case "vastbase":
-                    baseUrl += (baseUrl.contains("?") ? "&" : "?") + "currentSchema=" + schema;
-                    break;
-                default:
-                    // 其他数据库类型暂时不在URL中处理schema
-                    break;
-            }
-        }
-        
-        return baseUrl;
+    private Connection createConnection(DbConnection dbConnection, String schema) throws SQLException {
+        return dataSourceRegistry.getDataSource(dbConnection, schema).getConnection();
     }
     
     /**
@@ -0,0 +1,102 @@
+package com.dbsync.dbsync.service;
+
+import com.dbsync.dbsync.mapper.TableMapper;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.TransactionFactory;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按DbConnection id缓存的SqlSessionFactory
+ *
+ * 构建MyBatis Configuration并addMapper(TableMapper)需要解析所有@SelectProvider注解，
+ * 缓存后同一连接的所有表、所有任务共用一个SqlSessionFactory，连接配置修改时显式失效。
+ * 连接本身来自DataSourceRegistry的连接池。
+ */
+@Component
+public class SqlSessionFactoryCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlSessionFactoryCache.class);
+
+    @Autowired
+    private DataSourceRegistry dataSourceRegistry;
+
+    private final Map<Long, SqlSessionFactory> factories = new ConcurrentHashMap<>();
+
+    private final AtomicLong buildCount = new AtomicLong();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong buildNanos = new AtomicLong();
+
+    /**
+     * 获取连接对应的SqlSessionFactory，不存在时构建
+     */
+    public SqlSessionFactory getSqlSessionFactory(Long connectionId) {
+        SqlSessionFactory cached = factories.get(connectionId);
+        if (cached != null) {
+            hitCount.incrementAndGet();
+            return cached;
+        }
+        return factories.computeIfAbsent(connectionId, this::build);
+    }
+
+    /**
+     * 使连接对应的SqlSessionFactory失效
+     */
+    public void invalidate(Long connectionId) {
+        if (factories.remove(connectionId) != null) {
+            logger.info("SqlSessionFactory已失效，连接ID: {}", connectionId);
+        }
+    }
+
+    private SqlSessionFactory build(Long connectionId) {
+        long start = System.nanoTime();
+
+        TransactionFactory transactionFactory = new JdbcTransactionFactory();
+        Environment environment = new Environment("dbsync-" + connectionId, transactionFactory,
+                dataSourceRegistry.getDataSource(connectionId));
+        Configuration configuration = new Configuration(environment);
+        configuration.setMapUnderscoreToCamelCase(true);
+        configuration.addMapper(TableMapper.class);
+        SqlSessionFactory factory = new SqlSessionFactoryBuilder().build(configuration);
+
+        long elapsed = System.nanoTime() - start;
+        buildCount.incrementAndGet();
+        buildNanos.addAndGet(elapsed);
+        logger.info("构建SqlSessionFactory，连接ID: {}, 耗时: {}ms", connectionId, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        return factory;
+    }
+
+    public long getBuildCount() {
+        return buildCount.get();
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * 平均构建耗时（毫秒）
+     */
+    public double getAverageBuildMillis() {
+        long builds = buildCount.get();
+        return builds == 0 ? 0 : buildNanos.get() / (double) builds / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * 因命中缓存而节省的估计耗时（毫秒）= 命中次数 × 平均构建耗时
+     */
+    public long getEstimatedSavedMillis() {
+        return Math.round(hitCount.get() * getAverageBuildMillis());
+    }
+}
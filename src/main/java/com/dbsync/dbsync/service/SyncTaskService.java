@@ -1,21 +1,40 @@
 package com.dbsync.dbsync.service;
 
+import com.dbsync.dbsync.config.DatabaseOptimizationConfig;
+import com.dbsync.dbsync.mapper.TableMapper;
 import com.dbsync.dbsync.mapper.auth.DbConnectionMapper;
+import com.dbsync.dbsync.mapper.auth.SyncCdcCheckpointMapper;
+import com.dbsync.dbsync.mapper.auth.SyncCopyCheckpointMapper;
+import com.dbsync.dbsync.mapper.auth.SyncTableWatermarkMapper;
 import com.dbsync.dbsync.mapper.auth.SyncTaskLogMapper;
 import com.dbsync.dbsync.mapper.auth.SyncTaskMapper;
 import com.dbsync.dbsync.model.DbConnection;
+import com.dbsync.dbsync.model.SyncCdcCheckpoint;
+import com.dbsync.dbsync.model.SyncCopyCheckpoint;
+import com.dbsync.dbsync.model.SyncTableWatermark;
 import com.dbsync.dbsync.model.SyncTask;
 import com.dbsync.dbsync.model.SyncTaskLog;
 import com.dbsync.dbsync.progress.ProgressManager;
+import com.dbsync.dbsync.progress.TableVerificationStatus;
+import com.dbsync.dbsync.progress.TaskProgress;
 import com.dbsync.dbsync.typemapping.TypeMappingRegistry;
 import com.dbsync.dbsync.service.DatabaseSyncService;
 import com.dbsync.dbsync.service.DatabaseSyncServiceFactory;
+import com.dbsync.dbsync.sync.CopyCheckpoint;
+import com.dbsync.dbsync.sync.CopyCheckpointStore;
+import com.dbsync.dbsync.sync.PgLogicalChangeSource;
+import com.dbsync.dbsync.sync.TableDiffResult;
+import com.dbsync.dbsync.sync.TableSyncScheduler;
+import com.dbsync.dbsync.sync.Watermark;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.annotation.PostConstruct;
 import javax.sql.DataSource;
 import java.sql.*;
 import java.time.LocalDateTime;
@@ -25,6 +44,8 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 同步任务管理服务
@@ -32,12 +53,23 @@ import java.util.concurrent.Executors;
 @Service
 public class SyncTaskService {
 
+    private static final Logger logger = LoggerFactory.getLogger(SyncTaskService.class);
+
     @Autowired
     private SyncTaskMapper syncTaskMapper;
 
     @Autowired
     private SyncTaskLogMapper syncTaskLogMapper;
 
+    @Autowired
+    private SyncTableWatermarkMapper syncTableWatermarkMapper;
+
+    @Autowired
+    private SyncCdcCheckpointMapper syncCdcCheckpointMapper;
+
+    @Autowired
+    private SyncCopyCheckpointMapper syncCopyCheckpointMapper;
+
     @Autowired
     private DbConnectionMapper dbConnectionMapper;
 
@@ -52,12 +84,58 @@ public class SyncTaskService {
     @Autowired
     private DatabaseSyncServiceFactory databaseSyncServiceFactory;
 
+    @Autowired
+    private DatabaseOptimizationConfig optimizationConfig;
+
+    @Autowired
+    private SqlSessionFactoryCache sqlSessionFactoryCache;
+
     // 线程池用于异步执行任务
     private final ExecutorService taskExecutor = Executors.newFixedThreadPool(5);
 
     // 存储正在运行的任务
     private final Map<Long, CompletableFuture<Void>> runningTasks = new ConcurrentHashMap<>();
 
+    // 已请求停止的任务；取消CompletableFuture不会中断复制线程，复制在批次之间检查此标志
+    private final Set<Long> stopRequests = ConcurrentHashMap.newKeySet();
+
+    // 日志增量捕获长期占用线程，不占用任务线程池；值为停止标志
+    private final ExecutorService changeCaptureExecutor = Executors.newCachedThreadPool();
+    private final Map<Long, AtomicBoolean> runningCaptures = new ConcurrentHashMap<>();
+
+    // 表级并行调度器，每个连接的并发名额在所有任务间共享
+    private TableSyncScheduler tableSyncScheduler;
+
+    @PostConstruct
+    public void initTableSyncScheduler() {
+        // 源和目标连接池大小相同，每个连接同时参与的表数按单表最多占用的连接数折算，避免表在连接池上等待超时
+        int configured = optimizationConfig.getScheduler().getMaxTablesPerConnection();
+        int connectionsPerTable = connectionsPerTable();
+        int maxTablesPerConnection = TableSyncScheduler.tablesWithinPool(configured, optimizationConfig.getMaxPoolSize(),
+                connectionsPerTable);
+        if (maxTablesPerConnection < configured) {
+            logger.warn("max-tables-per-connection {} needs up to {} pooled connections per connection, max-pool-size is {}; " +
+                    "limiting to {} tables per connection", configured, configured * connectionsPerTable,
+                    optimizationConfig.getMaxPoolSize(), maxTablesPerConnection);
+        }
+        tableSyncScheduler = new TableSyncScheduler(maxTablesPerConnection);
+    }
+
+    /**
+     * 按当前配置计算单张表同步期间在一个连接池上最多同时占用的连接数
+     */
+    private int connectionsPerTable() {
+        DatabaseOptimizationConfig.RangeSplitConfig rangeSplit = optimizationConfig.getRangeSplit();
+        DatabaseOptimizationConfig.PipelineConfig pipeline = optimizationConfig.getPipeline();
+        DatabaseOptimizationConfig.DeferredIndexConfig deferredIndex = optimizationConfig.getDeferredIndex();
+        DatabaseOptimizationConfig.VerifyConfig verify = optimizationConfig.getVerify();
+        return TableSyncScheduler.connectionsPerTable(
+                rangeSplit.isEnabled() ? rangeSplit.getRangeCount() : 1,
+                pipeline.isEnabled() ? pipeline.getWriterThreads() : 1,
+                deferredIndex.isEnabled() ? deferredIndex.getBuildParallelism() : 0,
+                verify.isEnabled() ? verify.getParallelism() : 0);
+    }
+
     /**
      * 获取所有同步任务
      */
@@ -69,7 +147,15 @@ public class SyncTaskService {
      * 根据ID获取同步任务
      */
     public SyncTask getTaskById(Long id) {
-        return syncTaskMapper.findById(id);
+        SyncTask task = syncTaskMapper.findById(id);
+        if (task != null) {
+            Map<String, String> watermarkColumns = new LinkedHashMap<>();
+            for (SyncTableWatermark watermark : syncTableWatermarkMapper.findByTaskId(id)) {
+                watermarkColumns.put(watermark.getTableName(), watermark.getWatermarkColumn());
+            }
+            task.setWatermarkColumns(watermarkColumns);
+        }
+        return task;
     }
 
     /**
@@ -101,6 +187,7 @@ public class SyncTaskService {
         // 插入数据库
         int result = syncTaskMapper.insertTask(task);
         if (result > 0) {
+            saveWatermarkColumns(task.getId(), task.getWatermarkColumns());
             return task;
         } else {
             throw new RuntimeException("创建同步任务失败");
@@ -146,12 +233,35 @@ public class SyncTaskService {
         // 更新数据库
         int result = syncTaskMapper.updateTask(task);
         if (result > 0) {
+            saveWatermarkColumns(id, task.getWatermarkColumns());
             return task;
         } else {
             throw new RuntimeException("更新同步任务失败");
         }
     }
 
+    /**
+     * 保存各表的增量同步水位列声明
+     * watermarkColumns为null时保持原有声明不变；未出现在其中的表恢复全量同步；水位列变化的表下次重新全量复制
+     */
+    private void saveWatermarkColumns(Long taskId, Map<String, String> watermarkColumns) {
+        if (watermarkColumns == null) {
+            return;
+        }
+        String now = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+        for (SyncTableWatermark existing : syncTableWatermarkMapper.findByTaskId(taskId)) {
+            String column = watermarkColumns.get(existing.getTableName());
+            if (column == null || column.trim().isEmpty()) {
+                syncTableWatermarkMapper.deleteByTaskIdAndTableName(taskId, existing.getTableName());
+            }
+        }
+        for (Map.Entry<String, String> entry : watermarkColumns.entrySet()) {
+            if (entry.getValue() != null && !entry.getValue().trim().isEmpty()) {
+                syncTableWatermarkMapper.upsertDeclaration(taskId, entry.getKey(), entry.getValue().trim(), now);
+            }
+        }
+    }
+
     /**
      * 删除同步任务
      */
@@ -167,9 +277,16 @@ public class SyncTaskService {
         if ("RUNNING".equals(existingTask.getStatus())) {
             stopTask(id);
         }
+        AtomicBoolean capture = runningCaptures.get(id);
+        if (capture != null) {
+            capture.set(true);
+        }
 
-        // 删除相关日志
+        // 删除相关日志、水位线和检查点
         syncTaskLogMapper.deleteByTaskId(id);
+        syncTableWatermarkMapper.deleteByTaskId(id);
+        syncCdcCheckpointMapper.deleteByTaskId(id);
+        syncCopyCheckpointMapper.deleteByTaskId(id);
 
         // 删除任务
         int result = syncTaskMapper.deleteById(id);
@@ -191,6 +308,7 @@ public class SyncTaskService {
         }
 
         // 异步执行任务
+        stopRequests.remove(id);
         CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
             try {
                 doExecuteTask(task);
@@ -217,12 +335,13 @@ public class SyncTaskService {
             throw new RuntimeException("任务未在运行中");
         }
 
-        // 停止任务
+        // 停止任务，正在复制的表在当前批次写完后停止并保留检查点
+        stopRequests.add(id);
         String now = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
         syncTaskMapper.stopRunningTask(id, "任务已手动停止", now);
 
         // 记录日志
-        logInfo(id, "任务已手动停止");
+        logInfo(id, "任务已手动停止，再次执行时从检查点继续复制");
 
         // 取消异步任务
         CompletableFuture<Void> future = runningTasks.get(id);
@@ -232,6 +351,129 @@ public class SyncTaskService {
         }
     }
 
+    /**
+     * 启动日志增量捕获（目前支持PostgreSQL/Vastbase源库的逻辑解码）
+     * 首次启动时创建复制槽并做一次全量复制，之后持续把源库的INSERT/UPDATE/DELETE应用到目标库；
+     * 每批变更提交后保存检查点，停止或重启后从检查点继续
+     */
+    public void startChangeCapture(Long id) {
+        SyncTask task = getTaskById(id);
+        if (task == null) {
+            throw new RuntimeException("同步任务不存在: " + id);
+        }
+        if (runningTasks.containsKey(id) || runningCaptures.containsKey(id)) {
+            throw new RuntimeException("任务正在运行中");
+        }
+        DbConnection sourceConnection = dbConnectionMapper.findById(task.getSourceConnectionId());
+        if (sourceConnection == null) {
+            throw new RuntimeException("源数据库连接不存在: " + task.getSourceConnectionId());
+        }
+        String sourceDbType = sourceConnection.getDbType().toLowerCase();
+        if (!"postgresql".equals(sourceDbType) && !"vastbase".equals(sourceDbType)) {
+            throw new RuntimeException("日志增量捕获目前仅支持PostgreSQL/Vastbase源库: " + sourceConnection.getDbType());
+        }
+
+        AtomicBoolean stopRequested = new AtomicBoolean();
+        if (runningCaptures.putIfAbsent(id, stopRequested) != null) {
+            throw new RuntimeException("任务正在运行中");
+        }
+        CompletableFuture.runAsync(() -> {
+            try {
+                doChangeCapture(task, sourceConnection, stopRequested);
+            } catch (Exception e) {
+                logError(id, "日志增量捕获失败: " + e.getMessage());
+            } finally {
+                runningCaptures.remove(id);
+            }
+        }, changeCaptureExecutor);
+    }
+
+    /**
+     * 停止日志增量捕获，当前批次提交后退出；复制槽保留，再次启动时从检查点继续
+     */
+    public void stopChangeCapture(Long id) {
+        AtomicBoolean stopRequested = runningCaptures.get(id);
+        if (stopRequested == null) {
+            throw new RuntimeException("日志增量捕获未在运行中");
+        }
+        stopRequested.set(true);
+        logInfo(id, "日志增量捕获停止中");
+    }
+
+    /**
+     * 删除复制槽和检查点；源库不再为该任务保留WAL，再次启动时重新全量复制
+     */
+    public void dropChangeCapture(Long id) {
+        if (runningCaptures.containsKey(id)) {
+            throw new RuntimeException("请先停止日志增量捕获");
+        }
+        SyncTask task = syncTaskMapper.findById(id);
+        if (task == null) {
+            throw new RuntimeException("同步任务不存在: " + id);
+        }
+        SyncCdcCheckpoint checkpoint = syncCdcCheckpointMapper.findByTaskId(id);
+        if (checkpoint == null) {
+            return;
+        }
+        DbConnection sourceConnection = dbConnectionMapper.findById(task.getSourceConnectionId());
+        if (sourceConnection == null) {
+            throw new RuntimeException("源数据库连接不存在: " + task.getSourceConnectionId());
+        }
+        try (PgLogicalChangeSource source = createChangeSource(sourceConnection, checkpoint.getSlotName())) {
+            source.dropSlot();
+        } catch (SQLException e) {
+            throw new RuntimeException("删除复制槽失败: " + e.getMessage(), e);
+        }
+        syncCdcCheckpointMapper.deleteByTaskId(id);
+        logInfo(id, String.format("已删除复制槽 %s", checkpoint.getSlotName()));
+    }
+
+    public boolean isChangeCaptureRunning(Long id) {
+        return runningCaptures.containsKey(id);
+    }
+
+    private void doChangeCapture(SyncTask task, DbConnection sourceConnection, AtomicBoolean stopRequested) throws Exception {
+        Long taskId = task.getId();
+        DbConnection targetConnection = dbConnectionMapper.findById(task.getTargetConnectionId());
+        if (targetConnection == null) {
+            throw new RuntimeException("目标数据库连接不存在: " + task.getTargetConnectionId());
+        }
+        List<String> tables = task.getTablesList();
+        SqlSessionFactory sourceFactory = sqlSessionFactoryCache.getSqlSessionFactory(sourceConnection.getId());
+        SqlSessionFactory targetFactory = sqlSessionFactoryCache.getSqlSessionFactory(targetConnection.getId());
+        DatabaseSyncService syncService = databaseSyncServiceFactory.createSyncService(sourceFactory, targetFactory,
+                sourceConnection, targetConnection);
+
+        SyncCdcCheckpoint checkpoint = syncCdcCheckpointMapper.findByTaskId(taskId);
+        String slotName = checkpoint != null ? checkpoint.getSlotName() : optimizationConfig.getCdc().getSlotPrefix() + taskId;
+        try (PgLogicalChangeSource source = createChangeSource(sourceConnection, slotName)) {
+            if (checkpoint == null) {
+                // 先建槽再复制：复制期间的变更保留在槽中，复制完成后重放，UPSERT使重叠部分不产生重复
+                source.createSlotIfMissing();
+                logInfo(taskId, String.format("已创建复制槽 %s，开始初始全量复制 %d 个表", slotName, tables.size()));
+                syncService.syncDatabase(taskId.toString(), tables, task.getSourceSchemaName());
+                String now = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+                syncCdcCheckpointMapper.register(taskId, sourceConnection.getDbType().toLowerCase(), slotName, now);
+                logInfo(taskId, "初始全量复制完成");
+            }
+
+            String position = checkpoint == null ? null : checkpoint.getPosition();
+            source.start(position);
+            logInfo(taskId, String.format("日志增量捕获已启动: %s，起始位置: %s", source.describe(), position == null ? "复制槽确认位置" : position));
+            long applied = syncService.streamChanges(taskId.toString(), source, tables, task.getSourceSchemaName(),
+                    lsn -> syncCdcCheckpointMapper.updatePosition(taskId, lsn,
+                            LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))),
+                    stopRequested::get);
+            logInfo(taskId, String.format("日志增量捕获已停止，共应用 %d 条变更", applied));
+        }
+    }
+
+    private PgLogicalChangeSource createChangeSource(DbConnection sourceConnection, String slotName) {
+        return new PgLogicalChangeSource(DataSourceRegistry.buildJdbcUrl(sourceConnection, null),
+                sourceConnection.getUsername(), sourceConnection.getPassword(), slotName,
+                optimizationConfig.getCdc().getStatusIntervalSeconds());
+    }
+
     /**
      * 获取任务进度
      */
@@ -248,6 +490,8 @@ public class SyncTaskService {
         progress.put("totalTables", task.getTotalTables());
         progress.put("completedTables", task.getCompletedTables());
         progress.put("errorMessage", task.getErrorMessage());
+        progress.put("changeCaptureRunning", runningCaptures.containsKey(id));
+        progress.put("resumableTables", syncCopyCheckpointMapper.findTableNamesByTaskId(id));
 
         return progress;
     }
@@ -293,6 +537,12 @@ public class SyncTaskService {
             // 获取源和目标连接
             DbConnection sourceConnection = dbConnectionMapper.findById(task.getSourceConnectionId());
             DbConnection targetConnection = dbConnectionMapper.findById(task.getTargetConnectionId());
+            if (sourceConnection == null) {
+                throw new RuntimeException("源数据库连接不存在: " + task.getSourceConnectionId());
+            }
+            if (targetConnection == null) {
+                throw new RuntimeException("目标数据库连接不存在: " + task.getTargetConnectionId());
+            }
 
             // 构建连接详情
             Map<String, String> sourceDetails = buildConnectionDetails(sourceConnection);
@@ -310,36 +560,93 @@ public class SyncTaskService {
             // 记录表信息
             logInfo(taskId, String.format("准备同步 %d 个表: %s", totalTables, tables));
 
-            // 执行同步
-            int completedTables = 0;
-            for (String tableName : tables) {
-                try {
-                    logInfo(taskId, String.format("开始同步表: %s", tableName));
-
-                    // 这里调用现有的DatabaseSyncService进行同步
-                    // 由于DatabaseSyncService需要特定的参数，我们需要适配
-                    syncSingleTable(taskId, sourceDetails, targetDetails, tableName,
-                            task.getSourceSchemaName(), task.getTargetSchemaName(),
-                            task.getTruncateBeforeSync());
+            // 源和目标SqlSessionFactory在整个任务内共用，不再每张表重新创建
+            SqlSessionFactory sourceFactory = sqlSessionFactoryCache.getSqlSessionFactory(sourceConnection.getId());
+            SqlSessionFactory targetFactory = sqlSessionFactoryCache.getSqlSessionFactory(targetConnection.getId());
+            logInfo(taskId, String.format("SqlSessionFactory缓存: 构建 %d 次, 命中 %d 次, 平均构建耗时 %.1fms, 累计节省约 %dms",
+                    sqlSessionFactoryCache.getBuildCount(), sqlSessionFactoryCache.getHitCount(),
+                    sqlSessionFactoryCache.getAverageBuildMillis(), sqlSessionFactoryCache.getEstimatedSavedMillis()));
+            DatabaseSyncService syncService = databaseSyncServiceFactory.createSyncService(sourceFactory, targetFactory,
+                    sourceConnection, targetConnection);
 
-                    completedTables++;
-                    int progress = (int) ((double) completedTables / totalTables * 100);
+            // 声明了水位列的表按水位线增量同步
+            Map<String, SyncTableWatermark> watermarks = new HashMap<>();
+            for (SyncTableWatermark watermark : syncTableWatermarkMapper.findByTaskId(taskId)) {
+                watermarks.put(watermark.getTableName(), watermark);
+            }
+            if (!watermarks.isEmpty()) {
+                logInfo(taskId, String.format("增量同步表: %s", watermarks.keySet()));
+            }
 
-                    // 更新进度
-                    String updateTime = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-                    syncTaskMapper.updateTaskProgress(taskId, progress, completedTables, updateTime);
+            // 按行数从大到小调度，最大的表最先开始
+            Map<String, Long> rowCounts = countSourceRows(sourceFactory, sourceConnection.getDbType(), tables, task.getSourceSchemaName());
+            List<String> orderedTables = TableSyncScheduler.largestFirst(tables, rowCounts);
+            int parallelism = Math.min(optimizationConfig.getScheduler().getTableParallelism(),
+                    tableSyncScheduler.getMaxTablesPerConnection());
+            logInfo(taskId, String.format("按行数从大到小并行同步，并行度 %d，顺序: %s", parallelism, orderedTables));
+
+            // 复制开始前一次性创建目标库缺少的表并统一确认集群可见；增量表缺表时需先全量复制，不在此预建
+            List<String> fullCopyTables = new ArrayList<>();
+            for (String tableName : orderedTables) {
+                if (!watermarks.containsKey(tableName)) {
+                    fullCopyTables.add(tableName);
+                }
+            }
+            List<String> createdTables = syncService.createMissingTables(taskId.toString(), fullCopyTables, task.getSourceSchemaName());
+            if (!createdTables.isEmpty()) {
+                logInfo(taskId, String.format("预先创建 %d 个目标表: %s", createdTables.size(), createdTables));
+            }
 
-                    logInfo(taskId, String.format("表 %s 同步完成", tableName));
+            // 执行同步，任务进度在所有表开始前创建、全部结束后完成一次，单张表结束不影响任务状态
+            AtomicInteger completedTables = new AtomicInteger();
+            progressManager.startTask(taskId.toString(), totalTables);
+            try {
+                tableSyncScheduler.run(taskId.toString(), orderedTables, parallelism,
+                        Arrays.asList(sourceConnection.getId(), targetConnection.getId()), tableName -> {
+                    if (stopRequests.contains(taskId)) {
+                        return;
+                    }
+                    try {
+                        logInfo(taskId, String.format("开始同步表: %s", tableName));
+
+                        SyncTableWatermark watermark = watermarks.get(tableName);
+                        if (watermark != null) {
+                            syncIncrementalTable(taskId, tableName, task.getSourceSchemaName(), syncService, watermark);
+                        } else {
+                            syncSingleTable(taskId, sourceDetails, targetDetails, tableName,
+                                    task.getSourceSchemaName(), syncService, rowCounts);
+                        }
+                        if (optimizationConfig.getVerify().isEnabled() && !stopRequests.contains(taskId)) {
+                            verifySingleTable(taskId, tableName, task.getSourceSchemaName(), syncService);
+                        }
+
+                        int completed = completedTables.incrementAndGet();
+                        int progress = (int) ((double) completed / totalTables * 100);
+
+                        // 更新进度
+                        String updateTime = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+                        syncTaskMapper.updateTaskProgress(taskId, progress, completed, updateTime);
+
+                        logInfo(taskId, String.format("表 %s 同步完成", tableName));
+
+                    } catch (Exception e) {
+                        logError(taskId, String.format("表 %s 同步失败: %s", tableName, e.getMessage()));
+                        // 继续同步其他表
+                    }
+                });
+            } finally {
+                progressManager.completeTask(taskId.toString());
+            }
 
-                } catch (Exception e) {
-                    logError(taskId, String.format("表 %s 同步失败: %s", tableName, e.getMessage()));
-                    // 继续同步下一个表
-                }
+            // 手动停止时状态已由stopTask更新，不再覆盖
+            if (stopRequests.remove(taskId)) {
+                logInfo(taskId, String.format("任务已停止，完成 %d 个表", completedTables.get()));
+                return;
             }
 
             // 任务完成
             String completionTime = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-            syncTaskMapper.updateTaskStatus(taskId, "COMPLETED_SUCCESS", 100, completedTables, null, completionTime, completionTime);
+            syncTaskMapper.updateTaskStatus(taskId, "COMPLETED_SUCCESS", 100, completedTables.get(), null, completionTime, completionTime);
 
             logInfo(taskId, "任务执行完成");
 
@@ -356,7 +663,8 @@ public class SyncTaskService {
     /**
      * 同步单个表
      */
-    private void syncSingleTable(Long taskId, Map<String, String> sourceDetails, Map<String, String> targetDetails, String tableName, String sourceSchema, String targetSchema, Boolean truncateBeforeSync) {
+    private void syncSingleTable(Long taskId, Map<String, String> sourceDetails, Map<String, String> targetDetails, String tableName,
+                                 String sourceSchema, DatabaseSyncService syncService, Map<String, Long> rowCounts) {
         try {
             logInfo(taskId, String.format("开始同步表 %s", tableName));
             logInfo(taskId, String.format("源数据库: %s:%d/%s",
@@ -364,24 +672,10 @@ public class SyncTaskService {
                     sourceDetails.get("database")));
             logInfo(taskId, String.format("目标数据库: %s:%d/%s",
                     targetDetails.get("host"), Integer.parseInt(targetDetails.get("port")),
-                    targetDetails.get("database")));                        // 获取源和目标数据库连接
-            DbConnection sourceConnection = dbConnectionMapper.findById(Long.parseLong(sourceDetails.get("connectionId")));
-            DbConnection targetConnection = dbConnectionMapper.findById(Long.parseLong(targetDetails.get("connectionId")));
-            if (sourceConnection == null) {
-                throw new RuntimeException("源数据库连接不存在: " + sourceDetails.get("connectionId"));
-            }
-            if (targetConnection == null) {
-                throw new RuntimeException("目标数据库连接不存在: " + targetDetails.get("connectionId"));
-            }
-            // 创建SqlSessionFactory
-            SqlSessionFactory sourceFactory = createSqlSessionFactory(sourceDetails);
-            SqlSessionFactory targetFactory = createSqlSessionFactory(targetDetails);
-            // 创建DatabaseSyncService实例
-            DatabaseSyncService syncService = databaseSyncServiceFactory.createSyncService(sourceFactory, targetFactory,
-                    sourceConnection, targetConnection);
-            // 执行表同步
-            List<String> tablesToSync = Collections.singletonList(tableName);
-            syncService.syncDatabase(taskId.toString(), tablesToSync, sourceSchema);
+                    targetDetails.get("database")));
+            // 执行表同步，调度时已统计的行数直接复用；上次失败或停止留下检查点时从检查点继续
+            syncService.syncTableOfTask(taskId.toString(), tableName, sourceSchema, rowCounts.get(tableName),
+                    createCheckpointStore(taskId), () -> stopRequests.contains(taskId));
             logInfo(taskId, String.format("表 %s 同步完成", tableName));
         } catch (Exception e) {
             logError(taskId, String.format("表 %s 同步失败: %s", tableName, e.getMessage()));
@@ -390,97 +684,136 @@ public class SyncTaskService {
     }
 
     /**
-     * 构建数据库连接详情
+     * 校验刚同步完的表，不一致的区间写入任务日志；校验本身失败不影响表的同步结果
      */
-    private Map<String, String> buildConnectionDetails(DbConnection connection) {
-        Map<String, String> details = new HashMap<>();
-        details.put("connectionId", connection.getId().toString());
-        details.put("dbType", connection.getDbType());
-        details.put("host", connection.getHost());
-        details.put("port", connection.getPort().toString());
-        details.put("database", connection.getDatabase());
-        details.put("username", connection.getUsername());
-        details.put("password", connection.getPassword());
-        details.put("schema", connection.getSchema() != null ? connection.getSchema() : "");
-        details.put("url", buildJdbcUrl(connection));
-        details.put("driverClassName", getDriverClassName(connection.getDbType()));
-        return details;
+    private void verifySingleTable(Long taskId, String tableName, String sourceSchema, DatabaseSyncService syncService) {
+        boolean repair = optimizationConfig.getVerify().isRepair();
+        try {
+            TableDiffResult result = syncService.verifyTable(taskId.toString(), tableName, sourceSchema, repair,
+                    () -> stopRequests.contains(taskId));
+            if (result == null) {
+                logInfo(taskId, String.format("表 %s 无主键或非空唯一索引，仅校验了行数，结果见任务进度", tableName));
+            } else if (result.isMatched()) {
+                logInfo(taskId, String.format("表 %s 校验一致: 源 %d 行, 目标 %d 行, %d 个块",
+                        tableName, result.getSourceRows(), result.getTargetRows(), result.getChunksCompared()));
+            } else {
+                List<String> ranges = new ArrayList<>();
+                for (int i = 0; i < result.getMismatchedRanges().size() && i < 20; i++) {
+                    ranges.add(result.getMismatchedRanges().get(i).toString());
+                }
+                logWarn(taskId, String.format("表 %s 校验不一致: 源 %d 行, 目标 %d 行, %d 个区间不一致%s: %s",
+                        tableName, result.getSourceRows(), result.getTargetRows(), result.getMismatchedRanges().size(),
+                        repair ? describeRepair(taskId, tableName) : "", ranges));
+            }
+        } catch (Exception e) {
+            logWarn(taskId, String.format("表 %s 校验失败: %s", tableName, e.getMessage()));
+        }
+    }
+
+    /**
+     * 修复结果以重新校验后写入任务进度的状态为准
+     */
+    private String describeRepair(Long taskId, String tableName) {
+        TaskProgress taskProgress = progressManager.getTaskProgress(taskId.toString());
+        if (taskProgress != null
+                && taskProgress.getTableProgress(tableName).getVerificationStatus() == TableVerificationStatus.REPAIRED) {
+            return "（已重新同步，复核一致）";
+        }
+        return "（已重新同步，复核仍不一致）";
     }
 
+    /**
+     * 任务的表复制检查点保存在任务库中，与任务日志放在一起
+     */
+    private CopyCheckpointStore createCheckpointStore(Long taskId) {
+        return new CopyCheckpointStore() {
+            @Override
+            public List<CopyCheckpoint> load(String tableName) {
+                List<CopyCheckpoint> checkpoints = new ArrayList<>();
+                for (SyncCopyCheckpoint entity : syncCopyCheckpointMapper.findByTaskIdAndTableName(taskId, tableName)) {
+                    checkpoints.add(entity.toCheckpoint());
+                }
+                return checkpoints;
+            }
+
+            @Override
+            public void save(CopyCheckpoint checkpoint) {
+                String now = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+                syncCopyCheckpointMapper.upsert(SyncCopyCheckpoint.of(taskId, checkpoint, now));
+            }
 
+            @Override
+            public void clear(String tableName) {
+                syncCopyCheckpointMapper.deleteByTaskIdAndTableName(taskId, tableName);
+            }
+        };
+    }
 
     /**
-     * 构建JDBC URL
+     * 按水位线增量同步单个表，成功后保存新的水位值；失败时水位值不变，下次从原水位重新同步
      */
-    private String buildJdbcUrl(DbConnection connection) {
-        String dbType = connection.getDbType();
-        String host = connection.getHost();
-        Integer port = connection.getPort();
-        String database = connection.getDatabase();
-
-        switch (dbType.toLowerCase()) {
-            case "mysql":
-                return String.format("jdbc:mysql://%s:%d/%s?serverTimezone=UTC&useSSL=false", host, port, database);
-            case "postgresql":
-            case "vastbase":
-                return String.format("jdbc:postgresql://%s:%d/%s", host, port, database);
-            case "oracle":
-                return String.format("jdbc:oracle:thin:@//%s:%d/%s", host, port, database);
-            case "sqlserver":
-                return String.format("jdbc:sqlserver://%s:%d;databaseName=%s", host, port, database);
-            case "dameng":
-                return String.format("jdbc:dm://%s:%d/%s", host, port, database);
-            default:
-                throw new RuntimeException("不支持的数据库类型: " + dbType);
+    private void syncIncrementalTable(Long taskId, String tableName, String sourceSchema,
+                                      DatabaseSyncService syncService, SyncTableWatermark watermark) {
+        Watermark lastWatermark = watermark.toWatermark();
+        if (lastWatermark == null) {
+            logInfo(taskId, String.format("表 %s 尚无水位线（水位列 %s），先执行全量复制", tableName, watermark.getWatermarkColumn()));
+        } else {
+            logInfo(taskId, String.format("表 %s 增量同步: %s > %s", tableName, lastWatermark.getColumn(), lastWatermark.getValue()));
+        }
+        try {
+            Watermark newWatermark = syncService.syncTableIncremental(taskId.toString(), tableName, sourceSchema,
+                    watermark.getWatermarkColumn(), lastWatermark);
+            if (newWatermark != null) {
+                String now = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+                syncTableWatermarkMapper.updateWatermark(taskId, tableName, newWatermark.getKind().name(), newWatermark.getValue(), now);
+            }
+            logInfo(taskId, String.format("表 %s 增量同步完成，水位线: %s", tableName,
+                    newWatermark == null ? "无（源表为空）" : newWatermark.getValue()));
+        } catch (Exception e) {
+            // 由表级调度统一记录失败日志
+            throw new RuntimeException("表增量同步失败: " + e.getMessage(), e);
         }
     }
 
     /**
-     * 获取驱动类名
+     * 统计源表行数，用于大表优先调度；统计失败的表不参与排序（排在最后）
      */
-    private String getDriverClassName(String dbType) {
-        switch (dbType.toLowerCase()) {
-            case "mysql":
-                return "com.mysql.cj.jdbc.Driver";
-            case "postgresql":
-            case "vastbase":
-                return "org.postgresql.Driver";
-            case "oracle":
-                return "oracle.jdbc.driver.OracleDriver";
-            case "sqlserver":
-                return "com.microsoft.sqlserver.jdbc.SQLServerDriver";
-            case "dameng":
-                return "dm.jdbc.driver.DmDriver";
-            default:
-                throw new RuntimeException("不支持的数据库类型: " + dbType);
+    private Map<String, Long> countSourceRows(SqlSessionFactory sourceFactory, String sourceDbType,
+                                              List<String> tables, String sourceSchema) {
+        Map<String, Long> rowCounts = new ConcurrentHashMap<>();
+        try (SqlSession sourceSession = sourceFactory.openSession()) {
+            TableMapper sourceMapper = sourceSession.getMapper(TableMapper.class);
+            for (String tableName : tables) {
+                try {
+                    rowCounts.put(tableName, sourceMapper.getTableCount(sourceDbType, tableName, sourceSchema));
+                } catch (Exception e) {
+                    // 表不存在等情况交给单表同步处理和记录
+                }
+            }
         }
+        return rowCounts;
     }
 
     /**
-     * 创建SqlSessionFactory
+     * 构建数据库连接详情
      */
-    private SqlSessionFactory createSqlSessionFactory(Map<String, String> connectionDetails) throws Exception {
-        String url = connectionDetails.get("url");
-        String username = connectionDetails.get("username");
-        String password = connectionDetails.get("password");
-        String driverClassName = connectionDetails.get("driverClassName");
-
-        Class.forName(driverClassName);
-        DataSource dataSource = new org.apache.ibatis.datasource.unpooled.UnpooledDataSource(
-                driverClassName, url, username, password);
-
-        org.apache.ibatis.transaction.TransactionFactory transactionFactory =
-                new org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory();
-        org.apache.ibatis.mapping.Environment environment =
-                new org.apache.ibatis.mapping.Environment("customDbEnv", transactionFactory, dataSource);
-        org.apache.ibatis.session.Configuration configuration =
-                new org.apache.ibatis.session.Configuration(environment);
-        configuration.setMapUnderscoreToCamelCase(true);
-        configuration.addMapper(com.dbsync.dbsync.mapper.TableMapper.class);
-
-        return new org.apache.ibatis.session.SqlSessionFactoryBuilder().build(configuration);
+    private Map<String, String> buildConnectionDetails(DbConnection connection) {
+        Map<String, String> details = new HashMap<>();
+        details.put("connectionId", connection.getId().toString());
+        details.put("dbType", connection.getDbType());
+        details.put("host", connection.getHost());
+        details.put("port", connection.getPort().toString());
+        details.put("database", connection.getDatabase());
+        details.put("username", connection.getUsername());
+        details.put("password", connection.getPassword());
+        details.put("schema", connection.getSchema() != null ? connection.getSchema() : "");
+        details.put("url", DataSourceRegistry.buildJdbcUrl(connection, null));
+        details.put("driverClassName", DataSourceRegistry.getDriverClassName(connection.getDbType()));
+        return details;
     }
 
+
+
     /**
      * 记录INFO日志
      */
@@ -0,0 +1,106 @@
+package com.dbsync.dbsync.sync;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * 自适应批次大小（AIMD：加性增、乘性减）
+ *
+ * 每张表一个实例，读取器按当前值取下一批，写入端每写完一批反馈行数、字节数和耗时：
+ * - 耗时和字节数都在目标以内：批次大小加一个步长
+ * - 耗时超过目标两倍、字节数超过上限、或写入发生了重试（锁等待等）：批次大小减半
+ * 结果始终限制在[minBatchSize, maxBatchSize]内。窄表会逐渐增大批次，LOB多的宽表会被压小。
+ */
+public class AdaptiveBatchSizer implements IntSupplier {
+
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final int increaseStep;
+    private final long targetLatencyNanos;
+    private final long maxBatchBytes;
+
+    private int currentBatchSize;
+    private int increases;
+    private int decreases;
+
+    public AdaptiveBatchSizer(int initialBatchSize, int minBatchSize, int maxBatchSize, int increaseStep,
+                              long targetLatencyMs, long maxBatchBytes) {
+        if (minBatchSize <= 0 || maxBatchSize < minBatchSize) {
+            throw new IllegalArgumentException("Invalid batch size bounds: [" + minBatchSize + ", " + maxBatchSize + "]");
+        }
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.increaseStep = Math.max(1, increaseStep);
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMs);
+        this.maxBatchBytes = maxBatchBytes;
+        this.currentBatchSize = clamp(initialBatchSize);
+    }
+
+    /**
+     * 固定批次大小（关闭自适应时使用）
+     */
+    public static AdaptiveBatchSizer fixed(int batchSize) {
+        return new AdaptiveBatchSizer(batchSize, batchSize, batchSize, 1, Long.MAX_VALUE / 1_000_000, Long.MAX_VALUE);
+    }
+
+    /**
+     * 下一批读取的行数
+     */
+    @Override
+    public synchronized int getAsInt() {
+        return currentBatchSize;
+    }
+
+    /**
+     * 反馈一个成功写入的批次，返回调整后的批次大小
+     *
+     * @param retried 写入过程中是否发生过重试（锁等待、死锁等）
+     */
+    public synchronized int onBatchWritten(int rows, long bytes, long latencyNanos, boolean retried) {
+        if (retried || bytes > maxBatchBytes || latencyNanos > 2 * targetLatencyNanos) {
+            decrease();
+        } else if (latencyNanos <= targetLatencyNanos && rows >= currentBatchSize) {
+            // Only grow on full batches: a short final page says nothing about whether a bigger one would fit
+            int grown = clamp(currentBatchSize + increaseStep);
+            if (grown != currentBatchSize) {
+                currentBatchSize = grown;
+                increases++;
+            }
+        }
+        return currentBatchSize;
+    }
+
+    /**
+     * 反馈一次写入失败（包括重试耗尽），批次大小减半
+     */
+    public synchronized int onBatchFailed() {
+        decrease();
+        return currentBatchSize;
+    }
+
+    private void decrease() {
+        int shrunk = clamp(currentBatchSize / 2);
+        if (shrunk != currentBatchSize) {
+            currentBatchSize = shrunk;
+            decreases++;
+        }
+    }
+
+    private int clamp(int size) {
+        return Math.max(minBatchSize, Math.min(maxBatchSize, size));
+    }
+
+    public synchronized int getIncreases() {
+        return increases;
+    }
+
+    public synchronized int getDecreases() {
+        return decreases;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "batch size " + currentBatchSize + " (" + increases + " increases, " + decreases + " decreases, bounds ["
+                + minBatchSize + ", " + maxBatchSize + "])";
+    }
+}
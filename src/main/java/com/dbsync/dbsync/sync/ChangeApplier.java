@@ -0,0 +1,177 @@
+package com.dbsync.dbsync.sync;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 把日志增量捕获的变更写入目标库
+ *
+ * 每批变更在一个目标连接上作为一个事务提交：INSERT/UPDATE按目标方言UPSERT，DELETE按复制标识列删除，
+ * 主键被修改的UPDATE先按旧键删除再写入新行。连续的同表同语句变更合并为一次executeBatch，
+ * 语句按SQL缓存，连接上的预编译语句在整个捕获期间复用。
+ * 因为UPSERT和按键删除都是幂等的，批次失败回滚后从上一个检查点重放不会产生重复数据。
+ */
+public class ChangeApplier implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeApplier.class);
+
+    private final Connection connection;
+    private final String targetDbType;
+    private final Function<String, List<String>> keyResolver;
+    private final Map<String, String> upsertSql = new HashMap<>();
+    private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+    private PreparedStatement pending;
+    private int pendingRows;
+
+    /**
+     * @param keyResolver 按源表名返回UPSERT匹配用的键列（主键或非空唯一索引）
+     */
+    public ChangeApplier(DataSource targetDataSource, String targetDbType, Function<String, List<String>> keyResolver) throws SQLException {
+        this.connection = targetDataSource.getConnection();
+        this.connection.setAutoCommit(false);
+        this.targetDbType = targetDbType;
+        this.keyResolver = keyResolver;
+    }
+
+    /**
+     * 在一个事务中应用一批变更
+     *
+     * @return 应用的变更条数
+     */
+    public int apply(List<ChangeEvent> events) throws SQLException {
+        if (events.isEmpty()) {
+            return 0;
+        }
+        try {
+            for (ChangeEvent event : events) {
+                String targetTableName = event.getTableName().toLowerCase();
+                switch (event.getOperation()) {
+                    case DELETE:
+                        delete(targetTableName, event, event.getColumnNames(), event.getValues());
+                        break;
+                    case UPDATE:
+                        if (event.getOldKeyColumns() != null) {
+                            delete(targetTableName, event, event.getOldKeyColumns(), event.getOldKeyValues());
+                        }
+                        upsert(targetTableName, event);
+                        break;
+                    default:
+                        upsert(targetTableName, event);
+                }
+            }
+            flush();
+            connection.commit();
+            return events.size();
+        } catch (SQLException | RuntimeException e) {
+            pending = null;
+            pendingRows = 0;
+            for (PreparedStatement statement : statements.values()) {
+                try {
+                    statement.clearBatch();
+                } catch (SQLException clearError) {
+                    e.addSuppressed(clearError);
+                }
+            }
+            try {
+                connection.rollback();
+            } catch (SQLException rollbackError) {
+                e.addSuppressed(rollbackError);
+            }
+            throw e;
+        }
+    }
+
+    private void upsert(String targetTableName, ChangeEvent event) throws SQLException {
+        String[] columns = event.getColumnNames();
+        String cacheKey = targetTableName + Arrays.toString(columns);
+        String sql = upsertSql.get(cacheKey);
+        if (sql == null) {
+            int[] types = new int[columns.length];
+            Arrays.fill(types, Types.OTHER);
+            ColumnLayout layout = ColumnLayout.of(columns, types);
+            sql = InsertPlan.upsert(targetTableName, layout, targetDbType, keyResolver.apply(event.getTableName())).getSql();
+            upsertSql.put(cacheKey, sql);
+        }
+        bind(sql, event.getValues());
+    }
+
+    private void delete(String targetTableName, ChangeEvent event, String[] keyColumns, Object[] keyValues) throws SQLException {
+        if (keyColumns.length == 0) {
+            throw new IllegalStateException("Cannot apply " + event + ": source table has no replica identity, set a primary key or REPLICA IDENTITY");
+        }
+        String sql = "DELETE FROM " + targetTableName + " WHERE " +
+                Arrays.stream(keyColumns).map(c -> c.toLowerCase() + " = ?").collect(Collectors.joining(" AND "));
+        bind(sql, keyValues);
+    }
+
+    private void bind(String sql, Object[] values) throws SQLException {
+        PreparedStatement statement = statements.get(sql);
+        if (statement == null) {
+            statement = connection.prepareStatement(sql);
+            statements.put(sql, statement);
+        }
+        // Keep change order: a different statement first runs everything queued before it
+        if (statement != pending) {
+            flush();
+            pending = statement;
+        }
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                statement.setNull(i + 1, Types.NULL);
+            } else {
+                statement.setObject(i + 1, values[i]);
+            }
+        }
+        statement.addBatch();
+        pendingRows++;
+    }
+
+    private void flush() throws SQLException {
+        if (pending != null && pendingRows > 0) {
+            try {
+                pending.executeBatch();
+            } finally {
+                pending.clearBatch();
+            }
+        }
+        pending = null;
+        pendingRows = 0;
+    }
+
+    /**
+     * 已缓存的预编译语句数量
+     */
+    public int getPreparedStatementCount() {
+        return statements.size();
+    }
+
+    @Override
+    public void close() {
+        for (PreparedStatement statement : statements.values()) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                logger.warn("Failed to close change statement: {}", e.getMessage());
+            }
+        }
+        statements.clear();
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.warn("Failed to return change applier connection: {}", e.getMessage());
+        }
+    }
+}
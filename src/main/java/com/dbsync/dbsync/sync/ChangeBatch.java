@@ -0,0 +1,26 @@
+package com.dbsync.dbsync.sync;
+
+import java.util.List;
+
+/**
+ * 一批已提交事务的变更，按源库提交顺序排列
+ * position是最后一个事务提交点在源日志中的位置（PostgreSQL为LSN），应用成功后作为检查点保存
+ */
+public final class ChangeBatch {
+
+    private final List<ChangeEvent> events;
+    private final String position;
+
+    public ChangeBatch(List<ChangeEvent> events, String position) {
+        this.events = events;
+        this.position = position;
+    }
+
+    public List<ChangeEvent> getEvents() {
+        return events;
+    }
+
+    public String getPosition() {
+        return position;
+    }
+}
@@ -0,0 +1,75 @@
+package com.dbsync.dbsync.sync;
+
+import java.util.Arrays;
+
+/**
+ * 日志增量捕获（CDC）解析出的一行变更
+ *
+ * - INSERT/UPDATE：columnNames/values为新行（未变化的TOAST列不包含在内）
+ * - DELETE：columnNames/values为复制标识列（通常是主键）
+ * - 主键被修改的UPDATE额外带有旧键，应用时先按旧键删除再写入新行
+ */
+public final class ChangeEvent {
+
+    public enum Operation {
+        INSERT, UPDATE, DELETE
+    }
+
+    private final Operation operation;
+    private final String schemaName;
+    private final String tableName;
+    private final String[] columnNames;
+    private final Object[] values;
+    private final String[] oldKeyColumns;
+    private final Object[] oldKeyValues;
+
+    public ChangeEvent(Operation operation, String schemaName, String tableName, String[] columnNames, Object[] values,
+                       String[] oldKeyColumns, Object[] oldKeyValues) {
+        if (columnNames.length != values.length) {
+            throw new IllegalArgumentException("Column names and values must have the same length");
+        }
+        this.operation = operation;
+        this.schemaName = schemaName;
+        this.tableName = tableName;
+        this.columnNames = columnNames;
+        this.values = values;
+        this.oldKeyColumns = oldKeyColumns;
+        this.oldKeyValues = oldKeyValues;
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public String getSchemaName() {
+        return schemaName;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String[] getColumnNames() {
+        return columnNames;
+    }
+
+    public Object[] getValues() {
+        return values;
+    }
+
+    /**
+     * 主键被修改时的旧键列，否则为null
+     */
+    public String[] getOldKeyColumns() {
+        return oldKeyColumns;
+    }
+
+    public Object[] getOldKeyValues() {
+        return oldKeyValues;
+    }
+
+    @Override
+    public String toString() {
+        return operation + " " + (schemaName == null ? "" : schemaName + ".") + tableName + " " + Arrays.toString(columnNames);
+    }
+}
@@ -0,0 +1,32 @@
+package com.dbsync.dbsync.sync;
+
+import java.sql.SQLException;
+
+/**
+ * 日志增量捕获的变更来源
+ * 只按事务边界返回变更：一个事务的变更要么全部在同一批中，要么都不在
+ */
+public interface ChangeSource extends AutoCloseable {
+
+    /**
+     * 从给定位置开始读取，null表示从复制槽已确认的位置继续
+     */
+    void start(String position) throws SQLException;
+
+    /**
+     * 读取已提交的变更，最多等待timeoutMillis；达到maxEvents后在下一个事务边界返回
+     *
+     * @return 没有新的已提交事务时返回null
+     */
+    ChangeBatch poll(int maxEvents, long timeoutMillis) throws SQLException, InterruptedException;
+
+    /**
+     * 确认position之前的变更已写入目标库，源库可以回收对应的日志
+     */
+    void acknowledge(String position) throws SQLException;
+
+    String describe();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,201 @@
+package com.dbsync.dbsync.sync;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 一个键区间（块）的行数和校验值，源和目标的校验值相同即认为该块无需同步
+ *
+ * 校验值有两种算法：
+ * 1. 源和目标是同一类数据库时在库内计算（PostgreSQL md5(string_agg)、MySQL MD5求和、Oracle ORA_HASH求和、
+ *    SQL Server CHECKSUM_AGG），只传回一行结果
+ * 2. 其他情况读取块内的行，在本地按规范化的值计算每行哈希再求和（与行顺序无关）
+ * 两种算法的结果不能互相比较，同一张表的源和目标必须用同一种算法。
+ */
+public final class ChunkChecksum {
+
+    private static final String NULL_MARK = "\u0000";
+    private static final char SEPARATOR = '\u001f';
+    private static final Set<String> PUSHDOWN_FAMILIES = new HashSet<>(Arrays.asList("postgresql", "mysql", "oracle", "sqlserver"));
+
+    private final long rowCount;
+    private final String digest;
+
+    public ChunkChecksum(long rowCount, String digest) {
+        this.rowCount = rowCount;
+        this.digest = digest;
+    }
+
+    /**
+     * 两端是否可以在库内计算可比较的校验值
+     */
+    public static boolean supportsPushdown(String sourceDbType, String targetDbType) {
+        String family = family(sourceDbType);
+        return family.equals(family(targetDbType)) && PUSHDOWN_FAMILIES.contains(family);
+    }
+
+    private static String family(String dbType) {
+        String type = dbType.toLowerCase();
+        return "vastbase".equals(type) ? "postgresql" : type;
+    }
+
+    /**
+     * 库内计算块校验值的SQL，第一列为行数，第二列为校验值；不支持的数据库返回null
+     *
+     * @param columns    已按方言处理过引号的列名
+     * @param keyColumns 已按方言处理过引号的键列，用于固定聚合顺序
+     * @param where      块条件（不含WHERE），null表示整张表
+     */
+    public static String buildPushdownSql(String dbType, String tableName, List<String> columns, List<String> keyColumns, String where) {
+        String aggregate;
+        switch (family(dbType)) {
+            case "postgresql":
+                aggregate = "md5(string_agg(md5(CAST(ROW(" + String.join(", ", columns) + ") AS text)), '' ORDER BY " +
+                        String.join(", ", keyColumns) + "))";
+                break;
+            case "mysql":
+                StringBuilder concat = new StringBuilder("CONCAT_WS('|'");
+                for (String column : columns) {
+                    concat.append(", COALESCE(CAST(").append(column).append(" AS CHAR), '#NULL#')");
+                }
+                concat.append(")");
+                aggregate = "SUM(CAST(CONV(SUBSTRING(MD5(" + concat + "), 1, 15), 16, 10) AS UNSIGNED))";
+                break;
+            case "oracle":
+                aggregate = "SUM(ORA_HASH(" + String.join(" || '|' || ", columns) + "))";
+                break;
+            case "sqlserver":
+                aggregate = "CHECKSUM_AGG(BINARY_CHECKSUM(" + String.join(", ", columns) + "))";
+                break;
+            default:
+                return null;
+        }
+        return "SELECT COUNT(*), " + aggregate + " FROM " + tableName + (where == null ? "" : " WHERE " + where);
+    }
+
+    /**
+     * 本地计算时单行的哈希（规范化值的MD5取前8字节），块校验值为各行哈希之和
+     */
+    public static long rowHash(MessageDigest md5, Object[] values) throws SQLException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                text.append(SEPARATOR);
+            }
+            String canonical = canonical(values[i]);
+            text.append(canonical == null ? NULL_MARK : canonical);
+        }
+        byte[] hash = md5.digest(text.toString().getBytes(StandardCharsets.UTF_8));
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (hash[i] & 0xFF);
+        }
+        return value;
+    }
+
+    /**
+     * 值的规范文本，使不同数据库驱动返回的同一个值得到相同的文本（如NUMBER(10,2)的1.50与INTEGER的1.5、DATE与TIMESTAMP）
+     */
+    public static String canonical(Object value) throws SQLException {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value ? "1" : "0";
+        }
+        if (value instanceof Number) {
+            try {
+                BigDecimal decimal = new BigDecimal(value.toString()).stripTrailingZeros();
+                return decimal.signum() == 0 ? "0" : decimal.toPlainString();
+            } catch (NumberFormatException e) {
+                return value.toString(); // NaN, Infinity
+            }
+        }
+        if (value instanceof java.sql.Date) {
+            return Timestamp.valueOf(((java.sql.Date) value).toLocalDate().atStartOfDay()).toString();
+        }
+        if (value instanceof java.sql.Time) {
+            return value.toString();
+        }
+        if (value instanceof java.util.Date) {
+            return new Timestamp(((java.util.Date) value).getTime()).toString();
+        }
+        if (value instanceof LocalDateTime) {
+            return Timestamp.valueOf((LocalDateTime) value).toString();
+        }
+        if (value instanceof LocalDate) {
+            return Timestamp.valueOf(((LocalDate) value).atStartOfDay()).toString();
+        }
+        if (value instanceof byte[]) {
+            return toHex((byte[]) value);
+        }
+        if (value instanceof Blob) {
+            Blob blob = (Blob) value;
+            return toHex(blob.getBytes(1, (int) blob.length()));
+        }
+        if (value instanceof Clob) {
+            Clob clob = (Clob) value;
+            return clob.getSubString(1, (int) clob.length());
+        }
+        return value.toString();
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public String getDigest() {
+        return digest;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ChunkChecksum)) {
+            return false;
+        }
+        ChunkChecksum that = (ChunkChecksum) o;
+        return rowCount == that.rowCount && Objects.equals(digest, that.digest);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(rowCount, digest);
+    }
+
+    @Override
+    public String toString() {
+        return rowCount + " rows/" + digest;
+    }
+}
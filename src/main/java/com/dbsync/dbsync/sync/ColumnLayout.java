@@ -0,0 +1,182 @@
+package com.dbsync.dbsync.sync;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 结果集列布局
+ * 每张表只解析一次：列名、JDBC类型以及插入目标表时使用的列位置，
+ * 批次中的每一行按同样的位置存放在Object[]中，读写过程中不再按列名查找。
+ */
+public final class ColumnLayout {
+
+    private final String[] columnNames;
+    private final int[] jdbcTypes;
+    private final int[] precisions;
+    private final int[] scales;
+    private final int[] insertPositions;
+
+    private ColumnLayout(String[] columnNames, int[] jdbcTypes, int[] precisions, int[] scales) {
+        if (columnNames.length != jdbcTypes.length || columnNames.length != precisions.length || columnNames.length != scales.length) {
+            throw new IllegalArgumentException("Column names, JDBC types, precisions and scales must have the same length");
+        }
+        this.columnNames = columnNames;
+        this.jdbcTypes = jdbcTypes;
+        this.precisions = precisions;
+        this.scales = scales;
+
+        List<Integer> positions = new ArrayList<>(columnNames.length);
+        for (int i = 0; i < columnNames.length; i++) {
+            if (!isPaginationColumn(columnNames[i])) {
+                positions.add(i);
+            }
+        }
+        this.insertPositions = positions.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * 按结果集列标签构建布局
+     */
+    public static ColumnLayout fromMetaData(ResultSetMetaData metaData) throws SQLException {
+        int columnCount = metaData.getColumnCount();
+        String[] names = new String[columnCount];
+        int[] types = new int[columnCount];
+        int[] precisions = new int[columnCount];
+        int[] scales = new int[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            names[i] = metaData.getColumnLabel(i + 1);
+            types[i] = metaData.getColumnType(i + 1);
+            precisions[i] = metaData.getPrecision(i + 1);
+            scales[i] = metaData.getScale(i + 1);
+        }
+        return new ColumnLayout(names, types, precisions, scales);
+    }
+
+    /**
+     * 按给定列名构建布局，类型未知时使用Types.OTHER，精度和小数位未知（0）
+     */
+    public static ColumnLayout of(String[] columnNames, int[] jdbcTypes) {
+        return new ColumnLayout(columnNames.clone(), jdbcTypes.clone(), new int[columnNames.length], new int[columnNames.length]);
+    }
+
+    /**
+     * 按给定列名、类型、精度和小数位构建布局
+     */
+    public static ColumnLayout of(String[] columnNames, int[] jdbcTypes, int[] precisions, int[] scales) {
+        return new ColumnLayout(columnNames.clone(), jdbcTypes.clone(), precisions.clone(), scales.clone());
+    }
+
+    public int size() {
+        return columnNames.length;
+    }
+
+    public String getColumnName(int position) {
+        return columnNames[position];
+    }
+
+    public int getJdbcType(int position) {
+        return jdbcTypes[position];
+    }
+
+    /**
+     * 结果集声明的精度，驱动无法确定时为0（如Oracle未指定精度的NUMBER）
+     */
+    public int getPrecision(int position) {
+        return precisions[position];
+    }
+
+    /**
+     * 结果集声明的小数位，驱动无法确定时可能为负数（如Oracle未指定精度的NUMBER为-127）
+     */
+    public int getScale(int position) {
+        return scales[position];
+    }
+
+    /**
+     * 插入目标表时使用的列位置（已排除分页伪列），按源列顺序
+     */
+    public int[] getInsertPositions() {
+        return insertPositions;
+    }
+
+    /**
+     * 插入目标表时使用的列名
+     */
+    public List<String> getInsertColumnNames() {
+        List<String> names = new ArrayList<>(insertPositions.length);
+        for (int position : insertPositions) {
+            names.add(columnNames[position]);
+        }
+        return names;
+    }
+
+    /**
+     * 忽略大小写查找列位置，不存在时返回-1
+     * 结果集列名大小写因数据库而异
+     */
+    public int indexOf(String columnName) {
+        for (int i = 0; i < columnNames.length; i++) {
+            if (columnNames[i].equals(columnName)) {
+                return i;
+            }
+        }
+        for (int i = 0; i < columnNames.length; i++) {
+            if (columnNames[i].equalsIgnoreCase(columnName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 读取结果集当前行
+     * LOB列立即物化为String/byte[]，避免LOB句柄在结果集关闭或跨连接写入后失效
+     */
+    public Object[] readRow(ResultSet resultSet) throws SQLException {
+        Object[] row = new Object[columnNames.length];
+        for (int i = 0; i < row.length; i++) {
+            switch (jdbcTypes[i]) {
+                case Types.CLOB:
+                case Types.NCLOB:
+                    row[i] = resultSet.getString(i + 1);
+                    break;
+                case Types.BLOB:
+                    row[i] = resultSet.getBytes(i + 1);
+                    break;
+                default:
+                    row[i] = resultSet.getObject(i + 1);
+            }
+        }
+        return row;
+    }
+
+    /**
+     * 分页查询附加的行号/定位伪列，插入目标表时需要排除
+     */
+    public static boolean isPaginationColumn(String columnName) {
+        if (columnName == null) {
+            return true;
+        }
+
+        String lowerColumnName = columnName.toLowerCase();
+
+        // Known pagination columns from different databases
+        return lowerColumnName.equals("rnum") ||
+               lowerColumnName.equals("rownum") ||
+               lowerColumnName.equals("rnum_") ||
+               lowerColumnName.equals("rn") ||
+               lowerColumnName.equals("row_number") ||
+               lowerColumnName.startsWith("__") || // System columns
+               lowerColumnName.endsWith("_rownum"); // Custom row number columns
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(columnNames);
+    }
+}
@@ -0,0 +1,263 @@
+package com.dbsync.dbsync.sync;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 表复制检查点：一张表（或一个分片）已提交到目标库的连续前缀
+ *
+ * lastKey之前（含）的行都已写入目标库，之后的行可能部分写入（并发写线程乱序提交、批次部分成功），
+ * 因此恢复时先删除目标表中lastKey之后的行，再从lastKey之后继续按键集分页读取。
+ * 只有KEYSET读取计划（按主键或非空唯一索引排序）支持检查点，分片必须是按首个键列划分的KEY分片。
+ */
+public final class CopyCheckpoint {
+
+    /**
+     * 未分片时的分片序号
+     */
+    public static final int WHOLE_TABLE = -1;
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final String tableName;
+    private final int rangeIndex;
+    private final List<String> keyColumns;
+    private final String rangeColumn;
+    private final Object rangeLower;
+    private final Object rangeUpper;
+    private final List<Object> lastKey;
+    private final long rowsCopied;
+    private final boolean completed;
+
+    public CopyCheckpoint(String tableName, int rangeIndex, List<String> keyColumns, String rangeColumn,
+                          Object rangeLower, Object rangeUpper, List<Object> lastKey, long rowsCopied, boolean completed) {
+        this.tableName = tableName;
+        this.rangeIndex = rangeIndex;
+        this.keyColumns = Collections.unmodifiableList(new ArrayList<>(keyColumns));
+        this.rangeColumn = rangeColumn;
+        this.rangeLower = rangeLower;
+        this.rangeUpper = rangeUpper;
+        this.lastKey = lastKey;
+        this.rowsCopied = rowsCopied;
+        this.completed = completed;
+    }
+
+    /**
+     * 表或分片开始复制时的检查点（尚未提交任何行）
+     *
+     * @param range null表示未分片
+     */
+    public static CopyCheckpoint start(String tableName, SourceReadPlan readPlan, TableRange range) {
+        if (!supports(readPlan, range)) {
+            throw new IllegalArgumentException("Checkpoints need a KEYSET plan and KEY ranges, got " + readPlan + " " + range);
+        }
+        return range == null
+                ? new CopyCheckpoint(tableName, WHOLE_TABLE, readPlan.getKeyColumns(), null, null, null, null, 0, false)
+                : new CopyCheckpoint(tableName, range.getIndex(), readPlan.getKeyColumns(), range.getColumn(),
+                range.getLower(), range.getUpper(), null, 0, false);
+    }
+
+    /**
+     * 读取计划和分片是否支持检查点
+     */
+    public static boolean supports(SourceReadPlan readPlan, TableRange range) {
+        return readPlan.getStrategy() == ReadStrategy.KEYSET && (range == null || range.getKind() == TableRange.Kind.KEY);
+    }
+
+    public CopyCheckpoint advance(List<Object> newLastKey, long newRowsCopied) {
+        return new CopyCheckpoint(tableName, rangeIndex, keyColumns, rangeColumn, rangeLower, rangeUpper,
+                newLastKey, newRowsCopied, false);
+    }
+
+    public CopyCheckpoint complete() {
+        return new CopyCheckpoint(tableName, rangeIndex, keyColumns, rangeColumn, rangeLower, rangeUpper,
+                lastKey, rowsCopied, true);
+    }
+
+    /**
+     * 检查点是否由同一读取计划产生（键列相同），键列变化后不能继续
+     */
+    public boolean matches(SourceReadPlan readPlan) {
+        return readPlan.getStrategy() == ReadStrategy.KEYSET && keyColumns.equals(readPlan.getKeyColumns());
+    }
+
+    /**
+     * 还原分片，未分片时返回null
+     */
+    public TableRange toRange() {
+        return rangeIndex == WHOLE_TABLE ? null : TableRange.keyRange(rangeIndex, rangeColumn, rangeLower, rangeUpper);
+    }
+
+    /**
+     * 删除目标表中检查点之后（分片内）的行，参数顺序与getDiscardParameters一致
+     * 列名与InsertPlan一样使用小写不加引号的形式
+     */
+    public String buildDiscardSql(String targetTableName) {
+        List<String> conditions = new ArrayList<>();
+        if (lastKey != null) {
+            List<String> alternatives = new ArrayList<>();
+            for (int i = 0; i < keyColumns.size(); i++) {
+                List<String> parts = new ArrayList<>();
+                for (int j = 0; j < i; j++) {
+                    parts.add(keyColumns.get(j).toLowerCase() + " = ?");
+                }
+                parts.add(keyColumns.get(i).toLowerCase() + " > ?");
+                alternatives.add("(" + String.join(" AND ", parts) + ")");
+            }
+            conditions.add("(" + String.join(" OR ", alternatives) + ")");
+        }
+        if (rangeLower != null) {
+            conditions.add(rangeColumn.toLowerCase() + " >= ?");
+        }
+        if (rangeUpper != null) {
+            conditions.add(rangeColumn.toLowerCase() + " < ?");
+        }
+        return "DELETE FROM " + targetTableName + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions));
+    }
+
+    public List<Object> getDiscardParameters() {
+        List<Object> parameters = new ArrayList<>();
+        if (lastKey != null) {
+            for (int i = 0; i < keyColumns.size(); i++) {
+                for (int j = 0; j <= i; j++) {
+                    parameters.add(lastKey.get(j));
+                }
+            }
+        }
+        if (rangeLower != null) {
+            parameters.add(rangeLower);
+        }
+        if (rangeUpper != null) {
+            parameters.add(rangeUpper);
+        }
+        return parameters;
+    }
+
+    /**
+     * 把键值编码为JSON字符串数组，每个元素为"类型:值"，类型同Watermark.Kind
+     *
+     * @throws IllegalArgumentException 二进制等无法按文本还原比较语义的键值
+     */
+    public static String encodeValues(List<Object> values) {
+        if (values == null) {
+            return null;
+        }
+        List<String> encoded = new ArrayList<>(values.size());
+        for (Object value : values) {
+            encoded.add(encodeValue(value));
+        }
+        try {
+            return JSON.writeValueAsString(encoded);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot encode checkpoint key " + values, e);
+        }
+    }
+
+    public static List<Object> decodeValues(String text) {
+        if (text == null) {
+            return null;
+        }
+        List<String> encoded;
+        try {
+            encoded = JSON.readValue(text, new TypeReference<List<String>>() {
+            });
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed checkpoint key: " + text, e);
+        }
+        return encoded.stream().map(CopyCheckpoint::decodeValue).collect(Collectors.toList());
+    }
+
+    /**
+     * 单个值的编码，null编码为null
+     */
+    public static String encodeValue(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Number) {
+            return Watermark.Kind.NUMBER + ":" + new BigDecimal(value.toString()).toPlainString();
+        }
+        if (value instanceof Timestamp) {
+            return Watermark.Kind.TIMESTAMP + ":" + value;
+        }
+        if (value instanceof java.util.Date) {
+            return Watermark.Kind.TIMESTAMP + ":" + new Timestamp(((java.util.Date) value).getTime());
+        }
+        if (value instanceof LocalDateTime) {
+            return Watermark.Kind.TIMESTAMP + ":" + Timestamp.valueOf((LocalDateTime) value);
+        }
+        if (value instanceof LocalDate) {
+            return Watermark.Kind.TIMESTAMP + ":" + Timestamp.valueOf(((LocalDate) value).atStartOfDay());
+        }
+        if (value instanceof String || value instanceof Character) {
+            return Watermark.Kind.TEXT + ":" + value;
+        }
+        throw new IllegalArgumentException("Unsupported checkpoint key type: " + value.getClass().getName());
+    }
+
+    public static Object decodeValue(String encoded) {
+        if (encoded == null) {
+            return null;
+        }
+        int separator = encoded.indexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Malformed checkpoint value: " + encoded);
+        }
+        return Watermark.toJdbcValue(Watermark.Kind.valueOf(encoded.substring(0, separator)), encoded.substring(separator + 1));
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public int getRangeIndex() {
+        return rangeIndex;
+    }
+
+    public List<String> getKeyColumns() {
+        return keyColumns;
+    }
+
+    public String getRangeColumn() {
+        return rangeColumn;
+    }
+
+    public Object getRangeLower() {
+        return rangeLower;
+    }
+
+    public Object getRangeUpper() {
+        return rangeUpper;
+    }
+
+    /**
+     * 已提交的最后一行的键，null表示尚未提交任何行
+     */
+    public List<Object> getLastKey() {
+        return lastKey;
+    }
+
+    public long getRowsCopied() {
+        return rowsCopied;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    @Override
+    public String toString() {
+        return tableName + (rangeIndex == WHOLE_TABLE ? "" : " " + toRange()) + " after " + lastKey + " (" + rowsCopied + " rows"
+                + (completed ? ", completed" : "") + ")";
+    }
+}
@@ -0,0 +1,43 @@
+package com.dbsync.dbsync.sync;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 表复制检查点的持久化接口，由任务服务实现（保存在任务库中）
+ */
+public interface CopyCheckpointStore {
+
+    /**
+     * 不保存检查点，每次从头复制
+     */
+    CopyCheckpointStore NONE = new CopyCheckpointStore() {
+        @Override
+        public List<CopyCheckpoint> load(String tableName) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public void save(CopyCheckpoint checkpoint) {
+        }
+
+        @Override
+        public void clear(String tableName) {
+        }
+    };
+
+    /**
+     * 读取表的全部检查点（未分片时一条，分片时每个分片一条）
+     */
+    List<CopyCheckpoint> load(String tableName);
+
+    /**
+     * 保存（覆盖）一个表或分片的检查点，多个分片线程会并发调用
+     */
+    void save(CopyCheckpoint checkpoint);
+
+    /**
+     * 表复制成功或需要从头复制时清除检查点
+     */
+    void clear(String tableName);
+}
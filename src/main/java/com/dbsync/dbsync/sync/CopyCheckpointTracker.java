@@ -0,0 +1,179 @@
+package com.dbsync.dbsync.sync;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 跟踪一个表（或分片）复制过程中已提交的连续前缀，并按时间间隔保存检查点
+ *
+ * 读取线程给每个批次分配顺序号并记下批次最后一行的键；写线程写完后上报。
+ * 多个写线程可能乱序完成，只有顺序号连续的批次都写完后检查点才前进，
+ * 因此检查点之前的行一定都已提交。写入前检查停止信号，任务停止时抛出CancellationException，保留检查点。
+ */
+public class CopyCheckpointTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CopyCheckpointTracker.class);
+
+    private final SourceReadPlan readPlan;
+    private final CopyCheckpointStore store;
+    private final long saveIntervalMillis;
+    private final BooleanSupplier stopRequested;
+
+    private final Map<RowBatch, Long> inFlight = new IdentityHashMap<>();
+    private final Map<Long, List<Object>> batchKeys = new HashMap<>();
+    private final Map<Long, Integer> writtenRows = new HashMap<>();
+    private int[] keyPositions;
+    private long nextSequence;
+    private long committedSequence = -1;
+    private CopyCheckpoint checkpoint;
+    private final Object saveLock = new Object();
+    private volatile CopyCheckpoint savedCheckpoint;
+    private long lastSavedAt;
+
+    /**
+     * @param start 起始检查点：新复制为CopyCheckpoint.start，恢复时为上次保存的检查点
+     */
+    public CopyCheckpointTracker(CopyCheckpoint start, SourceReadPlan readPlan, CopyCheckpointStore store,
+                                 long saveIntervalMillis, BooleanSupplier stopRequested) {
+        this.checkpoint = start;
+        this.savedCheckpoint = start;
+        this.readPlan = readPlan;
+        this.store = store;
+        this.saveIntervalMillis = saveIntervalMillis;
+        this.stopRequested = stopRequested;
+        this.lastSavedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * 包装读取器，为每个批次登记顺序号和最后一行的键
+     */
+    public SourceTableReader track(SourceTableReader reader) {
+        return new SourceTableReader() {
+            @Override
+            public RowBatch nextBatch() throws Exception {
+                RowBatch batch = reader.nextBatch();
+                if (!batch.isEmpty()) {
+                    register(batch);
+                }
+                return batch;
+            }
+
+            @Override
+            public String describe() {
+                return reader.describe();
+            }
+
+            @Override
+            public void close() throws Exception {
+                reader.close();
+            }
+        };
+    }
+
+    /**
+     * 包装写入回调：写入前检查停止信号，写入成功后推进检查点
+     */
+    public PipelinedTableCopier.BatchWriter track(PipelinedTableCopier.BatchWriter writer) {
+        return batch -> {
+            if (stopRequested.getAsBoolean()) {
+                throw new CancellationException("Copy of table " + checkpoint.getTableName() + " stopped at " + current());
+            }
+            int rows = writer.write(batch);
+            written(batch, rows);
+            return rows;
+        };
+    }
+
+    private synchronized void register(RowBatch batch) {
+        if (keyPositions == null) {
+            keyPositions = readPlan.resolveKeyPositions(batch.getLayout());
+        }
+        Object[] lastRow = batch.getRows().get(batch.size() - 1);
+        List<Object> key = new ArrayList<>(keyPositions.length);
+        for (int position : keyPositions) {
+            key.add(lastRow[position]);
+        }
+        long sequence = nextSequence++;
+        inFlight.put(batch, sequence);
+        batchKeys.put(sequence, key);
+    }
+
+    private void written(RowBatch batch, int rows) {
+        CopyCheckpoint toSave = null;
+        synchronized (this) {
+            Long sequence = inFlight.remove(batch);
+            if (sequence == null) {
+                return;
+            }
+            writtenRows.put(sequence, rows);
+            boolean advanced = false;
+            while (writtenRows.containsKey(committedSequence + 1)) {
+                committedSequence++;
+                checkpoint = checkpoint.advance(batchKeys.remove(committedSequence),
+                        checkpoint.getRowsCopied() + writtenRows.remove(committedSequence));
+                advanced = true;
+            }
+            long now = System.currentTimeMillis();
+            if (advanced && now - lastSavedAt >= saveIntervalMillis) {
+                lastSavedAt = now;
+                toSave = checkpoint;
+            }
+        }
+        if (toSave != null) {
+            save(toSave);
+        }
+    }
+
+    /**
+     * 保存当前已提交的位置（复制失败或停止时调用）
+     */
+    public void flush() {
+        CopyCheckpoint toSave;
+        synchronized (this) {
+            toSave = checkpoint;
+        }
+        if (toSave != savedCheckpoint) {
+            save(toSave);
+        }
+    }
+
+    /**
+     * 表或分片复制完成
+     */
+    public void complete() {
+        CopyCheckpoint completed;
+        synchronized (this) {
+            checkpoint = checkpoint.complete();
+            completed = checkpoint;
+        }
+        save(completed);
+    }
+
+    public synchronized CopyCheckpoint current() {
+        return checkpoint;
+    }
+
+    private void save(CopyCheckpoint toSave) {
+        synchronized (saveLock) {
+            // Two writer threads may race here; never let an older position overwrite a newer one
+            if (toSave.getRowsCopied() < savedCheckpoint.getRowsCopied()) {
+                return;
+            }
+            try {
+                store.save(toSave);
+                savedCheckpoint = toSave;
+            } catch (RuntimeException e) {
+                // A missed checkpoint only means re-copying a little more after a failure
+                logger.warn("Table [{}]: Failed to save copy checkpoint {}: {}", toSave.getTableName(), toSave, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.dbsync.dbsync.sync;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+/**
+ * 带回退的写入器
+ *
+ * 优先使用数据库原生的批量加载方式（COPY、BulkCopy、直接路径插入等），第一次失败时记录原因，
+ * 改用回退写入器（预编译批量INSERT）重新写入该批次，之后整张表都使用回退写入器。
+ * 只有原生写入器保证失败的批次不留下部分数据（isAtomicPerBatch）时才回退重写，
+ * 否则直接抛出异常，避免重写已部分写入的批次产生重复行。
+ */
+public class FallbackTableWriter implements TableWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(FallbackTableWriter.class);
+
+    private final TableWriter primary;
+    private final Supplier<TableWriter> fallbackFactory;
+    private final String targetTableName;
+
+    private volatile TableWriter fallback;
+
+    public FallbackTableWriter(TableWriter primary, Supplier<TableWriter> fallbackFactory, String targetTableName) {
+        this.primary = primary;
+        this.fallbackFactory = fallbackFactory;
+        this.targetTableName = targetTableName;
+    }
+
+    @Override
+    public int write(RowBatch batch) throws SQLException {
+        TableWriter active = fallback;
+        if (active != null) {
+            return active.write(batch);
+        }
+        try {
+            return primary.write(batch);
+        } catch (SQLException | RuntimeException e) {
+            if (!primary.isAtomicPerBatch()) {
+                throw e;
+            }
+            return switchToFallback(e).write(batch);
+        }
+    }
+
+    private synchronized TableWriter switchToFallback(Exception cause) {
+        if (fallback == null) {
+            logger.warn("Table [{}]: Bulk load with {} failed, falling back to batched INSERT for the rest of the table. Error: {}",
+                    targetTableName, primary.getClass().getSimpleName(), cause.getMessage());
+            fallback = fallbackFactory.get();
+        }
+        return fallback;
+    }
+
+    /**
+     * 是否已切换到回退写入器
+     */
+    public boolean isFallbackActive() {
+        return fallback != null;
+    }
+
+    @Override
+    public String describe(ColumnLayout layout) {
+        TableWriter active = fallback;
+        return active != null ? active.describe(layout) : primary.describe(layout);
+    }
+
+    @Override
+    public String summary() {
+        TableWriter active = fallback;
+        return active != null
+                ? primary.summary() + ", then fell back to " + active.summary()
+                : primary.summary();
+    }
+
+    @Override
+    public DataSource getDataSource() {
+        return primary.getDataSource();
+    }
+
+    @Override
+    public void close() {
+        primary.close();
+        TableWriter active = fallback;
+        if (active != null) {
+            active.close();
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.dbsync.dbsync.sync;
+
+import com.dbsync.dbsync.entity.ForeignKeyInfo;
+import com.dbsync.dbsync.entity.IndexInfo;
+
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 按目标方言生成主键、索引和外键的DDL，用于加载前删除、加载后按原定义重建
+ * 列名和索引名取自目标库元数据，按原样（不加引号）使用
+ */
+public final class IndexDdl {
+
+    private IndexDdl() {
+    }
+
+    /**
+     * 建主键或索引的语句
+     *
+     * @param indexName 使用的名称（可与定义中的原名不同，如影子表上的临时名）
+     */
+    public static String createSql(String dbType, String tableName, IndexInfo index, String indexName) {
+        if (Boolean.TRUE.equals(index.getPrimaryKey())) {
+            String columns = String.join(", ", index.getColumnNames());
+            if ("mysql".equalsIgnoreCase(dbType)) {
+                return "ALTER TABLE " + tableName + " ADD PRIMARY KEY (" + columns + ")";
+            }
+            return "ALTER TABLE " + tableName + " ADD CONSTRAINT " + indexName + " PRIMARY KEY (" + columns + ")";
+        }
+        List<String> columns = new ArrayList<>(index.getColumnNames().size());
+        for (int i = 0; i < index.getColumnNames().size(); i++) {
+            boolean desc = i < index.getDescending().size() && Boolean.TRUE.equals(index.getDescending().get(i));
+            columns.add(index.getColumnNames().get(i) + (desc ? " DESC" : ""));
+        }
+        return "CREATE " + (Boolean.TRUE.equals(index.getUnique()) ? "UNIQUE " : "") + "INDEX " + indexName +
+                " ON " + tableName + " (" + String.join(", ", columns) + ")";
+    }
+
+    /**
+     * 建索引的语句，degree大于1时让支持的数据库并行建单个索引
+     * Oracle加PARALLEL子句，建好后改回NOPARALLEL，避免之后的查询也按并行执行；其他数据库的并行度由会话参数控制
+     */
+    public static List<String> createSql(String dbType, String tableName, IndexInfo index, String indexName, int degree) {
+        String sql = createSql(dbType, tableName, index, indexName);
+        if (degree <= 1 || Boolean.TRUE.equals(index.getPrimaryKey()) || !"oracle".equalsIgnoreCase(dbType)) {
+            return Collections.singletonList(sql);
+        }
+        return Arrays.asList(sql + " PARALLEL " + degree, "ALTER INDEX " + indexName + " NOPARALLEL");
+    }
+
+    /**
+     * 删除主键或索引的语句
+     */
+    public static String dropSql(String dbType, String tableName, IndexInfo index) {
+        String type = dbType.toLowerCase();
+        if (Boolean.TRUE.equals(index.getPrimaryKey())) {
+            return "mysql".equals(type) ? "ALTER TABLE " + tableName + " DROP PRIMARY KEY"
+                    : "ALTER TABLE " + tableName + " DROP CONSTRAINT " + index.getIndexName();
+        }
+        if ("mysql".equals(type) || "sqlserver".equals(type)) {
+            return "DROP INDEX " + index.getIndexName() + " ON " + tableName;
+        }
+        return "DROP INDEX " + index.getIndexName();
+    }
+
+    /**
+     * 建外键的语句，保留级联删除/更新规则（Oracle/达梦/SQL Server不支持的ON UPDATE规则不生成）
+     */
+    public static String createForeignKeySql(String dbType, ForeignKeyInfo foreignKey) {
+        StringBuilder sql = new StringBuilder("ALTER TABLE ").append(foreignKey.getTableName())
+                .append(" ADD CONSTRAINT ").append(foreignKey.getConstraintName())
+                .append(" FOREIGN KEY (").append(String.join(", ", foreignKey.getColumnNames()))
+                .append(") REFERENCES ").append(foreignKey.getReferencedTableName())
+                .append(" (").append(String.join(", ", foreignKey.getReferencedColumnNames())).append(")");
+        String onDelete = referentialAction(foreignKey.getDeleteRule());
+        if (onDelete != null) {
+            sql.append(" ON DELETE ").append(onDelete);
+        }
+        String type = dbType.toLowerCase();
+        String onUpdate = referentialAction(foreignKey.getUpdateRule());
+        if (onUpdate != null && ("postgresql".equals(type) || "vastbase".equals(type) || "mysql".equals(type))) {
+            sql.append(" ON UPDATE ").append(onUpdate);
+        }
+        return sql.toString();
+    }
+
+    /**
+     * 删除外键的语句
+     */
+    public static String dropForeignKeySql(String dbType, ForeignKeyInfo foreignKey) {
+        return "ALTER TABLE " + foreignKey.getTableName() + ("mysql".equalsIgnoreCase(dbType) ? " DROP FOREIGN KEY " : " DROP CONSTRAINT ")
+                + foreignKey.getConstraintName();
+    }
+
+    private static String referentialAction(Integer rule) {
+        if (rule == null) {
+            return null;
+        }
+        switch (rule) {
+            case DatabaseMetaData.importedKeyCascade:
+                return "CASCADE";
+            case DatabaseMetaData.importedKeySetNull:
+                return "SET NULL";
+            case DatabaseMetaData.importedKeySetDefault:
+                return "SET DEFAULT";
+            default:
+                return null; // NO ACTION / RESTRICT是默认规则
+        }
+    }
+
+    /**
+     * 名称是否在整个schema内唯一（需要临时名并在之后改名）
+     * MySQL的索引名只在表内唯一、主键固定名为PRIMARY；SQL Server的索引名在表内唯一，但主键约束名在schema内唯一
+     */
+    public static boolean isSchemaScoped(String dbType, IndexInfo index) {
+        switch (dbType.toLowerCase()) {
+            case "mysql":
+                return false;
+            case "sqlserver":
+                return Boolean.TRUE.equals(index.getPrimaryKey());
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * 把表上的主键或索引从fromName改名为toName的语句
+     */
+    public static List<String> renameSql(String dbType, String tableName, IndexInfo index, String fromName, String toName) {
+        boolean primaryKey = Boolean.TRUE.equals(index.getPrimaryKey());
+        switch (dbType.toLowerCase()) {
+            case "postgresql":
+            case "vastbase":
+                // 改名主键约束时其索引一并改名
+                return Collections.singletonList(primaryKey
+                        ? "ALTER TABLE " + tableName + " RENAME CONSTRAINT " + fromName + " TO " + toName
+                        : "ALTER INDEX " + fromName + " RENAME TO " + toName);
+            case "oracle":
+            case "dameng":
+                List<String> statements = new ArrayList<>();
+                if (primaryKey) {
+                    statements.add("ALTER TABLE " + tableName + " RENAME CONSTRAINT " + fromName + " TO " + toName);
+                }
+                statements.add("ALTER INDEX " + fromName + " RENAME TO " + toName);
+                return statements;
+            case "sqlserver":
+                return primaryKey ? Collections.singletonList("EXEC sp_rename '" + fromName + "', '" + toName + "', 'OBJECT'")
+                        : Collections.<String>emptyList();
+            default:
+                return Collections.emptyList();
+        }
+    }
+
+    /**
+     * 在名称后加后缀，超过方言的标识符长度时截短原名
+     */
+    public static String suffixed(String dbType, String name, String suffix) {
+        int maxLength = maxIdentifierLength(dbType);
+        if (name.length() + suffix.length() <= maxLength) {
+            return name + suffix;
+        }
+        return name.substring(0, Math.max(1, maxLength - suffix.length())) + suffix;
+    }
+
+    private static int maxIdentifierLength(String dbType) {
+        switch (dbType.toLowerCase()) {
+            case "oracle":
+            case "dameng":
+                return 30;
+            case "postgresql":
+            case "vastbase":
+                return 63;
+            case "mysql":
+                return 64;
+            default:
+                return 128;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.dbsync.dbsync.sync;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 目标表INSERT计划
+ * 列顺序、参数位置和INSERT语句在表开始同步时按列布局生成一次，之后每个批次直接复用
+ * 增量同步使用按目标方言生成的UPSERT语句，参数顺序与INSERT相同
+ */
+public final class InsertPlan {
+
+    private final String targetTableName;
+    private final List<String> columnNames;
+    private final int[] positions;
+    private final String sql;
+
+    private InsertPlan(String targetTableName, List<String> columnNames, int[] positions, String sql) {
+        this.targetTableName = targetTableName;
+        this.columnNames = columnNames;
+        this.positions = positions;
+        this.sql = sql;
+    }
+
+    /**
+     * 按列布局生成插入计划（分页伪列已由布局排除）
+     */
+    public static InsertPlan of(String targetTableName, ColumnLayout layout) {
+        return of(targetTableName, layout, null);
+    }
+
+    /**
+     * 按列布局生成带优化器提示的插入计划
+     *
+     * @param hint 提示内容（不含注释符号），如Oracle的APPEND_VALUES；null表示不加提示
+     */
+    public static InsertPlan of(String targetTableName, ColumnLayout layout, String hint) {
+        List<String> columnNames = layout.getInsertColumnNames();
+        String sql = "INSERT " + (hint == null || hint.isEmpty() ? "" : "/*+ " + hint + " */ ") + "INTO " + targetTableName +
+                " (" + columnList(columnNames, "") + ") VALUES (" + placeholders(columnNames.size()) + ")";
+        return new InsertPlan(targetTableName, columnNames, layout.getInsertPositions(), sql);
+    }
+
+    /**
+     * 按目标方言生成UPSERT计划：键已存在的行更新其余列，不存在的行插入
+     * - PostgreSQL/Vastbase：INSERT ... ON CONFLICT (键) DO UPDATE，目标表需有键上的唯一约束
+     * - MySQL：INSERT ... ON DUPLICATE KEY UPDATE，目标表需有键上的唯一索引
+     * - Oracle/达梦/SQL Server：MERGE，按键列匹配，不依赖目标表约束
+     *
+     * @param keyColumns 源表主键或非空唯一索引列（不区分大小写匹配布局中的列）
+     */
+    public static InsertPlan upsert(String targetTableName, ColumnLayout layout, String targetDbType, List<String> keyColumns) {
+        List<String> columnNames = layout.getInsertColumnNames();
+        List<String> columns = new ArrayList<>(columnNames.size());
+        for (String columnName : columnNames) {
+            columns.add(columnName.toLowerCase());
+        }
+        List<String> keys = new ArrayList<>(keyColumns.size());
+        for (String keyColumn : keyColumns) {
+            if (!columns.contains(keyColumn.toLowerCase())) {
+                throw new IllegalArgumentException("Key column " + keyColumn + " is not among the columns of " + targetTableName);
+            }
+            keys.add(keyColumn.toLowerCase());
+        }
+        List<String> updates = new ArrayList<>(columns);
+        updates.removeAll(keys);
+
+        String insert = "INSERT INTO " + targetTableName + " (" + columnList(columns, "") + ") VALUES (" + placeholders(columns.size()) + ")";
+        String sql;
+        switch (targetDbType.toLowerCase()) {
+            case "postgresql":
+            case "vastbase":
+                sql = insert + " ON CONFLICT (" + columnList(keys, "") + ") " + (updates.isEmpty() ? "DO NOTHING" :
+                        "DO UPDATE SET " + updates.stream().map(c -> c + " = EXCLUDED." + c).collect(Collectors.joining(", ")));
+                break;
+            case "mysql":
+                sql = insert + " ON DUPLICATE KEY UPDATE " + (updates.isEmpty() ? keys.get(0) + " = " + keys.get(0) :
+                        updates.stream().map(c -> c + " = VALUES(" + c + ")").collect(Collectors.joining(", ")));
+                break;
+            case "oracle":
+            case "dameng":
+                sql = "MERGE INTO " + targetTableName + " d USING (SELECT " +
+                        columns.stream().map(c -> "? AS " + c).collect(Collectors.joining(", ")) + " FROM DUAL) s ON (" +
+                        keys.stream().map(c -> "d." + c + " = s." + c).collect(Collectors.joining(" AND ")) + ")" +
+                        mergeActions(columns, updates);
+                break;
+            case "sqlserver":
+                sql = "MERGE INTO " + targetTableName + " AS d USING (VALUES (" + placeholders(columns.size()) + ")) AS s (" +
+                        columnList(columns, "") + ") ON " +
+                        keys.stream().map(c -> "d." + c + " = s." + c).collect(Collectors.joining(" AND ")) +
+                        mergeActions(columns, updates) + ";";
+                break;
+            default:
+                throw new IllegalArgumentException("UPSERT is not supported for target database type: " + targetDbType);
+        }
+        return new InsertPlan(targetTableName, columnNames, layout.getInsertPositions(), sql);
+    }
+
+    private static String mergeActions(List<String> columns, List<String> updates) {
+        String matched = updates.isEmpty() ? "" : " WHEN MATCHED THEN UPDATE SET " +
+                updates.stream().map(c -> "d." + c + " = s." + c).collect(Collectors.joining(", "));
+        return matched + " WHEN NOT MATCHED THEN INSERT (" + columnList(columns, "") + ") VALUES (" + columnList(columns, "s.") + ")";
+    }
+
+    private static String columnList(List<String> columnNames, String prefix) {
+        return columnNames.stream().map(c -> prefix + c.toLowerCase()).collect(Collectors.joining(", "));
+    }
+
+    private static String placeholders(int count) {
+        List<String> marks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            marks.add("?");
+        }
+        return String.join(",", marks);
+    }
+
+    public String getTargetTableName() {
+        return targetTableName;
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    /**
+     * 每个INSERT参数对应的行内位置
+     */
+    public int[] getPositions() {
+        return positions;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public boolean isEmpty() {
+        return positions.length == 0;
+    }
+
+    @Override
+    public String toString() {
+        return sql;
+    }
+}
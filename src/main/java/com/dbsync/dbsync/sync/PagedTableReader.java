@@ -0,0 +1,199 @@
+package com.dbsync.dbsync.sync;
+
+import com.dbsync.dbsync.mapper.TableMapper;
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
+import org.apache.ibatis.session.SqlSession;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+/**
+ * 分页读取器：键集分页（主键/唯一索引/ROWID/ctid）或OFFSET分页，每批一次查询
+ *
+ * SQL仍由TableMapper的@SelectProvider生成，但结果直接从ResultSet按列位置读取为Object[]，
+ * 不再由MyBatis为每一行构建HashMap。
+ */
+public class PagedTableReader implements SourceTableReader {
+
+    private static final String KEYSET_STATEMENT = TableMapper.class.getName() + ".getTableDataWithKeyset";
+    private static final String PAGINATION_STATEMENT = TableMapper.class.getName() + ".getTableDataWithPagination";
+
+    private final SqlSession sourceSession;
+    private final SourceReadPlan readPlan;
+    private final String dbType;
+    private final String tableName;
+    private final String schemaName;
+    private final IntSupplier batchSize;
+    private final TableRange range;
+    private final WatermarkWindow watermarkWindow;
+
+    private ColumnLayout layout;
+    private int[] keyPositions;
+    private List<Object> lastKeyValues;
+    private long currentPage = 1;
+    private long offsetPageSize;
+    private boolean exhausted;
+
+    public PagedTableReader(SqlSession sourceSession, SourceReadPlan readPlan, String dbType,
+                            String tableName, String schemaName, long batchSize) {
+        this(sourceSession, readPlan, dbType, tableName, schemaName, batchSize, null);
+    }
+
+    /**
+     * @param range 只读取该分片内的数据，null表示读取整张表
+     */
+    public PagedTableReader(SqlSession sourceSession, SourceReadPlan readPlan, String dbType,
+                            String tableName, String schemaName, long batchSize, TableRange range) {
+        this(sourceSession, readPlan, dbType, tableName, schemaName, fixedSize(batchSize), range);
+    }
+
+    /**
+     * @param batchSize 每页行数，每次查询前读取一次（可由AdaptiveBatchSizer动态调整）
+     * @param range     只读取该分片内的数据，null表示读取整张表
+     */
+    public PagedTableReader(SqlSession sourceSession, SourceReadPlan readPlan, String dbType,
+                            String tableName, String schemaName, IntSupplier batchSize, TableRange range) {
+        this(sourceSession, readPlan, dbType, tableName, schemaName, batchSize, range, null);
+    }
+
+    /**
+     * @param watermarkWindow 增量同步只读取该水位区间内的行，null表示读取全部
+     */
+    public PagedTableReader(SqlSession sourceSession, SourceReadPlan readPlan, String dbType, String tableName,
+                            String schemaName, IntSupplier batchSize, TableRange range, WatermarkWindow watermarkWindow) {
+        if (readPlan.getStrategy() == ReadStrategy.CURSOR) {
+            throw new IllegalArgumentException("Cursor read plans must use StreamingTableReader");
+        }
+        if (range != null && !readPlan.isKeyBased()) {
+            throw new IllegalArgumentException("Ranges can only be read with key-based read plans");
+        }
+        if (watermarkWindow != null && !readPlan.isKeyBased()) {
+            throw new IllegalArgumentException("Watermark windows can only be read with key-based read plans");
+        }
+        this.sourceSession = sourceSession;
+        this.readPlan = readPlan;
+        this.dbType = dbType;
+        this.tableName = tableName;
+        this.schemaName = schemaName;
+        this.batchSize = batchSize;
+        this.range = range;
+        this.watermarkWindow = watermarkWindow;
+    }
+
+    /**
+     * 从给定键之后开始读取（恢复中断的复制），必须在读取第一批之前调用
+     */
+    public PagedTableReader startAfter(List<Object> keyValues) {
+        if (!readPlan.isKeyBased()) {
+            throw new IllegalStateException("Only key-based read plans can start after a key");
+        }
+        this.lastKeyValues = keyValues;
+        return this;
+    }
+
+    @Override
+    public RowBatch nextBatch() throws SQLException {
+        if (exhausted) {
+            return RowBatch.empty();
+        }
+
+        long pageSize = batchSize.getAsInt();
+        RowBatch batch;
+        if (readPlan.isKeyBased()) {
+            Map<String, Object> keysetParams = readPlan.buildQueryParams(dbType, tableName, schemaName, pageSize, lastKeyValues);
+            if (range != null) {
+                range.applyTo(keysetParams);
+            }
+            if (watermarkWindow != null) {
+                watermarkWindow.applyTo(keysetParams);
+            }
+            batch = query(KEYSET_STATEMENT, keysetParams);
+        } else {
+            Map<String, Object> paginationParams = new HashMap<>();
+            paginationParams.put("dbType", dbType);
+            paginationParams.put("tableName", tableName);
+            paginationParams.put("schemaName", schemaName);
+            // OFFSET pages must keep a fixed size, otherwise page numbers no longer line up with row offsets
+            paginationParams.put("current", currentPage);
+            paginationParams.put("size", firstPageSize());
+            batch = query(PAGINATION_STATEMENT, paginationParams);
+            pageSize = firstPageSize();
+        }
+
+        // A short page means there is nothing after it
+        if (batch.size() < pageSize) {
+            exhausted = true;
+        } else if (readPlan.isKeyBased()) {
+            lastKeyValues = extractLastKey(batch);
+        } else {
+            currentPage++;
+        }
+        return batch;
+    }
+
+    private long firstPageSize() {
+        if (offsetPageSize == 0) {
+            offsetPageSize = batchSize.getAsInt();
+        }
+        return offsetPageSize;
+    }
+
+    private RowBatch query(String statementId, Map<String, Object> params) throws SQLException {
+        MappedStatement mappedStatement = sourceSession.getConfiguration().getMappedStatement(statementId);
+        BoundSql boundSql = mappedStatement.getBoundSql(params);
+        try (PreparedStatement statement = sourceSession.getConnection().prepareStatement(boundSql.getSql())) {
+            ParameterHandler parameterHandler = new DefaultParameterHandler(mappedStatement, params, boundSql);
+            parameterHandler.setParameters(statement);
+            int pageSize = ((Long) params.get("size")).intValue();
+            statement.setFetchSize(pageSize);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (layout == null) {
+                    // Every page of a table has the same columns, resolve them once
+                    layout = ColumnLayout.fromMetaData(resultSet.getMetaData());
+                }
+                RowBatch batch = new RowBatch(layout, Math.min(pageSize, 10000));
+                while (resultSet.next()) {
+                    batch.add(layout.readRow(resultSet));
+                }
+                return batch;
+            }
+        }
+    }
+
+    private List<Object> extractLastKey(RowBatch batch) {
+        if (keyPositions == null) {
+            keyPositions = readPlan.resolveKeyPositions(layout);
+        }
+        Object[] lastRow = batch.getRows().get(batch.size() - 1);
+        List<Object> values = new ArrayList<>(keyPositions.length);
+        for (int position : keyPositions) {
+            values.add(lastRow[position]);
+        }
+        return values;
+    }
+
+    private static IntSupplier fixedSize(long batchSize) {
+        int size = (int) Math.min(batchSize, Integer.MAX_VALUE);
+        return () -> size;
+    }
+
+    @Override
+    public String describe() {
+        String description = range == null ? readPlan.toString() : readPlan + " " + range;
+        return watermarkWindow == null ? description : description + " " + watermarkWindow;
+    }
+
+    @Override
+    public void close() {
+        // Pages are read through the caller's SqlSession, nothing to release here
+    }
+}
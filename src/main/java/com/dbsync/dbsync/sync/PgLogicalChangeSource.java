@@ -0,0 +1,190 @@
+package com.dbsync.dbsync.sync;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGProperty;
+import org.postgresql.replication.LogSequenceNumber;
+import org.postgresql.replication.PGReplicationStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于PostgreSQL逻辑解码（test_decoding插件）的变更来源，同样适用于Vastbase
+ *
+ * 复制槽保存已确认的位置，源库在确认之前保留WAL；因此只有变更写入目标库并提交后才调用acknowledge，
+ * 进程中断后从复制槽（或保存的检查点）重新读取，配合UPSERT应用保证不丢失变更
+ */
+public class PgLogicalChangeSource implements ChangeSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(PgLogicalChangeSource.class);
+
+    public static final String OUTPUT_PLUGIN = "test_decoding";
+
+    private final String jdbcUrl;
+    private final String username;
+    private final String password;
+    private final String slotName;
+    private final int statusIntervalSeconds;
+
+    private Connection replicationConnection;
+    private PGReplicationStream stream;
+    /** 未提交事务的变更，可能跨越多次poll */
+    private final List<ChangeEvent> openTransaction = new ArrayList<>();
+
+    public PgLogicalChangeSource(String jdbcUrl, String username, String password, String slotName, int statusIntervalSeconds) {
+        this.jdbcUrl = jdbcUrl;
+        this.username = username;
+        this.password = password;
+        this.slotName = slotName;
+        this.statusIntervalSeconds = statusIntervalSeconds;
+    }
+
+    /**
+     * 复制槽不存在时创建
+     *
+     * @return 是否新建了复制槽；新建时调用方需要先做一次全量复制，之后的变更从槽的起点读取
+     */
+    public boolean createSlotIfMissing() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, username, password)) {
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "SELECT 1 FROM pg_replication_slots WHERE slot_name = ?")) {
+                ps.setString(1, slotName);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        return false;
+                    }
+                }
+            }
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "SELECT lsn FROM pg_create_logical_replication_slot(?, ?)")) {
+                ps.setString(1, slotName);
+                ps.setString(2, OUTPUT_PLUGIN);
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    logger.info("Created logical replication slot {} at {}", slotName, rs.getString(1));
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 删除复制槽，停止捕获后不再需要时调用，否则源库会一直保留WAL
+     */
+    public void dropSlot() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, username, password);
+             PreparedStatement ps = connection.prepareStatement(
+                     "SELECT pg_drop_replication_slot(slot_name) FROM pg_replication_slots WHERE slot_name = ?")) {
+            ps.setString(1, slotName);
+            ps.executeQuery().close();
+        }
+    }
+
+    @Override
+    public void start(String position) throws SQLException {
+        Properties props = new Properties();
+        PGProperty.USER.set(props, username);
+        PGProperty.PASSWORD.set(props, password);
+        PGProperty.ASSUME_MIN_SERVER_VERSION.set(props, "9.4");
+        PGProperty.REPLICATION.set(props, "database");
+        PGProperty.PREFER_QUERY_MODE.set(props, "simple");
+        replicationConnection = DriverManager.getConnection(jdbcUrl, props);
+
+        LogSequenceNumber start = position == null ? LogSequenceNumber.INVALID_LSN : LogSequenceNumber.valueOf(position);
+        stream = replicationConnection.unwrap(PGConnection.class)
+                .getReplicationAPI()
+                .replicationStream()
+                .logical()
+                .withSlotName(slotName)
+                .withStartPosition(start)
+                .withSlotOption("include-xids", false)
+                .withSlotOption("skip-empty-xacts", true)
+                .withStatusInterval(statusIntervalSeconds, TimeUnit.SECONDS)
+                .start();
+        openTransaction.clear();
+        logger.info("Streaming changes from slot {} starting at {}", slotName, position == null ? "slot position" : position);
+    }
+
+    @Override
+    public ChangeBatch poll(int maxEvents, long timeoutMillis) throws SQLException, InterruptedException {
+        List<ChangeEvent> events = new ArrayList<>();
+        String committedPosition = null;
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+
+        while (true) {
+            ByteBuffer buffer = stream.readPending();
+            if (buffer == null) {
+                // Return as soon as something is committed; a half-read transaction stays buffered for the next poll
+                if (committedPosition != null || System.currentTimeMillis() >= deadline) {
+                    break;
+                }
+                TimeUnit.MILLISECONDS.sleep(10);
+                continue;
+            }
+            String message = decode(buffer);
+            if (TestDecodingParser.isBegin(message)) {
+                openTransaction.clear();
+            } else if (TestDecodingParser.isCommit(message)) {
+                events.addAll(openTransaction);
+                openTransaction.clear();
+                committedPosition = stream.getLastReceiveLSN().asString();
+                if (events.size() >= maxEvents) {
+                    break;
+                }
+            } else {
+                ChangeEvent event = TestDecodingParser.parse(message);
+                if (event != null) {
+                    openTransaction.add(event);
+                }
+            }
+        }
+        return committedPosition == null ? null : new ChangeBatch(events, committedPosition);
+    }
+
+    @Override
+    public void acknowledge(String position) throws SQLException {
+        LogSequenceNumber lsn = LogSequenceNumber.valueOf(position);
+        stream.setAppliedLSN(lsn);
+        stream.setFlushedLSN(lsn);
+        stream.forceUpdateStatus();
+    }
+
+    @Override
+    public String describe() {
+        return "PostgreSQL logical decoding (" + OUTPUT_PLUGIN + ", slot " + slotName + ")";
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (stream != null && !stream.isClosed()) {
+                stream.close();
+            }
+        } catch (SQLException e) {
+            logger.warn("Failed to close replication stream for slot {}: {}", slotName, e.getMessage());
+        }
+        try {
+            if (replicationConnection != null) {
+                replicationConnection.close();
+            }
+        } catch (SQLException e) {
+            logger.warn("Failed to close replication connection for slot {}: {}", slotName, e.getMessage());
+        }
+    }
+
+    private static String decode(ByteBuffer buffer) {
+        int offset = buffer.arrayOffset() + buffer.position();
+        return new String(buffer.array(), offset, buffer.remaining(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,213 @@
+package com.dbsync.dbsync.sync;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 生产者/消费者流水线表复制
+ *
+ * 读取在调用线程上进行（源SqlSession不跨线程使用），读到的批次放入有界队列，
+ * 由一个或多个写线程取出写入目标库。写入跟不上时队列写满，读取线程阻塞等待（背压），
+ * 因此内存中最多只有 queueDepth + writerThreads 个批次。
+ */
+public class PipelinedTableCopier {
+
+    private static final Logger logger = LoggerFactory.getLogger(PipelinedTableCopier.class);
+
+    private static final long OFFER_TIMEOUT_MS = 100;
+
+    /**
+     * 失败后等待写线程退出时，每隔这么久记录一次仍在等待
+     */
+    private static final long TERMINATION_LOG_INTERVAL_SECONDS = 30;
+
+    /**
+     * 队列结束标记，按引用比较
+     */
+    private static final RowBatch END_OF_DATA = new RowBatch(null, 0);
+
+    private static final AtomicInteger THREAD_SEQUENCE = new AtomicInteger();
+
+    /**
+     * 批次写入回调，返回写入的行数
+     */
+    @FunctionalInterface
+    public interface BatchWriter {
+        int write(RowBatch batch) throws Exception;
+    }
+
+    private final int queueDepth;
+    private final int writerThreads;
+
+    /**
+     * @param queueDepth    队列中最多缓存的批次数
+     * @param writerThreads 写线程数，小于等于0时在调用线程上串行读写
+     */
+    public PipelinedTableCopier(int queueDepth, int writerThreads) {
+        this.queueDepth = Math.max(1, queueDepth);
+        this.writerThreads = writerThreads;
+    }
+
+    /**
+     * 复制整张表，返回写入的总行数
+     */
+    public long copy(String taskId, String tableName, SourceTableReader reader, BatchWriter writer) throws Exception {
+        if (writerThreads <= 0) {
+            return copySerially(reader, writer);
+        }
+
+        BlockingQueue<RowBatch> queue = new ArrayBlockingQueue<>(queueDepth);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        AtomicLong rowsWritten = new AtomicLong();
+        long readerBlockedNanos = 0;
+        long batchesRead = 0;
+
+        ExecutorService writers = Executors.newFixedThreadPool(writerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "dbsync-writer-" + THREAD_SEQUENCE.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Future<?>> writerFutures = new ArrayList<>();
+        for (int i = 0; i < writerThreads; i++) {
+            writerFutures.add(writers.submit(() -> drain(queue, writer, failure, rowsWritten)));
+        }
+
+        try {
+            while (failure.get() == null) {
+                RowBatch batch = reader.nextBatch();
+                if (batch.isEmpty()) {
+                    break;
+                }
+                batchesRead++;
+                long waitStart = System.nanoTime();
+                // Backpressure: block while the writers are behind, but notice if one of them died
+                while (!queue.offer(batch, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                    if (failure.get() != null) {
+                        break;
+                    }
+                }
+                readerBlockedNanos += System.nanoTime() - waitStart;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+        } catch (Exception e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            finishWriters(queue, writers, writerFutures, failure);
+        }
+
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+
+        logger.info("Task [{}], Table [{}]: Pipelined copy finished. Batches: {}, rows written: {}, writers: {}, reader blocked by backpressure: {}ms",
+                taskId, tableName, batchesRead, rowsWritten.get(), writerThreads, TimeUnit.NANOSECONDS.toMillis(readerBlockedNanos));
+        return rowsWritten.get();
+    }
+
+    private long copySerially(SourceTableReader reader, BatchWriter writer) throws Exception {
+        long rowsWritten = 0;
+        RowBatch batch;
+        while (!(batch = reader.nextBatch()).isEmpty()) {
+            rowsWritten += writer.write(batch);
+        }
+        return rowsWritten;
+    }
+
+    private void drain(BlockingQueue<RowBatch> queue, BatchWriter writer,
+                       AtomicReference<Exception> failure, AtomicLong rowsWritten) {
+        try {
+            while (true) {
+                if (failure.get() != null) {
+                    return; // Another thread failed, the caller discards what is left
+                }
+                // Poll instead of take: a driver may swallow the interrupt sent on failure
+                RowBatch batch = queue.poll(OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (batch == null) {
+                    continue;
+                }
+                if (batch == END_OF_DATA) {
+                    return;
+                }
+                try {
+                    rowsWritten.addAndGet(writer.write(batch));
+                } catch (Exception e) {
+                    failure.compareAndSet(null, e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void finishWriters(BlockingQueue<RowBatch> queue, ExecutorService writers,
+                               List<Future<?>> writerFutures, AtomicReference<Exception> failure) {
+        if (failure.get() != null) {
+            queue.clear();
+            writers.shutdownNow();
+            awaitWriters(writers);
+            return;
+        }
+
+        try {
+            for (int i = 0; i < writerThreads; i++) {
+                while (!queue.offer(END_OF_DATA, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                    if (failure.get() != null) {
+                        queue.clear();
+                    }
+                }
+            }
+            writers.shutdown();
+            for (Future<?> future : writerFutures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+            writers.shutdownNow();
+            awaitWriters(writers);
+        } catch (ExecutionException e) {
+            failure.compareAndSet(null, new RuntimeException("Writer thread failed", e.getCause()));
+            writers.shutdownNow();
+            awaitWriters(writers);
+        }
+    }
+
+    /**
+     * 等待所有写线程真正退出后才返回：正在write()中的写线程可能不响应中断，
+     * 调用方随后会关闭写连接、保存断点和重建索引，不能与未完成的批次并发执行
+     */
+    private void awaitWriters(ExecutorService writers) {
+        boolean interrupted = Thread.interrupted();
+        try {
+            while (true) {
+                try {
+                    if (writers.awaitTermination(TERMINATION_LOG_INTERVAL_SECONDS, TimeUnit.SECONDS)) {
+                        return;
+                    }
+                    logger.warn("Still waiting for writer threads to finish their current batch after a failure");
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.dbsync.dbsync.sync;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 单张目标表的批量INSERT写入器
+ *
+ * 表同步开始时创建，结束时关闭。INSERT计划按列布局生成一次；预编译语句固定在从连接池借出的连接上，
+ * 写完一个批次后放回空闲队列供下一个批次复用，因此每个并发写线程只预编译一次，
+ * 而不是每个批次都重新拼接SQL、借连接和预编译。
+ * 每个批次在固定连接上单独一个事务中提交，失败时回滚，不会留下部分写入的行。
+ * 语句执行失败时连接状态不可信，直接关闭该语句和连接，下次写入重新预编译。
+ */
+public class PreparedInsertWriter implements TableWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(PreparedInsertWriter.class);
+
+    private final DataSource dataSource;
+    private final String targetTableName;
+    private final Function<ColumnLayout, InsertPlan> planner;
+
+    private final Map<ColumnLayout, InsertPlan> plans = new ConcurrentHashMap<>();
+    private final Map<String, Queue<PinnedStatement>> idleStatements = new ConcurrentHashMap<>();
+    private final List<PinnedStatement> openStatements = new ArrayList<>();
+    private final AtomicInteger prepareCount = new AtomicInteger();
+    private volatile boolean closed;
+
+    public PreparedInsertWriter(DataSource dataSource, String targetTableName) {
+        this(dataSource, targetTableName, (String) null);
+    }
+
+    /**
+     * @param insertHint INSERT语句的优化器提示，如Oracle直接路径插入的APPEND_VALUES；null表示不加提示
+     */
+    public PreparedInsertWriter(DataSource dataSource, String targetTableName, String insertHint) {
+        this(dataSource, targetTableName, layout -> InsertPlan.of(targetTableName, layout, insertHint));
+    }
+
+    /**
+     * @param planner 按列布局生成语句计划，如增量同步的InsertPlan.upsert
+     */
+    public PreparedInsertWriter(DataSource dataSource, String targetTableName, Function<ColumnLayout, InsertPlan> planner) {
+        this.dataSource = dataSource;
+        this.targetTableName = targetTableName;
+        this.planner = planner;
+    }
+
+    @Override
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    /**
+     * 获取布局对应的插入计划，每个布局只生成一次
+     * 分片并行读取时每个读取器有自己的布局实例，生成的SQL相同，共用同一组预编译语句
+     */
+    public InsertPlan planFor(ColumnLayout layout) {
+        return plans.computeIfAbsent(layout, planner);
+    }
+
+    @Override
+    public int write(RowBatch batch) throws SQLException {
+        int rowsAffected = 0;
+        for (int rows : insert(batch)) {
+            if (rows > 0) {
+                rowsAffected += rows;
+            } else if (rows == Statement.SUCCESS_NO_INFO) {
+                rowsAffected += 1; // Count SUCCESS_NO_INFO as one row affected for progress tracking
+            }
+        }
+        return rowsAffected;
+    }
+
+    @Override
+    public boolean isAtomicPerBatch() {
+        return true;
+    }
+
+    @Override
+    public String describe(ColumnLayout layout) {
+        return planFor(layout).getSql();
+    }
+
+    @Override
+    public String summary() {
+        return "INSERT prepared " + prepareCount.get() + " time(s)";
+    }
+
+    /**
+     * 写入一个批次，返回executeBatch的结果
+     */
+    public int[] insert(RowBatch batch) throws SQLException {
+        InsertPlan plan = planFor(batch.getLayout());
+        PinnedStatement pinned = acquire(plan);
+        boolean reusable = false;
+        try {
+            int[] result = pinned.execute(plan, batch);
+            reusable = true;
+            return result;
+        } finally {
+            if (reusable && !closed) {
+                idleStatements.get(plan.getSql()).offer(pinned);
+            } else {
+                discard(pinned);
+            }
+        }
+    }
+
+    /**
+     * 预编译次数（即同时写入该表的最大连接数，加上失败后重建的次数）
+     */
+    public int getPrepareCount() {
+        return prepareCount.get();
+    }
+
+    private PinnedStatement acquire(InsertPlan plan) throws SQLException {
+        if (closed) {
+            throw new IllegalStateException("Insert writer for " + targetTableName + " is closed");
+        }
+        PinnedStatement idle = idleStatements.computeIfAbsent(plan.getSql(), sql -> new ConcurrentLinkedQueue<>()).poll();
+        if (idle != null) {
+            return idle;
+        }
+
+        Connection connection = dataSource.getConnection();
+        try {
+            connection.setAutoCommit(false);
+            PinnedStatement pinned = new PinnedStatement(connection, connection.prepareStatement(plan.getSql()), plan);
+            synchronized (openStatements) {
+                openStatements.add(pinned);
+            }
+            logger.debug("Table [{}]: Prepared INSERT #{} on a pinned connection: {}", targetTableName, prepareCount.incrementAndGet(), plan);
+            return pinned;
+        } catch (SQLException | RuntimeException e) {
+            restoreAutoCommit(connection);
+            connection.close();
+            throw e;
+        }
+    }
+
+    private void restoreAutoCommit(Connection connection) {
+        try {
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            logger.warn("Table [{}]: Failed to restore autocommit on pinned connection: {}", targetTableName, e.getMessage());
+        }
+    }
+
+    private void discard(PinnedStatement pinned) {
+        synchronized (openStatements) {
+            openStatements.remove(pinned);
+        }
+        pinned.close();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        List<PinnedStatement> toClose;
+        synchronized (openStatements) {
+            toClose = new ArrayList<>(openStatements);
+            openStatements.clear();
+        }
+        for (PinnedStatement pinned : toClose) {
+            pinned.close();
+        }
+        idleStatements.clear();
+    }
+
+    /**
+     * 固定在一个连接上的预编译INSERT语句，同一时间只被一个写线程使用
+     */
+    private class PinnedStatement {
+        private final Connection connection;
+        private final PreparedStatement statement;
+        private final int[] nullTypes;
+
+        PinnedStatement(Connection connection, PreparedStatement statement, InsertPlan plan) {
+            this.connection = connection;
+            this.statement = statement;
+            this.nullTypes = resolveNullTypes(statement, plan.getPositions().length);
+        }
+
+        int[] execute(InsertPlan plan, RowBatch batch) throws SQLException {
+            int[] positions = plan.getPositions();
+            try {
+                for (Object[] row : batch.getRows()) {
+                    for (int i = 0; i < positions.length; i++) {
+                        Object value = row[positions[i]];
+                        if (value == null && nullTypes != null) {
+                            statement.setNull(i + 1, nullTypes[i]);
+                        } else {
+                            statement.setObject(i + 1, value);
+                        }
+                    }
+                    statement.addBatch();
+                }
+                int[] result = statement.executeBatch();
+                connection.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                try {
+                    connection.rollback();
+                } catch (SQLException rollbackError) {
+                    e.addSuppressed(rollbackError);
+                }
+                throw e;
+            } finally {
+                statement.clearBatch();
+            }
+        }
+
+        void close() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                logger.warn("Table [{}]: Failed to close INSERT statement: {}", targetTableName, e.getMessage());
+            }
+            restoreAutoCommit(connection);
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                logger.warn("Table [{}]: Failed to return pinned connection: {}", targetTableName, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 通过参数元数据解析目标列的JDBC类型，用于绑定NULL
+     * 驱动不支持参数元数据时返回null，NULL值按setObject(null)绑定
+     */
+    private int[] resolveNullTypes(PreparedStatement statement, int parameterCount) {
+        try {
+            ParameterMetaData metaData = statement.getParameterMetaData();
+            int[] types = new int[parameterCount];
+            for (int i = 0; i < parameterCount; i++) {
+                int type = metaData.getParameterType(i + 1);
+                types[i] = type == Types.OTHER ? Types.NULL : type;
+            }
+            return types;
+        } catch (SQLException | RuntimeException e) {
+            logger.debug("Table [{}]: Parameter metadata unavailable, binding NULLs untyped: {}", targetTableName, e.getMessage());
+            return null;
+        }
+    }
+}
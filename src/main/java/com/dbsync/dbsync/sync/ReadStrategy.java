@@ -0,0 +1,27 @@
+package com.dbsync.dbsync.sync;
+
+/**
+ * 源表读取方式
+ */
+public enum ReadStrategy {
+    /**
+     * 基于主键/唯一索引的键集分页：WHERE key > :lastKey ORDER BY key
+     */
+    KEYSET,
+    /**
+     * Oracle ROWID定位分页（无可用键时）
+     */
+    ROWID,
+    /**
+     * PostgreSQL ctid定位分页（无可用键时）
+     */
+    CTID,
+    /**
+     * 单次前向只读游标流式读取（无可用键时）
+     */
+    CURSOR,
+    /**
+     * 传统LIMIT/OFFSET分页（兜底）
+     */
+    OFFSET
+}
@@ -0,0 +1,79 @@
+package com.dbsync.dbsync.sync;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 按列位置存放的一批数据
+ * 同一张表的所有批次共享一个ColumnLayout，每行是与布局列顺序一致的Object[]
+ */
+public final class RowBatch {
+
+    private static final RowBatch EMPTY = new RowBatch(null, Collections.<Object[]>emptyList());
+
+    private final ColumnLayout layout;
+    private final List<Object[]> rows;
+
+    public RowBatch(ColumnLayout layout, List<Object[]> rows) {
+        this.layout = layout;
+        this.rows = rows;
+    }
+
+    public RowBatch(ColumnLayout layout, int expectedRows) {
+        this(layout, new ArrayList<>(expectedRows));
+    }
+
+    /**
+     * 空批次，表示数据已读完
+     */
+    public static RowBatch empty() {
+        return EMPTY;
+    }
+
+    public ColumnLayout getLayout() {
+        return layout;
+    }
+
+    public List<Object[]> getRows() {
+        return rows;
+    }
+
+    public void add(Object[] row) {
+        rows.add(row);
+    }
+
+    public int size() {
+        return rows.size();
+    }
+
+    public boolean isEmpty() {
+        return rows.isEmpty();
+    }
+
+    public Object get(int row, int position) {
+        return rows.get(row)[position];
+    }
+
+    /**
+     * 估算批次载荷字节数，用于自适应批次大小
+     * 字符串按每字符2字节，二进制按实际长度，其他值按固定大小估算
+     */
+    public long estimateBytes() {
+        long bytes = 0;
+        for (Object[] row : rows) {
+            for (Object value : row) {
+                if (value == null) {
+                    bytes += 1;
+                } else if (value instanceof CharSequence) {
+                    bytes += 2L * ((CharSequence) value).length();
+                } else if (value instanceof byte[]) {
+                    bytes += ((byte[]) value).length;
+                } else {
+                    bytes += 16;
+                }
+            }
+        }
+        return bytes;
+    }
+}
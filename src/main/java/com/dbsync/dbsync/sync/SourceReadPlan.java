@@ -0,0 +1,131 @@
+package com.dbsync.dbsync.sync;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 源表读取计划
+ * 在表同步开始时确定一次：使用哪种分页方式，以及用哪些列定位下一页
+ */
+public class SourceReadPlan {
+
+    /**
+     * ROWID/ctid定位分页时附加的伪列别名，以"__"开头，插入目标表时会被过滤掉
+     */
+    public static final String ROW_LOCATOR_COLUMN = "__dbsync_rid";
+
+    private final ReadStrategy strategy;
+    private final List<String> keyColumns;
+
+    private SourceReadPlan(ReadStrategy strategy, List<String> keyColumns) {
+        this.strategy = strategy;
+        this.keyColumns = Collections.unmodifiableList(new ArrayList<>(keyColumns));
+    }
+
+    public static SourceReadPlan keyset(List<String> keyColumns) {
+        if (keyColumns == null || keyColumns.isEmpty()) {
+            throw new IllegalArgumentException("Keyset pagination requires at least one key column");
+        }
+        return new SourceReadPlan(ReadStrategy.KEYSET, keyColumns);
+    }
+
+    public static SourceReadPlan rowLocator(ReadStrategy strategy) {
+        if (strategy != ReadStrategy.ROWID && strategy != ReadStrategy.CTID) {
+            throw new IllegalArgumentException("Unsupported row locator strategy: " + strategy);
+        }
+        return new SourceReadPlan(strategy, Collections.singletonList(ROW_LOCATOR_COLUMN));
+    }
+
+    public static SourceReadPlan cursor() {
+        return new SourceReadPlan(ReadStrategy.CURSOR, Collections.<String>emptyList());
+    }
+
+    public static SourceReadPlan offset() {
+        return new SourceReadPlan(ReadStrategy.OFFSET, Collections.<String>emptyList());
+    }
+
+    public ReadStrategy getStrategy() {
+        return strategy;
+    }
+
+    public List<String> getKeyColumns() {
+        return keyColumns;
+    }
+
+    /**
+     * 是否按键定位下一页（每页代价与表深度无关）
+     */
+    public boolean isKeyBased() {
+        return strategy == ReadStrategy.KEYSET || strategy == ReadStrategy.ROWID || strategy == ReadStrategy.CTID;
+    }
+
+    /**
+     * 构建键集分页查询参数，lastKeyValues为null表示读取第一页
+     */
+    public Map<String, Object> buildQueryParams(String dbType, String tableName, String schemaName,
+                                                long size, List<Object> lastKeyValues) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("dbType", dbType);
+        params.put("tableName", tableName);
+        params.put("schemaName", schemaName);
+        params.put("strategy", strategy.name());
+        params.put("keyColumns", keyColumns);
+        params.put("size", size);
+        params.put("lastKeyValues", lastKeyValues);
+        return params;
+    }
+
+    /**
+     * 从一批数据的最后一行中提取下一页的起始键
+     * 结果集列名大小写因数据库而异，因此按忽略大小写匹配
+     */
+    public List<Object> extractLastKey(List<Map<String, Object>> batchData) {
+        if (!isKeyBased() || batchData == null || batchData.isEmpty()) {
+            return null;
+        }
+        Map<String, Object> lastRow = batchData.get(batchData.size() - 1);
+        List<Object> values = new ArrayList<>(keyColumns.size());
+        for (String keyColumn : keyColumns) {
+            String resultKey = resolveResultKey(lastRow, keyColumn);
+            if (resultKey == null) {
+                throw new IllegalStateException("Key column " + keyColumn + " not found in result row: " + lastRow.keySet());
+            }
+            values.add(lastRow.get(resultKey));
+        }
+        return values;
+    }
+
+    /**
+     * 解析键列在结果集布局中的位置，每张表只需解析一次
+     */
+    public int[] resolveKeyPositions(ColumnLayout layout) {
+        int[] positions = new int[keyColumns.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = layout.indexOf(keyColumns.get(i));
+            if (positions[i] < 0) {
+                throw new IllegalStateException("Key column " + keyColumns.get(i) + " not found in result columns: " + layout);
+            }
+        }
+        return positions;
+    }
+
+    private String resolveResultKey(Map<String, Object> row, String column) {
+        if (row.containsKey(column)) {
+            return column;
+        }
+        for (String key : row.keySet()) {
+            if (key.equalsIgnoreCase(column)) {
+                return key;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return strategy + (keyColumns.isEmpty() ? "" : keyColumns.toString());
+    }
+}
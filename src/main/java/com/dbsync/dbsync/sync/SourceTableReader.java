@@ -0,0 +1,21 @@
+package com.dbsync.dbsync.sync;
+
+/**
+ * 源表数据读取器
+ * 按批次向下游提供数据，返回空批次表示数据已读完
+ */
+public interface SourceTableReader extends AutoCloseable {
+
+    /**
+     * 读取下一批数据
+     */
+    RowBatch nextBatch() throws Exception;
+
+    /**
+     * 读取方式描述，用于日志
+     */
+    String describe();
+
+    @Override
+    void close() throws Exception;
+}
@@ -0,0 +1,177 @@
+package com.dbsync.dbsync.sync;
+
+import com.microsoft.sqlserver.jdbc.ISQLServerBulkData;
+import com.microsoft.sqlserver.jdbc.ISQLServerConnection;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCopy;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCopyOptions;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Types;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SQL Server目标表的批量复制写入器
+ *
+ * 每个批次通过SQLServerBulkCopy以TDS批量加载协议写入，而不是逐行执行参数化INSERT。
+ * 批量复制在驱动端按声明的精度/小数位编码DECIMAL，因此源列为未指定精度的数值（如Oracle NUMBER）时
+ * 不使用批量复制，抛出SQLFeatureNotSupportedException交由调用方回退到INSERT。
+ */
+public class SqlServerBulkCopyWriter implements TableWriter {
+
+    private final DataSource dataSource;
+    private final String targetTableName;
+    private final int timeoutSeconds;
+    private final AtomicLong bulkCopyCount = new AtomicLong();
+
+    public SqlServerBulkCopyWriter(DataSource dataSource, String targetTableName, int timeoutSeconds) {
+        this.dataSource = dataSource;
+        this.targetTableName = targetTableName;
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    @Override
+    public int write(RowBatch batch) throws SQLException {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        ColumnLayout layout = batch.getLayout();
+        String unsupported = findUnsupportedColumn(layout);
+        if (unsupported != null) {
+            throw new SQLFeatureNotSupportedException("Bulk copy needs a declared precision and scale for numeric column " + unsupported);
+        }
+
+        try (Connection connection = dataSource.getConnection()) {
+            SQLServerBulkCopyOptions options = new SQLServerBulkCopyOptions();
+            // One internal transaction per batch: a failed batch leaves nothing behind, so it can be retried or re-sent by INSERT
+            options.setUseInternalTransaction(true);
+            options.setKeepNulls(true);
+            options.setBulkCopyTimeout(timeoutSeconds);
+
+            try (SQLServerBulkCopy bulkCopy = new SQLServerBulkCopy(connection.unwrap(ISQLServerConnection.class))) {
+                bulkCopy.setBulkCopyOptions(options);
+                bulkCopy.setDestinationTableName(targetTableName);
+                List<String> columnNames = layout.getInsertColumnNames();
+                for (int i = 0; i < columnNames.size(); i++) {
+                    bulkCopy.addColumnMapping(i + 1, columnNames.get(i).toLowerCase());
+                }
+                bulkCopy.writeToServer(new RowBatchBulkData(batch));
+            }
+        }
+        bulkCopyCount.incrementAndGet();
+        return batch.size();
+    }
+
+    @Override
+    public boolean isAtomicPerBatch() {
+        return true; // setUseInternalTransaction(true)
+    }
+
+    @Override
+    public String describe(ColumnLayout layout) {
+        return "BULK COPY " + targetTableName + " " + layout.getInsertColumnNames();
+    }
+
+    @Override
+    public String summary() {
+        return "BULK COPY executed " + bulkCopyCount.get() + " time(s)";
+    }
+
+    @Override
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    @Override
+    public void close() {
+        // Connections are borrowed per batch, nothing is held between batches
+    }
+
+    /**
+     * 返回第一个无法按声明精度批量复制的数值列，全部支持时返回null
+     */
+    static String findUnsupportedColumn(ColumnLayout layout) {
+        for (int position : layout.getInsertPositions()) {
+            int type = layout.getJdbcType(position);
+            if ((type == Types.NUMERIC || type == Types.DECIMAL)
+                    && (layout.getPrecision(position) <= 0 || layout.getScale(position) < 0)) {
+                return layout.getColumnName(position);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 把一个RowBatch暴露为批量复制的数据源，只包含插入列
+     */
+    private static final class RowBatchBulkData implements ISQLServerBulkData {
+        private static final long serialVersionUID = 1L;
+
+        private final transient RowBatch batch;
+        private final int[] positions;
+        private final Set<Integer> ordinals = new LinkedHashSet<>();
+        private int current = -1;
+
+        RowBatchBulkData(RowBatch batch) {
+            this.batch = batch;
+            this.positions = batch.getLayout().getInsertPositions();
+            for (int i = 1; i <= positions.length; i++) {
+                ordinals.add(i);
+            }
+        }
+
+        @Override
+        public Set<Integer> getColumnOrdinals() {
+            return ordinals;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return batch.getLayout().getColumnName(positions[column - 1]);
+        }
+
+        @Override
+        public int getColumnType(int column) {
+            int type = batch.getLayout().getJdbcType(positions[column - 1]);
+            switch (type) {
+                case Types.CLOB:
+                case Types.NCLOB:
+                    return Types.LONGNVARCHAR; // Materialized as String by ColumnLayout.readRow
+                case Types.BLOB:
+                    return Types.LONGVARBINARY; // Materialized as byte[]
+                default:
+                    return type;
+            }
+        }
+
+        @Override
+        public int getPrecision(int column) {
+            return batch.getLayout().getPrecision(positions[column - 1]);
+        }
+
+        @Override
+        public int getScale(int column) {
+            return batch.getLayout().getScale(positions[column - 1]);
+        }
+
+        @Override
+        public Object[] getRowData() {
+            Object[] row = batch.getRows().get(current);
+            Object[] data = new Object[positions.length];
+            for (int i = 0; i < positions.length; i++) {
+                data[i] = row[positions[i]];
+            }
+            return data;
+        }
+
+        @Override
+        public boolean next() {
+            return ++current < batch.size();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.dbsync.dbsync.sync;
+
+import com.dbsync.dbsync.entity.ForeignKeyInfo;
+import com.dbsync.dbsync.entity.IndexInfo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 影子表加载：数据写入无索引的影子表，建好索引后用改名替换原表
+ * 替换语句按目标方言生成：
+ * - PostgreSQL/Vastbase、SQL Server：DDL可在事务内执行，改名、删除旧表和索引改名在一个事务中完成
+ * - MySQL：RENAME TABLE一条语句原子地交换两张表
+ * - Oracle/达梦：DDL自动提交，两次ALTER TABLE RENAME之间有极短的窗口原表不存在
+ *
+ * 替换后原表的主键、索引和原表自身声明的外键会重建到新表上；检查约束、触发器和授权不会带过来，
+ * 新表只有按源表结构创建的列定义。被其他表的外键引用的表不做影子表替换（子表外键会跟着改名指向旧表），改为清空后写入。
+ */
+public final class StagingSwap {
+
+    public static final String STAGING_SUFFIX = "__staging";
+    public static final String OLD_SUFFIX = "__old";
+    public static final String STAGING_INDEX_SUFFIX = "__stg";
+
+    private static final Set<String> SUPPORTED = new HashSet<>(Arrays.asList(
+            "postgresql", "vastbase", "mysql", "sqlserver", "oracle", "dameng"));
+
+    private StagingSwap() {
+    }
+
+    public static boolean supports(String dbType) {
+        return SUPPORTED.contains(dbType.toLowerCase());
+    }
+
+    /**
+     * 替换语句是否需要在一个事务中执行（DDL可回滚的数据库）
+     */
+    public static boolean isTransactional(String dbType) {
+        switch (dbType.toLowerCase()) {
+            case "postgresql":
+            case "vastbase":
+            case "sqlserver":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    public static String stagingTableName(String dbType, String tableName) {
+        return IndexDdl.suffixed(dbType, tableName.toLowerCase(), STAGING_SUFFIX);
+    }
+
+    public static String oldTableName(String dbType, String tableName) {
+        return IndexDdl.suffixed(dbType, tableName.toLowerCase(), OLD_SUFFIX);
+    }
+
+    /**
+     * 影子表上使用的索引名：schema内唯一的名称加临时后缀，避免与原表的索引冲突，替换后再改回原名
+     */
+    public static String stagingIndexName(String dbType, IndexInfo index) {
+        return IndexDdl.isSchemaScoped(dbType, index)
+                ? IndexDdl.suffixed(dbType, index.getIndexName(), STAGING_INDEX_SUFFIX)
+                : index.getIndexName();
+    }
+
+    public static String dropTableSql(String dbType, String tableName) {
+        return "DROP TABLE " + tableName + ("oracle".equalsIgnoreCase(dbType) ? " PURGE" : "");
+    }
+
+    /**
+     * 用影子表替换原表的全部语句：原表改名为旧表，影子表改名为原表，删除旧表，再把索引改回原名
+     *
+     * @param indexes 原表的主键和索引定义（影子表上已按stagingIndexName建好）
+     */
+    public static List<String> swapSql(String dbType, String tableName, String stagingTableName, List<IndexInfo> indexes) {
+        String liveTableName = tableName.toLowerCase();
+        String oldTableName = oldTableName(dbType, tableName);
+        List<String> statements = new ArrayList<>();
+        switch (dbType.toLowerCase()) {
+            case "mysql":
+                statements.add("RENAME TABLE " + liveTableName + " TO " + oldTableName + ", " + stagingTableName + " TO " + liveTableName);
+                break;
+            case "sqlserver":
+                statements.add("EXEC sp_rename '" + liveTableName + "', '" + oldTableName + "'");
+                statements.add("EXEC sp_rename '" + stagingTableName + "', '" + liveTableName + "'");
+                break;
+            default:
+                statements.add("ALTER TABLE " + liveTableName + " RENAME TO " + oldTableName);
+                statements.add("ALTER TABLE " + stagingTableName + " RENAME TO " + liveTableName);
+                break;
+        }
+        statements.add(dropTableSql(dbType, oldTableName));
+        for (IndexInfo index : indexes != null ? indexes : Collections.<IndexInfo>emptyList()) {
+            String stagingIndexName = stagingIndexName(dbType, index);
+            if (!stagingIndexName.equals(index.getIndexName())) {
+                statements.addAll(IndexDdl.renameSql(dbType, liveTableName, index, stagingIndexName, index.getIndexName()));
+            }
+        }
+        return statements;
+    }
+
+    /**
+     * 引用该表的其他表（自引用不算），有这样的表时不能做影子表替换
+     *
+     * @param foreignKeys 该表相关的外键（自身声明的和引用它的）
+     */
+    public static Set<String> referencingTables(String tableName, List<ForeignKeyInfo> foreignKeys) {
+        Set<String> tables = new LinkedHashSet<>();
+        for (ForeignKeyInfo foreignKey : foreignKeys) {
+            if (tableName.equalsIgnoreCase(foreignKey.getReferencedTableName())
+                    && !tableName.equalsIgnoreCase(foreignKey.getTableName())) {
+                tables.add(foreignKey.getTableName());
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * 该表自身声明的外键（含自引用），替换后需要在新表上重建
+     */
+    public static List<ForeignKeyInfo> ownForeignKeys(String tableName, List<ForeignKeyInfo> foreignKeys) {
+        List<ForeignKeyInfo> own = new ArrayList<>();
+        for (ForeignKeyInfo foreignKey : foreignKeys) {
+            if (tableName.equalsIgnoreCase(foreignKey.getTableName())) {
+                own.add(foreignKey);
+            }
+        }
+        return own;
+    }
+}
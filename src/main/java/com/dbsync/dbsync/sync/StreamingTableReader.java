@@ -0,0 +1,131 @@
+package com.dbsync.dbsync.sync;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.IntSupplier;
+
+/**
+ * 流式读取器：对整张表只执行一次查询，通过前向只读游标按批次交给下游
+ * 内存占用只与批次大小有关，不随表大小增长
+ *
+ * 各数据库的游标设置：
+ * - PostgreSQL/Vastbase：关闭自动提交后setFetchSize才会使用服务端游标
+ * - MySQL：在该语句上开启逐行流式读取（fetchSize为Integer.MIN_VALUE），不依赖连接池URL上的useCursorFetch；
+ *   连接串自带useCursorFetch=true时仍按fetchSize取数
+ * - Oracle：fetchSize即行预取数量
+ * - SQL Server/达梦：fetchSize控制每次往返的行数
+ */
+public class StreamingTableReader implements SourceTableReader {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamingTableReader.class);
+
+    private final Connection connection;
+    private final String dbType;
+    private final String tableName;
+    private final IntSupplier batchSize;
+    private final int fetchSize;
+
+    private Statement statement;
+    private ResultSet resultSet;
+    private ColumnLayout layout;
+    private Boolean originalAutoCommit;
+    private boolean exhausted;
+
+    public StreamingTableReader(Connection connection, String dbType, String tableName, int batchSize, int fetchSize) {
+        this(connection, dbType, tableName, () -> batchSize, fetchSize);
+    }
+
+    /**
+     * @param batchSize 每批行数，每批开始前读取一次（可由AdaptiveBatchSizer动态调整）
+     */
+    public StreamingTableReader(Connection connection, String dbType, String tableName, IntSupplier batchSize, int fetchSize) {
+        this.connection = connection;
+        this.dbType = dbType.toLowerCase();
+        this.tableName = tableName;
+        this.batchSize = batchSize;
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public RowBatch nextBatch() throws SQLException {
+        if (exhausted) {
+            return RowBatch.empty();
+        }
+        if (resultSet == null) {
+            open();
+        }
+
+        int rowsWanted = batchSize.getAsInt();
+        RowBatch batch = new RowBatch(layout, rowsWanted);
+        while (batch.size() < rowsWanted && resultSet.next()) {
+            batch.add(layout.readRow(resultSet));
+        }
+        if (batch.size() < rowsWanted) {
+            exhausted = true;
+        }
+        return batch;
+    }
+
+    private void open() throws SQLException {
+        if ("postgresql".equals(dbType) || "vastbase".equals(dbType)) {
+            originalAutoCommit = connection.getAutoCommit();
+            if (originalAutoCommit) {
+                connection.setAutoCommit(false);
+            }
+        }
+
+        statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(resolveFetchSize());
+        resultSet = statement.executeQuery("SELECT * FROM " + tableName);
+
+        layout = ColumnLayout.fromMetaData(resultSet.getMetaData());
+        logger.debug("Table [{}]: Opened streaming cursor ({}, fetch size {})", tableName, dbType, statement.getFetchSize());
+    }
+
+    private int resolveFetchSize() throws SQLException {
+        if ("mysql".equals(dbType)) {
+            String url = connection.getMetaData().getURL();
+            if (url == null || !url.toLowerCase().contains("usecursorfetch=true")) {
+                // Without cursor fetch Connector/J buffers the whole result; MIN_VALUE switches it to row streaming
+                return Integer.MIN_VALUE;
+            }
+        }
+        return fetchSize;
+    }
+
+    @Override
+    public String describe() {
+        return ReadStrategy.CURSOR + "[fetchSize=" + fetchSize + "]";
+    }
+
+    @Override
+    public void close() {
+        if (resultSet != null) {
+            try {
+                resultSet.close();
+            } catch (SQLException e) {
+                logger.warn("Table [{}]: Failed to close streaming result set: {}", tableName, e.getMessage());
+            }
+        }
+        if (statement != null) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                logger.warn("Table [{}]: Failed to close streaming statement: {}", tableName, e.getMessage());
+            }
+        }
+        if (originalAutoCommit != null && originalAutoCommit) {
+            try {
+                connection.commit();
+                connection.setAutoCommit(true);
+            } catch (SQLException e) {
+                logger.warn("Table [{}]: Failed to restore auto-commit after streaming read: {}", tableName, e.getMessage());
+            }
+        }
+    }
+}
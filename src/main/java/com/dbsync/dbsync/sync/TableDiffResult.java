@@ -0,0 +1,124 @@
+package com.dbsync.dbsync.sync;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 一张表差异同步或校验的统计：比较的块数、两端行数、不一致的块以及写入目标库的插入/更新/删除行数
+ * 分块并行校验时每个线程各有一个结果，最后用merge合并
+ */
+public final class TableDiffResult {
+
+    private final List<TableRange> mismatchedRanges = new ArrayList<>();
+    private long sourceRows;
+    private long targetRows;
+    private long chunksCompared;
+    private long chunksMismatched;
+    private long rowsCompared;
+    private long inserted;
+    private long updated;
+    private long deleted;
+
+    void chunkCompared(boolean matched) {
+        chunksCompared++;
+        if (!matched) {
+            chunksMismatched++;
+        }
+    }
+
+    void rowsCounted(long sourceRowCount, long targetRowCount) {
+        sourceRows += sourceRowCount;
+        targetRows += targetRowCount;
+    }
+
+    void mismatched(TableRange chunk) {
+        mismatchedRanges.add(chunk);
+    }
+
+    void rowsCompared(long rows) {
+        rowsCompared += rows;
+    }
+
+    void inserted() {
+        inserted++;
+    }
+
+    void updated() {
+        updated++;
+    }
+
+    void deleted() {
+        deleted++;
+    }
+
+    /**
+     * 合并另一部分块的结果
+     */
+    public synchronized void merge(TableDiffResult other) {
+        mismatchedRanges.addAll(other.mismatchedRanges);
+        sourceRows += other.sourceRows;
+        targetRows += other.targetRows;
+        chunksCompared += other.chunksCompared;
+        chunksMismatched += other.chunksMismatched;
+        rowsCompared += other.rowsCompared;
+        inserted += other.inserted;
+        updated += other.updated;
+        deleted += other.deleted;
+    }
+
+    /**
+     * 不一致的块（已尽量拆分到chunkRows以内），null表示整张表
+     */
+    public List<TableRange> getMismatchedRanges() {
+        return mismatchedRanges;
+    }
+
+    public boolean isMatched() {
+        return mismatchedRanges.isEmpty();
+    }
+
+    public long getSourceRows() {
+        return sourceRows;
+    }
+
+    public long getTargetRows() {
+        return targetRows;
+    }
+
+    public long getChunksCompared() {
+        return chunksCompared;
+    }
+
+    public long getChunksMismatched() {
+        return chunksMismatched;
+    }
+
+    /**
+     * 逐行比较过的源表行数（只有不一致的块才逐行比较）
+     */
+    public long getRowsCompared() {
+        return rowsCompared;
+    }
+
+    public long getInserted() {
+        return inserted;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public long getDeleted() {
+        return deleted;
+    }
+
+    public long getRowsWritten() {
+        return inserted + updated + deleted;
+    }
+
+    @Override
+    public String toString() {
+        return sourceRows + " source/" + targetRows + " target rows, " + chunksMismatched + "/" + chunksCompared
+                + " chunks differed, " + rowsCompared + " rows compared, " + inserted + " inserted, " + updated + " updated, " + deleted + " deleted";
+    }
+}
@@ -0,0 +1,463 @@
+package com.dbsync.dbsync.sync;
+
+import com.dbsync.dbsync.mapper.TableMetadataSqlProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongConsumer;
+
+/**
+ * 按键区间比较源表和目标表，只把不同的行写入目标库
+ *
+ * 1. 对每个块（首个键列上的区间）分别在源和目标计算行数和校验值，相同则跳过
+ * 2. 不同的块如果行数超过chunkRows且键是整数，对半拆分后重新比较，只深入不一致的一半
+ * 3. 足够小的块逐行比较：目标行按键放入内存，逐行读取源行，缺少的插入、不同的更新，目标多出的行删除
+ * 写入通过ChangeApplier完成（UPSERT和按键删除），因此中途失败后重新执行是安全的。
+ * 只校验时（verify）不逐行比较也不写入，只记录不一致的块（拆分到chunkRows以内）。
+ */
+public class TableDiffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(TableDiffer.class);
+
+    private static final char KEY_SEPARATOR = '\u001f';
+
+    private final Side source;
+    private final Side target;
+    private final List<String> keyColumns;
+    private final ChangeApplier applier;
+    private final int chunkRows;
+    private final long maxCompareRows;
+    private final int applyBatchSize;
+    private final MessageDigest md5 = ChunkChecksum.newDigest();
+
+    private String[] columns;
+    private int[] keyPositions;
+    private boolean pushdown;
+
+    /**
+     * @param keyColumns     源表的键列（主键或非空唯一索引），首个键列用于划分块
+     * @param chunkRows      逐行比较的块大小，更大的不一致块先拆分
+     * @param maxCompareRows 无法拆分的块允许逐行比较的最大行数，超过时抛出ChunkTooLargeException
+     * @param applier        只校验时可以为null
+     */
+    public TableDiffer(Connection sourceConnection, String sourceDbType, String sourceTableName,
+                       Connection targetConnection, String targetDbType, String targetTableName,
+                       List<String> keyColumns, ChangeApplier applier, int chunkRows, long maxCompareRows, int applyBatchSize) {
+        this.source = new Side(sourceConnection, sourceDbType.toLowerCase(), sourceTableName, true);
+        this.target = new Side(targetConnection, targetDbType.toLowerCase(), targetTableName, false);
+        this.keyColumns = keyColumns;
+        this.applier = applier;
+        this.chunkRows = chunkRows;
+        this.maxCompareRows = maxCompareRows;
+        this.applyBatchSize = applyBatchSize;
+        this.pushdown = ChunkChecksum.supportsPushdown(sourceDbType, targetDbType);
+    }
+
+    /**
+     * 比较并同步给定的块
+     *
+     * @param chunks   首个键列上的KEY区间，合起来覆盖整张表；空列表表示整张表作为一个块
+     * @param progress 每比较完一个块，报告该块的源表行数
+     */
+    public TableDiffResult diff(List<TableRange> chunks, LongConsumer progress, BooleanSupplier stopRequested) throws SQLException {
+        return run(chunks, progress, stopRequested, true);
+    }
+
+    /**
+     * 只比较校验值，返回的结果中包含不一致的块，不写入目标库
+     */
+    public TableDiffResult verify(List<TableRange> chunks, BooleanSupplier stopRequested) throws SQLException {
+        return run(chunks, rows -> { }, stopRequested, false);
+    }
+
+    private TableDiffResult run(List<TableRange> chunks, LongConsumer progress, BooleanSupplier stopRequested,
+                                boolean repair) throws SQLException {
+        resolveColumns();
+        TableDiffResult result = new TableDiffResult();
+        List<TableRange> pending = new ArrayList<>();
+        if (chunks.isEmpty()) {
+            pending.add(null);
+        } else {
+            for (int i = chunks.size() - 1; i >= 0; i--) {
+                pending.add(chunks.get(i));
+            }
+        }
+
+        while (!pending.isEmpty()) {
+            if (stopRequested.getAsBoolean()) {
+                throw new CancellationException("Diff of table " + source.table + " stopped, " + result);
+            }
+            TableRange chunk = pending.remove(pending.size() - 1);
+            ChunkChecksum[] checksums = checksums(chunk);
+            boolean matched = checksums[0].equals(checksums[1]);
+            result.chunkCompared(matched);
+            long rows = Math.max(checksums[0].getRowCount(), checksums[1].getRowCount());
+            if (!matched) {
+                List<TableRange> halves = rows > chunkRows ? bisect(chunk) : null;
+                if (halves != null) {
+                    pending.add(halves.get(1));
+                    pending.add(halves.get(0));
+                    continue;
+                }
+            }
+            result.rowsCounted(checksums[0].getRowCount(), checksums[1].getRowCount());
+            if (!matched) {
+                result.mismatched(chunk);
+                if (!repair) {
+                    continue;
+                }
+                if (rows > maxCompareRows) {
+                    throw new ChunkTooLargeException("Chunk " + describe(chunk) + " of table " + source.table + " differs and has "
+                            + rows + " rows, more than the " + maxCompareRows + " rows that can be compared in memory");
+                }
+                compareRows(chunk, result);
+            }
+            progress.accept(checksums[0].getRowCount());
+        }
+        logger.info("Table [{}]: {} finished ({} checksums): {}", source.table, repair ? "Diff" : "Verification",
+                pushdown ? "database" : "client", result);
+        return result;
+    }
+
+    /**
+     * 参与比较的列：源表中在目标表也存在的列
+     */
+    private void resolveColumns() throws SQLException {
+        Set<String> targetColumns = new HashSet<>();
+        for (String column : columnNames(target)) {
+            targetColumns.add(column.toLowerCase());
+        }
+        List<String> common = new ArrayList<>();
+        for (String column : columnNames(source)) {
+            if (targetColumns.contains(column.toLowerCase())) {
+                common.add(column);
+            }
+        }
+        columns = common.toArray(new String[0]);
+        keyPositions = new int[keyColumns.size()];
+        for (int i = 0; i < keyColumns.size(); i++) {
+            keyPositions[i] = -1;
+            for (int j = 0; j < columns.length; j++) {
+                if (columns[j].equalsIgnoreCase(keyColumns.get(i))) {
+                    keyPositions[i] = j;
+                }
+            }
+            if (keyPositions[i] < 0) {
+                throw new IllegalStateException("Key column " + keyColumns.get(i) + " of table " + source.table + " is missing in the target");
+            }
+        }
+    }
+
+    private List<String> columnNames(Side side) throws SQLException {
+        try (Statement stmt = side.connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT * FROM " + side.table + " WHERE 1 = 0")) {
+            ResultSetMetaData metaData = rs.getMetaData();
+            List<String> names = new ArrayList<>(metaData.getColumnCount());
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                names.add(metaData.getColumnName(i));
+            }
+            return names;
+        }
+    }
+
+    private ChunkChecksum[] checksums(TableRange chunk) throws SQLException {
+        if (pushdown) {
+            try {
+                return new ChunkChecksum[]{databaseChecksum(source, chunk), databaseChecksum(target, chunk)};
+            } catch (SQLException e) {
+                // Both sides must use the same algorithm, so switch the whole table over to client-side hashing
+                logger.warn("Table [{}]: Database checksum failed, hashing rows on the client instead: {}", source.table, e.getMessage());
+                pushdown = false;
+            }
+        }
+        return new ChunkChecksum[]{clientChecksum(source, chunk), clientChecksum(target, chunk)};
+    }
+
+    private ChunkChecksum databaseChecksum(Side side, TableRange chunk) throws SQLException {
+        List<String> rendered = new ArrayList<>(columns.length);
+        for (String column : columns) {
+            rendered.add(side.column(column));
+        }
+        List<String> renderedKeys = new ArrayList<>(keyColumns.size());
+        for (String keyColumn : keyColumns) {
+            renderedKeys.add(side.column(keyColumn));
+        }
+        String sql = ChunkChecksum.buildPushdownSql(side.dbType, side.table, rendered, renderedKeys, rangePredicate(side, chunk));
+        try (PreparedStatement ps = side.connection.prepareStatement(sql)) {
+            bindRange(ps, chunk);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return new ChunkChecksum(rs.getLong(1), rs.getString(2));
+            }
+        }
+    }
+
+    private ChunkChecksum clientChecksum(Side side, TableRange chunk) throws SQLException {
+        long count = 0;
+        long sum = 0;
+        try (PreparedStatement ps = side.connection.prepareStatement(selectSql(side, chunk))) {
+            bindRange(ps, chunk);
+            try (ResultSet rs = ps.executeQuery()) {
+                int[] types = columnTypes(rs);
+                while (rs.next()) {
+                    count++;
+                    sum += ChunkChecksum.rowHash(md5, readValues(rs, types));
+                }
+            }
+        }
+        return new ChunkChecksum(count, Long.toHexString(sum));
+    }
+
+    private void compareRows(TableRange chunk, TableDiffResult result) throws SQLException {
+        Map<String, TargetRow> targetRows = new HashMap<>();
+        try (PreparedStatement ps = target.connection.prepareStatement(selectSql(target, chunk))) {
+            bindRange(ps, chunk);
+            try (ResultSet rs = ps.executeQuery()) {
+                int[] types = columnTypes(rs);
+                while (rs.next()) {
+                    Object[] values = readValues(rs, types);
+                    targetRows.put(keyText(values), new TargetRow(keyValues(values), ChunkChecksum.rowHash(md5, values)));
+                }
+            }
+        }
+
+        List<ChangeEvent> events = new ArrayList<>();
+        try (PreparedStatement ps = source.connection.prepareStatement(selectSql(source, chunk))) {
+            bindRange(ps, chunk);
+            try (ResultSet rs = ps.executeQuery()) {
+                int[] types = columnTypes(rs);
+                while (rs.next()) {
+                    Object[] values = readValues(rs, types);
+                    result.rowsCompared(1);
+                    TargetRow existing = targetRows.remove(keyText(values));
+                    if (existing == null) {
+                        events.add(new ChangeEvent(ChangeEvent.Operation.INSERT, null, source.table, columns, values, null, null));
+                        result.inserted();
+                    } else if (existing.hash != ChunkChecksum.rowHash(md5, values)) {
+                        events.add(new ChangeEvent(ChangeEvent.Operation.UPDATE, null, source.table, columns, values, null, null));
+                        result.updated();
+                    }
+                    if (events.size() >= applyBatchSize) {
+                        applier.apply(events);
+                        events.clear();
+                    }
+                }
+            }
+        }
+
+        String[] keyNames = keyColumns.toArray(new String[0]);
+        for (TargetRow extra : targetRows.values()) {
+            events.add(new ChangeEvent(ChangeEvent.Operation.DELETE, null, source.table, keyNames, extra.keyValues, null, null));
+            result.deleted();
+            if (events.size() >= applyBatchSize) {
+                applier.apply(events);
+                events.clear();
+            }
+        }
+        applier.apply(events);
+    }
+
+    /**
+     * 把不一致的块按首个键列对半拆分，开放的边界先用两端实际的最小/最大键值收紧；无法拆分时返回null
+     */
+    private List<TableRange> bisect(TableRange chunk) throws SQLException {
+        if (chunk == null || chunk.getKind() != TableRange.Kind.KEY) {
+            return null;
+        }
+        BigInteger lower = toBigInteger(chunk.getLower());
+        BigInteger upper = toBigInteger(chunk.getUpper());
+        if (lower == null || upper == null) {
+            BigInteger[] sourceBounds = keyBounds(source, chunk);
+            BigInteger[] targetBounds = keyBounds(target, chunk);
+            if (lower == null) {
+                lower = min(sourceBounds[0], targetBounds[0]);
+            }
+            if (upper == null) {
+                BigInteger max = max(sourceBounds[1], targetBounds[1]);
+                upper = max == null ? null : max.add(BigInteger.ONE);
+            }
+        }
+        if (lower == null || upper == null || upper.subtract(lower).compareTo(BigInteger.valueOf(2)) < 0) {
+            return null;
+        }
+        Object middle = TableRange.keyBound(lower.add(upper.subtract(lower).shiftRight(1)));
+        return Arrays.asList(TableRange.keyRange(chunk.getIndex(), chunk.getColumn(), TableRange.keyBound(lower), middle),
+                TableRange.keyRange(chunk.getIndex(), chunk.getColumn(), middle, TableRange.keyBound(upper)));
+    }
+
+    private BigInteger[] keyBounds(Side side, TableRange chunk) throws SQLException {
+        String column = side.column(chunk.getColumn());
+        String where = rangePredicate(side, chunk);
+        String sql = "SELECT MIN(" + column + "), MAX(" + column + ") FROM " + side.table + (where == null ? "" : " WHERE " + where);
+        try (PreparedStatement ps = side.connection.prepareStatement(sql)) {
+            bindRange(ps, chunk);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return new BigInteger[]{toBigInteger(rs.getObject(1)), toBigInteger(rs.getObject(2))};
+            }
+        }
+    }
+
+    private String selectSql(Side side, TableRange chunk) {
+        List<String> rendered = new ArrayList<>(columns.length);
+        for (String column : columns) {
+            rendered.add(side.column(column));
+        }
+        String where = rangePredicate(side, chunk);
+        return "SELECT " + String.join(", ", rendered) + " FROM " + side.table + (where == null ? "" : " WHERE " + where);
+    }
+
+    private String rangePredicate(Side side, TableRange chunk) {
+        if (chunk == null) {
+            return null;
+        }
+        String column = side.column(chunk.getColumn());
+        List<String> conditions = new ArrayList<>(2);
+        if (chunk.getLower() != null) {
+            conditions.add(column + " >= ?");
+        }
+        if (chunk.getUpper() != null) {
+            conditions.add(column + " < ?");
+        }
+        return conditions.isEmpty() ? null : String.join(" AND ", conditions);
+    }
+
+    private void bindRange(PreparedStatement ps, TableRange chunk) throws SQLException {
+        if (chunk == null) {
+            return;
+        }
+        int idx = 1;
+        if (chunk.getLower() != null) {
+            ps.setObject(idx++, chunk.getLower());
+        }
+        if (chunk.getUpper() != null) {
+            ps.setObject(idx, chunk.getUpper());
+        }
+    }
+
+    private int[] columnTypes(ResultSet rs) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        int[] types = new int[metaData.getColumnCount()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = metaData.getColumnType(i + 1);
+        }
+        return types;
+    }
+
+    /**
+     * 日期时间列统一按Timestamp读取，避免驱动私有类型（如oracle.sql.TIMESTAMP）影响比较
+     */
+    private Object[] readValues(ResultSet rs, int[] types) throws SQLException {
+        Object[] values = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] == Types.TIMESTAMP || types[i] == Types.DATE || types[i] == Types.TIMESTAMP_WITH_TIMEZONE) {
+                values[i] = rs.getTimestamp(i + 1);
+            } else {
+                values[i] = rs.getObject(i + 1);
+            }
+        }
+        return values;
+    }
+
+    private String keyText(Object[] values) throws SQLException {
+        StringBuilder key = new StringBuilder();
+        for (int position : keyPositions) {
+            key.append(ChunkChecksum.canonical(values[position])).append(KEY_SEPARATOR);
+        }
+        return key.toString();
+    }
+
+    private Object[] keyValues(Object[] values) {
+        Object[] key = new Object[keyPositions.length];
+        for (int i = 0; i < keyPositions.length; i++) {
+            key[i] = values[keyPositions[i]];
+        }
+        return key;
+    }
+
+    private static String describe(TableRange chunk) {
+        return chunk == null ? "(whole table)" : "[" + chunk.getLower() + ", " + chunk.getUpper() + ")";
+    }
+
+    private static BigInteger toBigInteger(Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return BigInteger.valueOf(((Number) value).longValue());
+        }
+        if (value instanceof BigInteger) {
+            return (BigInteger) value;
+        }
+        if (value instanceof BigDecimal) {
+            BigDecimal decimal = ((BigDecimal) value).stripTrailingZeros();
+            return decimal.scale() <= 0 ? decimal.toBigInteger() : null;
+        }
+        return null;
+    }
+
+    private static BigInteger min(BigInteger a, BigInteger b) {
+        return a == null ? b : b == null ? a : a.min(b);
+    }
+
+    private static BigInteger max(BigInteger a, BigInteger b) {
+        return a == null ? b : b == null ? a : a.max(b);
+    }
+
+    private static final class TargetRow {
+        private final Object[] keyValues;
+        private final long hash;
+
+        private TargetRow(Object[] keyValues, long hash) {
+            this.keyValues = keyValues;
+            this.hash = hash;
+        }
+    }
+
+    /**
+     * 比较的一端：源表列名按方言加引号，目标表与InsertPlan一样使用小写不加引号的列名
+     */
+    private static final class Side {
+        private final Connection connection;
+        private final String dbType;
+        private final String table;
+        private final boolean quoted;
+
+        private Side(Connection connection, String dbType, String table, boolean quoted) {
+            this.connection = connection;
+            this.dbType = dbType;
+            this.table = table;
+            this.quoted = quoted;
+        }
+
+        private String column(String name) {
+            return quoted ? TableMetadataSqlProvider.quoteIdentifier(dbType, name) : name.toLowerCase();
+        }
+    }
+
+    /**
+     * 不一致的块无法再拆分且行数超过逐行比较上限，只能整表重新复制
+     */
+    public static final class ChunkTooLargeException extends IllegalStateException {
+
+        ChunkTooLargeException(String message) {
+            super(message);
+        }
+    }
+}
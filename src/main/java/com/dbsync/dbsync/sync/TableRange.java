@@ -0,0 +1,108 @@
+package com.dbsync.dbsync.sync;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Map;
+
+/**
+ * 表数据的一个不相交分片，用于单表内并行复制
+ *
+ * 分片方式：
+ * - KEY：首个键列上的数值区间 [lower, upper)
+ * - ROWID：Oracle ROWID区间（按区/extent边界划分，类似DBMS_PARALLEL_EXECUTE）
+ * - CTID：PostgreSQL ctid数据块区间
+ * - ROWID_HASH：ORA_HASH(ROWID)取模分桶，无法读取区信息时使用
+ *
+ * 区间下界为null表示无下界，上界为null表示无上界，保证所有分片合起来覆盖整张表
+ */
+public class TableRange {
+
+    public enum Kind {
+        KEY, ROWID, CTID, ROWID_HASH
+    }
+
+    private final int index;
+    private final Kind kind;
+    private final String column;
+    private final Object lower;
+    private final Object upper;
+    private final int bucketCount;
+
+    private TableRange(int index, Kind kind, String column, Object lower, Object upper, int bucketCount) {
+        this.index = index;
+        this.kind = kind;
+        this.column = column;
+        this.lower = lower;
+        this.upper = upper;
+        this.bucketCount = bucketCount;
+    }
+
+    public static TableRange keyRange(int index, String column, Object lower, Object upper) {
+        return new TableRange(index, Kind.KEY, column, lower, upper, 0);
+    }
+
+    /**
+     * 整数键的区间边界值：long范围内用Long，超出时（如Oracle NUMBER(38)、DECIMAL键）用精确的BigDecimal，
+     * 不能截断，否则相邻分片会重叠或留下空隙
+     */
+    public static Object keyBound(BigInteger value) {
+        return value.bitLength() < Long.SIZE ? (Object) value.longValue() : new BigDecimal(value);
+    }
+
+    public static TableRange rowLocatorRange(int index, Kind kind, Object lower, Object upper) {
+        if (kind != Kind.ROWID && kind != Kind.CTID) {
+            throw new IllegalArgumentException("Not a row locator range kind: " + kind);
+        }
+        return new TableRange(index, kind, null, lower, upper, 0);
+    }
+
+    public static TableRange hashBucket(int index, int bucketCount) {
+        return new TableRange(index, Kind.ROWID_HASH, null, null, null, bucketCount);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    public Object getLower() {
+        return lower;
+    }
+
+    public Object getUpper() {
+        return upper;
+    }
+
+    public int getBucketCount() {
+        return bucketCount;
+    }
+
+    /**
+     * 把分片条件写入查询参数，由TableMetadataSqlProvider生成对应的WHERE条件
+     */
+    public void applyTo(Map<String, Object> params) {
+        params.put("rangeKind", kind.name());
+        params.put("rangeColumn", column);
+        params.put("rangeLower", lower);
+        params.put("rangeUpper", upper);
+        params.put("rangeBucket", index);
+        params.put("rangeBucketCount", bucketCount);
+    }
+
+    @Override
+    public String toString() {
+        if (kind == Kind.ROWID_HASH) {
+            return "range#" + index + "[ORA_HASH(ROWID) bucket " + index + "/" + bucketCount + "]";
+        }
+        String target = kind == Kind.KEY ? column : kind.name();
+        return "range#" + index + "[" + target + " " + (lower == null ? "(" : "[") + (lower == null ? "-inf" : lower)
+                + ", " + (upper == null ? "+inf" : upper) + ")]";
+    }
+}
@@ -0,0 +1,148 @@
+package com.dbsync.dbsync.sync;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 任务内的表级并行调度器
+ *
+ * - 每个任务最多同时同步parallelism张表
+ * - 每个数据库连接（按DbConnection id）同时参与的表同步数不超过maxTablesPerConnection，该限制在所有任务间共享
+ * - 按行数从大到小提交，最大的表最先开始，任务总耗时由最大的表决定而不是所有表耗时之和
+ * - maxTablesPerConnection应按连接池大小折算（见tablesWithinPool），否则并行的表会在连接池上等待超时
+ */
+public class TableSyncScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(TableSyncScheduler.class);
+
+    private static final AtomicInteger THREAD_SEQUENCE = new AtomicInteger();
+
+    /**
+     * 单表同步动作，异常由动作自行处理和记录
+     */
+    @FunctionalInterface
+    public interface TableJob {
+        void sync(String tableName);
+    }
+
+    private final int maxTablesPerConnection;
+    private final Map<Long, Semaphore> connectionPermits = new ConcurrentHashMap<>();
+
+    public TableSyncScheduler(int maxTablesPerConnection) {
+        this.maxTablesPerConnection = Math.max(1, maxTablesPerConnection);
+    }
+
+    public int getMaxTablesPerConnection() {
+        return maxTablesPerConnection;
+    }
+
+    /**
+     * 单张表同步期间在一个连接池上最多同时占用的连接数，各阶段依次进行，取占用最多的阶段
+     *
+     * - 复制：表级会话1个，加上每个分片的读取连接（源库）或每个分片writerThreads个写入连接（目标库，
+     *   预编译INSERT固定占用的连接和COPY/BulkCopy按批次借用的连接都由写入线程持有）
+     * - 重建延迟的索引：表级会话1个，加上indexBuildParallelism个建索引连接
+     * - 校验：verifyParallelism对源和目标连接
+     *
+     * @param rangeCount            单表分片数，不分片时为1
+     * @param writerThreads         每个分片的写入线程数，不使用流水线时为1
+     * @param indexBuildParallelism 同时重建的索引数，不延迟建索引时为0
+     * @param verifyParallelism     校验并行度，不校验时为0
+     */
+    public static int connectionsPerTable(int rangeCount, int writerThreads, int indexBuildParallelism, int verifyParallelism) {
+        int copyConnections = 1 + Math.max(1, rangeCount) * Math.max(1, writerThreads);
+        int indexConnections = indexBuildParallelism > 0 ? 1 + indexBuildParallelism : 0;
+        return Math.max(copyConnections, Math.max(indexConnections, verifyParallelism));
+    }
+
+    /**
+     * 按连接池大小折算每个连接同时参与的表数：名额乘以每张表占用的连接数不超过连接池大小，至少保留1个名额
+     */
+    public static int tablesWithinPool(int maxTablesPerConnection, int poolSize, int connectionsPerTable) {
+        int fitting = poolSize / Math.max(1, connectionsPerTable);
+        return Math.max(1, Math.min(maxTablesPerConnection, fitting));
+    }
+
+    /**
+     * 按行数从大到小排序，行数未知的表排在最后，行数相同时保持原顺序
+     */
+    public static List<String> largestFirst(List<String> tables, Map<String, Long> rowCounts) {
+        List<String> ordered = new ArrayList<>(tables);
+        ordered.sort(Comparator.comparingLong((String table) -> rowCounts.getOrDefault(table, -1L)).reversed());
+        return ordered;
+    }
+
+    /**
+     * 并行同步所有表，全部结束后返回
+     *
+     * @param connectionIds 本任务使用的连接（源和目标），每张表同步期间占用每个连接的一个名额
+     */
+    public void run(String taskLabel, List<String> orderedTables, int parallelism, Collection<Long> connectionIds,
+                    TableJob job) throws InterruptedException {
+        if (orderedTables.isEmpty()) {
+            return;
+        }
+        // Acquire in ascending id order so two tasks sharing connections can never deadlock
+        List<Semaphore> permits = new ArrayList<>();
+        for (Long connectionId : new TreeSet<>(connectionIds)) {
+            permits.add(connectionPermits.computeIfAbsent(connectionId, id -> new Semaphore(maxTablesPerConnection, true)));
+        }
+
+        int threads = Math.max(1, Math.min(parallelism, orderedTables.size()));
+        ExecutorService tableExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "dbsync-table-" + THREAD_SEQUENCE.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.info("Task [{}]: Scheduling {} tables with parallelism {} (max {} tables per connection)",
+                taskLabel, orderedTables.size(), threads, maxTablesPerConnection);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (String tableName : orderedTables) {
+                futures.add(tableExecutor.submit(() -> runWithPermits(taskLabel, tableName, permits, job)));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    logger.error("Task [{}]: Table job failed unexpectedly: {}", taskLabel, e.getCause().getMessage(), e.getCause());
+                }
+            }
+        } finally {
+            tableExecutor.shutdownNow();
+        }
+    }
+
+    private void runWithPermits(String taskLabel, String tableName, List<Semaphore> permits, TableJob job) {
+        int acquired = 0;
+        try {
+            for (Semaphore permit : permits) {
+                permit.acquire();
+                acquired++;
+            }
+            job.sync(tableName);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Task [{}], Table [{}]: Interrupted while waiting for a connection slot", taskLabel, tableName);
+        } finally {
+            for (int i = 0; i < acquired; i++) {
+                permits.get(i).release();
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.dbsync.dbsync.sync;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * 目标表批次写入器
+ * 每张表同步开始时创建一个，所有读取器和写线程共用，表同步结束时关闭
+ */
+public interface TableWriter extends AutoCloseable {
+
+    /**
+     * 写入一个批次，返回写入的行数
+     */
+    int write(RowBatch batch) throws SQLException;
+
+    /**
+     * 该布局对应的写入语句，用于日志
+     */
+    String describe(ColumnLayout layout);
+
+    /**
+     * 写入器统计信息，表同步结束时记录日志
+     */
+    String summary();
+
+    /**
+     * 写入失败的批次是否保证不留下任何数据（整批在一个事务或一条语句中提交）
+     * 只有这样的写入器失败后才能把同一批次交给其他写入器重写，否则会产生重复行
+     */
+    default boolean isAtomicPerBatch() {
+        return false;
+    }
+
+    /**
+     * 目标库数据源
+     */
+    DataSource getDataSource();
+
+    @Override
+    void close();
+}
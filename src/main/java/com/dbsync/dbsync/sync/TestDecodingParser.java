@@ -0,0 +1,257 @@
+package com.dbsync.dbsync.sync;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PostgreSQL test_decoding输出插件的文本解析器
+ *
+ * 每条变更消息形如：
+ * table public.orders: UPDATE: old-key: id[integer]:1 new-tuple: id[integer]:2 note[text]:'it''s'
+ *
+ * 值按列类型转换为JDBC对象：整数为Long，numeric/real/double为BigDecimal，布尔、日期、时间戳转换为对应类型，
+ * 其余类型保留文本，由目标库按列类型隐式转换
+ */
+public final class TestDecodingParser {
+
+    private static final String TABLE_PREFIX = "table ";
+    private static final String OLD_KEY = "old-key:";
+    private static final String NEW_TUPLE = "new-tuple:";
+    private static final String UNCHANGED_TOAST = "unchanged-toast-datum";
+
+    private static final DateTimeFormatter TIMESTAMPTZ = new DateTimeFormatterBuilder()
+            .appendPattern("yyyy-MM-dd HH:mm:ss")
+            .optionalStart().appendFraction(ChronoField.NANO_OF_SECOND, 0, 9, true).optionalEnd()
+            .appendOffset("+HH:mm", "+00")
+            .toFormatter();
+
+    private TestDecodingParser() {
+    }
+
+    public static boolean isBegin(String message) {
+        return message.startsWith("BEGIN");
+    }
+
+    public static boolean isCommit(String message) {
+        return message.startsWith("COMMIT");
+    }
+
+    /**
+     * 解析一条变更消息
+     *
+     * @return 不是行变更（BEGIN/COMMIT/TRUNCATE/逻辑消息）时返回null
+     */
+    public static ChangeEvent parse(String message) {
+        if (!message.startsWith(TABLE_PREFIX)) {
+            return null;
+        }
+        Cursor cursor = new Cursor(message, TABLE_PREFIX.length());
+        String schema = null;
+        String table = cursor.readIdentifier();
+        if (cursor.peek() == '.') {
+            cursor.pos++;
+            schema = table;
+            table = cursor.readIdentifier();
+        }
+        cursor.expect(": ");
+        int opEnd = message.indexOf(':', cursor.pos);
+        if (opEnd < 0) {
+            throw new IllegalArgumentException("Malformed test_decoding message: " + message);
+        }
+        String op = message.substring(cursor.pos, opEnd);
+        cursor.pos = opEnd + 1;
+        cursor.skipSpaces();
+
+        ChangeEvent.Operation operation;
+        switch (op) {
+            case "INSERT":
+                operation = ChangeEvent.Operation.INSERT;
+                break;
+            case "UPDATE":
+                operation = ChangeEvent.Operation.UPDATE;
+                break;
+            case "DELETE":
+                operation = ChangeEvent.Operation.DELETE;
+                break;
+            default:
+                // TRUNCATE and anything a newer server may add
+                return null;
+        }
+
+        Tuple oldKey = null;
+        if (cursor.startsWith(OLD_KEY)) {
+            cursor.pos += OLD_KEY.length();
+            oldKey = cursor.readTuple();
+            cursor.skipSpaces();
+            if (cursor.startsWith(NEW_TUPLE)) {
+                cursor.pos += NEW_TUPLE.length();
+            }
+        }
+        Tuple tuple = cursor.startsWith("(no-tuple-data)") ? new Tuple() : cursor.readTuple();
+        return new ChangeEvent(operation, schema, table, tuple.names.toArray(new String[0]), tuple.values.toArray(),
+                oldKey == null ? null : oldKey.names.toArray(new String[0]), oldKey == null ? null : oldKey.values.toArray());
+    }
+
+    /**
+     * 按test_decoding输出的类型名转换文本值
+     */
+    static Object convert(String type, String text) {
+        try {
+            switch (type) {
+                case "smallint":
+                case "integer":
+                case "bigint":
+                case "oid":
+                    return Long.valueOf(text);
+                case "numeric":
+                case "real":
+                case "double precision":
+                    return new BigDecimal(text);
+                case "boolean":
+                    return Boolean.valueOf(text);
+                case "date":
+                    return Date.valueOf(text);
+                case "timestamp without time zone":
+                    return Timestamp.valueOf(text);
+                case "timestamp with time zone":
+                    return Timestamp.from(OffsetDateTime.parse(text, TIMESTAMPTZ).toInstant());
+                default:
+                    return text;
+            }
+        } catch (RuntimeException e) {
+            // NaN, infinity and BC dates have no JDBC equivalent; let the target cast the text
+            return text;
+        }
+    }
+
+    private static final class Tuple {
+        final List<String> names = new ArrayList<>();
+        final List<Object> values = new ArrayList<>();
+    }
+
+    private static final class Cursor {
+        private final String text;
+        private int pos;
+
+        Cursor(String text, int pos) {
+            this.text = text;
+            this.pos = pos;
+        }
+
+        char peek() {
+            return pos < text.length() ? text.charAt(pos) : '\0';
+        }
+
+        boolean startsWith(String token) {
+            return text.startsWith(token, pos);
+        }
+
+        void skipSpaces() {
+            while (pos < text.length() && text.charAt(pos) == ' ') {
+                pos++;
+            }
+        }
+
+        void expect(String token) {
+            if (!startsWith(token)) {
+                throw new IllegalArgumentException("Expected '" + token + "' at " + pos + " in: " + text);
+            }
+            pos += token.length();
+        }
+
+        /**
+         * 读取可能带双引号的标识符，在'.'、'['、':'处停止
+         */
+        String readIdentifier() {
+            StringBuilder name = new StringBuilder();
+            if (peek() == '"') {
+                pos++;
+                while (pos < text.length()) {
+                    char c = text.charAt(pos++);
+                    if (c == '"') {
+                        if (peek() == '"') {
+                            name.append('"');
+                            pos++;
+                        } else {
+                            return name.toString();
+                        }
+                    } else {
+                        name.append(c);
+                    }
+                }
+                throw new IllegalArgumentException("Unterminated identifier in: " + text);
+            }
+            while (pos < text.length()) {
+                char c = text.charAt(pos);
+                if (c == '.' || c == '[' || c == ':') {
+                    break;
+                }
+                name.append(c);
+                pos++;
+            }
+            return name.toString();
+        }
+
+        /**
+         * 读取name[type]:value序列，遇到new-tuple:或消息结束时停止
+         */
+        Tuple readTuple() {
+            Tuple tuple = new Tuple();
+            skipSpaces();
+            while (pos < text.length() && !startsWith(NEW_TUPLE)) {
+                String name = readIdentifier();
+                expect("[");
+                int typeEnd = text.indexOf("]:", pos);
+                if (typeEnd < 0) {
+                    throw new IllegalArgumentException("Missing column type near " + pos + " in: " + text);
+                }
+                String type = text.substring(pos, typeEnd);
+                pos = typeEnd + 2;
+
+                if (peek() == '\'') {
+                    tuple.names.add(name);
+                    tuple.values.add(convert(type, readQuoted()));
+                } else {
+                    int end = text.indexOf(' ', pos);
+                    if (end < 0) {
+                        end = text.length();
+                    }
+                    String raw = text.substring(pos, end);
+                    pos = end;
+                    if (!UNCHANGED_TOAST.equals(raw)) {
+                        tuple.names.add(name);
+                        tuple.values.add("null".equals(raw) ? null : convert(type, raw));
+                    }
+                }
+                skipSpaces();
+            }
+            return tuple;
+        }
+
+        private String readQuoted() {
+            StringBuilder value = new StringBuilder();
+            pos++;
+            while (pos < text.length()) {
+                char c = text.charAt(pos++);
+                if (c == '\'') {
+                    if (peek() == '\'') {
+                        value.append('\'');
+                        pos++;
+                    } else {
+                        return value.toString();
+                    }
+                } else {
+                    value.append(c);
+                }
+            }
+            throw new IllegalArgumentException("Unterminated literal in: " + text);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.dbsync.dbsync.sync;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+
+/**
+ * 增量同步水位线：某一水位列上已同步到的最大值
+ *
+ * 以字符串形式保存在任务库中，按类型还原为JDBC参数：
+ * - NUMBER：BigDecimal（自增ID、版本号等）
+ * - TIMESTAMP：java.sql.Timestamp（updated_at等时间列）
+ * - TEXT：原样字符串（按数据库排序规则比较）
+ */
+public final class Watermark {
+
+    public enum Kind {
+        NUMBER, TIMESTAMP, TEXT
+    }
+
+    private final String column;
+    private final Kind kind;
+    private final String value;
+
+    private Watermark(String column, Kind kind, String value) {
+        if (column == null || column.trim().isEmpty()) {
+            throw new IllegalArgumentException("Watermark column must not be empty");
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("Watermark value must not be null");
+        }
+        this.column = column;
+        this.kind = kind;
+        this.value = value;
+    }
+
+    public static Watermark of(String column, Kind kind, String value) {
+        return new Watermark(column, kind, value);
+    }
+
+    /**
+     * 从结果集读取水位值，值为NULL（表为空或没有新数据）时返回null
+     */
+    public static Watermark read(ResultSet resultSet, int columnIndex, String column) throws SQLException {
+        Kind kind = kindOf(resultSet.getMetaData().getColumnType(columnIndex));
+        switch (kind) {
+            case NUMBER:
+                BigDecimal number = resultSet.getBigDecimal(columnIndex);
+                return number == null ? null : new Watermark(column, kind, number.toPlainString());
+            case TIMESTAMP:
+                Timestamp timestamp = resultSet.getTimestamp(columnIndex);
+                return timestamp == null ? null : new Watermark(column, kind, timestamp.toString());
+            default:
+                String text = resultSet.getString(columnIndex);
+                return text == null ? null : new Watermark(column, kind, text);
+        }
+    }
+
+    static Kind kindOf(int jdbcType) {
+        switch (jdbcType) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return Kind.NUMBER;
+            case Types.DATE:
+            case Types.TIMESTAMP:
+            case Types.TIMESTAMP_WITH_TIMEZONE:
+                return Kind.TIMESTAMP;
+            default:
+                return Kind.TEXT;
+        }
+    }
+
+    /**
+     * 作为查询参数绑定的值
+     */
+    public Object toJdbcValue() {
+        return toJdbcValue(kind, value);
+    }
+
+    static Object toJdbcValue(Kind kind, String value) {
+        switch (kind) {
+            case NUMBER:
+                return new BigDecimal(value);
+            case TIMESTAMP:
+                return Timestamp.valueOf(value);
+            default:
+                return value;
+        }
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return column + "=" + value + " (" + kind + ")";
+    }
+}
@@ -0,0 +1,91 @@
+package com.dbsync.dbsync.sync;
+
+import com.dbsync.dbsync.mapper.TableMetadataSqlProvider;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * 一次增量同步要读取的水位区间 (lower, upper]
+ *
+ * 上界在同步开始时取源表水位列的当前最大值并固定下来，同步过程中新写入的行留给下一次，
+ * 同步成功后上界即成为新的水位线。lower为null表示从头读取。
+ */
+public final class WatermarkWindow {
+
+    private final String column;
+    private final Watermark lower;
+    private final Watermark upper;
+
+    private WatermarkWindow(String column, Watermark lower, Watermark upper) {
+        this.column = column;
+        this.lower = lower;
+        this.upper = upper;
+    }
+
+    /**
+     * 查询水位列上高于lower的最大值，没有新数据时返回null
+     *
+     * @param lower 上次同步的水位线，null表示不设下界
+     */
+    public static WatermarkWindow probe(Connection connection, String dbType, String tableName,
+                                        String column, Watermark lower) throws SQLException {
+        String quoted = TableMetadataSqlProvider.quoteIdentifier(dbType.toLowerCase(), column);
+        String sql = "SELECT MAX(" + quoted + ") FROM " + tableName + (lower == null ? "" : " WHERE " + quoted + " > ?");
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            if (lower != null) {
+                ps.setObject(1, lower.toJdbcValue());
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                Watermark upper = rs.next() ? Watermark.read(rs, 1, column) : null;
+                return upper == null ? null : new WatermarkWindow(column, lower, upper);
+            }
+        }
+    }
+
+    /**
+     * 区间内的行数，用于进度显示
+     */
+    public long countRows(Connection connection, String dbType, String tableName) throws SQLException {
+        String quoted = TableMetadataSqlProvider.quoteIdentifier(dbType.toLowerCase(), column);
+        String sql = "SELECT COUNT(*) FROM " + tableName + " WHERE " + (lower == null ? "" : quoted + " > ? AND ") + quoted + " <= ?";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            int idx = 1;
+            if (lower != null) {
+                ps.setObject(idx++, lower.toJdbcValue());
+            }
+            ps.setObject(idx, upper.toJdbcValue());
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * 把区间条件写入查询参数，由TableMetadataSqlProvider生成对应的WHERE条件
+     */
+    public void applyTo(Map<String, Object> params) {
+        params.put("watermarkColumn", column);
+        params.put("watermarkLower", lower == null ? null : lower.toJdbcValue());
+        params.put("watermarkUpper", upper.toJdbcValue());
+    }
+
+    public Watermark getLower() {
+        return lower;
+    }
+
+    /**
+     * 本次同步成功后的新水位线
+     */
+    public Watermark getUpper() {
+        return upper;
+    }
+
+    @Override
+    public String toString() {
+        return "watermark[" + column + " " + (lower == null ? "(-inf" : "(" + lower.getValue()) + ", " + upper.getValue() + "]]";
+    }
+}
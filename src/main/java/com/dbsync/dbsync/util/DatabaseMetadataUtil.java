@@ -3,15 +3,24 @@ package com.dbsync.dbsync.util;
 import com.dbsync.dbsync.entity.ColumnInfo;
 import com.dbsync.dbsync.entity.TableInfo;
 import com.dbsync.dbsync.entity.BasicTableInfo;
+import com.dbsync.dbsync.entity.ForeignKeyInfo;
+import com.dbsync.dbsync.entity.IndexInfo;
 import com.dbsync.dbsync.dto.TablePageRequest;
 import com.dbsync.dbsync.dto.TablePageResponse;
 import com.dbsync.dbsync.config.DatabaseOptimizationConfig;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * 数据库元数据工具类
@@ -30,13 +39,38 @@ public class DatabaseMetadataUtil {
 
     /**
      * 分页获取表信息列表（支持自定义超时配置）- 优化版本，支持数据库级分页
+     * 支持的数据库在目录视图上完成搜索、排序和分页，只为当前页的表查询列数和主键；其他数据库或目录查询失败时退回内存分页
      */
     public static TablePageResponse<TableInfo> getTablesWithPagination(Connection connection, String dbType,
                                                                        String schemaName, String databaseName,
                                                                        TablePageRequest request, 
                                                                        DatabaseOptimizationConfig config) throws SQLException {
-        
-        // 暂时使用内存分页（后续可以添加数据库级分页支持）
+        if (TableCatalogQuery.supports(dbType)) {
+            String schema = determineSchema(dbType, schemaName, databaseName);
+            TableCatalogQuery query = TableCatalogQuery.build(dbType, schema, request.getSearch(), request.getSortBy(),
+                    request.getSortOrder(), request.getOffset(), request.getLimit(), false);
+            List<BasicTableInfo> rows = new ArrayList<>();
+            try {
+                long total = queryCatalogPage(connection, query, config != null ? config.getMetadataTimeoutSeconds() : 120,
+                        request.getOffset(), rows);
+                List<TableInfo> pagedTables = new ArrayList<>(rows.size());
+                Set<String> pageTableNames = new HashSet<>();
+                for (BasicTableInfo row : rows) {
+                    TableInfo tableInfo = new TableInfo();
+                    tableInfo.setTableName(row.getTableName());
+                    tableInfo.setTableType(row.getTableType());
+                    tableInfo.setRemarks(row.getRemarks());
+                    tableInfo.setSchemaName(row.getSchemaName());
+                    pagedTables.add(tableInfo);
+                    pageTableNames.add(row.getTableName());
+                }
+                applyTableDetails(connection, dbType, schema, pagedTables, pageTableNames, config);
+                return TablePageResponse.of(pagedTables, request.getPage(), request.getSize(), total, request.getSearch());
+            } catch (SQLException e) {
+                System.out.println("数据库端分页查询表列表失败，改用内存分页: " + e.getMessage());
+            }
+        }
+
         List<TableInfo> allTables = getAllTableInfo(connection, dbType, schemaName, databaseName, config);
 
         // 应用搜索过滤
@@ -432,6 +466,226 @@ public class DatabaseMetadataUtil {
         return primaryKeys;
     }
 
+    /**
+     * 获取按KEY_SEQ排序的主键列，用于键集分页
+     */
+    public static List<String> getOrderedPrimaryKeyColumns(Connection connection, String schemaName, String tableName) throws SQLException {
+        TreeMap<Short, String> ordered = new TreeMap<>();
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet rs = metaData.getPrimaryKeys(null, schemaName, tableName)) {
+            while (rs.next()) {
+                ordered.put(rs.getShort("KEY_SEQ"), rs.getString("COLUMN_NAME"));
+            }
+        }
+        return new ArrayList<>(ordered.values());
+    }
+
+    /**
+     * 获取表上所有唯一索引的列（按列数从少到多排序）
+     * 使用approximate=true，避免Oracle驱动为统计信息执行ANALYZE
+     */
+    public static List<List<String>> getUniqueIndexColumns(Connection connection, String schemaName, String tableName) throws SQLException {
+        Map<String, TreeMap<Short, String>> indexes = new LinkedHashMap<>();
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet rs = metaData.getIndexInfo(null, schemaName, tableName, true, true)) {
+            while (rs.next()) {
+                if (rs.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic) {
+                    continue;
+                }
+                String indexName = rs.getString("INDEX_NAME");
+                String columnName = rs.getString("COLUMN_NAME");
+                if (indexName == null || columnName == null) {
+                    continue;
+                }
+                indexes.computeIfAbsent(indexName, k -> new TreeMap<>())
+                        .put(rs.getShort("ORDINAL_POSITION"), columnName);
+            }
+        }
+
+        List<List<String>> result = new ArrayList<>();
+        for (TreeMap<Short, String> columns : indexes.values()) {
+            result.add(new ArrayList<>(columns.values()));
+        }
+        result.sort(Comparator.comparingInt(List::size));
+        return result;
+    }
+
+    /**
+     * 获取表的主键和索引定义，用于在另一张表上重建
+     * 主键对应的索引不单独返回；表达式索引（列名为空或含括号）无法按列重建，跳过
+     */
+    public static List<IndexInfo> getIndexDefinitions(Connection connection, String schemaName, String tableName) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        List<IndexInfo> result = new ArrayList<>();
+
+        String primaryKeyName = null;
+        TreeMap<Short, String> primaryKeyColumns = new TreeMap<>();
+        try (ResultSet rs = metaData.getPrimaryKeys(null, schemaName, tableName)) {
+            while (rs.next()) {
+                primaryKeyName = rs.getString("PK_NAME");
+                primaryKeyColumns.put(rs.getShort("KEY_SEQ"), rs.getString("COLUMN_NAME"));
+            }
+        }
+        if (!primaryKeyColumns.isEmpty()) {
+            IndexInfo primaryKey = new IndexInfo(primaryKeyName, true, true);
+            for (String column : primaryKeyColumns.values()) {
+                primaryKey.addColumn(column, false);
+            }
+            result.add(primaryKey);
+        }
+
+        Map<String, IndexInfo> indexes = new LinkedHashMap<>();
+        Map<String, TreeMap<Short, String[]>> indexColumns = new LinkedHashMap<>();
+        Set<String> expressionIndexes = new HashSet<>();
+        try (ResultSet rs = metaData.getIndexInfo(null, schemaName, tableName, false, true)) {
+            while (rs.next()) {
+                if (rs.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic) {
+                    continue;
+                }
+                String indexName = rs.getString("INDEX_NAME");
+                if (indexName == null || indexName.equals(primaryKeyName)) {
+                    continue;
+                }
+                String columnName = rs.getString("COLUMN_NAME");
+                if (columnName == null || columnName.contains("(")) {
+                    expressionIndexes.add(indexName);
+                    continue;
+                }
+                boolean unique = !rs.getBoolean("NON_UNIQUE");
+                indexes.computeIfAbsent(indexName, k -> new IndexInfo(k, false, unique));
+                indexColumns.computeIfAbsent(indexName, k -> new TreeMap<>())
+                        .put(rs.getShort("ORDINAL_POSITION"), new String[]{columnName, rs.getString("ASC_OR_DESC")});
+            }
+        }
+
+        for (Map.Entry<String, IndexInfo> entry : indexes.entrySet()) {
+            if (expressionIndexes.contains(entry.getKey())) {
+                continue;
+            }
+            IndexInfo index = entry.getValue();
+            // 与主键列相同的唯一索引（如MySQL的PRIMARY、SQL Server未命名的主键索引）已由主键覆盖
+            List<String> columns = new ArrayList<>();
+            for (String[] column : indexColumns.get(entry.getKey()).values()) {
+                columns.add(column[0]);
+                index.addColumn(column[0], "D".equals(column[1]));
+            }
+            if (index.getUnique() && columns.equals(new ArrayList<>(primaryKeyColumns.values()))) {
+                continue;
+            }
+            result.add(index);
+        }
+        return result;
+    }
+
+    /**
+     * 获取与表相关的全部外键：表上引用其他表的外键，以及其他表引用该表的外键（自引用的外键只返回一次）
+     */
+    public static List<ForeignKeyInfo> getForeignKeys(Connection connection, String schemaName, String tableName) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        Map<String, ForeignKeyInfo> foreignKeys = new LinkedHashMap<>();
+        try (ResultSet rs = metaData.getImportedKeys(null, schemaName, tableName)) {
+            readForeignKeys(rs, foreignKeys);
+        }
+        try (ResultSet rs = metaData.getExportedKeys(null, schemaName, tableName)) {
+            readForeignKeys(rs, foreignKeys);
+        }
+        return new ArrayList<>(foreignKeys.values());
+    }
+
+    private static void readForeignKeys(ResultSet rs, Map<String, ForeignKeyInfo> foreignKeys) throws SQLException {
+        Map<String, TreeMap<Short, String[]>> columns = new LinkedHashMap<>();
+        while (rs.next()) {
+            String constraintName = rs.getString("FK_NAME");
+            String fkTableName = rs.getString("FKTABLE_NAME");
+            String id = fkTableName + "." + constraintName;
+            if (constraintName == null || (foreignKeys.containsKey(id) && !columns.containsKey(id))) {
+                continue;
+            }
+            ForeignKeyInfo foreignKey = foreignKeys.computeIfAbsent(id, k -> new ForeignKeyInfo(constraintName, fkTableName, null));
+            foreignKey.setReferencedTableName(rs.getString("PKTABLE_NAME"));
+            foreignKey.setDeleteRule(rs.getInt("DELETE_RULE"));
+            foreignKey.setUpdateRule(rs.getInt("UPDATE_RULE"));
+            columns.computeIfAbsent(id, k -> new TreeMap<>())
+                    .put(rs.getShort("KEY_SEQ"), new String[]{rs.getString("FKCOLUMN_NAME"), rs.getString("PKCOLUMN_NAME")});
+        }
+        for (Map.Entry<String, TreeMap<Short, String[]>> entry : columns.entrySet()) {
+            ForeignKeyInfo foreignKey = foreignKeys.get(entry.getKey());
+            for (String[] pair : entry.getValue().values()) {
+                foreignKey.addColumn(pair[0], pair[1]);
+            }
+        }
+    }
+
+    /**
+     * 用一条目录查询读取schema内各表的变更标记（表名 -> 标记），标记变化说明表结构、索引或注释可能被修改过
+     * - PostgreSQL/Vastbase：pg_class的relfilenode和xmin（ALTER/重写表时变化），加上列定义版本、索引和注释的摘要
+     * - Oracle/达梦：ALL_OBJECTS.LAST_DDL_TIME
+     * - MySQL：information_schema.tables的CREATE_TIME（ALTER重建表时变化）、UPDATE_TIME和表注释
+     * - SQL Server：sys.objects.modify_date
+     * - SQLite：sqlite_master中表及其索引的建表语句
+     *
+     * @return 其他数据库没有可用的变更标记，返回null
+     */
+    public static Map<String, String> getTableChangeMarkers(Connection connection, String dbType, String schema) throws SQLException {
+        boolean hasSchema = schema != null && !schema.trim().isEmpty();
+        String sql;
+        switch (dbType.toLowerCase()) {
+            case "mysql":
+                sql = "SELECT table_name, CONCAT_WS('|', create_time, update_time, table_comment) AS marker " +
+                      "FROM information_schema.tables " +
+                      "WHERE table_schema = " + (hasSchema ? "?" : "DATABASE()") + " AND table_type IN ('BASE TABLE', 'VIEW')";
+                break;
+            case "postgresql":
+            case "vastbase":
+                sql = "SELECT c.relname AS table_name, c.relfilenode::text || ':' || c.xmin::text || ':' || md5(" +
+                      "COALESCE((SELECT string_agg(a.xmin::text, ',' ORDER BY a.attnum) FROM pg_attribute a " +
+                      "WHERE a.attrelid = c.oid AND a.attnum > 0), '') || ';' || " +
+                      "COALESCE((SELECT string_agg(i.indexrelid::text, ',' ORDER BY i.indexrelid) FROM pg_index i " +
+                      "WHERE i.indrelid = c.oid), '') || ';' || " +
+                      "COALESCE((SELECT string_agg(d.objsubid || '=' || d.description, ',' ORDER BY d.objsubid) FROM pg_description d " +
+                      "WHERE d.objoid = c.oid AND d.classoid = 'pg_class'::regclass), '')) AS marker " +
+                      "FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace " +
+                      "WHERE n.nspname = " + (hasSchema ? "?" : "current_schema()") + " AND c.relkind IN ('r', 'p', 'v')";
+                break;
+            case "oracle":
+            case "dameng":
+                sql = "SELECT object_name AS table_name, TO_CHAR(last_ddl_time, 'YYYYMMDDHH24MISS') AS marker " +
+                      "FROM all_objects " +
+                      "WHERE owner = " + (hasSchema ? "UPPER(?)" : "SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA')") +
+                      " AND object_type IN ('TABLE', 'VIEW') AND object_name NOT LIKE 'BIN$%'";
+                break;
+            case "sqlserver":
+                sql = "SELECT o.name AS table_name, CONVERT(VARCHAR(30), o.modify_date, 126) AS marker " +
+                      "FROM sys.objects o JOIN sys.schemas s ON s.schema_id = o.schema_id " +
+                      "WHERE s.name = " + (hasSchema ? "?" : "SCHEMA_NAME()") + " AND o.type IN ('U', 'V') AND o.is_ms_shipped = 0";
+                break;
+            case "sqlite":
+                hasSchema = false;
+                sql = "SELECT tbl_name AS table_name, group_concat(COALESCE(sql, ''), ';') AS marker " +
+                      "FROM sqlite_master " +
+                      "WHERE type IN ('table', 'view', 'index') AND tbl_name NOT LIKE 'sqlite_%' " +
+                      "GROUP BY tbl_name";
+                break;
+            default:
+                return null;
+        }
+
+        Map<String, String> markers = new LinkedHashMap<>();
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setQueryTimeout(30);
+            if (hasSchema) {
+                stmt.setString(1, schema);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String marker = rs.getString("marker");
+                    markers.put(rs.getString("table_name"), marker != null ? marker : "");
+                }
+            }
+        }
+        return markers;
+    }
+
     /**
      * 获取所有表信息（包含详细信息）
      */
@@ -442,6 +696,7 @@ public class DatabaseMetadataUtil {
 
     /**
      * 获取所有表信息（包含详细信息，支持自定义超时配置）
+     * 列数、主键和表注释按整个schema批量查询（每种数据库一条集合查询），批量查询不可用时才逐表补充
      */
     private static List<TableInfo> getAllTableInfo(Connection connection, String dbType,
                                                    String schemaName, String databaseName, 
@@ -460,15 +715,184 @@ public class DatabaseMetadataUtil {
                 tableInfo.setRemarks(rs.getString("REMARKS"));
                 tableInfo.setSchemaName(rs.getString("TABLE_SCHEM"));
                 tableInfo.setCatalogName(rs.getString("TABLE_CAT"));
+                tableInfos.add(tableInfo);
+            }
+        }
 
-                // 获取列数和主键信息
+        applyTableDetails(connection, dbType, schema, tableInfos, null, config);
+        return tableInfos;
+    }
+
+    /**
+     * 批量获取列数、主键和注释并填入表信息，批量结果里没有的表逐表补充
+     *
+     * @param tableNames 只查这些表，为null时查整个schema
+     */
+    private static void applyTableDetails(Connection connection, String dbType, String schema, List<TableInfo> tableInfos,
+                                          Collection<String> tableNames, DatabaseOptimizationConfig config) {
+        Map<String, TableInfo> details;
+        try {
+            details = loadTableDetails(connection, dbType, schema, tableNames,
+                    config != null ? config.getMetadataTimeoutSeconds() : 120);
+        } catch (SQLException e) {
+            details = new HashMap<>();
+        }
+        for (TableInfo tableInfo : tableInfos) {
+            TableInfo detail = details.get(tableInfo.getTableName());
+            if (detail == null || (detail.getSchemaName() != null && tableInfo.getSchemaName() != null
+                    && !detail.getSchemaName().equalsIgnoreCase(tableInfo.getSchemaName()))) {
                 enrichTableInfo(connection, tableInfo, dbType);
+                continue;
+            }
+            tableInfo.setColumnCount(detail.getColumnCount());
+            if ((tableInfo.getRemarks() == null || tableInfo.getRemarks().isEmpty()) && detail.getRemarks() != null) {
+                tableInfo.setRemarks(detail.getRemarks());
+            }
+            if (detail.getHasPrimaryKey() != null) {
+                tableInfo.setHasPrimaryKey(detail.getHasPrimaryKey());
+                tableInfo.setPrimaryKeyColumn(detail.getPrimaryKeyColumn());
+            } else {
+                enrichPrimaryKey(connection, tableInfo);
+            }
+        }
+    }
 
-                tableInfos.add(tableInfo);
+    /**
+     * 按schema批量查询每张表的列数、主键列（与getPrimaryKeys一样取列名排序后的第一列）和表注释，键为表名
+     * - MySQL：information_schema.columns
+     * - PostgreSQL/Vastbase：pg_class、pg_attribute、pg_constraint
+     * - Oracle/达梦：ALL_TAB_COLUMNS、ALL_CONSTRAINTS、ALL_CONS_COLUMNS、ALL_TAB_COMMENTS
+     * - SQL Server：sys.objects、sys.columns、sys.indexes、sys.extended_properties
+     * - 其他数据库：一次getColumns取全部列数，主键为null表示需逐表查询
+     *
+     * @param tableNames 只查这些表（如当前页），为null时查整个schema
+     */
+    private static Map<String, TableInfo> loadTableDetails(Connection connection, String dbType, String schema,
+                                                           Collection<String> tableNames, int timeoutSeconds) throws SQLException {
+        boolean hasSchema = schema != null && !schema.trim().isEmpty();
+        String sql;
+        String nameColumn;
+        int schemaParameters = 1;
+        switch (dbType.toLowerCase()) {
+            case "mysql":
+                sql = "SELECT table_schema AS schema_name, table_name, COUNT(*) AS column_count, " +
+                      "MIN(CASE WHEN column_key = 'PRI' THEN column_name END) AS pk_column, NULL AS table_comment " +
+                      "FROM information_schema.columns " +
+                      "WHERE table_schema = " + (hasSchema ? "?" : "DATABASE()");
+                nameColumn = "table_name";
+                break;
+            case "postgresql":
+            case "vastbase":
+                sql = "SELECT n.nspname AS schema_name, c.relname AS table_name, COUNT(a.attnum) AS column_count, " +
+                      "MIN(CASE WHEN a.attnum = ANY(k.conkey) THEN a.attname::text END) AS pk_column, " +
+                      "obj_description(c.oid, 'pg_class') AS table_comment " +
+                      "FROM pg_class c " +
+                      "JOIN pg_namespace n ON n.oid = c.relnamespace " +
+                      "JOIN pg_attribute a ON a.attrelid = c.oid AND a.attnum > 0 AND NOT a.attisdropped " +
+                      "LEFT JOIN pg_constraint k ON k.conrelid = c.oid AND k.contype = 'p' " +
+                      "WHERE n.nspname = " + (hasSchema ? "?" : "current_schema()") + " AND c.relkind IN ('r', 'p', 'v', 'm', 'f')";
+                nameColumn = "c.relname";
+                break;
+            case "oracle":
+            case "dameng":
+                String owner = hasSchema ? "UPPER(?)" : "SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA')";
+                sql = "SELECT c.owner AS schema_name, c.table_name, COUNT(*) AS column_count, MIN(p.column_name) AS pk_column, " +
+                      "MAX(tc.comments) AS table_comment " +
+                      "FROM all_tab_columns c " +
+                      "LEFT JOIN (SELECT cc.owner, cc.table_name, cc.column_name FROM all_constraints k " +
+                      "JOIN all_cons_columns cc ON cc.owner = k.owner AND cc.constraint_name = k.constraint_name " +
+                      "WHERE k.constraint_type = 'P' AND k.owner = " + owner + ") p " +
+                      "ON p.owner = c.owner AND p.table_name = c.table_name AND p.column_name = c.column_name " +
+                      "LEFT JOIN all_tab_comments tc ON tc.owner = c.owner AND tc.table_name = c.table_name " +
+                      "WHERE c.owner = " + owner;
+                nameColumn = "c.table_name";
+                schemaParameters = 2;
+                break;
+            case "sqlserver":
+                sql = "SELECT s.name AS schema_name, t.name AS table_name, COUNT(c.column_id) AS column_count, " +
+                      "MIN(CASE WHEN ic.column_id IS NOT NULL THEN c.name END) AS pk_column, " +
+                      "MAX(CAST(ep.value AS NVARCHAR(4000))) AS table_comment " +
+                      "FROM sys.objects t " +
+                      "JOIN sys.schemas s ON s.schema_id = t.schema_id " +
+                      "JOIN sys.columns c ON c.object_id = t.object_id " +
+                      "LEFT JOIN sys.indexes i ON i.object_id = t.object_id AND i.is_primary_key = 1 " +
+                      "LEFT JOIN sys.index_columns ic ON ic.object_id = i.object_id AND ic.index_id = i.index_id AND ic.column_id = c.column_id " +
+                      "LEFT JOIN sys.extended_properties ep ON ep.major_id = t.object_id AND ep.minor_id = 0 AND ep.name = 'MS_Description' " +
+                      "WHERE t.type IN ('U', 'V') AND s.name = " + (hasSchema ? "?" : "SCHEMA_NAME()");
+                nameColumn = "t.name";
+                break;
+            default:
+                return loadGenericColumnCounts(connection, schema);
+        }
+
+        List<String> parameters = new ArrayList<>();
+        for (int i = 0; hasSchema && i < schemaParameters; i++) {
+            parameters.add(schema);
+        }
+        if (tableNames != null) {
+            if (tableNames.isEmpty()) {
+                return new HashMap<>();
             }
+            sql += " AND " + nameColumn + " IN (" + String.join(", ", Collections.nCopies(tableNames.size(), "?")) + ")";
+            parameters.addAll(tableNames);
+        }
+        switch (dbType.toLowerCase()) {
+            case "mysql":
+                sql += " GROUP BY table_schema, table_name";
+                break;
+            case "postgresql":
+            case "vastbase":
+                sql += " GROUP BY n.nspname, c.relname, c.oid";
+                break;
+            case "oracle":
+            case "dameng":
+                sql += " GROUP BY c.owner, c.table_name";
+                break;
+            default:
+                sql += " GROUP BY s.name, t.name";
+                break;
         }
 
-        return tableInfos;
+        Map<String, TableInfo> details = new HashMap<>();
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setQueryTimeout(timeoutSeconds);
+            for (int i = 0; i < parameters.size(); i++) {
+                stmt.setString(i + 1, parameters.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    TableInfo detail = new TableInfo();
+                    detail.setSchemaName(rs.getString("schema_name"));
+                    detail.setTableName(rs.getString("table_name"));
+                    detail.setColumnCount(rs.getInt("column_count"));
+                    detail.setPrimaryKeyColumn(rs.getString("pk_column"));
+                    detail.setHasPrimaryKey(detail.getPrimaryKeyColumn() != null);
+                    detail.setRemarks(rs.getString("table_comment"));
+                    details.put(detail.getTableName(), detail);
+                }
+            }
+        }
+        return details;
+    }
+
+    /**
+     * 其他数据库用一次getColumns统计所有表的列数
+     */
+    private static Map<String, TableInfo> loadGenericColumnCounts(Connection connection, String schema) throws SQLException {
+        Map<String, TableInfo> details = new HashMap<>();
+        try (ResultSet rs = connection.getMetaData().getColumns(null, schema, "%", "%")) {
+            while (rs.next()) {
+                TableInfo detail = details.computeIfAbsent(rs.getString("TABLE_NAME"), k -> {
+                    TableInfo info = new TableInfo();
+                    info.setTableName(k);
+                    info.setColumnCount(0);
+                    return info;
+                });
+                detail.setSchemaName(rs.getString("TABLE_SCHEM"));
+                detail.setColumnCount(detail.getColumnCount() + 1);
+            }
+        }
+        return details;
     }
 
     /**
@@ -480,8 +904,18 @@ public class DatabaseMetadataUtil {
             List<ColumnInfo> columns = getTableColumns(connection, dbType, tableInfo.getTableName(),
                                                       tableInfo.getSchemaName(), null);
             tableInfo.setColumnCount(columns.size());
+        } catch (SQLException e) {
+            // 如果获取详细信息失败，设置默认值
+            tableInfo.setColumnCount(0);
+        }
+        enrichPrimaryKey(connection, tableInfo);
+    }
 
-            // 检查主键
+    /**
+     * 逐表检查主键
+     */
+    private static void enrichPrimaryKey(Connection connection, TableInfo tableInfo) {
+        try {
             DatabaseMetaData metaData = connection.getMetaData();
             try (ResultSet pkRs = metaData.getPrimaryKeys(null, tableInfo.getSchemaName(), tableInfo.getTableName())) {
                 if (pkRs.next()) {
@@ -492,8 +926,6 @@ public class DatabaseMetadataUtil {
                 }
             }
         } catch (SQLException e) {
-            // 如果获取详细信息失败，设置默认值
-            tableInfo.setColumnCount(0);
             tableInfo.setHasPrimaryKey(false);
         }
     }
@@ -617,7 +1049,7 @@ public class DatabaseMetadataUtil {
     /**
      * 确定数据库schema
      */
-    private static String determineSchema(String dbType, String schemaName, String databaseName) {
+    static String determineSchema(String dbType, String schemaName, String databaseName) {
         if (schemaName != null && !schemaName.trim().isEmpty()) {
             return schemaName;
         }
@@ -667,6 +1099,18 @@ public class DatabaseMetadataUtil {
     public static TablePageResponse<BasicTableInfo> getBasicTablesWithPagination(Connection connection, String dbType,
                                                                                  String schemaName, String databaseName,
                                                                                  TablePageRequest request) throws SQLException {
+        if (TableCatalogQuery.supports(dbType)) {
+            TableCatalogQuery query = TableCatalogQuery.build(dbType, determineSchema(dbType, schemaName, databaseName),
+                    request.getSearch(), request.getSortBy(), request.getSortOrder(), request.getOffset(), request.getLimit(), true);
+            List<BasicTableInfo> pagedTables = new ArrayList<>();
+            try {
+                long total = queryCatalogPage(connection, query, 30, request.getOffset(), pagedTables);
+                return TablePageResponse.of(pagedTables, request.getPage(), request.getSize(), total, request.getSearch());
+            } catch (SQLException e) {
+                System.out.println("数据库端分页查询基础表列表失败，改用内存分页: " + e.getMessage());
+            }
+        }
+
         List<BasicTableInfo> allTables = getBasicTablesInfo(connection, dbType, schemaName, databaseName);
 
         // 应用搜索过滤
@@ -689,6 +1133,46 @@ public class DatabaseMetadataUtil {
         return TablePageResponse.of(pagedTables, request.getPage(), request.getSize(), total, request.getSearch());
     }
 
+    /**
+     * 执行目录分页查询：先计数，偏移量未超出总数时再取当前页
+     *
+     * @return 符合搜索条件的表总数
+     */
+    private static long queryCatalogPage(Connection connection, TableCatalogQuery query, int timeoutSeconds,
+                                         int offset, List<BasicTableInfo> page) throws SQLException {
+        long total;
+        try (PreparedStatement stmt = connection.prepareStatement(query.getCountSql())) {
+            stmt.setQueryTimeout(timeoutSeconds);
+            for (int i = 0; i < query.getParameters().size(); i++) {
+                stmt.setString(i + 1, query.getParameters().get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                total = rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+        if (offset >= total) {
+            return total;
+        }
+
+        try (PreparedStatement stmt = connection.prepareStatement(query.getPageSql())) {
+            stmt.setQueryTimeout(timeoutSeconds);
+            for (int i = 0; i < query.getParameters().size(); i++) {
+                stmt.setString(i + 1, query.getParameters().get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    BasicTableInfo tableInfo = new BasicTableInfo();
+                    tableInfo.setSchemaName(rs.getString("schema_name"));
+                    tableInfo.setTableName(rs.getString("table_name"));
+                    tableInfo.setTableType(rs.getString("table_type"));
+                    tableInfo.setRemarks(rs.getString("table_comment"));
+                    page.add(tableInfo);
+                }
+            }
+        }
+        return total;
+    }
+
     // MySQL快速查询实现
     private static List<BasicTableInfo> getMySQLBasicTables(Connection connection, String schemaName, String databaseName) throws SQLException {
         List<BasicTableInfo> tables = new ArrayList<>();
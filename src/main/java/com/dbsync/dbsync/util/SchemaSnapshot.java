@@ -0,0 +1,200 @@
+package com.dbsync.dbsync.util;
+
+import com.dbsync.dbsync.entity.ColumnInfo;
+import com.dbsync.dbsync.entity.IndexInfo;
+import com.dbsync.dbsync.entity.TableSnapshot;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 单个连接/schema的内存元数据快照
+ * 每隔检查间隔用一条目录查询刷新表清单和各表的变更标记，表结构在首次访问时加载，
+ * 之后只有变更标记变化的表才重新加载；数据库没有变更标记时，已加载的表超过检查间隔即重新加载
+ */
+public class SchemaSnapshot {
+
+    /**
+     * 按需打开连接（只在需要查询数据库时调用）
+     */
+    public interface ConnectionSource {
+        Connection open() throws SQLException;
+    }
+
+    private final String dbType;
+    private final String schemaName;
+    private final String databaseName;
+    private final String resolvedSchema;
+    private final long checkIntervalMillis;
+
+    private final Map<String, TableSnapshot> tables = new ConcurrentHashMap<>();
+    /**
+     * 调用方按自己的查询加载的表结构（如同步时按TableMapper方言查询的列结构），与表结构快照一起按变更标记失效
+     */
+    private final Map<String, TableStructure> structures = new ConcurrentHashMap<>();
+    private volatile Map<String, String> changeMarkers;
+    /**
+     * 表名查找表：原名和小写名都映射到原名
+     */
+    private volatile Map<String, String> tableNames;
+    private volatile long checkedAt;
+
+    /**
+     * @param schemaName   请求的schema，为空时按数据库类型取默认schema
+     * @param databaseName 连接配置的数据库名（MySQL的默认schema）
+     */
+    public SchemaSnapshot(String dbType, String schemaName, String databaseName, long checkIntervalMillis) {
+        this.dbType = dbType;
+        this.schemaName = schemaName;
+        this.databaseName = databaseName;
+        this.resolvedSchema = DatabaseMetadataUtil.determineSchema(dbType, schemaName, databaseName);
+        this.checkIntervalMillis = checkIntervalMillis;
+    }
+
+    /**
+     * 获取单表结构，表不存在时返回null
+     */
+    public TableSnapshot getTable(ConnectionSource source, String tableName) throws SQLException {
+        checkForChanges(source);
+        String name = resolveTableName(tableName);
+        if (name == null) {
+            return null;
+        }
+        Map<String, String> markers = changeMarkers;
+        String marker = markers != null ? markers.get(name) : null;
+        TableSnapshot cached = tables.get(name);
+        if (cached != null && isCurrent(cached.getChangeMarker(), cached.getLoadedAt(), marker)) {
+            return cached;
+        }
+        TableSnapshot loaded;
+        try (Connection connection = source.open()) {
+            loaded = loadTable(connection, name, marker);
+        }
+        tables.put(name, loaded);
+        return loaded;
+    }
+
+    /**
+     * 获取由loader加载的单表结构，表的变更标记不变时复用上次的结果；表不在快照的表清单中时直接调用loader
+     */
+    public List<Map<String, Object>> getStructure(ConnectionSource source, String tableName,
+                                                  Supplier<List<Map<String, Object>>> loader) throws SQLException {
+        checkForChanges(source);
+        String name = resolveTableName(tableName);
+        if (name == null) {
+            return loader.get();
+        }
+        Map<String, String> markers = changeMarkers;
+        String marker = markers != null ? markers.get(name) : null;
+        TableStructure cached = structures.get(name);
+        if (cached != null && isCurrent(cached.changeMarker, cached.loadedAt, marker)) {
+            return cached.columns;
+        }
+        long loadedAt = System.currentTimeMillis();
+        List<Map<String, Object>> columns = loader.get();
+        if (columns != null && !columns.isEmpty()) {
+            structures.put(name, new TableStructure(marker, loadedAt, columns));
+        }
+        return columns;
+    }
+
+    /**
+     * 丢弃单表结构并让下次访问重新读取变更标记（已知表刚被修改时调用）
+     */
+    public void invalidateTable(String tableName) {
+        synchronized (this) {
+            checkedAt = 0;
+        }
+        tables.keySet().removeIf(name -> name.equalsIgnoreCase(tableName));
+        structures.keySet().removeIf(name -> name.equalsIgnoreCase(tableName));
+    }
+
+    /**
+     * 已加载结构的表数
+     */
+    public int getLoadedTableCount() {
+        return tables.size();
+    }
+
+    private boolean isCurrent(String loadedMarker, long loadedAt, String marker) {
+        if (changeMarkers != null) {
+            return Objects.equals(loadedMarker, marker);
+        }
+        return System.currentTimeMillis() - loadedAt < checkIntervalMillis;
+    }
+
+    /**
+     * 到达检查间隔时刷新表清单和变更标记，并丢弃已删除表的结构
+     */
+    private synchronized void checkForChanges(ConnectionSource source) throws SQLException {
+        long now = System.currentTimeMillis();
+        if (tableNames != null && now - checkedAt < checkIntervalMillis) {
+            return;
+        }
+        Map<String, String> markers;
+        Collection<String> names;
+        try (Connection connection = source.open()) {
+            markers = DatabaseMetadataUtil.getTableChangeMarkers(connection, dbType, resolvedSchema);
+            names = markers != null ? markers.keySet()
+                    : DatabaseMetadataUtil.getTables(connection, dbType, schemaName, databaseName);
+        }
+        Map<String, String> lookup = new HashMap<>(names.size() * 4);
+        for (String name : names) {
+            lookup.put(name, name);
+        }
+        for (String name : names) {
+            lookup.putIfAbsent(name.toLowerCase(), name);
+        }
+        tables.keySet().retainAll(names);
+        structures.keySet().retainAll(names);
+        changeMarkers = markers;
+        tableNames = lookup;
+        checkedAt = now;
+    }
+
+    private String resolveTableName(String tableName) {
+        if (tableName == null) {
+            return null;
+        }
+        String name = tableNames.get(tableName);
+        return name != null ? name : tableNames.get(tableName.toLowerCase());
+    }
+
+    private TableSnapshot loadTable(Connection connection, String tableName, String marker) throws SQLException {
+        long loadedAt = System.currentTimeMillis();
+        String tableType = null;
+        String remarks = null;
+        try (ResultSet rs = connection.getMetaData().getTables(null, resolvedSchema, tableName, null)) {
+            if (rs.next()) {
+                tableType = rs.getString("TABLE_TYPE");
+                remarks = rs.getString("REMARKS");
+            }
+        }
+        List<ColumnInfo> columns = DatabaseMetadataUtil.getTableColumns(connection, dbType, tableName, schemaName, databaseName);
+        List<String> primaryKey = DatabaseMetadataUtil.getOrderedPrimaryKeyColumns(connection, resolvedSchema, tableName);
+        List<IndexInfo> indexes = "VIEW".equalsIgnoreCase(tableType) ? Collections.<IndexInfo>emptyList()
+                : DatabaseMetadataUtil.getIndexDefinitions(connection, resolvedSchema, tableName);
+        return new TableSnapshot(tableName, tableType, remarks, marker, loadedAt, columns, primaryKey, indexes);
+    }
+
+    private static final class TableStructure {
+        private final String changeMarker;
+        private final long loadedAt;
+        private final List<Map<String, Object>> columns;
+
+        TableStructure(String changeMarker, long loadedAt, List<Map<String, Object>> columns) {
+            this.changeMarker = changeMarker;
+            this.loadedAt = loadedAt;
+            this.columns = columns;
+        }
+    }
+}
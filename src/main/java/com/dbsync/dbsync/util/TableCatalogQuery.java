@@ -0,0 +1,201 @@
+package com.dbsync.dbsync.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 表浏览的数据库端分页查询：搜索、排序和分页都下推到目录视图上，另配一条只计数的查询
+ * 查询结果列：schema_name、table_name、table_type、table_comment
+ */
+public final class TableCatalogQuery {
+
+    /**
+     * LIKE的转义字符，各数据库都支持用ESCAPE指定
+     */
+    private static final char LIKE_ESCAPE = '!';
+
+    private final String pageSql;
+    private final String countSql;
+    private final List<String> parameters;
+
+    private TableCatalogQuery(String pageSql, String countSql, List<String> parameters) {
+        this.pageSql = pageSql;
+        this.countSql = countSql;
+        this.parameters = parameters;
+    }
+
+    /**
+     * 是否支持数据库端分页（其他数据库仍通过JDBC元数据在内存中分页）
+     */
+    public static boolean supports(String dbType) {
+        switch (dbType.toLowerCase()) {
+            case "mysql":
+            case "postgresql":
+            case "vastbase":
+            case "oracle":
+            case "dameng":
+            case "sqlserver":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * 生成分页查询和计数查询
+     *
+     * @param schema     schema名，为空时使用当前连接的默认schema
+     * @param search     按表名或注释模糊匹配（不区分大小写），为空时不过滤
+     * @param sortBy     name/tableName、type/tableType、columns/columnCount，其他值按表名排序
+     * @param basicOnly  只查普通表（快速加载），表类型沿用原来的'BASE TABLE'；否则同时查视图，类型为TABLE/VIEW
+     */
+    public static TableCatalogQuery build(String dbType, String schema, String search, String sortBy, String sortOrder,
+                                          int offset, int limit, boolean basicOnly) {
+        String type = dbType.toLowerCase();
+        boolean hasSchema = schema != null && !schema.trim().isEmpty();
+        List<String> parameters = new ArrayList<>();
+        if (hasSchema) {
+            parameters.add(schema);
+        }
+
+        String from;
+        String nameColumn;
+        String typeColumn;
+        String commentColumn;
+        String columnCount;
+        String schemaColumn;
+        switch (type) {
+            case "mysql":
+                schemaColumn = "t.table_schema";
+                nameColumn = "t.table_name";
+                commentColumn = "t.table_comment";
+                typeColumn = basicOnly ? "t.table_type" : "CASE WHEN t.table_type = 'VIEW' THEN 'VIEW' ELSE 'TABLE' END";
+                columnCount = "(SELECT COUNT(*) FROM information_schema.columns c " +
+                        "WHERE c.table_schema = t.table_schema AND c.table_name = t.table_name)";
+                from = "information_schema.tables t " +
+                        "WHERE t.table_schema = " + (hasSchema ? "?" : "DATABASE()") +
+                        (basicOnly ? " AND t.table_type = 'BASE TABLE'" : " AND t.table_type IN ('BASE TABLE', 'VIEW')");
+                break;
+            case "postgresql":
+            case "vastbase":
+                schemaColumn = "n.nspname";
+                nameColumn = "c.relname";
+                commentColumn = "obj_description(c.oid, 'pg_class')";
+                typeColumn = basicOnly ? "'BASE TABLE'" : "CASE WHEN c.relkind = 'v' THEN 'VIEW' ELSE 'TABLE' END";
+                columnCount = "(SELECT COUNT(*) FROM pg_attribute a WHERE a.attrelid = c.oid AND a.attnum > 0 AND NOT a.attisdropped)";
+                from = "pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace " +
+                        "WHERE n.nspname = " + (hasSchema ? "?" : "current_schema()") +
+                        (basicOnly ? " AND c.relkind IN ('r', 'p')" : " AND c.relkind IN ('r', 'p', 'v')");
+                break;
+            case "oracle":
+            case "dameng":
+                // ALL_TAB_COMMENTS每个表/视图一行，同时带类型和注释，省去再关联ALL_TABLES
+                schemaColumn = "t.owner";
+                nameColumn = "t.table_name";
+                commentColumn = "t.comments";
+                typeColumn = basicOnly ? "'BASE TABLE'" : "t.table_type";
+                columnCount = "(SELECT COUNT(*) FROM all_tab_columns c WHERE c.owner = t.owner AND c.table_name = t.table_name)";
+                from = "all_tab_comments t " +
+                        "WHERE t.owner = " + (hasSchema ? "UPPER(?)" : "SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA')") +
+                        (basicOnly ? " AND t.table_type = 'TABLE'" : " AND t.table_type IN ('TABLE', 'VIEW')") +
+                        " AND t.table_name NOT LIKE 'BIN$%'";
+                break;
+            case "sqlserver":
+                schemaColumn = "s.name";
+                nameColumn = "o.name";
+                commentColumn = "CAST(ep.value AS NVARCHAR(4000))";
+                typeColumn = basicOnly ? "'BASE TABLE'" : "CASE WHEN o.type = 'V' THEN 'VIEW' ELSE 'TABLE' END";
+                columnCount = "(SELECT COUNT(*) FROM sys.columns c WHERE c.object_id = o.object_id)";
+                from = "sys.objects o JOIN sys.schemas s ON s.schema_id = o.schema_id " +
+                        "LEFT JOIN sys.extended_properties ep ON ep.class = 1 AND ep.major_id = o.object_id " +
+                        "AND ep.minor_id = 0 AND ep.name = 'MS_Description' " +
+                        "WHERE s.name = " + (hasSchema ? "?" : "SCHEMA_NAME()") + " AND o.is_ms_shipped = 0" +
+                        (basicOnly ? " AND o.type = 'U'" : " AND o.type IN ('U', 'V')");
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported database type for catalog paging: " + dbType);
+        }
+
+        StringBuilder where = new StringBuilder(from);
+        if (search != null && !search.trim().isEmpty()) {
+            String pattern = "%" + escapeLike(search.trim().toLowerCase(), "sqlserver".equals(type)) + "%";
+            boolean ilike = "postgresql".equals(type) || "vastbase".equals(type);
+            String name = ilike ? nameColumn + " ILIKE ?" : "LOWER(" + nameColumn + ") LIKE ?";
+            String comment = ilike ? commentColumn + " ILIKE ?" : "LOWER(" + commentColumn + ") LIKE ?";
+            String escape = " ESCAPE '" + LIKE_ESCAPE + "'";
+            where.append(" AND (").append(name).append(escape).append(" OR ").append(comment).append(escape).append(")");
+            parameters.add(pattern);
+            parameters.add(pattern);
+        }
+
+        // 按结果列别名排序，Oracle/达梦可以原样放进外层ROW_NUMBER()的ORDER BY
+        String direction = "desc".equalsIgnoreCase(sortOrder) ? " DESC" : " ASC";
+        String select = "SELECT " + schemaColumn + " AS schema_name, " + nameColumn + " AS table_name, " +
+                typeColumn + " AS table_type, " + commentColumn + " AS table_comment";
+        String orderBy;
+        switch (basicOnly || sortBy == null ? "" : sortBy.toLowerCase()) {
+            case "type":
+            case "tabletype":
+                orderBy = "table_type" + direction + ", table_name" + direction;
+                break;
+            case "columns":
+            case "columncount":
+                select += ", " + columnCount + " AS column_count";
+                orderBy = "column_count" + direction + ", table_name" + direction;
+                break;
+            default:
+                // 快速加载只有普通表一种类型，也不查列数，统一按表名排序
+                orderBy = "table_name" + direction;
+                break;
+        }
+
+        String pageSql;
+        switch (type) {
+            case "oracle":
+            case "dameng":
+                pageSql = "SELECT schema_name, table_name, table_type, table_comment FROM (" +
+                        "SELECT q.*, ROW_NUMBER() OVER (ORDER BY " + orderBy + ") AS rn FROM (" + select + " FROM " + where + ") q) " +
+                        "WHERE rn > " + offset + " AND rn <= " + ((long) offset + limit) + " ORDER BY rn";
+                break;
+            case "sqlserver":
+                pageSql = select + " FROM " + where + " ORDER BY " + orderBy +
+                        " OFFSET " + offset + " ROWS FETCH NEXT " + limit + " ROWS ONLY";
+                break;
+            default:
+                pageSql = select + " FROM " + where + " ORDER BY " + orderBy + " LIMIT " + limit + " OFFSET " + offset;
+                break;
+        }
+        String countSql = "SELECT COUNT(*) FROM " + where;
+        return new TableCatalogQuery(pageSql, countSql, Collections.unmodifiableList(parameters));
+    }
+
+    /**
+     * 转义LIKE通配符；SQL Server另有[]字符集语法，需要同时转义'['（Oracle不允许转义字符后跟普通字符，其他库不转义）
+     */
+    static String escapeLike(String value, boolean escapeBracket) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char ch : value.toCharArray()) {
+            if (ch == LIKE_ESCAPE || ch == '%' || ch == '_' || (escapeBracket && ch == '[')) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(ch);
+        }
+        return escaped.toString();
+    }
+
+    public String getPageSql() {
+        return pageSql;
+    }
+
+    public String getCountSql() {
+        return countSql;
+    }
+
+    /**
+     * 分页查询和计数查询共用的参数（依次为schema、搜索模式）
+     */
+    public List<String> getParameters() {
+        return parameters;
+    }
+}
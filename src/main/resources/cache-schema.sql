@@ -12,15 +12,15 @@ CREATE TABLE IF NOT EXISTS cache_metadata (
     expires_at TIMESTAMP,
     hit_count INTEGER DEFAULT 0,
     data_size INTEGER DEFAULT 0,
-    checksum VARCHAR(64) -- for data integrity
+    checksum VARCHAR(64) -- for data integrity (MD5 of the stored data_content bytes)
     );
 
 -- Cache data table (stores actual cached content)
 CREATE TABLE IF NOT EXISTS cache_data (
                                           id INTEGER PRIMARY KEY AUTOINCREMENT,
                                           cache_key VARCHAR(255) NOT NULL,
-    data_content TEXT NOT NULL, -- JSON serialized data
-    compression_type VARCHAR(20) DEFAULT 'none', -- 'none', 'gzip', 'lz4'
+    data_content TEXT NOT NULL, -- JSON serialized data, encoded by the codec in compression_type (binary when compressed)
+    compression_type VARCHAR(20) DEFAULT 'none', -- 'none', 'deflate'
     created_at TIMESTAMP DEFAULT (datetime('now')),
     FOREIGN KEY (cache_key) REFERENCES cache_metadata(cache_key) ON DELETE CASCADE
     );
@@ -69,6 +69,50 @@ CREATE TABLE IF NOT EXISTS sync_task_logs (
     FOREIGN KEY (task_id) REFERENCES sync_tasks(id)
 );
 
+-- 创建增量同步水位线表（每个任务每张表一行：声明的水位列和已同步到的水位值）
+CREATE TABLE IF NOT EXISTS sync_table_watermarks (
+    id INTEGER PRIMARY KEY AUTOINCREMENT,
+    task_id INTEGER NOT NULL,
+    table_name VARCHAR(200) NOT NULL,
+    watermark_column VARCHAR(100) NOT NULL,
+    watermark_kind VARCHAR(20), -- NUMBER, TIMESTAMP, TEXT
+    watermark_value TEXT, -- 为空表示尚未同步过，下次执行全量复制
+    last_synced_at DATETIME,
+    updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE (task_id, table_name),
+    FOREIGN KEY (task_id) REFERENCES sync_tasks(id)
+);
+
+-- 创建表复制检查点表（断点续传：每个任务每张表每个分片一行，记录已提交的最后一个键和行数）
+CREATE TABLE IF NOT EXISTS sync_copy_checkpoints (
+    id INTEGER PRIMARY KEY AUTOINCREMENT,
+    task_id INTEGER NOT NULL,
+    table_name VARCHAR(200) NOT NULL,
+    range_index INTEGER NOT NULL, -- -1表示未分片
+    key_columns TEXT NOT NULL, -- 逗号分隔的键列
+    range_column VARCHAR(100),
+    range_lower TEXT,
+    range_upper TEXT,
+    last_key TEXT, -- JSON数组，为空表示尚未提交任何行
+    rows_copied INTEGER NOT NULL DEFAULT 0,
+    completed INTEGER NOT NULL DEFAULT 0,
+    updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE (task_id, table_name, range_index),
+    FOREIGN KEY (task_id) REFERENCES sync_tasks(id)
+);
+
+-- 创建日志增量捕获检查点表（每个任务一行：复制槽名和已应用到目标库的日志位置）
+CREATE TABLE IF NOT EXISTS sync_cdc_checkpoints (
+    id INTEGER PRIMARY KEY AUTOINCREMENT,
+    task_id INTEGER NOT NULL UNIQUE,
+    source_type VARCHAR(20) NOT NULL, -- postgresql, vastbase
+    slot_name VARCHAR(100) NOT NULL,
+    position VARCHAR(50), -- PostgreSQL LSN，为空表示从复制槽确认的位置开始
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (task_id) REFERENCES sync_tasks(id)
+);
+
 -- 创建同步任务表索引
 CREATE INDEX IF NOT EXISTS idx_sync_tasks_status ON sync_tasks(status);
 CREATE INDEX IF NOT EXISTS idx_sync_tasks_source_connection ON sync_tasks(source_connection_id);
@@ -0,0 +1,216 @@
+package com.dbsync.cache;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.sqlite.SQLiteDataSource;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 缓存服务测试（内存缓存 + SQLite持久化）
+ */
+public class CacheServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private SQLiteDataSource dataSource;
+    private CacheRepository repository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + tempDir.resolve("cache.db"));
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE cache_metadata (id INTEGER PRIMARY KEY AUTOINCREMENT, cache_key VARCHAR(255) UNIQUE NOT NULL, " +
+                    "cache_type VARCHAR(50) NOT NULL, data_source VARCHAR(100) NOT NULL, " +
+                    "created_at TIMESTAMP DEFAULT (datetime('now')), updated_at TIMESTAMP DEFAULT (datetime('now')), " +
+                    "expires_at TIMESTAMP, hit_count INTEGER DEFAULT 0, data_size INTEGER DEFAULT 0, checksum VARCHAR(64))");
+            stmt.execute("CREATE TABLE cache_data (id INTEGER PRIMARY KEY AUTOINCREMENT, cache_key VARCHAR(255) NOT NULL, " +
+                    "data_content TEXT NOT NULL, compression_type VARCHAR(20) DEFAULT 'none', " +
+                    "created_at TIMESTAMP DEFAULT (datetime('now')))");
+        }
+        Configuration configuration = new Configuration(new Environment("test", new JdbcTransactionFactory(), dataSource));
+        configuration.setMapUnderscoreToCamelCase(true);
+        configuration.addMapper(CacheRepository.class);
+        SqlSessionFactory factory = new SqlSessionFactoryBuilder().build(configuration);
+        repository = new SqlSessionTemplate(factory).getMapper(CacheRepository.class);
+    }
+
+    private CacheService newService(boolean memoryCacheEnabled) {
+        return newService(memoryCacheEnabled, false);
+    }
+
+    private CacheService newService(boolean memoryCacheEnabled, boolean compressionEnabled) {
+        CacheConfig config = new CacheConfig(null);
+        config.setMemoryCacheEnabled(memoryCacheEnabled);
+        config.setEnableCompression(compressionEnabled);
+        CacheService service = new CacheService();
+        ReflectionTestUtils.setField(service, "cacheRepository", repository);
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(service, "cacheConfig", config);
+        ReflectionTestUtils.setField(service, "codecs", Arrays.asList(new PlainCacheCodec(), new DeflateCacheCodec()));
+        service.init();
+        return service;
+    }
+
+    @Test
+    void testMemoryHitsAreCountedAndFlushedInBatch() throws Exception {
+        CacheService service = newService(true);
+        List<String> tables = Arrays.asList("orders", "customers");
+        service.put("tables:1:default", tables, CacheType.TABLE_LIST, "1", 60);
+        service.put("tables:2:default", tables, CacheType.TABLE_LIST, "2", 60);
+
+        for (int i = 0; i < 3; i++) {
+            Optional<List<String>> cached = service.get("tables:1:default", new TypeReference<List<String>>() {});
+            assertTrue(cached.isPresent());
+            // 命中内存缓存时直接返回同一个对象，不再反序列化
+            assertSame(tables, cached.get());
+        }
+        service.get("tables:2:default", new TypeReference<List<String>>() {});
+        assertEquals(0, hitCount("tables:1:default"));
+
+        service.flushHitCounts();
+        assertEquals(3, hitCount("tables:1:default"));
+        assertEquals(1, hitCount("tables:2:default"));
+
+        // 再次写入同一键只保留一行数据
+        service.put("tables:1:default", tables, CacheType.TABLE_LIST, "1", 60);
+        assertEquals(1, countRows("tables:1:default"));
+    }
+
+    @Test
+    void testSqliteEntriesArePromotedAndEvicted() {
+        newService(true).put("schema:1:default:orders", Arrays.asList("id", "name"), CacheType.TABLE_SCHEMA, "1", 120);
+
+        // 新实例（模拟重启）从SQLite读取后放入内存缓存
+        CacheService restarted = newService(true);
+        Optional<List<String>> loaded = restarted.get("schema:1:default:orders", new TypeReference<List<String>>() {});
+        assertEquals(Arrays.asList("id", "name"), loaded.orElse(null));
+        assertSame(loaded.get(), restarted.get("schema:1:default:orders", new TypeReference<List<String>>() {}).get());
+        // 类型不匹配时不使用内存中的对象
+        assertFalse(restarted.get("schema:1:default:orders", String.class).isPresent());
+
+        restarted.evictByDataSource("1");
+        assertFalse(restarted.get("schema:1:default:orders", new TypeReference<List<String>>() {}).isPresent());
+    }
+
+    @Test
+    void testWithoutMemoryCache() {
+        CacheService service = newService(false);
+        service.put("query:abc", "result", CacheType.QUERY_RESULT, "1", 30);
+        assertEquals("result", service.get("query:abc", String.class).orElse(null));
+        service.evict("query:abc");
+        assertFalse(service.get("query:abc", String.class).isPresent());
+    }
+
+    @Test
+    void testLargePayloadsAreStoredCompressed() throws Exception {
+        List<String> rows = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            rows.add("order-" + i + ",customer-" + (i % 20) + ",PAID");
+        }
+        newService(true, true).put("query:large", rows, CacheType.QUERY_RESULT, "1", 30);
+        newService(true, true).put("query:small", Arrays.asList("a", "b"), CacheType.QUERY_RESULT, "1", 30);
+
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT d.compression_type, length(d.data_content), m.data_size FROM cache_data d " +
+                     "JOIN cache_metadata m ON m.cache_key = d.cache_key WHERE d.cache_key = 'query:large'")) {
+            assertTrue(rs.next());
+            assertEquals(DeflateCacheCodec.NAME, rs.getString(1));
+            assertEquals(rs.getInt(2), rs.getInt(3));
+            assertTrue(rs.getInt(2) < new ObjectMapper().writeValueAsBytes(rows).length / 4);
+        }
+        assertEquals(rows, newService(false).get("query:large", new TypeReference<List<String>>() {}).orElse(null));
+        assertEquals(Arrays.asList("a", "b"), newService(false).get("query:small", new TypeReference<List<String>>() {}).orElse(null));
+
+        // 校验和不匹配的条目被丢弃
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("UPDATE cache_metadata SET checksum = 'bad' WHERE cache_key = 'query:large'");
+        }
+        assertFalse(newService(false).get("query:large", new TypeReference<List<String>>() {}).isPresent());
+        assertEquals(0, countRows("query:large"));
+    }
+
+    @Test
+    void testCompressionIsOffByDefault() throws Exception {
+        assertFalse(new CacheConfig(null).isEnableCompression());
+        List<String> rows = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            rows.add("order-" + i);
+        }
+        newService(false).put("query:plain", rows, CacheType.QUERY_RESULT, "1", 30);
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT compression_type FROM cache_data WHERE cache_key = 'query:plain'")) {
+            assertTrue(rs.next());
+            assertEquals(PlainCacheCodec.NAME, rs.getString(1));
+        }
+    }
+
+    @Test
+    void testReadsEntriesWrittenBeforeCompression() throws Exception {
+        // 启用压缩前写入的条目：JSON文本，compression_type为'none'，校验和按JSON文本计算（也可能没有校验和）
+        String json = "[\"orders\",\"订单\"]";
+        String checksum = md5(json);
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement()) {
+            stmt.execute("INSERT INTO cache_metadata (cache_key, cache_type, data_source, data_size, checksum) " +
+                    "VALUES ('tables:1:legacy', 'TABLE_LIST', '1', " + json.length() + ", '" + checksum + "')");
+            stmt.execute("INSERT INTO cache_data (cache_key, data_content) VALUES ('tables:1:legacy', '" + json + "')");
+            stmt.execute("INSERT INTO cache_metadata (cache_key, cache_type, data_source) VALUES ('tables:1:unchecked', 'TABLE_LIST', '1')");
+            stmt.execute("INSERT INTO cache_data (cache_key, data_content) VALUES ('tables:1:unchecked', '[\"orders\"]')");
+        }
+        for (boolean compression : new boolean[]{false, true}) {
+            CacheService service = newService(false, compression);
+            assertEquals(Arrays.asList("orders", "订单"),
+                    service.get("tables:1:legacy", new TypeReference<List<String>>() {}).orElse(null));
+            assertEquals(Arrays.asList("orders"),
+                    service.get("tables:1:unchecked", new TypeReference<List<String>>() {}).orElse(null));
+        }
+        assertEquals(1, countRows("tables:1:legacy"));
+    }
+
+    private static String md5(String text) throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : MessageDigest.getInstance("MD5").digest(text.getBytes(StandardCharsets.UTF_8))) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    private int countRows(String cacheKey) throws Exception {
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM cache_data WHERE cache_key = '" + cacheKey + "'")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private long hitCount(String cacheKey) throws Exception {
+        try (Connection connection = dataSource.getConnection(); Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT hit_count FROM cache_metadata WHERE cache_key = '" + cacheKey + "'")) {
+            assertTrue(rs.next());
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.dbsync.dbsync.mapper;
+
+import com.dbsync.dbsync.sync.ReadStrategy;
+import com.dbsync.dbsync.sync.SourceReadPlan;
+import com.dbsync.dbsync.sync.TableRange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 键集分页SQL生成测试
+ */
+class TableMetadataSqlProviderTest {
+
+    private TableMetadataSqlProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        provider = new TableMetadataSqlProvider();
+    }
+
+    @Test
+    void testPostgresKeysetFirstPageHasNoPredicate() {
+        SourceReadPlan plan = SourceReadPlan.keyset(Collections.singletonList("id"));
+        String sql = provider.getTableDataWithKeyset(plan.buildQueryParams("postgresql", "orders", null, 500L, null));
+
+        assertEquals("SELECT * FROM orders ORDER BY \"id\" LIMIT 500", sql);
+    }
+
+    @Test
+    void testCompositeKeysetPredicateIsExpanded() {
+        SourceReadPlan plan = SourceReadPlan.keyset(Arrays.asList("A", "B"));
+        List<Object> lastKey = Arrays.<Object>asList(1, 2);
+        String sql = provider.getTableDataWithKeyset(plan.buildQueryParams("oracle", "T1", null, 100L, lastKey));
+
+        assertEquals("SELECT * FROM (SELECT a.* FROM T1 a WHERE ((\"A\" > #{lastKeyValues[0]}) OR " +
+                "(\"A\" = #{lastKeyValues[0]} AND \"B\" > #{lastKeyValues[1]})) ORDER BY \"A\", \"B\") WHERE ROWNUM <= 100", sql);
+    }
+
+    @Test
+    void testSqlServerAndMySqlUseDialectQuoting() {
+        SourceReadPlan plan = SourceReadPlan.keyset(Collections.singletonList("id"));
+        List<Object> lastKey = Collections.<Object>singletonList(10);
+
+        assertEquals("SELECT TOP (50) * FROM t WHERE (([id] > #{lastKeyValues[0]})) ORDER BY [id]",
+                provider.getTableDataWithKeyset(plan.buildQueryParams("sqlserver", "t", null, 50L, lastKey)));
+        assertEquals("SELECT * FROM t WHERE ((`id` > #{lastKeyValues[0]})) ORDER BY `id` LIMIT 50",
+                provider.getTableDataWithKeyset(plan.buildQueryParams("mysql", "t", null, 50L, lastKey)));
+    }
+
+    @Test
+    void testRowLocatorFallbacks() {
+        String oracleSql = provider.getTableDataWithKeyset(SourceReadPlan.rowLocator(ReadStrategy.ROWID)
+                .buildQueryParams("oracle", "T1", null, 10L, Collections.<Object>singletonList("AAAx")));
+        assertTrue(oracleSql.contains("a.ROWID > CHARTOROWID(#{lastKeyValues[0]})"));
+        assertTrue(oracleSql.endsWith("WHERE ROWNUM <= 10"));
+
+        String pgSql = provider.getTableDataWithKeyset(SourceReadPlan.rowLocator(ReadStrategy.CTID)
+                .buildQueryParams("postgresql", "t1", null, 10L, null));
+        assertEquals("SELECT a.*, a.ctid::text AS \"__dbsync_rid\" FROM t1 a ORDER BY a.ctid LIMIT 10", pgSql);
+    }
+
+    @Test
+    void testExtractLastKeyIgnoresResultColumnCase() {
+        SourceReadPlan plan = SourceReadPlan.keyset(Collections.singletonList("id"));
+        Map<String, Object> row = new HashMap<>();
+        row.put("ID", 42L);
+        row.put("NAME", "x");
+
+        assertEquals(Collections.<Object>singletonList(42L), plan.extractLastKey(Collections.singletonList(row)));
+    }
+
+    @Test
+    void testRowIdRejectedForNonOracle() {
+        Map<String, Object> params = SourceReadPlan.rowLocator(ReadStrategy.ROWID)
+                .buildQueryParams("mysql", "t", null, 10L, null);
+        assertThrows(IllegalArgumentException.class, () -> provider.getTableDataWithKeyset(params));
+    }
+
+    @Test
+    void testKeyRangeIsAndedWithKeysetPredicate() {
+        SourceReadPlan plan = SourceReadPlan.keyset(Collections.singletonList("id"));
+        Map<String, Object> params = plan.buildQueryParams("postgresql", "orders", null, 100L, Collections.<Object>singletonList(5L));
+        TableRange.keyRange(1, "id", 0L, 1000L).applyTo(params);
+
+        assertEquals("SELECT * FROM orders WHERE ((\"id\" > #{lastKeyValues[0]})) AND \"id\" >= #{rangeLower} AND \"id\" < #{rangeUpper}" +
+                " ORDER BY \"id\" LIMIT 100", provider.getTableDataWithKeyset(params));
+    }
+
+    @Test
+    void testOpenEndedAndLocatorRanges() {
+        Map<String, Object> ctidParams = SourceReadPlan.rowLocator(ReadStrategy.CTID)
+                .buildQueryParams("postgresql", "t1", null, 10L, null);
+        TableRange.rowLocatorRange(0, TableRange.Kind.CTID, null, "(128,0)").applyTo(ctidParams);
+        assertEquals("SELECT a.*, a.ctid::text AS \"__dbsync_rid\" FROM t1 a WHERE ctid < CAST(#{rangeUpper} AS tid)" +
+                " ORDER BY a.ctid LIMIT 10", provider.getTableDataWithKeyset(ctidParams));
+
+        Map<String, Object> hashParams = SourceReadPlan.rowLocator(ReadStrategy.ROWID)
+                .buildQueryParams("oracle", "T1", null, 10L, null);
+        TableRange.hashBucket(2, 4).applyTo(hashParams);
+        assertTrue(provider.getTableDataWithKeyset(hashParams).contains("WHERE ORA_HASH(ROWID, #{rangeBucketCount} - 1) = #{rangeBucket}"));
+    }
+
+    @Test
+    void testWatermarkWindowIsAndedWithKeysetPredicate() {
+        SourceReadPlan plan = SourceReadPlan.keyset(Collections.singletonList("id"));
+        Map<String, Object> params = plan.buildQueryParams("mysql", "orders", null, 100L, Collections.<Object>singletonList(5L));
+        params.put("watermarkColumn", "updated_at");
+        params.put("watermarkLower", Timestamp.valueOf("2024-01-01 00:00:00"));
+        params.put("watermarkUpper", Timestamp.valueOf("2024-01-02 00:00:00"));
+
+        assertEquals("SELECT * FROM orders WHERE ((`id` > #{lastKeyValues[0]})) AND `updated_at` > #{watermarkLower}" +
+                " AND `updated_at` <= #{watermarkUpper} ORDER BY `id` LIMIT 100", provider.getTableDataWithKeyset(params));
+
+        params.put("watermarkLower", null);
+        assertTrue(provider.getTableDataWithKeyset(params).contains("AND `updated_at` <= #{watermarkUpper} ORDER BY"));
+    }
+
+    @Test
+    void testReplicatedTablesAreCheckedInOneQuery() {
+        String sql = provider.findPgReplicatedTables(Arrays.asList("Orders", "order_lines", "customers"), null);
+
+        assertTrue(sql.contains("t.table_name IN (LOWER(#{tableNames[0]}), LOWER(#{tableNames[1]}), LOWER(#{tableNames[2]}))"));
+        assertTrue(sql.contains("INNER JOIN pg_stat_user_tables s"));
+        assertTrue(sql.contains("COALESCE(#{schemaName}, current_schema())"));
+    }
+}
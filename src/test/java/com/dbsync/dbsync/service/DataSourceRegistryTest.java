@@ -0,0 +1,115 @@
+package com.dbsync.dbsync.service;
+
+import com.dbsync.dbsync.config.DatabaseOptimizationConfig;
+import com.dbsync.dbsync.mapper.auth.DbConnectionMapper;
+import com.dbsync.dbsync.model.DbConnection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * DataSourceRegistry 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+public class DataSourceRegistryTest {
+
+    @Mock
+    private DbConnectionMapper dbConnectionMapper;
+
+    @Spy
+    private DatabaseOptimizationConfig optimizationConfig = new DatabaseOptimizationConfig();
+
+    @InjectMocks
+    private DataSourceRegistry registry;
+
+    private DbConnection connection;
+
+    @BeforeEach
+    void setUp() {
+        connection = new DbConnection();
+        connection.setId(7L);
+        connection.setDbType("postgresql");
+        // Nothing listens on port 1, so pool creation succeeds but borrowing fails fast
+        connection.setHost("127.0.0.1");
+        connection.setPort(1);
+        connection.setDatabase("test");
+        connection.setUsername("test");
+        connection.setPassword("test");
+        optimizationConfig.setConnectionTimeoutMs(1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        registry.shutdown();
+    }
+
+    @Test
+    void testBuildJdbcUrlAddsSchemaOnlyForPostgres() {
+        assertEquals("jdbc:postgresql://127.0.0.1:1/test?currentSchema=sales", DataSourceRegistry.buildJdbcUrl(connection, "sales"));
+        assertEquals("jdbc:postgresql://127.0.0.1:1/test", DataSourceRegistry.buildJdbcUrl(connection, null));
+
+        connection.setDbType("mysql");
+        String mysqlUrl = DataSourceRegistry.buildJdbcUrl(connection, "sales");
+        assertTrue(mysqlUrl.contains("rewriteBatchedStatements=true"));
+        // Cursor fetch would change result sets for every user of the shared pool
+        assertFalse(mysqlUrl.contains("useCursorFetch"));
+    }
+
+    @Test
+    void testCredentialsConnectionIsBorrowedFromPool() {
+        when(dbConnectionMapper.findById(7L)).thenReturn(connection);
+        DataSource dataSource = registry.getDataSource(7L);
+
+        // Same credentials as the DbConnection: delegated to the pool (which cannot connect to port 1)
+        assertThrows(SQLException.class, () -> dataSource.getConnection("test", "test"));
+        assertEquals(1, registry.getPoolCount());
+        // Other credentials are rejected by the pool instead of opening an unpooled connection
+        assertThrows(UnsupportedOperationException.class, () -> dataSource.getConnection("other", "secret"));
+    }
+
+    @Test
+    void testPoolIsReusedUntilInvalidated() {
+        when(dbConnectionMapper.findById(7L)).thenReturn(connection);
+        DataSource dataSource = registry.getDataSource(7L);
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertEquals(1, registry.getPoolCount());
+        verify(dbConnectionMapper, times(1)).findById(7L);
+
+        registry.invalidate(7L);
+        assertEquals(0, registry.getPoolCount());
+
+        // The same handle rebuilds the pool from the (possibly updated) connection settings
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertEquals(1, registry.getPoolCount());
+        verify(dbConnectionMapper, times(2)).findById(7L);
+    }
+
+    @Test
+    void testIdlePoolsAreEvicted() {
+        when(dbConnectionMapper.findById(7L)).thenReturn(connection);
+        assertThrows(SQLException.class, () -> registry.getDataSource(7L).getConnection());
+        assertEquals(1, registry.getPoolCount());
+
+        registry.evictIdlePools();
+        assertEquals(1, registry.getPoolCount());
+
+        optimizationConfig.setPoolIdleTimeoutMinutes(-1);
+        registry.evictIdlePools();
+        assertEquals(0, registry.getPoolCount());
+    }
+}
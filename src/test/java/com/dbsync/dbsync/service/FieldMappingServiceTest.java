@@ -28,6 +28,9 @@ public class FieldMappingServiceTest {
     
     @Mock
     private SqlQueryAnalyzer sqlQueryAnalyzer;
+
+    @Mock
+    private SchemaSnapshotService schemaSnapshotService;
     
     @InjectMocks
     private FieldMappingService fieldMappingService;
@@ -0,0 +1,56 @@
+package com.dbsync.dbsync.service;
+
+import com.dbsync.dbsync.mapper.TableMapper;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * SqlSessionFactoryCache 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+public class SqlSessionFactoryCacheTest {
+
+    @Mock
+    private DataSourceRegistry dataSourceRegistry;
+
+    @InjectMocks
+    private SqlSessionFactoryCache cache;
+
+    @Test
+    void testFactoryIsBuiltOncePerConnection() {
+        when(dataSourceRegistry.getDataSource(anyLong())).thenReturn(mock(DataSource.class));
+
+        SqlSessionFactory first = cache.getSqlSessionFactory(1L);
+        SqlSessionFactory second = cache.getSqlSessionFactory(1L);
+        SqlSessionFactory other = cache.getSqlSessionFactory(2L);
+
+        assertSame(first, second);
+        assertNotSame(first, other);
+        assertTrue(first.getConfiguration().hasMapper(TableMapper.class));
+        assertEquals(2, cache.getBuildCount());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(Math.round(cache.getAverageBuildMillis()), cache.getEstimatedSavedMillis());
+    }
+
+    @Test
+    void testInvalidateRebuildsFactory() {
+        when(dataSourceRegistry.getDataSource(anyLong())).thenReturn(mock(DataSource.class));
+
+        SqlSessionFactory first = cache.getSqlSessionFactory(1L);
+        cache.invalidate(1L);
+
+        assertNotSame(first, cache.getSqlSessionFactory(1L));
+        assertEquals(2, cache.getBuildCount());
+    }
+}
@@ -0,0 +1,60 @@
+package com.dbsync.dbsync.sync;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 自适应批次大小测试
+ */
+class AdaptiveBatchSizerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(5000);
+
+    @Test
+    void testFastFullBatchesGrowUpToMaximum() {
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(1000, 100, 1200, 100, 1000, 1024 * 1024);
+
+        assertEquals(1100, sizer.onBatchWritten(1000, 1000, FAST, false));
+        assertEquals(1200, sizer.onBatchWritten(1100, 1000, FAST, false));
+        assertEquals(1200, sizer.onBatchWritten(1200, 1000, FAST, false));
+        assertEquals(2, sizer.getIncreases());
+
+        // A short final page does not grow the batch
+        AdaptiveBatchSizer idle = new AdaptiveBatchSizer(1000, 100, 10000, 100, 1000, 1024 * 1024);
+        assertEquals(1000, idle.onBatchWritten(10, 100, FAST, false));
+    }
+
+    @Test
+    void testRetrySlowWriteAndLargePayloadHalveBatch() {
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(8000, 100, 10000, 100, 1000, 1024 * 1024);
+
+        assertEquals(4000, sizer.onBatchWritten(8000, 1000, FAST, true));
+        assertEquals(2000, sizer.onBatchWritten(4000, 1000, SLOW, false));
+        assertEquals(1000, sizer.onBatchWritten(2000, 2 * 1024 * 1024, FAST, false));
+        assertEquals(500, sizer.onBatchFailed());
+        assertEquals(4, sizer.getDecreases());
+
+        // Between the target and twice the target the size is kept
+        assertEquals(500, sizer.onBatchWritten(500, 1000, TimeUnit.MILLISECONDS.toNanos(1500), false));
+    }
+
+    @Test
+    void testSizeStaysWithinBounds() {
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(50000, 100, 10000, 100, 1000, 1024 * 1024);
+        assertEquals(10000, sizer.getAsInt());
+
+        for (int i = 0; i < 20; i++) {
+            sizer.onBatchFailed();
+        }
+        assertEquals(100, sizer.getAsInt());
+
+        AdaptiveBatchSizer fixed = AdaptiveBatchSizer.fixed(500);
+        fixed.onBatchWritten(500, Long.MAX_VALUE, SLOW, true);
+        fixed.onBatchWritten(500, 0, 0, false);
+        assertEquals(500, fixed.getAsInt());
+    }
+}
@@ -0,0 +1,78 @@
+package com.dbsync.dbsync.sync;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sqlite.SQLiteDataSource;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 日志增量变更应用测试（使用SQLite文件库）
+ */
+class ChangeApplierTest {
+
+    @TempDir
+    Path tempDir;
+
+    private SQLiteDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + tempDir.resolve("target.db"));
+        try (Connection connection = dataSource.getConnection();
+             Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE orders (id INTEGER PRIMARY KEY, note TEXT)");
+            stmt.execute("INSERT INTO orders VALUES (1, 'old')");
+        }
+    }
+
+    @Test
+    void testAppliesChangesInOrderAndIdempotently() throws Exception {
+        // SQLite accepts the PostgreSQL ON CONFLICT form
+        try (ChangeApplier applier = new ChangeApplier(dataSource, "postgresql", table -> Collections.singletonList("id"))) {
+            for (int run = 0; run < 2; run++) {
+                applier.apply(Arrays.asList(
+                        TestDecodingParser.parse("table public.orders: INSERT: id[integer]:2 note[text]:'new'"),
+                        TestDecodingParser.parse("table public.orders: UPDATE: id[integer]:1 note[text]:'changed'"),
+                        TestDecodingParser.parse("table public.orders: UPDATE: old-key: id[integer]:2 new-tuple: id[integer]:3 note[text]:'moved'"),
+                        TestDecodingParser.parse("table public.orders: INSERT: id[integer]:4 note[text]:null"),
+                        TestDecodingParser.parse("table public.orders: DELETE: id[integer]:4")));
+            }
+            assertEquals(2, applier.getPreparedStatementCount());
+        }
+        assertEquals(2, count("SELECT COUNT(*) FROM orders"));
+        assertEquals(1, count("SELECT COUNT(*) FROM orders WHERE id = 1 AND note = 'changed'"));
+        assertEquals(1, count("SELECT COUNT(*) FROM orders WHERE id = 3 AND note = 'moved'"));
+    }
+
+    @Test
+    void testFailedBatchIsRolledBack() throws Exception {
+        try (ChangeApplier applier = new ChangeApplier(dataSource, "postgresql", table -> Collections.singletonList("id"))) {
+            assertThrows(SQLException.class, () -> applier.apply(Arrays.asList(
+                    TestDecodingParser.parse("table public.orders: DELETE: id[integer]:1"),
+                    TestDecodingParser.parse("table public.missing: INSERT: id[integer]:1"))));
+            assertThrows(IllegalStateException.class, () -> applier.apply(Collections.singletonList(
+                    TestDecodingParser.parse("table public.orders: DELETE: (no-tuple-data)"))));
+        }
+        assertEquals(1, count("SELECT COUNT(*) FROM orders"));
+    }
+
+    private int count(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
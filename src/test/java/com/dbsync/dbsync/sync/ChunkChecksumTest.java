@@ -0,0 +1,40 @@
+package com.dbsync.dbsync.sync;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 块校验值测试
+ */
+class ChunkChecksumTest {
+
+    @Test
+    void testEqualValuesFromDifferentDriversHashAlike() throws Exception {
+        MessageDigest md5 = ChunkChecksum.newDigest();
+        long fromNumber = ChunkChecksum.rowHash(md5, new Object[]{new BigDecimal("1.50"), java.sql.Date.valueOf("2024-03-01"), true});
+        long fromOther = ChunkChecksum.rowHash(md5, new Object[]{1.5d, Timestamp.valueOf("2024-03-01 00:00:00"), 1});
+        assertEquals(fromNumber, fromOther);
+        assertNotEquals(ChunkChecksum.rowHash(md5, new Object[]{null, "a"}), ChunkChecksum.rowHash(md5, new Object[]{"", "a"}));
+    }
+
+    @Test
+    void testPushdownOnlyBetweenSameKindOfDatabase() {
+        assertTrue(ChunkChecksum.supportsPushdown("vastbase", "postgresql"));
+        assertFalse(ChunkChecksum.supportsPushdown("oracle", "postgresql"));
+        assertFalse(ChunkChecksum.supportsPushdown("dameng", "dameng"));
+
+        assertEquals("SELECT COUNT(*), md5(string_agg(md5(CAST(ROW(id, note) AS text)), '' ORDER BY id)) FROM orders WHERE id >= ?",
+                ChunkChecksum.buildPushdownSql("postgresql", "orders", Arrays.asList("id", "note"),
+                        Collections.singletonList("id"), "id >= ?"));
+        assertEquals("SELECT COUNT(*), CHECKSUM_AGG(BINARY_CHECKSUM([ID], [NOTE])) FROM orders",
+                ChunkChecksum.buildPushdownSql("sqlserver", "orders", Arrays.asList("[ID]", "[NOTE]"),
+                        Collections.singletonList("[ID]"), null));
+    }
+}
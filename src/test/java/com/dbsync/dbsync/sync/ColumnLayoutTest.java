@@ -0,0 +1,43 @@
+package com.dbsync.dbsync.sync;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Types;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 列布局测试
+ */
+class ColumnLayoutTest {
+
+    @Test
+    void testPaginationColumnsAreExcludedFromInsert() {
+        ColumnLayout layout = ColumnLayout.of(
+                new String[]{"NAME", "ID", "RN", SourceReadPlan.ROW_LOCATOR_COLUMN},
+                new int[]{Types.VARCHAR, Types.INTEGER, Types.INTEGER, Types.VARCHAR});
+
+        assertArrayEquals(new int[]{0, 1}, layout.getInsertPositions());
+        assertEquals(Arrays.asList("NAME", "ID"), layout.getInsertColumnNames());
+    }
+
+    @Test
+    void testIndexOfIgnoresCase() {
+        ColumnLayout layout = ColumnLayout.of(new String[]{"id", "Code"}, new int[]{Types.INTEGER, Types.VARCHAR});
+
+        assertEquals(0, layout.indexOf("ID"));
+        assertEquals(1, layout.indexOf("code"));
+        assertEquals(-1, layout.indexOf("missing"));
+    }
+
+    @Test
+    void testKeyPositionsResolvedFromLayout() {
+        ColumnLayout layout = ColumnLayout.of(new String[]{"NAME", "TENANT_ID", "ID"},
+                new int[]{Types.VARCHAR, Types.INTEGER, Types.INTEGER});
+
+        assertArrayEquals(new int[]{1, 2}, SourceReadPlan.keyset(Arrays.asList("tenant_id", "id")).resolveKeyPositions(layout));
+        assertThrows(IllegalStateException.class,
+                () -> SourceReadPlan.keyset(Arrays.asList("other")).resolveKeyPositions(layout));
+    }
+}
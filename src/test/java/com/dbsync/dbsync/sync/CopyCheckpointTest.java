@@ -0,0 +1,60 @@
+package com.dbsync.dbsync.sync;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 表复制检查点测试
+ */
+class CopyCheckpointTest {
+
+    @Test
+    void testKeyValuesRoundTripThroughText() {
+        Timestamp created = Timestamp.valueOf("2024-03-01 10:15:30.5");
+        String encoded = CopyCheckpoint.encodeValues(Arrays.<Object>asList(42L, "a:b", created));
+
+        List<Object> decoded = CopyCheckpoint.decodeValues(encoded);
+        assertEquals(0, new BigDecimal("42").compareTo((BigDecimal) decoded.get(0)));
+        assertEquals("a:b", decoded.get(1));
+        assertEquals(created, decoded.get(2));
+        assertNull(CopyCheckpoint.decodeValues(CopyCheckpoint.encodeValues(null)));
+    }
+
+    @Test
+    void testBinaryKeyIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> CopyCheckpoint.encodeValue(new byte[]{1}));
+    }
+
+    @Test
+    void testDiscardSqlCoversRowsBehindCompositeKeyWithinRange() {
+        SourceReadPlan plan = SourceReadPlan.keyset(Arrays.asList("TENANT_ID", "ID"));
+        TableRange range = TableRange.keyRange(2, "TENANT_ID", 10L, 20L);
+        CopyCheckpoint checkpoint = CopyCheckpoint.start("ORDERS", plan, range)
+                .advance(Arrays.<Object>asList(12L, 7L), 500);
+
+        assertEquals("DELETE FROM orders WHERE ((tenant_id > ?) OR (tenant_id = ? AND id > ?))"
+                + " AND tenant_id >= ? AND tenant_id < ?", checkpoint.buildDiscardSql("orders"));
+        assertEquals(Arrays.<Object>asList(12L, 12L, 7L, 10L, 20L), checkpoint.getDiscardParameters());
+        assertEquals(range.getLower(), checkpoint.toRange().getLower());
+        assertEquals(2, checkpoint.toRange().getIndex());
+    }
+
+    @Test
+    void testOnlyKeysetPlansSupportCheckpoints() {
+        SourceReadPlan keyset = SourceReadPlan.keyset(Collections.singletonList("ID"));
+        assertTrue(CopyCheckpoint.supports(keyset, null));
+        assertFalse(CopyCheckpoint.supports(SourceReadPlan.offset(), null));
+        assertFalse(CopyCheckpoint.supports(keyset, TableRange.hashBucket(0, 4)));
+
+        CopyCheckpoint checkpoint = CopyCheckpoint.start("T", keyset, null);
+        assertEquals("DELETE FROM t", checkpoint.buildDiscardSql("t"));
+        assertFalse(checkpoint.matches(SourceReadPlan.keyset(Collections.singletonList("CODE"))));
+    }
+}
@@ -0,0 +1,118 @@
+package com.dbsync.dbsync.sync;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 检查点跟踪测试：写线程乱序完成时检查点只推进到连续提交的前缀
+ */
+class CopyCheckpointTrackerTest {
+
+    private static final ColumnLayout LAYOUT = ColumnLayout.of(new String[]{"ID", "NAME"}, new int[]{Types.INTEGER, Types.VARCHAR});
+    private static final SourceReadPlan PLAN = SourceReadPlan.keyset(Collections.singletonList("ID"));
+
+    @Test
+    void testCheckpointAdvancesOnlyOverContiguousPrefix() throws Exception {
+        List<CopyCheckpoint> saved = new ArrayList<>();
+        CopyCheckpointTracker tracker = new CopyCheckpointTracker(CopyCheckpoint.start("T", PLAN, null), PLAN,
+                recordingStore(saved), 0, () -> false);
+        List<RowBatch> batches = readAll(tracker, batch(1, 2), batch(3, 4), batch(5, 6));
+        PipelinedTableCopier.BatchWriter writer = tracker.track((PipelinedTableCopier.BatchWriter) RowBatch::size);
+
+        writer.write(batches.get(1));
+        assertNull(tracker.current().getLastKey());
+        assertTrue(saved.isEmpty());
+
+        writer.write(batches.get(0));
+        assertEquals(Collections.singletonList(4), tracker.current().getLastKey());
+        assertEquals(4, tracker.current().getRowsCopied());
+        assertEquals(tracker.current(), saved.get(saved.size() - 1));
+
+        writer.write(batches.get(2));
+        tracker.complete();
+        CopyCheckpoint last = saved.get(saved.size() - 1);
+        assertTrue(last.isCompleted());
+        assertEquals(6, last.getRowsCopied());
+    }
+
+    @Test
+    void testStopKeepsCommittedPosition() throws Exception {
+        List<CopyCheckpoint> saved = new ArrayList<>();
+        AtomicBoolean stop = new AtomicBoolean();
+        CopyCheckpointTracker tracker = new CopyCheckpointTracker(CopyCheckpoint.start("T", PLAN, null), PLAN,
+                recordingStore(saved), 60_000, stop::get);
+        List<RowBatch> batches = readAll(tracker, batch(1, 2), batch(3, 4));
+        PipelinedTableCopier.BatchWriter writer = tracker.track((PipelinedTableCopier.BatchWriter) RowBatch::size);
+
+        writer.write(batches.get(0));
+        stop.set(true);
+        assertThrows(CancellationException.class, () -> writer.write(batches.get(1)));
+
+        // 保存间隔未到，停止后flush写出已提交的位置
+        assertTrue(saved.isEmpty());
+        tracker.flush();
+        assertEquals(Collections.singletonList(2), saved.get(0).getLastKey());
+        assertFalse(saved.get(0).isCompleted());
+    }
+
+    private static List<RowBatch> readAll(CopyCheckpointTracker tracker, RowBatch... source) throws Exception {
+        List<RowBatch> pending = new ArrayList<>();
+        Collections.addAll(pending, source);
+        SourceTableReader reader = tracker.track(new SourceTableReader() {
+            @Override
+            public RowBatch nextBatch() {
+                return pending.isEmpty() ? RowBatch.empty() : pending.remove(0);
+            }
+
+            @Override
+            public String describe() {
+                return "test";
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        List<RowBatch> batches = new ArrayList<>();
+        RowBatch batch;
+        while (!(batch = reader.nextBatch()).isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    private static RowBatch batch(int... ids) {
+        RowBatch batch = new RowBatch(LAYOUT, ids.length);
+        for (int id : ids) {
+            batch.add(new Object[]{id, "n" + id});
+        }
+        return batch;
+    }
+
+    private static CopyCheckpointStore recordingStore(List<CopyCheckpoint> saved) {
+        return new CopyCheckpointStore() {
+            @Override
+            public List<CopyCheckpoint> load(String tableName) {
+                return Collections.emptyList();
+            }
+
+            @Override
+            public void save(CopyCheckpoint checkpoint) {
+                saved.add(checkpoint);
+            }
+
+            @Override
+            public void clear(String tableName) {
+                saved.clear();
+            }
+        };
+    }
+}
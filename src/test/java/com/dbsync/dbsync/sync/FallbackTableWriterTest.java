@@ -0,0 +1,135 @@
+package com.dbsync.dbsync.sync;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Types;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 批量加载回退测试
+ */
+class FallbackTableWriterTest {
+
+    private static final ColumnLayout LAYOUT = ColumnLayout.of(new String[]{"id"}, new int[]{Types.INTEGER});
+
+    @Test
+    void testFirstFailureSwitchesWholeTableToFallback() throws Exception {
+        AtomicInteger fallbacksCreated = new AtomicInteger();
+        CountingWriter fallback = new CountingWriter(false);
+        CountingWriter primary = new CountingWriter(true);
+
+        try (FallbackTableWriter writer = new FallbackTableWriter(primary, () -> {
+            fallbacksCreated.incrementAndGet();
+            return fallback;
+        }, "t")) {
+            assertEquals(2, writer.write(batch(2)));
+            assertTrue(writer.isFallbackActive());
+            assertEquals(3, writer.write(batch(3)));
+        }
+
+        assertEquals(1, primary.calls);
+        assertEquals(2, fallback.calls);
+        assertEquals(1, fallbacksCreated.get());
+        assertTrue(primary.closed);
+        assertTrue(fallback.closed);
+    }
+
+    @Test
+    void testPrimaryUsedWhileItSucceeds() throws Exception {
+        CountingWriter primary = new CountingWriter(false);
+        try (FallbackTableWriter writer = new FallbackTableWriter(primary, () -> {
+            throw new AssertionError("fallback must not be created");
+        }, "t")) {
+            writer.write(batch(1));
+            writer.write(batch(1));
+            assertFalse(writer.isFallbackActive());
+        }
+        assertEquals(2, primary.calls);
+    }
+
+    @Test
+    void testNonAtomicPrimaryFailureIsNotRewritten() {
+        CountingWriter primary = new CountingWriter(true, false);
+        FallbackTableWriter writer = new FallbackTableWriter(primary, () -> {
+            throw new AssertionError("a partly written batch must not be re-sent");
+        }, "t");
+
+        assertThrows(SQLFeatureNotSupportedException.class, () -> writer.write(batch(2)));
+        assertFalse(writer.isFallbackActive());
+    }
+
+    @Test
+    void testBulkCopyRejectsUnconstrainedNumerics() {
+        ColumnLayout constrained = ColumnLayout.of(new String[]{"AMOUNT"}, new int[]{Types.NUMERIC}, new int[]{10}, new int[]{2});
+        ColumnLayout unconstrained = ColumnLayout.of(new String[]{"AMOUNT"}, new int[]{Types.NUMERIC}, new int[]{0}, new int[]{-127});
+
+        assertNull(SqlServerBulkCopyWriter.findUnsupportedColumn(constrained));
+        assertEquals("AMOUNT", SqlServerBulkCopyWriter.findUnsupportedColumn(unconstrained));
+    }
+
+    private RowBatch batch(int rows) {
+        RowBatch batch = new RowBatch(LAYOUT, rows);
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Object[]{i});
+        }
+        return batch;
+    }
+
+    /**
+     * 记录调用次数的写入器，可配置为总是失败
+     */
+    private static class CountingWriter implements TableWriter {
+        private final boolean failing;
+        private final boolean atomic;
+        private int calls;
+        private boolean closed;
+
+        CountingWriter(boolean failing) {
+            this(failing, true);
+        }
+
+        CountingWriter(boolean failing, boolean atomic) {
+            this.failing = failing;
+            this.atomic = atomic;
+        }
+
+        @Override
+        public boolean isAtomicPerBatch() {
+            return atomic;
+        }
+
+        @Override
+        public int write(RowBatch batch) throws SQLException {
+            calls++;
+            if (failing) {
+                throw new SQLFeatureNotSupportedException("not supported");
+            }
+            return batch.size();
+        }
+
+        @Override
+        public String describe(ColumnLayout layout) {
+            return "test";
+        }
+
+        @Override
+        public String summary() {
+            return calls + " call(s)";
+        }
+
+        @Override
+        public DataSource getDataSource() {
+            return null;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
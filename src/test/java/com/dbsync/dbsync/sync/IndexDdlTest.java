@@ -0,0 +1,86 @@
+package com.dbsync.dbsync.sync;
+
+import com.dbsync.dbsync.entity.ForeignKeyInfo;
+import com.dbsync.dbsync.entity.IndexInfo;
+import com.dbsync.dbsync.util.DatabaseMetadataUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 延迟建索引使用的删除/重建DDL及外键定义读取测试
+ */
+class IndexDdlTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testDropAndParallelCreatePerDialect() {
+        IndexInfo primaryKey = new IndexInfo("pk_orders", true, true);
+        primaryKey.addColumn("id", false);
+        IndexInfo index = new IndexInfo("idx_orders_customer", false, false);
+        index.addColumn("customer_id", false);
+
+        assertEquals("ALTER TABLE orders DROP CONSTRAINT pk_orders", IndexDdl.dropSql("postgresql", "orders", primaryKey));
+        assertEquals("ALTER TABLE orders DROP PRIMARY KEY", IndexDdl.dropSql("mysql", "orders", primaryKey));
+        assertEquals("DROP INDEX idx_orders_customer", IndexDdl.dropSql("oracle", "orders", index));
+        assertEquals("DROP INDEX idx_orders_customer ON orders", IndexDdl.dropSql("sqlserver", "orders", index));
+
+        assertEquals(Arrays.asList("CREATE INDEX idx_orders_customer ON orders (customer_id) PARALLEL 4",
+                "ALTER INDEX idx_orders_customer NOPARALLEL"),
+                IndexDdl.createSql("oracle", "orders", index, "idx_orders_customer", 4));
+        assertEquals(Collections.singletonList("CREATE INDEX idx_orders_customer ON orders (customer_id)"),
+                IndexDdl.createSql("postgresql", "orders", index, "idx_orders_customer", 4));
+        assertEquals(1, IndexDdl.createSql("oracle", "orders", primaryKey, "pk_orders", 4).size());
+    }
+
+    @Test
+    void testForeignKeySqlKeepsSupportedRules() {
+        ForeignKeyInfo foreignKey = new ForeignKeyInfo("fk_lines_order", "order_lines", "orders");
+        foreignKey.addColumn("order_id", "id");
+        foreignKey.setDeleteRule(DatabaseMetaData.importedKeyCascade);
+        foreignKey.setUpdateRule(DatabaseMetaData.importedKeyCascade);
+
+        assertEquals("ALTER TABLE order_lines ADD CONSTRAINT fk_lines_order FOREIGN KEY (order_id) REFERENCES orders (id)" +
+                " ON DELETE CASCADE ON UPDATE CASCADE", IndexDdl.createForeignKeySql("postgresql", foreignKey));
+        assertEquals("ALTER TABLE order_lines ADD CONSTRAINT fk_lines_order FOREIGN KEY (order_id) REFERENCES orders (id)" +
+                " ON DELETE CASCADE", IndexDdl.createForeignKeySql("oracle", foreignKey));
+        assertEquals("ALTER TABLE order_lines DROP FOREIGN KEY fk_lines_order", IndexDdl.dropForeignKeySql("mysql", foreignKey));
+        assertEquals("ALTER TABLE order_lines DROP CONSTRAINT fk_lines_order", IndexDdl.dropForeignKeySql("sqlserver", foreignKey));
+    }
+
+    @Test
+    void testForeignKeysInBothDirections() throws Exception {
+        String url = "jdbc:sqlite:" + tempDir.resolve("fk.db");
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE customers (id INTEGER PRIMARY KEY)");
+            statement.execute("CREATE TABLE orders (id INTEGER PRIMARY KEY, customer_id INTEGER, " +
+                    "CONSTRAINT fk_orders_customer FOREIGN KEY (customer_id) REFERENCES customers (id))");
+            statement.execute("CREATE TABLE order_lines (order_id INTEGER, line INTEGER, " +
+                    "CONSTRAINT fk_lines_order FOREIGN KEY (order_id) REFERENCES orders (id) ON DELETE CASCADE)");
+
+            List<ForeignKeyInfo> foreignKeys = DatabaseMetadataUtil.getForeignKeys(connection, null, "orders");
+            assertEquals(2, foreignKeys.size());
+            ForeignKeyInfo imported = foreignKeys.get(0);
+            assertEquals("orders", imported.getTableName());
+            assertEquals("customers", imported.getReferencedTableName());
+            assertEquals(Collections.singletonList("customer_id"), imported.getColumnNames());
+            ForeignKeyInfo exported = foreignKeys.get(1);
+            assertEquals("order_lines", exported.getTableName());
+            assertEquals(Collections.singletonList("id"), exported.getReferencedColumnNames());
+            assertEquals(DatabaseMetaData.importedKeyCascade, exported.getDeleteRule().intValue());
+        }
+    }
+}
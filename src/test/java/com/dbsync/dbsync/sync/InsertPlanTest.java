@@ -0,0 +1,53 @@
+package com.dbsync.dbsync.sync;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 插入计划及各方言UPSERT语句生成测试
+ */
+class InsertPlanTest {
+
+    private static final ColumnLayout LAYOUT = ColumnLayout.of(
+            new String[]{"ID", "NAME", "UPDATED_AT", "RN"}, new int[]{Types.INTEGER, Types.VARCHAR, Types.TIMESTAMP, Types.INTEGER});
+
+    @Test
+    void testInsertOnConflictAndOnDuplicateKey() {
+        assertEquals("INSERT INTO t (id, name, updated_at) VALUES (?,?,?) ON CONFLICT (id) " +
+                        "DO UPDATE SET name = EXCLUDED.name, updated_at = EXCLUDED.updated_at",
+                InsertPlan.upsert("t", LAYOUT, "postgresql", Collections.singletonList("ID")).getSql());
+        assertEquals("INSERT INTO t (id, name, updated_at) VALUES (?,?,?) ON DUPLICATE KEY " +
+                        "UPDATE name = VALUES(name), updated_at = VALUES(updated_at)",
+                InsertPlan.upsert("t", LAYOUT, "mysql", Collections.singletonList("id")).getSql());
+    }
+
+    @Test
+    void testMergeForOracleAndSqlServer() {
+        assertEquals("MERGE INTO t d USING (SELECT ? AS id, ? AS name, ? AS updated_at FROM DUAL) s ON (d.id = s.id)" +
+                        " WHEN MATCHED THEN UPDATE SET d.name = s.name, d.updated_at = s.updated_at" +
+                        " WHEN NOT MATCHED THEN INSERT (id, name, updated_at) VALUES (s.id, s.name, s.updated_at)",
+                InsertPlan.upsert("t", LAYOUT, "oracle", Collections.singletonList("ID")).getSql());
+        assertEquals("MERGE INTO t AS d USING (VALUES (?,?,?)) AS s (id, name, updated_at) ON d.id = s.id AND d.name = s.name" +
+                        " WHEN MATCHED THEN UPDATE SET d.updated_at = s.updated_at" +
+                        " WHEN NOT MATCHED THEN INSERT (id, name, updated_at) VALUES (s.id, s.name, s.updated_at);",
+                InsertPlan.upsert("t", LAYOUT, "sqlserver", Arrays.asList("ID", "NAME")).getSql());
+    }
+
+    @Test
+    void testKeyOnlyTablesAndUnknownKeys() {
+        ColumnLayout keyOnly = ColumnLayout.of(new String[]{"ID"}, new int[]{Types.INTEGER});
+        assertEquals("INSERT INTO t (id) VALUES (?) ON CONFLICT (id) DO NOTHING",
+                InsertPlan.upsert("t", keyOnly, "vastbase", Collections.singletonList("id")).getSql());
+        assertFalse(InsertPlan.upsert("t", keyOnly, "dameng", Collections.singletonList("id")).getSql().contains("WHEN MATCHED"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> InsertPlan.upsert("t", LAYOUT, "postgresql", Collections.singletonList("missing")));
+        assertThrows(IllegalArgumentException.class,
+                () -> InsertPlan.upsert("t", LAYOUT, "sqlite", Collections.singletonList("id")));
+    }
+}
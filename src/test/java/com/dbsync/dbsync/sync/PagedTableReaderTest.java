@@ -0,0 +1,136 @@
+package com.dbsync.dbsync.sync;
+
+import com.dbsync.dbsync.mapper.TableMapper;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sqlite.SQLiteDataSource;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 分页读取器测试（使用SQLite文件库，按MySQL方言生成分页SQL）
+ */
+class PagedTableReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private SqlSession session;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + tempDir.resolve("paged.db"));
+        try (Connection connection = dataSource.getConnection();
+             Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE orders (id INTEGER PRIMARY KEY, code TEXT, note TEXT)");
+            try (PreparedStatement ps = connection.prepareStatement("INSERT INTO orders VALUES (?, ?, ?)")) {
+                for (int i = 1; i <= 25; i++) {
+                    ps.setInt(1, i);
+                    ps.setString(2, "c" + i);
+                    ps.setString(3, i % 5 == 0 ? null : "n" + i);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+        }
+
+        Configuration configuration = new Configuration(new Environment("test", new JdbcTransactionFactory(), dataSource));
+        configuration.addMapper(TableMapper.class);
+        session = new SqlSessionFactoryBuilder().build(configuration).openSession();
+    }
+
+    @AfterEach
+    void tearDown() {
+        session.close();
+    }
+
+    @Test
+    void testKeysetPagesShareOneLayoutAndCoverTable() throws Exception {
+        SourceReadPlan plan = SourceReadPlan.keyset(Collections.singletonList("id"));
+        ColumnLayout layout = null;
+        int total = 0;
+        Object lastId = null;
+        try (PagedTableReader reader = new PagedTableReader(session, plan, "mysql", "orders", null, 10)) {
+            RowBatch batch;
+            while (!(batch = reader.nextBatch()).isEmpty()) {
+                if (layout == null) {
+                    layout = batch.getLayout();
+                }
+                assertSame(layout, batch.getLayout());
+                total += batch.size();
+                lastId = batch.get(batch.size() - 1, layout.indexOf("ID"));
+            }
+        }
+        assertEquals(25, total);
+        assertEquals(25, ((Number) lastId).intValue());
+        assertEquals(3, layout.size());
+    }
+
+    @Test
+    void testOffsetPagesKeepNullCells() throws Exception {
+        try (PagedTableReader reader = new PagedTableReader(session, SourceReadPlan.offset(), "mysql", "orders", null, 5)) {
+            RowBatch first = reader.nextBatch();
+            assertEquals(5, first.size());
+            int note = first.getLayout().indexOf("note");
+            assertNull(first.get(4, note));
+            assertEquals("n1", first.get(0, note));
+        }
+    }
+
+    @Test
+    void testWatermarkWindowReadsOnlyRowsAboveLastMark() throws Exception {
+        Watermark last = Watermark.of("id", Watermark.Kind.NUMBER, "20");
+        WatermarkWindow window = WatermarkWindow.probe(session.getConnection(), "mysql", "orders", "id", last);
+        assertEquals(Watermark.Kind.NUMBER, window.getUpper().getKind());
+        assertEquals("25", window.getUpper().getValue());
+        assertEquals(5, window.countRows(session.getConnection(), "mysql", "orders"));
+
+        SourceReadPlan plan = SourceReadPlan.keyset(Collections.singletonList("id"));
+        int total = 0;
+        try (PagedTableReader reader = new PagedTableReader(session, plan, "mysql", "orders", null, () -> 2, null, window)) {
+            RowBatch batch;
+            while (!(batch = reader.nextBatch()).isEmpty()) {
+                for (int i = 0; i < batch.size(); i++) {
+                    assertTrue(((Number) batch.get(i, batch.getLayout().indexOf("id"))).intValue() > 20);
+                }
+                total += batch.size();
+            }
+        }
+        assertEquals(5, total);
+
+        assertNull(WatermarkWindow.probe(session.getConnection(), "mysql", "orders", "id", window.getUpper()));
+    }
+
+    @Test
+    void testStartAfterResumesBehindCheckpointKey() throws Exception {
+        SourceReadPlan plan = SourceReadPlan.keyset(Collections.singletonList("id"));
+        int total = 0;
+        Object firstId = null;
+        try (PagedTableReader reader = new PagedTableReader(session, plan, "mysql", "orders", null, 10)
+                .startAfter(Collections.<Object>singletonList(18))) {
+            RowBatch batch;
+            while (!(batch = reader.nextBatch()).isEmpty()) {
+                if (firstId == null) {
+                    firstId = batch.get(0, batch.getLayout().indexOf("id"));
+                }
+                total += batch.size();
+            }
+        }
+        assertEquals(7, total);
+        assertEquals(19, ((Number) firstId).intValue());
+    }
+}
@@ -0,0 +1,129 @@
+package com.dbsync.dbsync.sync;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * COPY文本格式编码测试
+ */
+class PgCopyWriterTest {
+
+    @Test
+    void testKindFollowsTargetType() {
+        assertEquals(PgCopyWriter.ValueKind.BOOLEAN, PgCopyWriter.kindOf("boolean"));
+        assertEquals(PgCopyWriter.ValueKind.BYTEA, PgCopyWriter.kindOf("BYTEA"));
+        assertEquals(PgCopyWriter.ValueKind.NUMERIC, PgCopyWriter.kindOf("NUMERIC(10,2)"));
+        assertEquals(PgCopyWriter.ValueKind.NUMERIC, PgCopyWriter.kindOf("BIGINT"));
+        assertEquals(PgCopyWriter.ValueKind.TEMPORAL, PgCopyWriter.kindOf("TIMESTAMP(6)"));
+        assertEquals(PgCopyWriter.ValueKind.TEXT, PgCopyWriter.kindOf("VARCHAR(200)"));
+        assertEquals(PgCopyWriter.ValueKind.OTHER, PgCopyWriter.kindOf("INTERVAL"));
+        assertEquals(PgCopyWriter.ValueKind.OTHER, PgCopyWriter.kindOf(null));
+    }
+
+    @Test
+    void testTextValuesAreEscaped() {
+        assertEquals("\\N", encode(null, PgCopyWriter.ValueKind.TEXT));
+        assertEquals("a\\tb\\nc\\\\d", encode("a\tb\nc\\d", PgCopyWriter.ValueKind.TEXT));
+        assertEquals("abc", encode("abc".getBytes(StandardCharsets.UTF_8), PgCopyWriter.ValueKind.TEXT));
+    }
+
+    @Test
+    void testValuesConvertedForTargetType() {
+        assertEquals("t", encode(1, PgCopyWriter.ValueKind.BOOLEAN));
+        assertEquals("f", encode(new BigDecimal("0"), PgCopyWriter.ValueKind.BOOLEAN));
+        assertEquals("1", encode(Boolean.TRUE, PgCopyWriter.ValueKind.NUMERIC));
+        assertEquals("\\\\x0aff", encode(new byte[]{0x0a, (byte) 0xff}, PgCopyWriter.ValueKind.BYTEA));
+        assertEquals("\\\\x6869", encode("hi", PgCopyWriter.ValueKind.BYTEA));
+        assertEquals("1000", encode(new BigDecimal("1E+3"), PgCopyWriter.ValueKind.NUMERIC));
+
+        Timestamp timestamp = Timestamp.valueOf("2024-01-02 03:04:05.5");
+        assertEquals("2024-01-02 03:04:05.5", encode(new java.util.Date(timestamp.getTime()), PgCopyWriter.ValueKind.TEMPORAL));
+    }
+
+    @Test
+    void testNullIsDistinctFromLiteralBackslashN() {
+        assertEquals("\\N", encode(null, PgCopyWriter.ValueKind.TEXT));
+        assertEquals("\\\\N", encode("\\N", PgCopyWriter.ValueKind.TEXT));
+        assertEquals("\\\\N", encode("\\N", PgCopyWriter.ValueKind.OTHER));
+        assertNull(decode(encode(null, PgCopyWriter.ValueKind.TEXT)));
+        assertEquals("\\N", decode(encode("\\N", PgCopyWriter.ValueKind.TEXT)));
+        // 空字符串不是NULL
+        assertEquals("", encode("", PgCopyWriter.ValueKind.TEXT));
+    }
+
+    @Test
+    void testSeparatorsAndBackslashesRoundTrip() {
+        String[] values = {"tab\there", "line\nbreak\r\n", "back\\slash\\", "\\t is not a tab", "\\", "plain"};
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append('\t');
+            }
+            PgCopyWriter.appendValue(line, values[i], i % 2 == 0 ? PgCopyWriter.ValueKind.TEXT : PgCopyWriter.ValueKind.OTHER);
+        }
+        // 编码后的行内只有列分隔符是真正的制表符，也不含换行
+        assertEquals(-1, line.indexOf("\n"));
+        assertEquals(-1, line.indexOf("\r"));
+        String[] fields = line.toString().split("\t", -1);
+        assertEquals(values.length, fields.length);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(values[i], decode(fields[i]));
+        }
+    }
+
+    @Test
+    void testByteaUsesEscapedHexFormat() {
+        assertEquals("\\N", encode(null, PgCopyWriter.ValueKind.BYTEA));
+        assertEquals("\\\\x", encode(new byte[0], PgCopyWriter.ValueKind.BYTEA));
+        // 反斜杠、制表符、换行和零字节都按十六进制写出，不会被当作COPY转义或分隔符
+        byte[] bytes = {'\\', '\t', '\n', 0, 'N', (byte) 0x80};
+        String encoded = encode(bytes, PgCopyWriter.ValueKind.BYTEA);
+        assertEquals("\\\\x5c090a004e80", encoded);
+        assertEquals("\\x5c090a004e80", decode(encoded));
+        // 未知列类型的byte[]同样按bytea编码
+        assertEquals(encoded, encode(bytes, PgCopyWriter.ValueKind.OTHER));
+    }
+
+    /**
+     * 按PostgreSQL COPY文本格式解码单个字段
+     */
+    private static String decode(String field) {
+        if (field.equals("\\N")) {
+            return null;
+        }
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c != '\\') {
+                out.append(c);
+                continue;
+            }
+            char next = field.charAt(++i);
+            switch (next) {
+                case 't':
+                    out.append('\t');
+                    break;
+                case 'n':
+                    out.append('\n');
+                    break;
+                case 'r':
+                    out.append('\r');
+                    break;
+                default:
+                    out.append(next);
+            }
+        }
+        return out.toString();
+    }
+
+    private String encode(Object value, PgCopyWriter.ValueKind kind) {
+        StringBuilder out = new StringBuilder();
+        PgCopyWriter.appendValue(out, value, kind);
+        return out.toString();
+    }
+}
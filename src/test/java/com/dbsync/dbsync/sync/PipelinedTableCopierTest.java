@@ -0,0 +1,169 @@
+package com.dbsync.dbsync.sync;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Types;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 流水线表复制测试
+ */
+class PipelinedTableCopierTest {
+
+    @Test
+    void testAllBatchesWrittenByMultipleWriters() throws Exception {
+        CountingReader reader = new CountingReader(50, 10);
+        AtomicInteger writtenRows = new AtomicInteger();
+
+        long rows = new PipelinedTableCopier(4, 3).copy("t1", "events", reader, batch -> {
+            writtenRows.addAndGet(batch.size());
+            return batch.size();
+        });
+
+        assertEquals(500, rows);
+        assertEquals(500, writtenRows.get());
+    }
+
+    @Test
+    void testSerialModeWhenNoWriterThreads() throws Exception {
+        CountingReader reader = new CountingReader(3, 7);
+        String callerThread = Thread.currentThread().getName();
+
+        long rows = new PipelinedTableCopier(4, 0).copy("t1", "events", reader, batch -> {
+            assertEquals(callerThread, Thread.currentThread().getName());
+            return batch.size();
+        });
+
+        assertEquals(21, rows);
+    }
+
+    @Test
+    void testReaderIsThrottledByFullQueue() throws Exception {
+        CountingReader reader = new CountingReader(100, 1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread copyThread = new Thread(() -> {
+            try {
+                new PipelinedTableCopier(2, 1).copy("t1", "events", reader, batch -> {
+                    release.await();
+                    return batch.size();
+                });
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        copyThread.start();
+
+        Thread.sleep(300);
+        // One batch held by the blocked writer, two in the queue, one waiting to be offered
+        assertTrue(reader.batchesRead.get() <= 4, "reader ran ahead: " + reader.batchesRead.get());
+
+        release.countDown();
+        copyThread.join(TimeUnit.SECONDS.toMillis(10));
+        assertFalse(copyThread.isAlive());
+        assertEquals(100, reader.batchesRead.get());
+    }
+
+    @Test
+    void testWriterFailureStopsReaderAndPropagates() {
+        CountingReader reader = new CountingReader(1000, 10);
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, () ->
+                new PipelinedTableCopier(2, 2).copy("t1", "events", reader, batch -> {
+                    throw new IllegalStateException("target unavailable");
+                }));
+
+        assertEquals("target unavailable", error.getMessage());
+        assertTrue(reader.batchesRead.get() < 1000);
+    }
+
+    @Test
+    void testFailureWaitsForWriterStillInWrite() throws Exception {
+        CountingReader reader = new CountingReader(1000, 10);
+        CountDownLatch blockedWriterEntered = new CountDownLatch(1);
+        CountDownLatch failed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean blockedWriterFinished = new AtomicBoolean();
+        AtomicInteger calls = new AtomicInteger();
+
+        // 另一个写线程失败后稍等再放行被阻塞的写线程，copy()必须等它写完才能抛出异常
+        Thread releaser = new Thread(() -> {
+            try {
+                failed.await();
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            release.countDown();
+        });
+        releaser.start();
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, () ->
+                new PipelinedTableCopier(2, 2).copy("t1", "events", reader, batch -> {
+                    if (calls.incrementAndGet() == 1) {
+                        blockedWriterEntered.countDown();
+                        // 模拟不响应中断的JDBC调用
+                        while (true) {
+                            try {
+                                release.await();
+                                break;
+                            } catch (InterruptedException ignored) {
+                                // keep waiting like a driver blocked on the socket
+                            }
+                        }
+                        blockedWriterFinished.set(true);
+                        return batch.size();
+                    }
+                    blockedWriterEntered.await();
+                    failed.countDown();
+                    throw new IllegalStateException("target unavailable");
+                }));
+
+        assertEquals("target unavailable", error.getMessage());
+        assertTrue(blockedWriterFinished.get(), "copy() returned while a writer was still inside write()");
+        releaser.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * 生成固定数量批次的读取器
+     */
+    private static class CountingReader implements SourceTableReader {
+        private static final ColumnLayout LAYOUT = ColumnLayout.of(new String[]{"id"}, new int[]{Types.INTEGER});
+
+        private final int batches;
+        private final int rowsPerBatch;
+        private final AtomicInteger batchesRead = new AtomicInteger();
+
+        CountingReader(int batches, int rowsPerBatch) {
+            this.batches = batches;
+            this.rowsPerBatch = rowsPerBatch;
+        }
+
+        @Override
+        public RowBatch nextBatch() {
+            if (batchesRead.get() >= batches) {
+                return RowBatch.empty();
+            }
+            int batchNo = batchesRead.incrementAndGet();
+            RowBatch batch = new RowBatch(LAYOUT, rowsPerBatch);
+            for (int i = 0; i < rowsPerBatch; i++) {
+                batch.add(new Object[]{batchNo * rowsPerBatch + i});
+            }
+            return batch;
+        }
+
+        @Override
+        public String describe() {
+            return "test";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.dbsync.dbsync.sync;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sqlite.SQLiteDataSource;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 预编译INSERT写入器测试（使用SQLite文件库）
+ */
+class PreparedInsertWriterTest {
+
+    private static final ColumnLayout LAYOUT = ColumnLayout.of(
+            new String[]{"ID", "NAME", "RN"}, new int[]{Types.INTEGER, Types.VARCHAR, Types.INTEGER});
+
+    @TempDir
+    Path tempDir;
+
+    private SQLiteDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + tempDir.resolve("target.db"));
+        try (Connection connection = dataSource.getConnection();
+             Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE people (id INTEGER PRIMARY KEY, name TEXT)");
+        }
+    }
+
+    @Test
+    void testStatementIsPreparedOnceAcrossBatches() throws Exception {
+        try (PreparedInsertWriter writer = new PreparedInsertWriter(dataSource, "people")) {
+            assertEquals("INSERT INTO people (id, name) VALUES (?,?)", writer.planFor(LAYOUT).getSql());
+            for (int b = 0; b < 5; b++) {
+                RowBatch batch = new RowBatch(LAYOUT, 10);
+                for (int i = 0; i < 10; i++) {
+                    int id = b * 10 + i;
+                    batch.add(new Object[]{id, id % 3 == 0 ? null : "p" + id, id});
+                }
+                assertEquals(10, writer.insert(batch).length);
+            }
+            assertEquals(1, writer.getPrepareCount());
+        }
+        assertEquals(50, count("SELECT COUNT(*) FROM people"));
+        assertEquals(17, count("SELECT COUNT(*) FROM people WHERE name IS NULL"));
+    }
+
+    @Test
+    void testInsertHintIsPlacedAfterInsertKeyword() {
+        try (PreparedInsertWriter writer = new PreparedInsertWriter(dataSource, "people", "APPEND_VALUES")) {
+            assertEquals("INSERT /*+ APPEND_VALUES */ INTO people (id, name) VALUES (?,?)", writer.describe(LAYOUT));
+        }
+    }
+
+    @Test
+    void testUpsertPlanUpdatesExistingRows() throws Exception {
+        // SQLite accepts the PostgreSQL ON CONFLICT form
+        try (PreparedInsertWriter writer = new PreparedInsertWriter(dataSource, "people",
+                layout -> InsertPlan.upsert("people", layout, "postgresql", Collections.singletonList("ID")))) {
+            RowBatch first = new RowBatch(LAYOUT, 2);
+            first.add(new Object[]{1, "a", 1});
+            first.add(new Object[]{2, "b", 2});
+            writer.write(first);
+
+            RowBatch second = new RowBatch(LAYOUT, 2);
+            second.add(new Object[]{2, "b2", 1});
+            second.add(new Object[]{3, "c", 2});
+            writer.write(second);
+        }
+        assertEquals(3, count("SELECT COUNT(*) FROM people"));
+        assertEquals(1, count("SELECT COUNT(*) FROM people WHERE id = 2 AND name = 'b2'"));
+    }
+
+    @Test
+    void testFailedStatementIsReplaced() throws Exception {
+        try (PreparedInsertWriter writer = new PreparedInsertWriter(dataSource, "people")) {
+            RowBatch first = new RowBatch(LAYOUT, 1);
+            first.add(new Object[]{1, "a", 1});
+            writer.insert(first);
+
+            // Duplicate primary key fails the batch and the pinned statement is discarded
+            assertThrows(SQLException.class, () -> writer.insert(first));
+
+            RowBatch second = new RowBatch(LAYOUT, 1);
+            second.add(new Object[]{2, "b", 2});
+            writer.insert(second);
+            assertEquals(2, writer.getPrepareCount());
+        }
+        assertEquals(2, count("SELECT COUNT(*) FROM people"));
+    }
+
+    @Test
+    void testFailedBatchLeavesNoPartialRows() throws Exception {
+        try (PreparedInsertWriter writer = new PreparedInsertWriter(dataSource, "people")) {
+            RowBatch first = new RowBatch(LAYOUT, 1);
+            first.add(new Object[]{3, "c", 1});
+            writer.insert(first);
+
+            // Rows 1 and 2 are sent before the duplicate key fails; the whole batch is rolled back
+            RowBatch partial = new RowBatch(LAYOUT, 3);
+            partial.add(new Object[]{1, "a", 1});
+            partial.add(new Object[]{2, "b", 2});
+            partial.add(new Object[]{3, "c", 3});
+            assertThrows(SQLException.class, () -> writer.insert(partial));
+        }
+        assertEquals(1, count("SELECT COUNT(*) FROM people"));
+    }
+
+    private int count(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.dbsync.dbsync.sync;
+
+import com.dbsync.dbsync.entity.ForeignKeyInfo;
+import com.dbsync.dbsync.entity.IndexInfo;
+import com.dbsync.dbsync.util.DatabaseMetadataUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 影子表替换语句、索引DDL生成及索引定义读取测试
+ */
+class StagingSwapTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static IndexInfo primaryKey() {
+        IndexInfo index = new IndexInfo("orders_pkey", true, true);
+        index.addColumn("id", false);
+        return index;
+    }
+
+    private static IndexInfo index() {
+        IndexInfo index = new IndexInfo("idx_orders_created", false, false);
+        index.addColumn("customer_id", false);
+        index.addColumn("created_at", true);
+        return index;
+    }
+
+    @Test
+    void testIndexDdlPerDialect() {
+        assertEquals("ALTER TABLE orders__staging ADD CONSTRAINT orders_pkey__stg PRIMARY KEY (id)",
+                IndexDdl.createSql("postgresql", "orders__staging", primaryKey(), StagingSwap.stagingIndexName("postgresql", primaryKey())));
+        assertEquals("ALTER TABLE orders__staging ADD PRIMARY KEY (id)",
+                IndexDdl.createSql("mysql", "orders__staging", primaryKey(), StagingSwap.stagingIndexName("mysql", primaryKey())));
+        assertEquals("CREATE INDEX idx_orders_created ON orders__staging (customer_id, created_at DESC)",
+                IndexDdl.createSql("sqlserver", "orders__staging", index(), StagingSwap.stagingIndexName("sqlserver", index())));
+        assertEquals("orders_pkey__stg", StagingSwap.stagingIndexName("sqlserver", primaryKey()));
+    }
+
+    @Test
+    void testSwapRenamesTablesAndIndexesBack() {
+        List<IndexInfo> indexes = Arrays.asList(primaryKey(), index());
+        assertEquals(Arrays.asList(
+                "ALTER TABLE orders RENAME TO orders__old",
+                "ALTER TABLE orders__staging RENAME TO orders",
+                "DROP TABLE orders__old",
+                "ALTER TABLE orders RENAME CONSTRAINT orders_pkey__stg TO orders_pkey",
+                "ALTER INDEX idx_orders_created__stg RENAME TO idx_orders_created"),
+                StagingSwap.swapSql("postgresql", "ORDERS", "orders__staging", indexes));
+        assertEquals(Arrays.asList(
+                "RENAME TABLE orders TO orders__old, orders__staging TO orders",
+                "DROP TABLE orders__old"),
+                StagingSwap.swapSql("mysql", "orders", "orders__staging", indexes));
+        assertEquals("DROP TABLE orders__old PURGE", StagingSwap.swapSql("oracle", "orders", "orders__staging", indexes).get(2));
+        assertTrue(StagingSwap.isTransactional("vastbase"));
+        assertFalse(StagingSwap.isTransactional("oracle"));
+    }
+
+    @Test
+    void testNamesStayWithinIdentifierLimit() {
+        String longName = "customer_order_line_history_x";
+        String staging = StagingSwap.stagingTableName("oracle", longName);
+        assertEquals(30, staging.length());
+        assertTrue(staging.endsWith(StagingSwap.STAGING_SUFFIX));
+        assertEquals(longName + StagingSwap.STAGING_SUFFIX, StagingSwap.stagingTableName("postgresql", longName));
+    }
+
+    @Test
+    void testIndexDefinitionsSkipPrimaryKeyIndex() throws Exception {
+        String url = "jdbc:sqlite:" + tempDir.resolve("indexes.db");
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE orders (id INTEGER NOT NULL, line INTEGER NOT NULL, code TEXT, customer_id INTEGER, " +
+                    "PRIMARY KEY (id, line))");
+            statement.execute("CREATE UNIQUE INDEX uk_orders_code ON orders (code)");
+            statement.execute("CREATE INDEX idx_orders_customer ON orders (customer_id, line)");
+
+            List<IndexInfo> indexes = DatabaseMetadataUtil.getIndexDefinitions(connection, null, "orders");
+            assertEquals(3, indexes.size());
+            assertTrue(indexes.get(0).getPrimaryKey());
+            assertEquals(Arrays.asList("id", "line"), indexes.get(0).getColumnNames());
+            IndexInfo unique = indexes.stream().filter(i -> "uk_orders_code".equals(i.getIndexName())).findFirst().orElseThrow(AssertionError::new);
+            assertTrue(unique.getUnique());
+            IndexInfo plain = indexes.stream().filter(i -> "idx_orders_customer".equals(i.getIndexName())).findFirst().orElseThrow(AssertionError::new);
+            assertFalse(plain.getUnique());
+            assertEquals(Arrays.asList("customer_id", "line"), plain.getColumnNames());
+        }
+    }
+
+    @Test
+    void testForeignKeysDecideWhetherTheSwapIsAllowed() {
+        ForeignKeyInfo toCustomers = new ForeignKeyInfo("fk_orders_customer", "ORDERS", "CUSTOMERS");
+        ForeignKeyInfo selfReference = new ForeignKeyInfo("fk_orders_parent", "ORDERS", "ORDERS");
+        ForeignKeyInfo fromItems = new ForeignKeyInfo("fk_items_order", "ORDER_ITEMS", "ORDERS");
+
+        // 自身声明的外键（含自引用）替换后重建，不妨碍替换
+        List<ForeignKeyInfo> own = Arrays.asList(toCustomers, selfReference);
+        assertTrue(StagingSwap.referencingTables("orders", own).isEmpty());
+        assertEquals(own, StagingSwap.ownForeignKeys("orders", own));
+
+        // 被其他表引用时不能替换，子表的外键不由本表重建
+        List<ForeignKeyInfo> all = Arrays.asList(toCustomers, selfReference, fromItems);
+        assertEquals(Collections.singleton("ORDER_ITEMS"), StagingSwap.referencingTables("orders", all));
+        assertEquals(own, StagingSwap.ownForeignKeys("orders", all));
+    }
+}
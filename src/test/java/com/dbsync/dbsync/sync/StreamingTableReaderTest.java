@@ -0,0 +1,74 @@
+package com.dbsync.dbsync.sync;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 流式读取器测试（使用内存SQLite）
+ */
+class StreamingTableReaderTest {
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE events (name TEXT, amount INTEGER)");
+        }
+        try (PreparedStatement ps = connection.prepareStatement("INSERT INTO events VALUES (?, ?)")) {
+            for (int i = 0; i < 25; i++) {
+                ps.setString(1, "e" + i);
+                ps.setInt(2, i);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        connection.close();
+    }
+
+    @Test
+    void testReadsWholeTableInBoundedChunks() throws Exception {
+        int total = 0;
+        int batches = 0;
+        try (StreamingTableReader reader = new StreamingTableReader(connection, "sqlite", "events", 10, 100)) {
+            RowBatch batch;
+            while (!(batch = reader.nextBatch()).isEmpty()) {
+                assertTrue(batch.size() <= 10);
+                total += batch.size();
+                batches++;
+            }
+            // Once exhausted the reader keeps returning empty batches
+            assertTrue(reader.nextBatch().isEmpty());
+        }
+        assertEquals(25, total);
+        assertEquals(3, batches);
+    }
+
+    @Test
+    void testRowsKeepNullColumns() throws Exception {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("DELETE FROM events");
+            stmt.execute("INSERT INTO events VALUES ('only', NULL)");
+        }
+        try (StreamingTableReader reader = new StreamingTableReader(connection, "sqlite", "events", 10, 100)) {
+            RowBatch batch = reader.nextBatch();
+            ColumnLayout layout = batch.getLayout();
+            assertEquals(2, layout.size());
+            assertEquals("only", batch.get(0, layout.indexOf("name")));
+            assertNull(batch.get(0, layout.indexOf("amount")));
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.dbsync.dbsync.sync;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sqlite.SQLiteDataSource;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 差异同步测试（源和目标为两个SQLite文件库，方言不同时在本地计算校验值）
+ */
+class TableDifferTest {
+
+    @TempDir
+    Path tempDir;
+
+    private SQLiteDataSource sourceDataSource;
+    private SQLiteDataSource targetDataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        sourceDataSource = createDatabase("source.db");
+        targetDataSource = createDatabase("target.db");
+    }
+
+    @Test
+    void testOnlyDifferingRowsAreWritten() throws Exception {
+        execute(targetDataSource, "UPDATE orders SET note = 'stale' WHERE id = 150");
+        execute(targetDataSource, "DELETE FROM orders WHERE id = 420");
+        execute(targetDataSource, "INSERT INTO orders VALUES (999, 'c999', 'gone')");
+        execute(sourceDataSource, "INSERT INTO orders VALUES (1000, 'c1000', 'new')");
+
+        TableDiffResult result = diff(50);
+
+        assertEquals(2, result.getInserted());
+        assertEquals(1, result.getUpdated());
+        assertEquals(1, result.getDeleted());
+        // Only the mismatching halves are compared row by row
+        assertTrue(result.getRowsCompared() < 500, "compared " + result.getRowsCompared());
+        assertEquals(0, count(targetDataSource, "SELECT COUNT(*) FROM orders WHERE id = 999"));
+        assertEquals(1, count(targetDataSource, "SELECT COUNT(*) FROM orders WHERE id = 150 AND note = 'n150'"));
+        assertEquals(1, count(targetDataSource, "SELECT COUNT(*) FROM orders WHERE id = 1000"));
+
+        TableDiffResult second = diff(50);
+        assertEquals(0, second.getRowsWritten());
+        assertEquals(0, second.getChunksMismatched());
+    }
+
+    @Test
+    void testVerifyNarrowsMismatchesWithoutWriting() throws Exception {
+        execute(targetDataSource, "UPDATE orders SET note = 'stale' WHERE id = 321");
+        TableDiffResult result;
+        try (Connection source = sourceDataSource.getConnection();
+             Connection target = targetDataSource.getConnection()) {
+            TableDiffer differ = new TableDiffer(source, "mysql", "orders", target, "postgresql", "orders",
+                    Collections.singletonList("id"), null, 50, 0, 0);
+            result = differ.verify(Arrays.asList(TableRange.keyRange(0, "id", null, 250L),
+                    TableRange.keyRange(1, "id", 250L, null)), () -> false);
+        }
+        assertFalse(result.isMatched());
+        assertEquals(500, result.getSourceRows());
+        assertEquals(500, result.getTargetRows());
+        assertEquals(1, result.getMismatchedRanges().size());
+        TableRange mismatch = result.getMismatchedRanges().get(0);
+        assertTrue(((Number) mismatch.getLower()).longValue() <= 321 && ((Number) mismatch.getUpper()).longValue() > 321);
+        assertTrue(((Number) mismatch.getUpper()).longValue() - ((Number) mismatch.getLower()).longValue() <= 50);
+        assertEquals(1, count(targetDataSource, "SELECT COUNT(*) FROM orders WHERE note = 'stale'"));
+    }
+
+    @Test
+    void testChunkTooLargeToCompareIsRejected() throws Exception {
+        execute(targetDataSource, "UPDATE orders SET code = 'x' WHERE id = 10");
+        try (Connection source = sourceDataSource.getConnection();
+             Connection target = targetDataSource.getConnection();
+             ChangeApplier applier = new ChangeApplier(targetDataSource, "postgresql", table -> Collections.singletonList("id"))) {
+            TableDiffer differ = new TableDiffer(source, "mysql", "orders", target, "postgresql", "orders",
+                    Collections.singletonList("code"), applier, 50, 100, 100);
+            assertThrows(TableDiffer.ChunkTooLargeException.class, () -> differ.diff(Collections.singletonList(
+                    TableRange.keyRange(0, "code", null, null)), rows -> { }, () -> false));
+        }
+    }
+
+    private TableDiffResult diff(int chunkRows) throws SQLException {
+        AtomicLong progress = new AtomicLong();
+        try (Connection source = sourceDataSource.getConnection();
+             Connection target = targetDataSource.getConnection();
+             ChangeApplier applier = new ChangeApplier(targetDataSource, "postgresql", table -> Collections.singletonList("id"))) {
+            TableDiffer differ = new TableDiffer(source, "mysql", "orders", target, "postgresql", "orders",
+                    Collections.singletonList("id"), applier, chunkRows, 1000, 100);
+            TableDiffResult result = differ.diff(Collections.singletonList(TableRange.keyRange(0, "id", null, null)),
+                    progress::addAndGet, () -> false);
+            assertEquals(count(sourceDataSource, "SELECT COUNT(*) FROM orders"), progress.get());
+            return result;
+        }
+    }
+
+    private SQLiteDataSource createDatabase(String fileName) throws SQLException {
+        SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + tempDir.resolve(fileName));
+        try (Connection connection = dataSource.getConnection();
+             Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE orders (id INTEGER PRIMARY KEY, code TEXT, note TEXT)");
+            connection.setAutoCommit(false);
+            try (PreparedStatement ps = connection.prepareStatement("INSERT INTO orders VALUES (?, ?, ?)")) {
+                for (int i = 1; i <= 500; i++) {
+                    ps.setInt(1, i);
+                    ps.setString(2, "c" + i);
+                    ps.setString(3, i % 7 == 0 ? null : "n" + i);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            connection.commit();
+        }
+        return dataSource;
+    }
+
+    private void execute(SQLiteDataSource dataSource, String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement stmt = connection.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    private long count(SQLiteDataSource dataSource, String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.dbsync.dbsync.sync;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 单表分片测试（使用内存SQLite）
+ */
+class TableRangeSplitterTest {
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE orders (id INTEGER PRIMARY KEY, code TEXT)");
+        }
+        try (PreparedStatement ps = connection.prepareStatement("INSERT INTO orders VALUES (?, ?)")) {
+            for (int i = 1; i <= 100; i++) {
+                ps.setInt(1, i);
+                ps.setString(2, "c" + i);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        connection.close();
+    }
+
+    @Test
+    void testIntegralKeySplitsIntoContiguousOpenEndedRanges() {
+        List<TableRange> ranges = new TableRangeSplitter().split(connection, "sqlite",
+                SourceReadPlan.keyset(Collections.singletonList("id")), "orders", null, 4);
+
+        assertEquals(4, ranges.size());
+        assertNull(ranges.get(0).getLower());
+        assertNull(ranges.get(3).getUpper());
+        for (int i = 1; i < ranges.size(); i++) {
+            assertEquals(ranges.get(i - 1).getUpper(), ranges.get(i).getLower());
+        }
+        assertEquals(26L, ranges.get(0).getUpper());
+        assertEquals(76L, ranges.get(2).getUpper());
+    }
+
+    @Test
+    void testNonIntegralKeyIsNotSplit() {
+        assertTrue(new TableRangeSplitter().split(connection, "sqlite",
+                SourceReadPlan.keyset(Collections.singletonList("code")), "orders", null, 4).isEmpty());
+    }
+
+    @Test
+    void testNarrowKeyRangeLimitsRangeCount() throws Exception {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("DELETE FROM orders WHERE id > 3");
+        }
+        List<TableRange> ranges = new TableRangeSplitter().split(connection, "sqlite",
+                SourceReadPlan.keyset(Collections.singletonList("id")), "orders", null, 8);
+
+        assertEquals(3, ranges.size());
+    }
+
+    @Test
+    void testWideKeyBoundariesAreExact() {
+        // NUMBER(38)键：超出long范围的分界点不能截断
+        BigInteger min = new BigInteger("90000000000000000000000000000000000000").negate();
+        BigInteger max = new BigInteger("90000000000000000000000000000000000000");
+        List<Object> boundaries = TableRangeSplitter.keyBoundaries(min, max, 4);
+
+        assertEquals(3, boundaries.size());
+        BigInteger previous = min;
+        for (Object boundary : boundaries) {
+            assertTrue(boundary instanceof BigDecimal || boundary instanceof Long, String.valueOf(boundary));
+            BigInteger value = new BigDecimal(boundary.toString()).toBigIntegerExact();
+            assertTrue(value.compareTo(previous) > 0);
+            assertTrue(value.compareTo(max) <= 0);
+            previous = value;
+        }
+        assertEquals(new BigDecimal("-45000000000000000000000000000000000000"), boundaries.get(0));
+        assertEquals(0L, boundaries.get(1));
+        assertEquals(new BigDecimal("45000000000000000000000000000000000000"), boundaries.get(2));
+    }
+
+    @Test
+    void testKeyBoundariesJustAboveLongRange() {
+        BigInteger min = BigInteger.valueOf(Long.MAX_VALUE);
+        List<Object> boundaries = TableRangeSplitter.keyBoundaries(min, min.add(BigInteger.valueOf(99)), 4);
+
+        assertEquals(Arrays.asList(new BigDecimal(min.add(BigInteger.valueOf(25))),
+                new BigDecimal(min.add(BigInteger.valueOf(50))), new BigDecimal(min.add(BigInteger.valueOf(75)))), boundaries);
+    }
+}
@@ -0,0 +1,113 @@
+package com.dbsync.dbsync.sync;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 表级并行调度测试
+ */
+class TableSyncSchedulerTest {
+
+    @Test
+    void testLargestTablesFirstAndUnknownLast() {
+        Map<String, Long> rowCounts = new HashMap<>();
+        rowCounts.put("small", 10L);
+        rowCounts.put("huge", 1000000L);
+        rowCounts.put("medium", 5000L);
+
+        assertEquals(Arrays.asList("huge", "medium", "small", "missing"),
+                TableSyncScheduler.largestFirst(Arrays.asList("small", "missing", "huge", "medium"), rowCounts));
+    }
+
+    @Test
+    void testRunsEveryTableWithinParallelism() throws Exception {
+        List<String> tables = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            tables.add("t" + i);
+        }
+        Map<String, Boolean> synced = new ConcurrentHashMap<>();
+        ConcurrencyProbe probe = new ConcurrencyProbe();
+
+        new TableSyncScheduler(100).run("1", tables, 3, Arrays.asList(1L, 2L), table -> {
+            probe.enter();
+            synced.put(table, true);
+            probe.exit();
+        });
+
+        assertEquals(20, synced.size());
+        assertTrue(probe.peak.get() <= 3, "peak " + probe.peak.get());
+    }
+
+    @Test
+    void testConnectionCapIsSharedAcrossTasks() throws Exception {
+        TableSyncScheduler scheduler = new TableSyncScheduler(2);
+        ConcurrencyProbe probe = new ConcurrencyProbe();
+        TableSyncScheduler.TableJob job = table -> {
+            probe.enter();
+            probe.exit();
+        };
+        List<String> tables = Arrays.asList("a", "b", "c", "d", "e", "f");
+
+        // Two tasks of parallelism 4 share connection 7, so at most 2 tables may run at once
+        Thread other = new Thread(() -> {
+            try {
+                scheduler.run("2", tables, 4, Arrays.asList(7L, 9L), job);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        other.start();
+        scheduler.run("1", tables, 4, Collections.singletonList(7L), job);
+        other.join();
+
+        assertTrue(probe.peak.get() <= 2, "peak " + probe.peak.get());
+    }
+
+    @Test
+    void testTablesPerConnectionFitThePool() {
+        // 4个分片各1个写入线程加表级会话：每张表5个连接
+        assertEquals(5, TableSyncScheduler.connectionsPerTable(4, 1, 0, 0));
+        // 每个分片2个写入线程，校验和建索引阶段占用更少
+        assertEquals(9, TableSyncScheduler.connectionsPerTable(4, 2, 4, 4));
+        // 不分片时校验并行度决定占用
+        assertEquals(8, TableSyncScheduler.connectionsPerTable(1, 1, 0, 8));
+        assertEquals(5, TableSyncScheduler.connectionsPerTable(1, 1, 4, 0));
+
+        assertEquals(4, TableSyncScheduler.tablesWithinPool(4, 20, 5));
+        assertEquals(2, TableSyncScheduler.tablesWithinPool(4, 20, 9));
+        assertEquals(1, TableSyncScheduler.tablesWithinPool(4, 5, 9));
+        assertEquals(3, TableSyncScheduler.tablesWithinPool(3, 100, 5));
+    }
+
+    /**
+     * 记录同时运行的最大数量
+     */
+    private static class ConcurrencyProbe {
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger peak = new AtomicInteger();
+
+        void enter() {
+            int now = running.incrementAndGet();
+            peak.accumulateAndGet(now, Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        void exit() {
+            running.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.dbsync.dbsync.sync;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * test_decoding变更消息解析测试
+ */
+class TestDecodingParserTest {
+
+    @Test
+    void testInsertWithQuotedValuesAndTypes() {
+        ChangeEvent event = TestDecodingParser.parse("table public.orders: INSERT: id[integer]:1 note[text]:'it''s a b' " +
+                "amount[numeric]:12.50 paid[boolean]:true day[date]:'2024-03-01' " +
+                "at[timestamp without time zone]:'2024-03-01 10:20:30.5' gone[text]:null");
+
+        assertEquals(ChangeEvent.Operation.INSERT, event.getOperation());
+        assertEquals("public", event.getSchemaName());
+        assertEquals("orders", event.getTableName());
+        assertArrayEquals(new String[]{"id", "note", "amount", "paid", "day", "at", "gone"}, event.getColumnNames());
+        assertArrayEquals(new Object[]{1L, "it's a b", new BigDecimal("12.50"), true, Date.valueOf("2024-03-01"),
+                Timestamp.valueOf("2024-03-01 10:20:30.5"), null}, event.getValues());
+        assertNull(event.getOldKeyColumns());
+    }
+
+    @Test
+    void testUpdateWithOldKeyAndUnchangedToast() {
+        ChangeEvent event = TestDecodingParser.parse("table \"Sales\".\"Order Lines\": UPDATE: old-key: id[bigint]:7 " +
+                "new-tuple: id[bigint]:8 body[text]:unchanged-toast-datum tags[character varying[]]:'{a,b}'");
+
+        assertEquals(ChangeEvent.Operation.UPDATE, event.getOperation());
+        assertEquals("Sales", event.getSchemaName());
+        assertEquals("Order Lines", event.getTableName());
+        assertArrayEquals(new String[]{"id", "tags"}, event.getColumnNames());
+        assertArrayEquals(new Object[]{8L, "{a,b}"}, event.getValues());
+        assertArrayEquals(new String[]{"id"}, event.getOldKeyColumns());
+        assertArrayEquals(new Object[]{7L}, event.getOldKeyValues());
+    }
+
+    @Test
+    void testDeleteAndNonRowMessages() {
+        ChangeEvent delete = TestDecodingParser.parse("table public.orders: DELETE: id[integer]:3");
+        assertEquals(ChangeEvent.Operation.DELETE, delete.getOperation());
+        assertArrayEquals(new Object[]{3L}, delete.getValues());
+
+        assertEquals(0, TestDecodingParser.parse("table public.logs: DELETE: (no-tuple-data)").getColumnNames().length);
+        assertNull(TestDecodingParser.parse("BEGIN"));
+        assertNull(TestDecodingParser.parse("table public.orders: TRUNCATE: (no-flags)"));
+        assertTrue(TestDecodingParser.isCommit("COMMIT"));
+    }
+
+    @Test
+    void testTimestampWithZoneAndUnconvertibleValues() {
+        assertEquals(Timestamp.from(java.time.Instant.parse("2024-03-01T02:00:00Z")),
+                TestDecodingParser.convert("timestamp with time zone", "2024-03-01 10:00:00+08"));
+        assertEquals("NaN", TestDecodingParser.convert("numeric", "NaN"));
+        assertEquals("infinity", TestDecodingParser.convert("timestamp without time zone", "infinity"));
+    }
+}
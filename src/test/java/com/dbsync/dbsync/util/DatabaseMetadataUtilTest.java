@@ -0,0 +1,48 @@
+package com.dbsync.dbsync.util;
+
+import com.dbsync.dbsync.dto.TablePageRequest;
+import com.dbsync.dbsync.dto.TablePageResponse;
+import com.dbsync.dbsync.entity.TableInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 表信息批量加载测试
+ */
+class DatabaseMetadataUtilTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testTableDetailsLoadedForWholeSchema() throws Exception {
+        String url = "jdbc:sqlite:" + tempDir.resolve("meta.db");
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE customers (id INTEGER PRIMARY KEY, name TEXT, email TEXT)");
+            statement.execute("CREATE TABLE audit_log (message TEXT, created_at TEXT)");
+
+            TablePageResponse<TableInfo> page = DatabaseMetadataUtil.getTablesWithPagination(
+                    connection, "sqlite", null, null, new TablePageRequest(1, 50));
+
+            Map<String, TableInfo> tables = new HashMap<>();
+            for (TableInfo table : page.getData()) {
+                tables.put(table.getTableName(), table);
+            }
+            assertEquals(3, tables.get("customers").getColumnCount().intValue());
+            assertTrue(tables.get("customers").getHasPrimaryKey());
+            assertEquals("id", tables.get("customers").getPrimaryKeyColumn());
+            assertEquals(2, tables.get("audit_log").getColumnCount().intValue());
+            assertFalse(tables.get("audit_log").getHasPrimaryKey());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.dbsync.dbsync.util;
+
+import com.dbsync.dbsync.entity.TableSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 元数据快照增量刷新测试
+ */
+class SchemaSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testOnlyChangedTablesAreReloaded() throws Exception {
+        String url = "jdbc:sqlite:" + tempDir.resolve("snapshot.db");
+        SchemaSnapshot.ConnectionSource source = () -> DriverManager.getConnection(url);
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE customers (id INTEGER PRIMARY KEY, name TEXT)");
+            statement.execute("CREATE TABLE orders (id INTEGER PRIMARY KEY, customer_id INTEGER)");
+            statement.execute("CREATE INDEX idx_orders_customer ON orders (customer_id)");
+
+            SchemaSnapshot snapshot = new SchemaSnapshot("sqlite", null, null, 0);
+            TableSnapshot customers = snapshot.getTable(source, "customers");
+            TableSnapshot orders = snapshot.getTable(source, "ORDERS");
+            assertEquals(2, customers.getColumns().size());
+            assertEquals(Collections.singletonList("id"), customers.getPrimaryKeyColumns());
+            assertEquals("orders", orders.getTableName());
+            assertEquals(2, orders.getIndexes().size()); // 主键和idx_orders_customer
+
+            statement.execute("ALTER TABLE customers ADD COLUMN email TEXT");
+
+            TableSnapshot reloaded = snapshot.getTable(source, "customers");
+            assertNotSame(customers, reloaded);
+            assertEquals(3, reloaded.getColumns().size());
+            assertSame(orders, snapshot.getTable(source, "orders"));
+
+            statement.execute("DROP TABLE orders");
+            assertNull(snapshot.getTable(source, "orders"));
+            assertEquals(1, snapshot.getLoadedTableCount());
+        }
+    }
+
+    @Test
+    void testChangeMarkersAreNotCheckedWithinInterval() throws Exception {
+        String url = "jdbc:sqlite:" + tempDir.resolve("interval.db");
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE customers (id INTEGER PRIMARY KEY)");
+
+            AtomicInteger opened = new AtomicInteger();
+            SchemaSnapshot snapshot = new SchemaSnapshot("sqlite", null, null, 60_000);
+            SchemaSnapshot.ConnectionSource source = () -> {
+                opened.incrementAndGet();
+                return DriverManager.getConnection(url);
+            };
+            TableSnapshot first = snapshot.getTable(source, "customers");
+            int afterFirstLoad = opened.get();
+            assertSame(first, snapshot.getTable(source, "customers"));
+            assertEquals(afterFirstLoad, opened.get());
+        }
+    }
+
+    @Test
+    void testLoadedStructuresFollowChangeMarkers() throws Exception {
+        String url = "jdbc:sqlite:" + tempDir.resolve("structure.db");
+        SchemaSnapshot.ConnectionSource source = () -> DriverManager.getConnection(url);
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE customers (id INTEGER PRIMARY KEY, name TEXT)");
+
+            SchemaSnapshot snapshot = new SchemaSnapshot("sqlite", null, null, 0);
+            AtomicInteger loads = new AtomicInteger();
+            Supplier<List<Map<String, Object>>> loader = () -> {
+                loads.incrementAndGet();
+                return Collections.singletonList(Collections.<String, Object>singletonMap("COLUMN_NAME", "ID"));
+            };
+            List<Map<String, Object>> first = snapshot.getStructure(source, "CUSTOMERS", loader);
+            assertSame(first, snapshot.getStructure(source, "customers", loader));
+            assertEquals(1, loads.get());
+
+            // 表结构变化后重新加载
+            statement.execute("ALTER TABLE customers ADD COLUMN email TEXT");
+            snapshot.getStructure(source, "customers", loader);
+            assertEquals(2, loads.get());
+
+            // 不在表清单中的表每次都调用loader
+            snapshot.getStructure(source, "missing", loader);
+            snapshot.getStructure(source, "missing", loader);
+            assertEquals(4, loads.get());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.dbsync.dbsync.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 表浏览数据库端分页查询生成测试
+ */
+class TableCatalogQueryTest {
+
+    @Test
+    void testSearchSortAndPagePushedIntoCatalogQuery() {
+        TableCatalogQuery query = TableCatalogQuery.build("postgresql", "public", "Order_", "columns", "desc", 100, 50, false);
+
+        assertTrue(query.getPageSql().contains("c.relname ILIKE ? ESCAPE '!'"));
+        assertTrue(query.getPageSql().endsWith("ORDER BY column_count DESC, table_name DESC LIMIT 50 OFFSET 100"));
+        assertTrue(query.getCountSql().startsWith("SELECT COUNT(*) FROM pg_class c"));
+        assertFalse(query.getCountSql().contains("ORDER BY"));
+        assertEquals(Arrays.asList("public", "%order!_%", "%order!_%"), query.getParameters());
+    }
+
+    @Test
+    void testDialectPaging() {
+        assertTrue(TableCatalogQuery.build("sqlserver", "dbo", null, "name", "asc", 0, 20, true).getPageSql()
+                .endsWith("ORDER BY table_name ASC OFFSET 0 ROWS FETCH NEXT 20 ROWS ONLY"));
+        TableCatalogQuery oracle = TableCatalogQuery.build("oracle", null, "a%b", "type", "asc", 40, 20, false);
+        assertTrue(oracle.getPageSql().contains("ROW_NUMBER() OVER (ORDER BY table_type ASC, table_name ASC)"));
+        assertTrue(oracle.getPageSql().contains("WHERE rn > 40 AND rn <= 60"));
+        assertTrue(oracle.getCountSql().contains("LOWER(t.table_name) LIKE ? ESCAPE '!'"));
+        assertEquals(Arrays.asList("%a!%b%", "%a!%b%"), oracle.getParameters());
+        assertEquals(Collections.singletonList("shop"),
+                TableCatalogQuery.build("mysql", "shop", null, "name", "asc", 0, 20, true).getParameters());
+        assertFalse(TableCatalogQuery.supports("sqlite"));
+    }
+
+    @Test
+    void testBracketEscapedOnlyForSqlServer() {
+        assertEquals("!!a![b", TableCatalogQuery.escapeLike("!a[b", true));
+        assertEquals("!!a[b", TableCatalogQuery.escapeLike("!a[b", false));
+    }
+}